@@ -0,0 +1,98 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedMessageQueueSemantics;
+import com.typesafe.config.Config;
+import scala.Option;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An unbounded mailbox that keeps its size in a counter, so that it can be read cheaply by the
+ * {@code SmallestMailboxRoutingLogic} and by {@link #sizeOf(ActorRef)}, and that remembers the largest size it
+ * reached. Actors use it through the {@value #CONFIG} mailbox configured in {@code application.conf}.
+ */
+public class InstrumentedMailbox implements MailboxType, ProducesMessageQueue<InstrumentedMailbox.InstrumentedMessageQueue> {
+
+    public static final String CONFIG = "word-count-mailbox";
+
+    private static final Map<ActorRef, InstrumentedMessageQueue> queues = new ConcurrentHashMap<>();
+
+    public InstrumentedMailbox(ActorSystem.Settings settings, Config config) {
+    }
+
+    @Override
+    public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+        InstrumentedMessageQueue queue = new InstrumentedMessageQueue();
+        if (owner.isDefined()) {
+            queues.put(owner.get(), queue);
+        }
+        return queue;
+    }
+
+    /**
+     * @return the number of messages waiting for {@code actor}, 0 when it does not use this mailbox
+     */
+    public static int sizeOf(ActorRef actor) {
+        InstrumentedMessageQueue queue = queues.get(actor);
+        return queue == null ? 0 : queue.numberOfMessages();
+    }
+
+    /**
+     * @return the largest number of messages that waited for {@code actor} since the previous call
+     */
+    public static int maxSizeOf(ActorRef actor) {
+        InstrumentedMessageQueue queue = queues.get(actor);
+        return queue == null ? 0 : queue.maxSize.getAndSet(queue.numberOfMessages());
+    }
+
+    public static class InstrumentedMessageQueue implements MessageQueue, UnboundedMessageQueueSemantics {
+
+        private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger maxSize = new AtomicInteger();
+
+        @Override
+        public void enqueue(ActorRef receiver, Envelope handle) {
+            queue.offer(handle);
+            maxSize.accumulateAndGet(size.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public Envelope dequeue() {
+            Envelope handle = queue.poll();
+            if (handle != null) {
+                size.decrementAndGet();
+            }
+            return handle;
+        }
+
+        @Override
+        public int numberOfMessages() {
+            return size.get();
+        }
+
+        @Override
+        public boolean hasMessages() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+            queues.remove(owner);
+            Envelope handle;
+            while ((handle = dequeue()) != null) {
+                deadLetters.enqueue(owner, handle);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One node of the merge tree: waits for the partial counts of its {@code expected} children, shards or other
+ * mergers, and sends their sum to its parent. Merging this way spreads the work over several actors instead of
+ * funnelling every shard's table through the coordinator.
+ */
+public class MergeActor extends AbstractActor {
+
+    private final int expected;
+    private final ActorRef parent;
+    private WordCounts merged;
+    private List<ShardStats> stats = new ArrayList<>();
+    private int received;
+
+    public MergeActor(int expected, ActorRef parent) {
+        this.expected = expected;
+        this.parent = parent;
+    }
+
+    public static Props props(int expected, ActorRef parent) {
+        return Props.create(MergeActor.class, expected, parent);
+    }
+
+    public static final class PartialCounts {
+        final WordCounts counts;
+        final List<ShardStats> stats;
+
+        public PartialCounts(WordCounts counts, ShardStats stats) {
+            this(counts, Collections.singletonList(stats));
+        }
+
+        public PartialCounts(WordCounts counts, List<ShardStats> stats) {
+            this.counts = counts;
+            this.stats = stats;
+        }
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(PartialCounts.class, partial -> {
+                    if (merged == null) {
+                        merged = partial.counts;
+                    } else if (partial.counts.size() > merged.size()) {
+                        // add the smaller table into the larger one
+                        partial.counts.addAll(merged);
+                        merged = partial.counts;
+                    } else {
+                        merged.addAll(partial.counts);
+                    }
+                    stats.addAll(partial.stats);
+                    if (++received == expected) {
+                        parent.tell(new PartialCounts(merged, stats), getSelf());
+                        merged = null;
+                        stats = new ArrayList<>();
+                        received = 0;
+                    }
+                })
+                .build();
+    }
+}
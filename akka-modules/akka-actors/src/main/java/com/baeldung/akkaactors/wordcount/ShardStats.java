@@ -0,0 +1,56 @@
+package com.baeldung.akkaactors.wordcount;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one {@link WordCountShard} did for a count: the batches and lines it processed, the time it spent on them and
+ * the largest backlog in its mailbox.
+ */
+public final class ShardStats {
+
+    private final String shard;
+    private final long batches;
+    private final long lines;
+    private final long busyNanos;
+    private final int maxMailboxSize;
+
+    public ShardStats(String shard, long batches, long lines, long busyNanos, int maxMailboxSize) {
+        this.shard = shard;
+        this.batches = batches;
+        this.lines = lines;
+        this.busyNanos = busyNanos;
+        this.maxMailboxSize = maxMailboxSize;
+    }
+
+    public String getShard() {
+        return shard;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    public int getMaxMailboxSize() {
+        return maxMailboxSize;
+    }
+
+    /**
+     * @return lines per second of processing time, not counting the time the shard was idle
+     */
+    public double getLinesPerSecond() {
+        return busyNanos == 0 ? 0 : lines * (double) TimeUnit.SECONDS.toNanos(1) / busyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d batches, %d lines, %.0f lines/s, max mailbox %d", shard, batches, lines, getLinesPerSecond(), maxMailboxSize);
+    }
+}
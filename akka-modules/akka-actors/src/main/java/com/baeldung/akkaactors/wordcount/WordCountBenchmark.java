@@ -0,0 +1,115 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static akka.pattern.PatternsCS.ask;
+
+/**
+ * Counts the words of a generated text with the {@link WordCountCoordinator} on a local actor system and with a plain
+ * parallel stream, checks that both agree and prints the throughput of each.
+ * <p>
+ * Arguments: lines (default 200000), shards (available processors), lines per batch (500), merge fan-in (4).
+ */
+public class WordCountBenchmark {
+
+    private static final int WARMUPS = 3;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int fanIn = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        List<String> lines = generate(lineCount, 12, 10_000);
+
+        ActorSystem system = ActorSystem.create("word-count");
+        try {
+            ActorRef coordinator = system.actorOf(WordCountCoordinator.props(shards, batchSize, fanIn), "word-count-coordinator");
+            WordCountCoordinator.WordCountResult result = null;
+            long actorNanos = 0;
+            for (int run = 0; run < WARMUPS + RUNS; run++) {
+                long start = System.nanoTime();
+                result = (WordCountCoordinator.WordCountResult) ask(coordinator, new WordCountCoordinator.CountWords(lines), 60_000).toCompletableFuture()
+                        .get();
+                if (run >= WARMUPS) {
+                    actorNanos += System.nanoTime() - start;
+                }
+            }
+
+            Map<String, Long> expected = null;
+            long streamNanos = 0;
+            for (int run = 0; run < WARMUPS + RUNS; run++) {
+                long start = System.nanoTime();
+                expected = countWithParallelStream(lines);
+                if (run >= WARMUPS) {
+                    streamNanos += System.nanoTime() - start;
+                }
+            }
+
+            verify(expected, result.getCounts());
+            System.out.printf("%d lines, %d words, %d distinct; %d shards, batches of %d, fan-in %d%n", lineCount, result.getCounts().total(),
+                    result.getCounts().size(), shards, batchSize, fanIn);
+            System.out.printf("actors:          %8.1f ms, %,.0f lines/s%n", millis(actorNanos / RUNS), lineCount / seconds(actorNanos / RUNS));
+            System.out.printf("parallel stream: %8.1f ms, %,.0f lines/s%n", millis(streamNanos / RUNS), lineCount / seconds(streamNanos / RUNS));
+            result.getShardStats()
+                    .forEach(System.out::println);
+        } finally {
+            system.terminate();
+        }
+    }
+
+    static Map<String, Long> countWithParallelStream(List<String> lines) {
+        return lines.parallelStream()
+                .flatMap(line -> Arrays.stream(line.split("\\s+")))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.groupingByConcurrent(Function.identity(), Collectors.counting()));
+    }
+
+    static List<String> generate(int lineCount, int wordsPerLine, int vocabulary) {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(lineCount);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            line.setLength(0);
+            for (int j = 0; j < wordsPerLine; j++) {
+                if (j > 0) {
+                    line.append(' ');
+                }
+                // the product of two uniform values favours a few frequent words, as in natural text
+                double skewed = random.nextDouble() * random.nextDouble();
+                line.append("word").append((int) (skewed * vocabulary));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static void verify(Map<String, Long> expected, WordCounts counts) {
+        if (expected.size() != counts.size()) {
+            throw new IllegalStateException("Expected " + expected.size() + " distinct words, counted " + counts.size());
+        }
+        expected.forEach((word, count) -> {
+            if (counts.get(word) != count) {
+                throw new IllegalStateException("Expected " + count + " times '" + word + "', counted " + counts.get(word));
+            }
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import akka.routing.ActorRefRoutee;
+import akka.routing.Broadcast;
+import akka.routing.Routee;
+import akka.routing.Router;
+import akka.routing.SmallestMailboxRoutingLogic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the words of a text with a fixed set of {@link WordCountShard}s instead of an actor per line. The lines
+ * are cut into batches of {@code batchSize}, which a router hands to the shard with the fewest messages waiting.
+ * After the last batch every shard flushes its partial counts into a tree of {@link MergeActor}s, each merging at
+ * most {@code fanIn} tables, and the root of the tree reports back here. Nothing blocks: the result is sent to the
+ * sender of {@link CountWords} once the merged counts arrive.
+ */
+public class WordCountCoordinator extends AbstractActor {
+
+    private final LoggingAdapter log = Logging.getLogger(getContext().getSystem(), this);
+
+    private final int shards;
+    private final int batchSize;
+    private final int fanIn;
+    private Router router;
+    private ActorRef replyTo;
+    private long startNanos;
+
+    public WordCountCoordinator(int shards, int batchSize, int fanIn) {
+        if (shards <= 0 || batchSize <= 0 || fanIn < 2) {
+            throw new IllegalArgumentException("shards and batchSize must be positive, fanIn at least 2");
+        }
+        this.shards = shards;
+        this.batchSize = batchSize;
+        this.fanIn = fanIn;
+    }
+
+    public static Props props(int shards, int batchSize, int fanIn) {
+        return Props.create(WordCountCoordinator.class, shards, batchSize, fanIn);
+    }
+
+    public static final class CountWords {
+        final List<String> lines;
+
+        public CountWords(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+
+    public static final class WordCountResult {
+        private final WordCounts counts;
+        private final List<ShardStats> shardStats;
+        private final long elapsedNanos;
+
+        WordCountResult(WordCounts counts, List<ShardStats> shardStats, long elapsedNanos) {
+            this.counts = counts;
+            this.shardStats = shardStats;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public WordCounts getCounts() {
+            return counts;
+        }
+
+        public List<ShardStats> getShardStats() {
+            return shardStats;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    @Override
+    public void preStart() {
+        // the mergers right above the shards, then one level after the other up to a single root
+        List<Integer> levelSizes = new ArrayList<>();
+        for (int children = shards; levelSizes.isEmpty() || children > 1; children = levelSizes.get(levelSizes.size() - 1)) {
+            levelSizes.add((children + fanIn - 1) / fanIn);
+        }
+        List<ActorRef> parents = new ArrayList<>();
+        parents.add(getSelf());
+        for (int level = levelSizes.size() - 1; level >= 0; level--) {
+            int children = level == 0 ? shards : levelSizes.get(level - 1);
+            List<ActorRef> mergers = new ArrayList<>();
+            for (int i = 0; i < levelSizes.get(level); i++) {
+                int expected = Math.min(fanIn, children - i * fanIn);
+                mergers.add(getContext().actorOf(MergeActor.props(expected, parents.get(i / fanIn)), "merger-" + level + "-" + i));
+            }
+            parents = mergers;
+        }
+
+        int expectedWordsPerShard = 1024;
+        List<Routee> routees = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            ActorRef shard = getContext().actorOf(WordCountShard.props(parents.get(i / fanIn), expectedWordsPerShard), "shard-" + i);
+            routees.add(new ActorRefRoutee(shard));
+        }
+        router = new Router(new SmallestMailboxRoutingLogic(), routees);
+        log.info("Started {} shards and {} levels of mergers", shards, levelSizes.size());
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(CountWords.class, count -> {
+                    if (replyTo != null) {
+                        getSender().tell(new Status.Failure(new IllegalStateException("Already counting a text")), getSelf());
+                        return;
+                    }
+                    replyTo = getSender();
+                    startNanos = System.nanoTime();
+                    List<String> lines = count.lines;
+                    for (int from = 0; from < lines.size(); from += batchSize) {
+                        List<String> batch = new ArrayList<>(lines.subList(from, Math.min(from + batchSize, lines.size())));
+                        router.route(new WordCountShard.LineBatch(batch), getSelf());
+                    }
+                    router.route(new Broadcast(new WordCountShard.Flush()), getSelf());
+                })
+                .match(MergeActor.PartialCounts.class, merged -> {
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    for (ShardStats stats : merged.stats) {
+                        log.debug("{}", stats);
+                    }
+                    log.info("Counted {} words, {} distinct, in {} ms", merged.counts.total(), merged.counts.size(), elapsedNanos / 1_000_000);
+                    replyTo.tell(new WordCountResult(merged.counts, merged.stats, elapsedNanos), getSelf());
+                    replyTo = null;
+                })
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+
+import java.util.List;
+
+/**
+ * Counts the words of the line batches routed to it into its own {@link WordCounts}. On {@link Flush} it hands the
+ * partial counts over to its {@link MergeActor} and starts again with an empty table.
+ */
+public class WordCountShard extends AbstractActor {
+
+    private final LoggingAdapter log = Logging.getLogger(getContext().getSystem(), this);
+
+    private final ActorRef merger;
+    private final int expectedWords;
+    private WordCounts counts;
+    private long batches;
+    private long lines;
+    private long busyNanos;
+
+    public WordCountShard(ActorRef merger, int expectedWords) {
+        this.merger = merger;
+        this.expectedWords = expectedWords;
+        this.counts = new WordCounts(expectedWords);
+    }
+
+    public static Props props(ActorRef merger, int expectedWords) {
+        return Props.create(WordCountShard.class, merger, expectedWords)
+                .withMailbox(InstrumentedMailbox.CONFIG);
+    }
+
+    public static final class LineBatch {
+        final List<String> lines;
+
+        public LineBatch(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Sent to every shard after the last batch of a text. Messages between two actors keep their order, so it
+     * arrives after all of that text's batches.
+     */
+    public static final class Flush {
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(LineBatch.class, batch -> {
+                    long start = System.nanoTime();
+                    for (String line : batch.lines) {
+                        counts.countWords(line);
+                    }
+                    busyNanos += System.nanoTime() - start;
+                    lines += batch.lines.size();
+                    batches++;
+                })
+                .match(Flush.class, flush -> {
+                    ShardStats stats = new ShardStats(getSelf().path().name(), batches, lines, busyNanos, InstrumentedMailbox.maxSizeOf(getSelf()));
+                    log.debug("Flushing {}", stats);
+                    // the table now belongs to the merger
+                    merger.tell(new MergeActor.PartialCounts(counts, stats), getSelf());
+                    counts = new WordCounts(expectedWords);
+                    batches = 0;
+                    lines = 0;
+                    busyNanos = 0;
+                })
+                .build();
+    }
+}
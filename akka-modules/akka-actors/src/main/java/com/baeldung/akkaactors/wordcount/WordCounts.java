@@ -0,0 +1,148 @@
+package com.baeldung.akkaactors.wordcount;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Counts per word in an open-addressing hash table of parallel {@code String[]}/{@code int[]} arrays, so counting
+ * neither boxes the counts nor allocates map entries. Words are looked up by their position in the line, and only a
+ * word seen for the first time is copied into a {@code String}.
+ * <p>
+ * Not thread-safe: an instance is owned by one actor at a time and handed over whole in a message.
+ */
+public final class WordCounts {
+
+    private String[] keys;
+    private int[] counts;
+    private int size;
+    private long total;
+
+    public WordCounts() {
+        this(16);
+    }
+
+    public WordCounts(int expectedWords) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedWords * 2) - 1) << 1;
+        keys = new String[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Counts the words of {@code line}, separated by whitespace as matched by the regex {@code \s}.
+     */
+    public void countWords(String line) {
+        int length = line.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || isWhitespace(line.charAt(i))) {
+                if (start >= 0) {
+                    add(line, start, i, 1);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+    }
+
+    public void add(String word, int count) {
+        add(word, 0, word.length(), count);
+    }
+
+    /**
+     * Adds all counts of {@code other}, which is left unchanged.
+     */
+    public void addAll(WordCounts other) {
+        String[] otherKeys = other.keys;
+        int[] otherCounts = other.counts;
+        for (int i = 0; i < otherKeys.length; i++) {
+            if (otherKeys[i] != null) {
+                add(otherKeys[i], otherCounts[i]);
+            }
+        }
+    }
+
+    public int get(String word) {
+        int mask = keys.length - 1;
+        for (int i = hash(word, 0, word.length()) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(word)) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of distinct words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of words counted
+     */
+    public long total() {
+        return total;
+    }
+
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    private void add(String text, int start, int end, int count) {
+        int length = end - start;
+        int mask = keys.length - 1;
+        int i = hash(text, start, end) & mask;
+        for (String key = keys[i]; key != null; key = keys[i]) {
+            if (key.length() == length && key.regionMatches(0, text, start, length)) {
+                counts[i] += count;
+                total += count;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = start == 0 && end == text.length() ? text : text.substring(start, end);
+        counts[i] = count;
+        total += count;
+        // keep the table at most half full so that probe sequences stay short
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            String key = oldKeys[j];
+            if (key != null) {
+                int i = hash(key, 0, key.length()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                counts[i] = oldCounts[j];
+            }
+        }
+    }
+
+    // String.hashCode of the region, spread so that the low bits used for the index depend on all of it
+    private static int hash(String text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+}
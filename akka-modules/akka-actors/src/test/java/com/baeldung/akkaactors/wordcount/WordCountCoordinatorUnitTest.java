@@ -0,0 +1,65 @@
+package com.baeldung.akkaactors.wordcount;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.TestKit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.duration.Duration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class WordCountCoordinatorUnitTest {
+
+    private static ActorSystem system = null;
+
+    @BeforeClass
+    public static void setup() {
+        system = ActorSystem.create("word-count-test-system");
+    }
+
+    @AfterClass
+    public static void teardown() {
+        TestKit.shutdownActorSystem(system, Duration.apply(1000, TimeUnit.MILLISECONDS), true);
+        system = null;
+    }
+
+    @Test
+    public void givenShardsAndMergeTree_whenCountingWords_thenSameCountsAsParallelStream() {
+        final TestKit probe = new TestKit(system);
+        // 5 shards with a fan-in of 2 need three levels of mergers
+        ActorRef coordinator = probe.childActorOf(WordCountCoordinator.props(5, 7, 2));
+        List<String> lines = WordCountBenchmark.generate(1000, 8, 300);
+
+        coordinator.tell(new WordCountCoordinator.CountWords(lines), probe.testActor());
+        WordCountCoordinator.WordCountResult result = probe.expectMsgClass(WordCountCoordinator.WordCountResult.class);
+
+        Map<String, Long> expected = WordCountBenchmark.countWithParallelStream(lines);
+        assertEquals(expected.size(), result.getCounts().size());
+        expected.forEach((word, count) -> assertEquals(count.intValue(), result.getCounts().get(word)));
+        assertEquals(5, result.getShardStats().size());
+        assertEquals(1000, result.getShardStats().stream().mapToLong(ShardStats::getLines).sum());
+    }
+
+    @Test
+    public void givenCoordinator_whenCountingTwice_thenCountsDoNotCarryOver() {
+        final TestKit probe = new TestKit(system);
+        ActorRef coordinator = probe.childActorOf(WordCountCoordinator.props(2, 1, 4));
+        List<String> lines = Arrays.asList("to be or not to be", " that is\tthe question ");
+
+        coordinator.tell(new WordCountCoordinator.CountWords(lines), probe.testActor());
+        probe.expectMsgClass(WordCountCoordinator.WordCountResult.class);
+        coordinator.tell(new WordCountCoordinator.CountWords(lines), probe.testActor());
+        WordCounts counts = probe.expectMsgClass(WordCountCoordinator.WordCountResult.class).getCounts();
+
+        assertEquals(10, counts.total());
+        assertEquals(2, counts.get("to"));
+        assertEquals(1, counts.get("question"));
+    }
+}
@@ -0,0 +1,218 @@
+package com.baeldung.akkastreams;
+
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.japi.function.Function;
+import akka.stream.ActorAttributes;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.FileIO;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Framing;
+import akka.stream.javadsl.FramingTruncation;
+import akka.util.ByteString;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A variant of {@link DataImporter} for large files. Lines are framed straight from the file's bytes and their
+ * integers are parsed without creating a {@code String} or an {@code Integer} per field. Parsing and averaging run
+ * on their own dispatcher, {@value #CPU_DISPATCHER}, and the averages are saved in batches of up to
+ * {@code batchSize}, or whatever arrived within {@code batchWindow}. Backpressure from the repository reaches the file
+ * reader, so at most {@code saveParallelism} batches are in flight.
+ * <p>
+ * Like {@link DataImporter}, consecutive values are paired across lines. Unlike it, a last value without a partner
+ * is not saved.
+ */
+public class BatchingDataImporter {
+
+    static final String CPU_DISPATCHER = "importer-cpu-dispatcher";
+    private static final ByteString NEWLINE = ByteString.fromString("\n");
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final Materializer materializer;
+    private final AverageRepository averageRepository;
+    private final int batchSize;
+    private final FiniteDuration batchWindow;
+    private final int saveParallelism;
+
+    public BatchingDataImporter(ActorSystem actorSystem) {
+        this(actorSystem, new AverageRepository(), 1000, FiniteDuration.create(50, TimeUnit.MILLISECONDS), 4);
+    }
+
+    BatchingDataImporter(ActorSystem actorSystem, AverageRepository averageRepository, int batchSize, FiniteDuration batchWindow, int saveParallelism) {
+        this.materializer = ActorMaterializer.create(actorSystem);
+        this.averageRepository = averageRepository;
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.saveParallelism = saveParallelism;
+    }
+
+    Flow<ByteString, Average, NotUsed> calculateAverage(ImportStats stats) {
+        return Flow.of(ByteString.class)
+                .statefulMapConcat(() -> new PairAverager(stats))
+                .withAttributes(ActorAttributes.dispatcher(CPU_DISPATCHER))
+                .async();
+    }
+
+    public CompletionStage<ImportStats> importFile(Path file) {
+        ImportStats stats = new ImportStats();
+        return FileIO.fromPath(file, CHUNK_SIZE)
+                .via(Framing.delimiter(NEWLINE, MAX_LINE_LENGTH, FramingTruncation.ALLOW))
+                .via(calculateAverage(stats))
+                .groupedWithin(batchSize, batchWindow)
+                .mapAsync(saveParallelism, batch -> averageRepository.saveAll(values(batch))
+                        .thenApply(saved -> batch))
+                .runForeach(stats::recordSaved, materializer)
+                .thenApply(done -> stats.finish());
+    }
+
+    private static double[] values(List<Average> batch) {
+        double[] values = new double[batch.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = batch.get(i).getValue();
+        }
+        return values;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file;
+        if (args.length > 0) {
+            file = Paths.get(args[0]);
+        } else {
+            file = Files.createTempFile("averages", ".csv");
+            file.toFile().deleteOnExit();
+            generate(file, 500_000, 4);
+        }
+
+        ActorSystem actorSystem = ActorSystem.create();
+        try {
+            ImportStats stats = new BatchingDataImporter(actorSystem).importFile(file)
+                    .toCompletableFuture()
+                    .get();
+            System.out.println("Import finished: " + stats);
+        } finally {
+            actorSystem.terminate();
+        }
+    }
+
+    static void generate(Path file, int lines, int valuesPerLine) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                for (int j = 0; j < valuesPerLine; j++) {
+                    if (j > 0) {
+                        writer.write(';');
+                    }
+                    writer.write(Integer.toString(random.nextInt(1000)));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    public static class Average {
+        private final double value;
+        private final long parsedAtNanos;
+
+        Average(double value, long parsedAtNanos) {
+            this.value = value;
+            this.parsedAtNanos = parsedAtNanos;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        long getParsedAtNanos() {
+            return parsedAtNanos;
+        }
+    }
+
+    /**
+     * Parses the {@code ;} separated integers of a line byte by byte and averages them in pairs, carrying an
+     * unpaired value over to the next line.
+     */
+    private static class PairAverager implements Function<ByteString, Iterable<Average>> {
+        private static final long serialVersionUID = 1L;
+
+        // akka's Function is Serializable, but a stage of a running stream never gets serialized
+        private final transient ImportStats stats;
+        private int pending;
+        private boolean hasPending;
+
+        PairAverager(ImportStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public Iterable<Average> apply(ByteString line) {
+            long parsedAt = System.nanoTime();
+            List<Average> averages = null;
+            int count = 0;
+            long value = 0;
+            boolean negative = false;
+            boolean inNumber = false;
+            int length = line.length();
+            for (int i = 0; i <= length; i++) {
+                byte b = i < length ? line.apply(i) : (byte) ';';
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > Integer.MAX_VALUE + 1L) {
+                        throw invalid(line);
+                    }
+                    inNumber = true;
+                } else if (b == '-' && !inNumber && !negative) {
+                    negative = true;
+                } else if (b == ';') {
+                    if (!inNumber) {
+                        // an empty line has no values, an empty field is an error like in Integer.parseInt
+                        if (i == length && count == 0 && !negative) {
+                            break;
+                        }
+                        throw invalid(line);
+                    }
+                    long signed = negative ? -value : value;
+                    if (signed > Integer.MAX_VALUE) {
+                        throw invalid(line);
+                    }
+                    count++;
+                    if (hasPending) {
+                        if (averages == null) {
+                            averages = new ArrayList<>(length / 4 + 1);
+                        }
+                        averages.add(new Average((pending + signed) / 2.0, parsedAt));
+                        hasPending = false;
+                    } else {
+                        pending = (int) signed;
+                        hasPending = true;
+                    }
+                    value = 0;
+                    negative = false;
+                    inNumber = false;
+                } else if (b != '\r' && b != ' ') {
+                    throw invalid(line);
+                }
+            }
+            stats.recordLine(count);
+            return averages == null ? Collections.emptyList() : averages;
+        }
+
+        private static NumberFormatException invalid(ByteString line) {
+            return new NumberFormatException("Invalid line: " + line.utf8String());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.baeldung.akkastreams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency of one {@link BatchingDataImporter} run. The latency of an average is measured from the
+ * moment its line is parsed until the batch containing it has been saved.
+ */
+public class ImportStats {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder values = new LongAdder();
+    private final LongAdder savedAverages = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+    private volatile long endNanos;
+
+    void recordLine(int valueCount) {
+        lines.increment();
+        values.add(valueCount);
+    }
+
+    void recordSaved(List<BatchingDataImporter.Average> batch) {
+        long now = System.nanoTime();
+        for (BatchingDataImporter.Average average : batch) {
+            long latency = now - average.getParsedAtNanos();
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+        }
+        savedAverages.add(batch.size());
+        batches.increment();
+    }
+
+    ImportStats finish() {
+        endNanos = System.nanoTime();
+        return this;
+    }
+
+    public long getLines() {
+        return lines.sum();
+    }
+
+    public long getValues() {
+        return values.sum();
+    }
+
+    public long getSavedAverages() {
+        return savedAverages.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public double getElapsedSeconds() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return (end - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public double getValuesPerSecond() {
+        return getValues() / getElapsedSeconds();
+    }
+
+    public double getAverageLatencyMillis() {
+        long saved = getSavedAverages();
+        return saved == 0 ? 0 : latencyNanos.sum() / (double) saved / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d lines, %d values, %d averages in %d batches, %.2f s: %.0f values/s, latency avg %.2f ms, max %.2f ms", getLines(),
+            getValues(), getSavedAverages(), getBatches(), getElapsedSeconds(), getValuesPerSecond(), getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
@@ -0,0 +1,70 @@
+package com.baeldung.akkastreams;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Source;
+import akka.stream.testkit.javadsl.TestSink;
+import akka.util.ByteString;
+import org.junit.AfterClass;
+import org.junit.Test;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class BatchingDataImporterUnitTest {
+    private static final ActorSystem actorSystem = ActorSystem.create();
+
+    @AfterClass
+    public static void tearDown() {
+        actorSystem.terminate();
+    }
+
+    @Test
+    public void givenLinesOfIntegers_whenCalculateAverageOfPairs_thenShouldPairValuesAcrossLines() {
+        //given
+        BatchingDataImporter importer = new BatchingDataImporter(actorSystem);
+        ImportStats stats = new ImportStats();
+
+        //when
+        Source<Double, ?> averages = Source.from(Arrays.asList(ByteString.fromString("1;9;11"), ByteString.fromString("0;-4;4\r"), ByteString.empty()))
+                .via(importer.calculateAverage(stats))
+                .map(BatchingDataImporter.Average::getValue);
+
+        //then
+        averages
+                .runWith(TestSink.probe(actorSystem), ActorMaterializer.create(actorSystem))
+                .request(4)
+                .expectNext(5d, 5.5, 0d)
+                .expectComplete();
+        assertEquals(3, stats.getLines());
+        assertEquals(6, stats.getValues());
+    }
+
+    @Test
+    public void givenFile_whenImported_thenShouldSaveAllAveragesInBatches() throws Exception {
+        //given
+        Path file = Files.createTempFile("averages", ".csv");
+        BatchingDataImporter.generate(file, 1000, 4);
+        BatchingDataImporter importer = new BatchingDataImporter(actorSystem, new AverageRepository(), 300, FiniteDuration.create(1, TimeUnit.SECONDS), 2);
+
+        //when
+        ImportStats stats = importer.importFile(file)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(1000, stats.getLines());
+        assertEquals(2000, stats.getSavedAverages());
+        // at most 300 per batch, fewer if the window closes first
+        assertTrue(stats.getBatches() >= 7);
+        Files.delete(file);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.baeldung.idempotentproducer.benchmark;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+
+import kafka.testkit.KafkaClusterTestKit;
+import kafka.testkit.TestKitNodes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * KRaft cluster running inside the benchmark JVM, so the benchmarks need neither Docker nor a running cluster.
+ * Brokers share the JVM with the producer, so absolute numbers are lower than against a real cluster,
+ * but they are reproducible and good enough to compare producer settings.
+ */
+public class EmbeddedKafkaCluster implements AutoCloseable {
+
+    private final KafkaClusterTestKit cluster;
+
+    private EmbeddedKafkaCluster(KafkaClusterTestKit cluster) {
+        this.cluster = cluster;
+    }
+
+    public static EmbeddedKafkaCluster start(int brokers) throws Exception {
+        KafkaClusterTestKit cluster = new KafkaClusterTestKit.Builder(new TestKitNodes.Builder().setCombined(true)
+            .setNumBrokerNodes(brokers)
+            .setNumControllerNodes(1)
+            .build()).setConfigProp("offsets.topic.replication.factor", String.valueOf(brokers))
+            .setConfigProp("transaction.state.log.replication.factor", String.valueOf(brokers))
+            .setConfigProp("transaction.state.log.min.isr", "1")
+            .setConfigProp("group.initial.rebalance.delay.ms", "0")
+            .build();
+        try {
+            cluster.format();
+            cluster.startup();
+            cluster.waitForReadyBrokers();
+        } catch (Exception e) {
+            cluster.close();
+            throw e;
+        }
+        return new EmbeddedKafkaCluster(cluster);
+    }
+
+    public String bootstrapServers() {
+        return cluster.bootstrapServers();
+    }
+
+    /**
+     * Creates the topic unless it already exists, on this cluster or on the one given by {@code bootstrapServers}.
+     */
+    public static void createTopic(String bootstrapServers, String topic, int partitions, short replicationFactor, Map<String, String> configs)
+        throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        try (Admin admin = Admin.create(props)) {
+            boolean exists = admin.listTopics()
+                .names()
+                .get()
+                .contains(topic);
+
+            if (!exists) {
+                admin.createTopics(List.of(new NewTopic(topic, partitions, replicationFactor).configs(configs)))
+                    .all()
+                    .get();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        cluster.close();
+    }
+}
@@ -0,0 +1,156 @@
+package com.baeldung.idempotentproducer.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures producer throughput and send latency (from {@code send()} to the acknowledgement callback)
+ * for a grid of producer settings.
+ * <p>
+ * Runs against an {@link EmbeddedKafkaCluster} of three brokers unless {@code -Dbenchmark.bootstrap.servers}
+ * points to an existing cluster. Every {@code @Param} can be overridden from the JMH command line, e.g.
+ * {@code -p acks=1 -p idempotent=false -p lingerMs=0,5,20 -p compression=none,lz4,zstd}. Latency percentiles
+ * are logged after every iteration. An iteration fails if any of its messages is not acknowledged, so the
+ * throughput never counts undelivered messages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProducerBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProducerBenchmark.class);
+
+    static final int MESSAGES = 10000;
+    private static final String TOPIC = "producer-benchmark-topic";
+    private static final int BROKERS = 3;
+    private static final int PARTITIONS = 6;
+    private static final int MAX_BLOCK_MS = 60000;
+    private static final int DELIVERY_TIMEOUT_MS = 120000;
+
+    @Param({ "true", "false" })
+    public boolean idempotent;
+
+    @Param({ "all" })
+    public String acks;
+
+    @Param({ "5" })
+    public int lingerMs;
+
+    @Param({ "32768" })
+    public int batchSize;
+
+    @Param({ "none", "lz4" })
+    public String compression;
+
+    @Param({ "1024" })
+    public int messageSize;
+
+    // send() may block for max.block.ms before the record is handed over, and the callback fires at the latest after delivery.timeout.ms
+    private final Recorder latencyRecorder = new Recorder(TimeUnit.MILLISECONDS.toMicros(MAX_BLOCK_MS + DELIVERY_TIMEOUT_MS), 3);
+    private final AtomicReference<Exception> sendFailure = new AtomicReference<>();
+
+    private EmbeddedKafkaCluster cluster;
+    private Producer<Long, byte[]> producer;
+    private byte[] value;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        if (idempotent && !"all".equals(acks)) {
+            throw new IllegalArgumentException("Idempotence requires acks=all, got acks=" + acks);
+        }
+        String bootstrapServers = System.getProperty("benchmark.bootstrap.servers");
+        if (bootstrapServers == null) {
+            cluster = EmbeddedKafkaCluster.start(BROKERS);
+            bootstrapServers = cluster.bootstrapServers();
+        }
+        EmbeddedKafkaCluster.createTopic(bootstrapServers, TOPIC, PARTITIONS, (short) BROKERS, Map.of("min.insync.replicas", "2"));
+
+        value = new byte[messageSize];
+        ThreadLocalRandom.current()
+            .nextBytes(value);
+        producer = new KafkaProducer<>(props(bootstrapServers));
+        producer.partitionsFor(TOPIC);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportLatency() {
+        Histogram latencies = latencyRecorder.getIntervalHistogram();
+        LOGGER.info("send latency (us) for idempotent={} acks={} linger.ms={} batch.size={} compression={} message.size={}: "
+                + "p50={} p99={} p99.9={} max={} count={}", idempotent, acks, lingerMs, batchSize, compression, messageSize,
+            latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99), latencies.getValueAtPercentile(99.9),
+            latencies.getMaxValue(), latencies.getTotalCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownTrial() throws Exception {
+        if (producer != null) {
+            producer.close();
+        }
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void sendMessages() {
+        for (int i = 0; i < MESSAGES; i++) {
+            long start = System.nanoTime();
+            producer.send(new ProducerRecord<>(TOPIC, counter++, value), (metadata, exception) -> {
+                if (exception == null) {
+                    latencyRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                } else {
+                    sendFailure.compareAndSet(null, exception);
+                }
+            });
+        }
+        producer.flush();
+
+        Exception failure = sendFailure.getAndSet(null);
+        if (failure != null) {
+            throw new IllegalStateException("Not every message of the invocation was acknowledged", failure);
+        }
+    }
+
+    Histogram latencies() {
+        return latencyRecorder.getIntervalHistogram();
+    }
+
+    private Properties props(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, String.valueOf(idempotent));
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(lingerMs));
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(batchSize));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, "30000");
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, String.valueOf(MAX_BLOCK_MS));
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, String.valueOf(DELIVERY_TIMEOUT_MS));
+
+        return props;
+    }
+}
@@ -0,0 +1,59 @@
+package com.baeldung.idempotentproducer.benchmark;
+
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProducerBenchmarkLiveTest {
+
+    @Test
+    void givenEmbeddedCluster_whenSendingMessages_thenEverySendLatencyIsRecorded() throws Exception {
+        ProducerBenchmark benchmark = benchmark(true, "all");
+        benchmark.setupTrial();
+        try {
+            benchmark.sendMessages();
+
+            assertEquals(ProducerBenchmark.MESSAGES, benchmark.latencies()
+                .getTotalCount());
+        } finally {
+            benchmark.shutdownTrial();
+        }
+    }
+
+    @Test
+    void givenMessagesLargerThanMaxRequestSize_whenSendingMessages_thenInvocationFails() throws Exception {
+        ProducerBenchmark benchmark = benchmark(true, "all");
+        benchmark.messageSize = 2 * 1024 * 1024;
+        benchmark.setupTrial();
+        try {
+            IllegalStateException failure = assertThrows(IllegalStateException.class, benchmark::sendMessages);
+
+            assertInstanceOf(RecordTooLargeException.class, failure.getCause());
+            assertEquals(0, benchmark.latencies()
+                .getTotalCount());
+        } finally {
+            benchmark.shutdownTrial();
+        }
+    }
+
+    @Test
+    void givenIdempotenceWithoutAcksAll_whenSettingUp_thenSetupIsRejected() {
+        ProducerBenchmark benchmark = benchmark(true, "1");
+
+        assertThrows(IllegalArgumentException.class, benchmark::setupTrial);
+    }
+
+    private static ProducerBenchmark benchmark(boolean idempotent, String acks) {
+        ProducerBenchmark benchmark = new ProducerBenchmark();
+        benchmark.idempotent = idempotent;
+        benchmark.acks = acks;
+        benchmark.lingerMs = 5;
+        benchmark.batchSize = 32768;
+        benchmark.compression = "lz4";
+        benchmark.messageSize = 1024;
+        return benchmark;
+    }
+}
@@ -0,0 +1,119 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.ISOLATION_LEVEL_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.TRANSACTIONAL_ID_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+
+/**
+ * Exactly-once word count spread over several {@link WordCountWorker}s of the same consumer group,
+ * so all partitions of the input topic are processed in parallel.
+ * <p>
+ * The output topic is expected to have the same number of partitions as the input topic: each
+ * output partition carries the running counts of the matching input partition, and is read back to
+ * restore them when the input partition moves to another worker.
+ */
+public class ParallelTransactionalWordCount implements AutoCloseable {
+
+    private static final String CONSUMER_GROUP_ID = "parallel-word-count";
+    private static final String OUTPUT_TOPIC = "output";
+    private static final String INPUT_TOPIC = "input";
+
+    private final List<WordCountWorker> workers = new ArrayList<>();
+    private final ExecutorService executor;
+
+    public ParallelTransactionalWordCount(String bootstrapServers, String inputTopic, String outputTopic, int workerCount) {
+        executor = Executors.newFixedThreadPool(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new WordCountWorker(createKafkaConsumer(bootstrapServers), createKafkaProducer(bootstrapServers, i), createRestoreConsumer(bootstrapServers),
+                inputTopic, outputTopic, Duration.ofMillis(500)));
+        }
+    }
+
+    public static void main(String[] args) {
+        int workerCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime()
+            .availableProcessors();
+
+        ParallelTransactionalWordCount wordCount = new ParallelTransactionalWordCount("localhost:9092", INPUT_TOPIC, OUTPUT_TOPIC, workerCount);
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(wordCount::close));
+        wordCount.start();
+    }
+
+    public void start() {
+        workers.forEach(executor::submit);
+    }
+
+    public long processedRecords() {
+        return workers.stream()
+            .mapToLong(WordCountWorker::processedRecords)
+            .sum();
+    }
+
+    @Override
+    public void close() {
+        workers.forEach(WordCountWorker::shutdown);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+
+    private static KafkaConsumer<String, String> createKafkaConsumer(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(GROUP_ID_CONFIG, CONSUMER_GROUP_ID);
+        props.put(ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+
+        return new KafkaConsumer<>(props);
+    }
+
+    private static KafkaConsumer<String, String> createRestoreConsumer(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+
+        return new KafkaConsumer<>(props);
+    }
+
+    private static KafkaProducer<String, String> createKafkaProducer(String bootstrapServers, int workerId) {
+        Properties props = new Properties();
+        props.put(BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ENABLE_IDEMPOTENCE_CONFIG, "true");
+        props.put(TRANSACTIONAL_ID_CONFIG, CONSUMER_GROUP_ID + "-" + workerId);
+        props.put(KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+
+        return new KafkaProducer<>(props);
+    }
+}
@@ -0,0 +1,97 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local state store holding the running word counts of a single input partition.
+ * <p>
+ * Increments are kept as pending until the surrounding Kafka transaction commits, so an aborted
+ * transaction can be rolled back without recounting anything. Counts are kept in mutable primitive
+ * holders, and emitted through {@link UpdateConsumer}, to avoid boxing a {@link Long} per word.
+ */
+public class WordCountStore {
+
+    private final Map<String, Count> counts = new HashMap<>();
+    private final List<Count> dirty = new ArrayList<>();
+
+    public void increment(String word) {
+        Count count = counts.get(word);
+        if (count == null) {
+            count = new Count(word);
+            counts.put(word, count);
+        }
+        if (count.pending == 0) {
+            dirty.add(count);
+        }
+        count.pending++;
+    }
+
+    /**
+     * Emits the running count of every word that changed since the last commit or rollback.
+     */
+    public void forEachUpdated(UpdateConsumer updateConsumer) {
+        for (Count count : dirty) {
+            updateConsumer.accept(count.word, count.committed + count.pending);
+        }
+    }
+
+    public void commit() {
+        for (Count count : dirty) {
+            count.committed += count.pending;
+            count.pending = 0;
+        }
+        dirty.clear();
+    }
+
+    public void rollback() {
+        for (Count count : dirty) {
+            count.pending = 0;
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Sets the committed count of {@code word}, e.g. from the output topic when the partition is assigned again.
+     */
+    public void restore(String word, long committedCount) {
+        Count count = counts.get(word);
+        if (count == null) {
+            count = new Count(word);
+            counts.put(word, count);
+        }
+        count.committed = committedCount;
+    }
+
+    public long count(String word) {
+        Count count = counts.get(word);
+        return count == null ? 0 : count.committed;
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public int updatedWords() {
+        return dirty.size();
+    }
+
+    @FunctionalInterface
+    public interface UpdateConsumer {
+
+        void accept(String word, long count);
+    }
+
+    private static final class Count {
+
+        private final String word;
+        private long committed;
+        private long pending;
+
+        private Count(String word) {
+            this.word = word;
+        }
+    }
+}
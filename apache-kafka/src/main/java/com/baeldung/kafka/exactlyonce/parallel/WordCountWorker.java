@@ -0,0 +1,201 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Consume-transform-produce loop owning one consumer and one transactional producer.
+ * <p>
+ * Every assigned input partition gets its own {@link WordCountStore}; each poll only sends the words
+ * whose running count changed, to the output partition with the same number as the input partition.
+ * Offsets are committed through the producer with the consumer group metadata, so a zombie worker
+ * holding a stale generation gets fenced.
+ * <p>
+ * The output topic doubles as the changelog of the stores: when a partition is assigned, its store is
+ * rebuilt from the committed records of the matching output partition, so the running counts carry on
+ * from where the previous owner left them.
+ */
+public class WordCountWorker implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordCountWorker.class);
+
+    private final KafkaConsumer<String, String> consumer;
+    private final KafkaProducer<String, String> producer;
+    private final KafkaConsumer<String, String> restoreConsumer;
+    private final String inputTopic;
+    private final String outputTopic;
+    private final Duration pollTimeout;
+    private final Map<TopicPartition, WordCountStore> stores = new HashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final LongAdder processedRecords = new LongAdder();
+
+    /**
+     * @param restoreConsumer a consumer without group, reading with {@code read_committed}, used to rebuild the stores
+     */
+    public WordCountWorker(KafkaConsumer<String, String> consumer, KafkaProducer<String, String> producer, KafkaConsumer<String, String> restoreConsumer,
+        String inputTopic, String outputTopic, Duration pollTimeout) {
+        this.consumer = consumer;
+        this.producer = producer;
+        this.restoreConsumer = restoreConsumer;
+        this.inputTopic = inputTopic;
+        this.outputTopic = outputTopic;
+        this.pollTimeout = pollTimeout;
+    }
+
+    @Override
+    public void run() {
+        try {
+            producer.initTransactions();
+            consumer.subscribe(singleton(inputTopic), new StoreRebalanceListener());
+
+            while (running.get()) {
+                ConsumerRecords<String, String> records = consumer.poll(pollTimeout);
+                if (!records.isEmpty()) {
+                    process(records);
+                }
+            }
+        } catch (WakeupException e) {
+            if (running.get()) {
+                throw e;
+            }
+        } finally {
+            consumer.close();
+            producer.close();
+            restoreConsumer.close();
+        }
+    }
+
+    private void process(ConsumerRecords<String, String> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsetsToCommit = new HashMap<>();
+
+        for (TopicPartition partition : records.partitions()) {
+            WordCountStore store = stores.get(partition);
+            List<ConsumerRecord<String, String>> partitionRecords = records.records(partition);
+            for (ConsumerRecord<String, String> record : partitionRecords) {
+                WordTokenizer.forEachWord(record.value(), store::increment);
+            }
+            long lastOffset = partitionRecords.get(partitionRecords.size() - 1)
+                .offset();
+            offsetsToCommit.put(partition, new OffsetAndMetadata(lastOffset + 1));
+        }
+
+        try {
+            producer.beginTransaction();
+            for (TopicPartition partition : records.partitions()) {
+                stores.get(partition)
+                    .forEachUpdated((word, count) -> producer.send(new ProducerRecord<>(outputTopic, partition.partition(), word, Long.toString(count))));
+            }
+            producer.sendOffsetsToTransaction(offsetsToCommit, consumer.groupMetadata());
+            producer.commitTransaction();
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            running.set(false);
+            throw e;
+        } catch (KafkaException e) {
+            LOG.warn("Aborting word count transaction", e);
+            try {
+                producer.abortTransaction();
+            } catch (KafkaException abortFailure) {
+                e.addSuppressed(abortFailure);
+                running.set(false);
+                throw e;
+            }
+            rewind(records.partitions());
+            return;
+        }
+
+        records.partitions()
+            .forEach(partition -> stores.get(partition)
+                .commit());
+        processedRecords.add(records.count());
+    }
+
+    private void rewind(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        for (TopicPartition partition : partitions) {
+            stores.get(partition)
+                .rollback();
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                consumer.seekToBeginning(singleton(partition));
+            }
+        }
+    }
+
+    private WordCountStore restore(TopicPartition inputPartition) {
+        WordCountStore store = new WordCountStore();
+        TopicPartition changelog = new TopicPartition(outputTopic, inputPartition.partition());
+        restoreConsumer.assign(singleton(changelog));
+        restoreConsumer.seekToBeginning(singleton(changelog));
+        // with read_committed this is the last stable offset, so no aborted or pending counts are restored
+        long endOffset = restoreConsumer.endOffsets(singleton(changelog))
+            .get(changelog);
+        while (restoreConsumer.position(changelog) < endOffset) {
+            for (ConsumerRecord<String, String> record : restoreConsumer.poll(pollTimeout)) {
+                if (record.offset() < endOffset) {
+                    store.restore(record.key(), Long.parseLong(record.value()));
+                }
+            }
+        }
+        restoreConsumer.unsubscribe();
+        return store;
+    }
+
+    public long processedRecords() {
+        return processedRecords.sum();
+    }
+
+    public void shutdown() {
+        running.set(false);
+        consumer.wakeup();
+    }
+
+    private class StoreRebalanceListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            // the counts are committed in the output topic, the next owner restores them from there
+            partitions.forEach(stores::remove);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (partitions.isEmpty()) {
+                return;
+            }
+            // waits for a transaction of the previous owner that is still committing these offsets,
+            // so that its counts are visible in the output topic before restoring
+            consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                WordCountStore store = restore(partition);
+                stores.put(partition, store);
+                LOG.info("Counting words of {}, restored {} words", partition, store.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import java.util.function.Consumer;
+
+/**
+ * Splits a line into whitespace separated words without a regex or an intermediate array:
+ * the only allocation per word is the word itself.
+ */
+public final class WordTokenizer {
+
+    private WordTokenizer() {
+    }
+
+    public static int forEachWord(String line, Consumer<String> wordConsumer) {
+        if (line == null) {
+            return 0;
+        }
+
+        int words = 0;
+        int length = line.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                if (start >= 0) {
+                    wordConsumer.accept(line.substring(start, i));
+                    words++;
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        if (start >= 0) {
+            wordConsumer.accept(line.substring(start, length));
+            words++;
+        }
+        return words;
+    }
+}
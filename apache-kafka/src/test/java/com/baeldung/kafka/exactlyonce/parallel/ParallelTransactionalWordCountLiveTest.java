@@ -0,0 +1,179 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Measures the throughput of {@link ParallelTransactionalWordCount} against a single broker and checks
+ * that the committed output adds up to the exact word totals.
+ */
+@Testcontainers
+class ParallelTransactionalWordCountLiveTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelTransactionalWordCountLiveTest.class);
+
+    private static final String INPUT_TOPIC = "sentences";
+    private static final String OUTPUT_TOPIC = "word-counts";
+    private static final String MOVED_INPUT_TOPIC = "moved-sentences";
+    private static final String MOVED_OUTPUT_TOPIC = "moved-word-counts";
+    private static final int PARTITIONS = 4;
+    private static final int SENTENCES = 200_000;
+    private static final Duration PROCESSING_TIMEOUT = Duration.ofMinutes(2);
+    private static final String[] WORDS = { "kafka", "exactly", "once", "word", "count", "parallel", "partition", "transaction" };
+
+    @Container
+    private static final KafkaContainer KAFKA_CONTAINER = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:latest"));
+
+    private static Admin admin;
+
+    @BeforeAll
+    static void setup() throws ExecutionException, InterruptedException {
+        Properties adminProperties = new Properties();
+        adminProperties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA_CONTAINER.getBootstrapServers());
+        admin = Admin.create(adminProperties);
+        admin.createTopics(Arrays.asList(new NewTopic(INPUT_TOPIC, PARTITIONS, (short) 1), new NewTopic(OUTPUT_TOPIC, PARTITIONS, (short) 1),
+                new NewTopic(MOVED_INPUT_TOPIC, 1, (short) 1), new NewTopic(MOVED_OUTPUT_TOPIC, 1, (short) 1)))
+            .all()
+            .get();
+    }
+
+    @AfterAll
+    static void destroy() {
+        admin.close();
+        KAFKA_CONTAINER.stop();
+    }
+
+    @Test
+    void givenSentencesOnAllPartitions_whenCountingInParallel_thenOutputHoldsExactTotals() throws InterruptedException {
+        Map<String, Long> expected = produceSentences();
+
+        long elapsedNanos;
+        try (ParallelTransactionalWordCount wordCount = new ParallelTransactionalWordCount(KAFKA_CONTAINER.getBootstrapServers(), INPUT_TOPIC,
+            OUTPUT_TOPIC, PARTITIONS)) {
+            long start = System.nanoTime();
+            wordCount.start();
+            awaitProcessed(wordCount, SENTENCES);
+            elapsedNanos = System.nanoTime() - start;
+        }
+
+        LOG.info("Counted {} sentences in {} ms ({} records/s)", SENTENCES, elapsedNanos / 1_000_000, SENTENCES * 1_000_000_000L / elapsedNanos);
+        assertThat(readTotals()).isEqualTo(expected);
+    }
+
+    @Test
+    void givenPartitionMovedToAnotherWorker_whenCountingMoreSentences_thenTotalsContinueFromPreviousOwner() throws InterruptedException {
+        Map<String, Long> expected = new HashMap<>();
+        produceSentences(MOVED_INPUT_TOPIC, 1, 0, 1_000, expected);
+        countUntilProcessed(1_000);
+
+        produceSentences(MOVED_INPUT_TOPIC, 1, 1_000, 1_000, expected);
+        // a new worker gets the partition and has to restore the counts from the output topic
+        countUntilProcessed(1_000);
+
+        assertThat(readTotals(MOVED_OUTPUT_TOPIC)).isEqualTo(expected);
+    }
+
+    private static void countUntilProcessed(long records) throws InterruptedException {
+        try (ParallelTransactionalWordCount wordCount = new ParallelTransactionalWordCount(KAFKA_CONTAINER.getBootstrapServers(), MOVED_INPUT_TOPIC,
+            MOVED_OUTPUT_TOPIC, 1)) {
+            wordCount.start();
+            awaitProcessed(wordCount, records);
+        }
+    }
+
+    private static void awaitProcessed(ParallelTransactionalWordCount wordCount, long records) throws InterruptedException {
+        long deadline = System.nanoTime() + PROCESSING_TIMEOUT.toNanos();
+        while (wordCount.processedRecords() < records) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Processed %d of %d records within %s", wordCount.processedRecords(), records, PROCESSING_TIMEOUT);
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static Map<String, Long> produceSentences() {
+        Map<String, Long> expected = new HashMap<>();
+        produceSentences(INPUT_TOPIC, PARTITIONS, 0, SENTENCES, expected);
+        return expected;
+    }
+
+    private static void produceSentences(String topic, int partitions, int from, int sentences, Map<String, Long> expected) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA_CONTAINER.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, "20");
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+            for (int i = from; i < from + sentences; i++) {
+                String sentence = WORDS[i % WORDS.length] + " " + WORDS[(i * 7 + 3) % WORDS.length] + " " + WORDS[(i / 3) % WORDS.length];
+                WordTokenizer.forEachWord(sentence, word -> expected.merge(word, 1L, Long::sum));
+                producer.send(new ProducerRecord<>(topic, i % partitions, null, sentence));
+            }
+        }
+    }
+
+    private static Map<String, Long> readTotals() {
+        return readTotals(OUTPUT_TOPIC);
+    }
+
+    private static Map<String, Long> readTotals(String topic) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA_CONTAINER.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "word-count-verifier-" + topic);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+
+        Map<Integer, Map<String, Long>> latestPerPartition = new HashMap<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(singleton(topic));
+            int emptyPolls = 0;
+            while (emptyPolls < 3) {
+                int count = 0;
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofSeconds(1))) {
+                    latestPerPartition.computeIfAbsent(record.partition(), p -> new HashMap<>())
+                        .put(record.key(), Long.parseLong(record.value()));
+                    count++;
+                }
+                emptyPolls = count == 0 ? emptyPolls + 1 : 0;
+            }
+        }
+
+        Map<String, Long> totals = new HashMap<>();
+        latestPerPartition.values()
+            .forEach(counts -> counts.forEach((word, count) -> totals.merge(word, count, Long::sum)));
+        return totals;
+    }
+}
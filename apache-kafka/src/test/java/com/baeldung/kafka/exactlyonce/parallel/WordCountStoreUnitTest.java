@@ -0,0 +1,53 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordCountStoreUnitTest {
+
+    @Test
+    void givenCommittedCounts_whenCountingMoreWords_thenOnlyChangedWordsAreEmittedWithRunningTotals() {
+        WordCountStore store = new WordCountStore();
+        WordTokenizer.forEachWord("a b a", store::increment);
+        store.commit();
+
+        WordTokenizer.forEachWord("a c", store::increment);
+        Map<String, Long> updates = new HashMap<>();
+        store.forEachUpdated(updates::put);
+
+        assertThat(updates).hasSize(2)
+            .containsEntry("a", 3L)
+            .containsEntry("c", 1L);
+    }
+
+    @Test
+    void givenPendingCounts_whenRollingBack_thenCommittedCountsAreKept() {
+        WordCountStore store = new WordCountStore();
+        WordTokenizer.forEachWord("a b", store::increment);
+        store.commit();
+
+        WordTokenizer.forEachWord("a a b", store::increment);
+        store.rollback();
+
+        assertThat(store.count("a")).isEqualTo(1);
+        assertThat(store.count("b")).isEqualTo(1);
+        assertThat(store.updatedWords()).isZero();
+    }
+
+    @Test
+    void givenRestoredCounts_whenCountingMoreWords_thenRunningTotalsContinueFromThem() {
+        WordCountStore store = new WordCountStore();
+        store.restore("a", 5);
+
+        WordTokenizer.forEachWord("a b", store::increment);
+        Map<String, Long> updates = new HashMap<>();
+        store.forEachUpdated(updates::put);
+
+        assertThat(updates).containsEntry("a", 6L)
+            .containsEntry("b", 1L);
+    }
+}
@@ -0,0 +1,30 @@
+package com.baeldung.kafka.exactlyonce.parallel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordTokenizerUnitTest {
+
+    @Test
+    void givenLineWithRepeatedWhitespace_whenTokenizing_thenOnlyWordsAreEmitted() {
+        List<String> words = new ArrayList<>();
+
+        int count = WordTokenizer.forEachWord("  Put any\tspace  separated\ndata ", words::add);
+
+        assertThat(count).isEqualTo(5);
+        assertThat(words).containsExactly("Put", "any", "space", "separated", "data");
+    }
+
+    @Test
+    void givenBlankOrNullLine_whenTokenizing_thenNothingIsEmitted() {
+        List<String> words = new ArrayList<>();
+
+        assertThat(WordTokenizer.forEachWord("   ", words::add)).isZero();
+        assertThat(WordTokenizer.forEachWord(null, words::add)).isZero();
+        assertThat(words).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.baeldung.benchmark;
+
+import static org.apache.spark.sql.functions.col;
+import static org.apache.spark.sql.functions.count;
+import static org.apache.spark.sql.functions.explode;
+import static org.apache.spark.sql.functions.split;
+import static org.apache.spark.sql.functions.sum;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.api.java.function.MapFunction;
+import org.apache.spark.api.java.function.ReduceFunction;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+
+import com.baeldung.dataframes.Customer;
+
+import scala.Tuple2;
+
+/**
+ * The word count of {@link com.baeldung.WordCount} and a per-customer spending aggregation in the spirit of
+ * {@link com.baeldung.dataframes.CustomerDataAggregationPipeline}, each written against the RDD, DataFrame and
+ * Dataset API. Every method returns the number of groups, which has to match across the three APIs.
+ */
+public class BenchmarkPipelines {
+
+    public enum Pipeline {
+        WORD_COUNT, CUSTOMER_SPENDING
+    }
+
+    public enum Api {
+        RDD, DATAFRAME, DATASET
+    }
+
+    private static final Pattern SPACE = Pattern.compile(" ");
+
+    private BenchmarkPipelines() {
+    }
+
+    public static long wordCount(JavaRDD<String> lines) {
+        return lines.flatMap(line -> Arrays.asList(SPACE.split(line))
+                .iterator())
+            .mapToPair(word -> new Tuple2<>(word, 1))
+            .reduceByKey(Integer::sum)
+            .count();
+    }
+
+    public static long wordCount(Dataset<Row> lines) {
+        return lines.select(explode(split(col("value"), " ")).as("word"))
+            .groupBy("word")
+            .count()
+            .agg(count("count"))
+            .first()
+            .getLong(0);
+    }
+
+    public static long typedWordCount(Dataset<String> lines) {
+        return lines.flatMap((FlatMapFunction<String, String>) line -> Arrays.asList(SPACE.split(line))
+                .iterator(), Encoders.STRING())
+            .groupByKey((MapFunction<String, String>) word -> word, Encoders.STRING())
+            .count()
+            .count();
+    }
+
+    public static long customerSpending(JavaRDD<Customer> transactions) {
+        return transactions.mapToPair(customer -> new Tuple2<>(customer.getId(), (long) customer.getTransaction_amount()))
+            .reduceByKey(Long::sum)
+            .count();
+    }
+
+    public static long customerSpending(Dataset<Row> transactions) {
+        return transactions.groupBy("id")
+            .agg(sum("transaction_amount").as("annual_spending"))
+            .agg(count("annual_spending"))
+            .first()
+            .getLong(0);
+    }
+
+    public static long typedCustomerSpending(Dataset<Customer> transactions) {
+        return transactions.groupByKey((MapFunction<Customer, String>) Customer::getId, Encoders.STRING())
+            .reduceGroups((ReduceFunction<Customer>) (left, right) -> new Customer(left.getId(), left.getName(), left.getGender(),
+                left.getTransaction_amount() + right.getTransaction_amount()))
+            .count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.baeldung.benchmark;
+
+import com.baeldung.benchmark.BenchmarkPipelines.Api;
+import com.baeldung.benchmark.BenchmarkPipelines.Pipeline;
+
+/**
+ * Timings and shuffle volume of one pipeline under one configuration, averaged over the timed iterations.
+ */
+public class BenchmarkResult {
+
+    private final Pipeline pipeline;
+    private final Api api;
+    private final SparkBenchmarkConfig config;
+    private final long groups;
+    private final long cachedBytes;
+    private final double averageMillis;
+    private final double bestMillis;
+    private final long shuffleBytesWritten;
+    private final long shuffleBytesRead;
+
+    public BenchmarkResult(Pipeline pipeline, Api api, SparkBenchmarkConfig config, long groups, long cachedBytes, double averageMillis, double bestMillis,
+        long shuffleBytesWritten, long shuffleBytesRead) {
+        this.pipeline = pipeline;
+        this.api = api;
+        this.config = config;
+        this.groups = groups;
+        this.cachedBytes = cachedBytes;
+        this.averageMillis = averageMillis;
+        this.bestMillis = bestMillis;
+        this.shuffleBytesWritten = shuffleBytesWritten;
+        this.shuffleBytesRead = shuffleBytesRead;
+    }
+
+    public static String header() {
+        return String.format("%-18s %-10s %-6s %6s %-16s %12s %12s %12s %14s %14s", "pipeline", "api", "serde", "parts", "storage", "groups",
+            "avg ms", "best ms", "shuffle write", "cached bytes");
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    public Api getApi() {
+        return api;
+    }
+
+    public SparkBenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public long getGroups() {
+        return groups;
+    }
+
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public double getAverageMillis() {
+        return averageMillis;
+    }
+
+    public double getBestMillis() {
+        return bestMillis;
+    }
+
+    public long getShuffleBytesWritten() {
+        return shuffleBytesWritten;
+    }
+
+    public long getShuffleBytesRead() {
+        return shuffleBytesRead;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-18s %-10s %-6s %6d %-16s %12d %12.1f %12.1f %14d %14d", pipeline, api, config.getSerializer(), config.getPartitions(),
+            config.getStorageLevelName(), groups, averageMillis, bestMillis, shuffleBytesWritten, cachedBytes);
+    }
+}
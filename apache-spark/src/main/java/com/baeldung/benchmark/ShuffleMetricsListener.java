@@ -0,0 +1,131 @@
+package com.baeldung.benchmark;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.executor.TaskMetrics;
+import org.apache.spark.scheduler.SparkListener;
+import org.apache.spark.scheduler.SparkListenerJobEnd;
+import org.apache.spark.scheduler.SparkListenerJobStart;
+import org.apache.spark.scheduler.SparkListenerStageSubmitted;
+import org.apache.spark.scheduler.SparkListenerTaskEnd;
+
+/**
+ * Sums the shuffle bytes written and read by every finished task. Events arrive asynchronously on the listener
+ * bus, so read the totals only after {@link #awaitEvents(JavaSparkContext)}.
+ */
+public class ShuffleMetricsListener extends SparkListener {
+
+    private static final String MARKER_PROPERTY = "com.baeldung.benchmark.marker";
+    private static final long MARKER_TIMEOUT_SECONDS = 60;
+
+    private final LongAdder shuffleBytesWritten = new LongAdder();
+    private final LongAdder shuffleBytesRead = new LongAdder();
+    private final LongAdder tasks = new LongAdder();
+
+    private final AtomicLong markers = new AtomicLong();
+    private final Map<Integer, Long> markerJobs = new ConcurrentHashMap<>();
+    private final Set<Integer> markerStages = ConcurrentHashMap.newKeySet();
+    private long lastSeenMarker;
+
+    @Override
+    public void onJobStart(SparkListenerJobStart jobStart) {
+        String marker = property(jobStart.properties());
+        if (marker != null) {
+            markerJobs.put(jobStart.jobId(), Long.valueOf(marker));
+        }
+    }
+
+    @Override
+    public void onStageSubmitted(SparkListenerStageSubmitted stageSubmitted) {
+        if (property(stageSubmitted.properties()) != null) {
+            markerStages.add(stageSubmitted.stageInfo()
+                .stageId());
+        }
+    }
+
+    @Override
+    public void onTaskEnd(SparkListenerTaskEnd taskEnd) {
+        TaskMetrics metrics = taskEnd.taskMetrics();
+        if (metrics == null || markerStages.contains(taskEnd.stageId())) {
+            return;
+        }
+        shuffleBytesWritten.add(metrics.shuffleWriteMetrics()
+            .bytesWritten());
+        shuffleBytesRead.add(metrics.shuffleReadMetrics()
+            .totalBytesRead());
+        tasks.increment();
+    }
+
+    @Override
+    public void onJobEnd(SparkListenerJobEnd jobEnd) {
+        Long marker = markerJobs.remove(jobEnd.jobId());
+        if (marker != null) {
+            synchronized (this) {
+                lastSeenMarker = Math.max(lastSeenMarker, marker);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs a one-task marker job and waits until this listener has seen it end. The bus delivers events in the
+     * order they were posted, so every task of the jobs that finished before has been counted by then.
+     */
+    public void awaitEvents(JavaSparkContext sparkContext) {
+        long marker = markers.incrementAndGet();
+        sparkContext.setLocalProperty(MARKER_PROPERTY, String.valueOf(marker));
+        try {
+            sparkContext.parallelize(Collections.singletonList(marker), 1)
+                .count();
+        } finally {
+            sparkContext.setLocalProperty(MARKER_PROPERTY, null);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(MARKER_TIMEOUT_SECONDS);
+        synchronized (this) {
+            while (lastSeenMarker < marker) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Spark listener events were not delivered in time");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                        .interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for Spark listener events", e);
+                }
+            }
+        }
+    }
+
+    public void reset() {
+        shuffleBytesWritten.reset();
+        shuffleBytesRead.reset();
+        tasks.reset();
+    }
+
+    public long getShuffleBytesWritten() {
+        return shuffleBytesWritten.sum();
+    }
+
+    public long getShuffleBytesRead() {
+        return shuffleBytesRead.sum();
+    }
+
+    public long getTasks() {
+        return tasks.sum();
+    }
+
+    private static String property(Properties properties) {
+        return properties == null ? null : properties.getProperty(MARKER_PROPERTY);
+    }
+}
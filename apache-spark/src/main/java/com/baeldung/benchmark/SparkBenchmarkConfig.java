@@ -0,0 +1,78 @@
+package com.baeldung.benchmark;
+
+import org.apache.spark.storage.StorageLevel;
+
+/**
+ * One point of the benchmark matrix. The serializer is fixed when the {@code SparkContext} starts, so every
+ * configuration runs in its own session.
+ */
+public class SparkBenchmarkConfig {
+
+    public enum SerializerType {
+        JAVA("org.apache.spark.serializer.JavaSerializer"),
+        KRYO("org.apache.spark.serializer.KryoSerializer");
+
+        private final String className;
+
+        SerializerType(String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+    }
+
+    private final SerializerType serializer;
+    private final int partitions;
+    private final String storageLevel;
+    private final boolean adaptiveExecution;
+    private final int iterations;
+
+    /**
+     * @param storageLevel name of the {@link StorageLevel} the input is persisted at before the timed runs,
+     *                     {@code NONE} regenerates the input on every run
+     * @param adaptiveExecution whether adaptive query execution may coalesce the shuffle partitions of the
+     *                          DataFrame and Dataset plans
+     */
+    public SparkBenchmarkConfig(SerializerType serializer, int partitions, String storageLevel, boolean adaptiveExecution, int iterations) {
+        this.serializer = serializer;
+        this.partitions = partitions;
+        this.storageLevel = storageLevel;
+        this.adaptiveExecution = adaptiveExecution;
+        this.iterations = iterations;
+    }
+
+    public SerializerType getSerializer() {
+        return serializer;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public StorageLevel getStorageLevel() {
+        return StorageLevel.fromString(storageLevel);
+    }
+
+    public String getStorageLevelName() {
+        return storageLevel;
+    }
+
+    public boolean isAdaptiveExecution() {
+        return adaptiveExecution;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isCaching() {
+        return !"NONE".equals(storageLevel);
+    }
+
+    @Override
+    public String toString() {
+        return serializer + " serializer, " + partitions + " partitions, " + storageLevel + (adaptiveExecution ? ", AQE" : "");
+    }
+}
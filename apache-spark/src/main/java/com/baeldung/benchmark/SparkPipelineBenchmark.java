@@ -0,0 +1,197 @@
+package com.baeldung.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.storage.RDDInfo;
+import org.apache.spark.storage.StorageLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.baeldung.benchmark.BenchmarkPipelines.Api;
+import com.baeldung.benchmark.BenchmarkPipelines.Pipeline;
+import com.baeldung.benchmark.SparkBenchmarkConfig.SerializerType;
+import com.baeldung.dataframes.Customer;
+
+/**
+ * Runs {@link BenchmarkPipelines} over synthetic data for every combination of serializer, partition count and
+ * storage level, and reports wall time, shuffle bytes and the size of the cached input.
+ * <p>
+ * The matrix and data sizes are read from system properties, e.g.
+ * {@code -Dbenchmark.lines=5000000 -Dbenchmark.partitions=16,200 -Dbenchmark.storageLevels=NONE,MEMORY_ONLY_SER}.
+ * Each run first executes the pipeline once untimed, which warms up the JIT and fills the cache.
+ */
+public class SparkPipelineBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparkPipelineBenchmark.class);
+
+    private static final int WORDS_PER_LINE = 12;
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int TRANSACTIONS_PER_CUSTOMER = 20;
+    private static final long SEED = 42;
+
+    private final String master;
+    private final long corpusLines;
+    private final long transactions;
+
+    public SparkPipelineBenchmark(String master, long corpusLines, long transactions) {
+        this.master = master;
+        this.corpusLines = corpusLines;
+        this.transactions = transactions;
+    }
+
+    public static void main(String[] args) {
+        SparkPipelineBenchmark benchmark = new SparkPipelineBenchmark(System.getProperty("benchmark.master", "local[*]"),
+            Long.getLong("benchmark.lines", 1_000_000), Long.getLong("benchmark.transactions", 2_000_000));
+        List<SerializerType> serializers = property("benchmark.serializers", "JAVA,KRYO").stream()
+            .map(SerializerType::valueOf)
+            .collect(Collectors.toList());
+        List<Integer> partitionCounts = property("benchmark.partitions", "8,64,200").stream()
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+        List<String> storageLevels = property("benchmark.storageLevels", "NONE,MEMORY_ONLY,MEMORY_ONLY_SER,MEMORY_AND_DISK");
+        boolean adaptiveExecution = Boolean.getBoolean("benchmark.adaptive");
+        int iterations = Integer.getInteger("benchmark.iterations", 3);
+
+        LOGGER.info(BenchmarkResult.header());
+        for (SerializerType serializer : serializers) {
+            for (int partitions : partitionCounts) {
+                for (String storageLevel : storageLevels) {
+                    SparkBenchmarkConfig config = new SparkBenchmarkConfig(serializer, partitions, storageLevel, adaptiveExecution, iterations);
+                    benchmark.run(config)
+                        .forEach(result -> LOGGER.info(result.toString()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs every pipeline with every API under {@code config}, in a session of its own.
+     */
+    public List<BenchmarkResult> run(SparkBenchmarkConfig config) {
+        SparkSession session = createSession(config);
+        ShuffleMetricsListener listener = new ShuffleMetricsListener();
+        session.sparkContext()
+            .addSparkListener(listener);
+        try {
+            List<BenchmarkResult> results = new ArrayList<>();
+            for (Pipeline pipeline : Pipeline.values()) {
+                for (Api api : Api.values()) {
+                    results.add(run(session, listener, config, pipeline, api));
+                }
+            }
+            return results;
+        } finally {
+            session.stop();
+        }
+    }
+
+    private SparkSession createSession(SparkBenchmarkConfig config) {
+        return SparkSession.builder()
+            .appName("Spark pipeline benchmark")
+            .master(master)
+            .config("spark.serializer", config.getSerializer()
+                .getClassName())
+            .config("spark.kryo.classesToRegister", Customer.class.getName())
+            .config("spark.default.parallelism", config.getPartitions())
+            .config("spark.sql.shuffle.partitions", config.getPartitions())
+            .config("spark.sql.adaptive.enabled", config.isAdaptiveExecution())
+            .config("spark.ui.enabled", false)
+            .getOrCreate();
+    }
+
+    private BenchmarkResult run(SparkSession session, ShuffleMetricsListener listener, SparkBenchmarkConfig config, Pipeline pipeline, Api api) {
+        JavaSparkContext sparkContext = JavaSparkContext.fromSparkContext(session.sparkContext());
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(sparkContext, SEED);
+        StorageLevel storageLevel = config.getStorageLevel();
+        int partitions = config.getPartitions();
+
+        // the input is kept in the form the API consumes it in, so the cached size shows how compact each API stores it
+        LongSupplier query;
+        Runnable unpersist;
+        if (pipeline == Pipeline.WORD_COUNT) {
+            JavaRDD<String> lines = generator.corpus(corpusLines, WORDS_PER_LINE, VOCABULARY_SIZE, partitions);
+            if (api == Api.RDD) {
+                JavaRDD<String> input = lines.persist(storageLevel);
+                query = () -> BenchmarkPipelines.wordCount(input);
+                unpersist = input::unpersist;
+            } else if (api == Api.DATAFRAME) {
+                Dataset<Row> input = session.createDataset(lines.rdd(), Encoders.STRING())
+                    .toDF()
+                    .persist(storageLevel);
+                query = () -> BenchmarkPipelines.wordCount(input);
+                unpersist = input::unpersist;
+            } else {
+                Dataset<String> input = session.createDataset(lines.rdd(), Encoders.STRING())
+                    .persist(storageLevel);
+                query = () -> BenchmarkPipelines.typedWordCount(input);
+                unpersist = input::unpersist;
+            }
+        } else {
+            int distinctCustomers = (int) Math.max(1, transactions / TRANSACTIONS_PER_CUSTOMER);
+            JavaRDD<Customer> customers = generator.transactions(transactions, distinctCustomers, partitions);
+            if (api == Api.RDD) {
+                JavaRDD<Customer> input = customers.persist(storageLevel);
+                query = () -> BenchmarkPipelines.customerSpending(input);
+                unpersist = input::unpersist;
+            } else if (api == Api.DATAFRAME) {
+                Dataset<Row> input = session.createDataFrame(customers, Customer.class)
+                    .persist(storageLevel);
+                query = () -> BenchmarkPipelines.customerSpending(input);
+                unpersist = input::unpersist;
+            } else {
+                Dataset<Customer> input = session.createDataset(customers.rdd(), Encoders.bean(Customer.class))
+                    .persist(storageLevel);
+                query = () -> BenchmarkPipelines.typedCustomerSpending(input);
+                unpersist = input::unpersist;
+            }
+        }
+
+        try {
+            long groups = query.getAsLong();
+            long cachedBytes = cachedBytes(sparkContext);
+
+            listener.awaitEvents(sparkContext);
+            listener.reset();
+            double totalMillis = 0;
+            double bestMillis = Double.MAX_VALUE;
+            for (int i = 0; i < config.getIterations(); i++) {
+                long start = System.nanoTime();
+                query.getAsLong();
+                double millis = (System.nanoTime() - start) / 1_000_000.0;
+                totalMillis += millis;
+                bestMillis = Math.min(bestMillis, millis);
+            }
+            listener.awaitEvents(sparkContext);
+
+            int iterations = config.getIterations();
+            return new BenchmarkResult(pipeline, api, config, groups, cachedBytes, totalMillis / iterations, bestMillis,
+                listener.getShuffleBytesWritten() / iterations, listener.getShuffleBytesRead() / iterations);
+        } finally {
+            unpersist.run();
+        }
+    }
+
+    private static long cachedBytes(JavaSparkContext sparkContext) {
+        long bytes = 0;
+        for (RDDInfo info : sparkContext.sc()
+            .getRDDStorageInfo()) {
+            bytes += info.memSize() + info.diskSize();
+        }
+        return bytes;
+    }
+
+    private static List<String> property(String name, String defaultValue) {
+        return Arrays.asList(System.getProperty(name, defaultValue)
+            .split(","));
+    }
+}
@@ -0,0 +1,104 @@
+package com.baeldung.benchmark;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import com.baeldung.dataframes.Customer;
+
+/**
+ * Generates deterministic corpora and customer transactions on the executors, so that the size of a data set
+ * is not limited by the driver heap. Every partition derives its own {@link Random} from the seed and its index.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = { "Ana", "Ben", "Chen", "Dara", "Eli", "Fatima", "Goran", "Hana" };
+    private static final String[] LAST_NAMES = { "Ahmed", "Brown", "Costa", "Dubois", "Evans", "Fischer", "Garcia" };
+
+    private final JavaSparkContext sparkContext;
+    private final long seed;
+
+    public SyntheticDataGenerator(JavaSparkContext sparkContext, long seed) {
+        this.sparkContext = sparkContext;
+        this.seed = seed;
+    }
+
+    /**
+     * Lines of {@code wordsPerLine} words drawn from {@code vocabularySize} distinct words. The distribution is
+     * skewed towards the low word indices, as in natural text, so some keys are much hotter than others.
+     */
+    public JavaRDD<String> corpus(long lines, int wordsPerLine, int vocabularySize, int partitions) {
+        long seed = this.seed;
+        return partitionIndices(partitions).mapPartitionsWithIndex((index, ignored) -> {
+            Random random = new Random(seed + index);
+            return generate(rowsInPartition(lines, partitions, index), () -> {
+                StringBuilder line = new StringBuilder();
+                for (int word = 0; word < wordsPerLine; word++) {
+                    if (word > 0) {
+                        line.append(' ');
+                    }
+                    double skewed = random.nextDouble() * random.nextDouble();
+                    line.append('w')
+                        .append((int) (skewed * vocabularySize));
+                }
+                return line.toString();
+            });
+        }, false);
+    }
+
+    /**
+     * One {@link Customer} per transaction, with the customer id drawn from {@code distinctCustomers} ids.
+     */
+    public JavaRDD<Customer> transactions(long rows, int distinctCustomers, int partitions) {
+        long seed = this.seed;
+        return partitionIndices(partitions).mapPartitionsWithIndex((index, ignored) -> {
+            Random random = new Random(seed + index);
+            return generate(rowsInPartition(rows, partitions, index), () -> {
+                int customer = random.nextInt(distinctCustomers);
+                String name = FIRST_NAMES[customer % FIRST_NAMES.length] + " " + LAST_NAMES[customer % LAST_NAMES.length];
+                String gender = customer % 2 == 0 ? "Female" : "Male";
+                return new Customer("C" + customer, name, gender, 1 + random.nextInt(1000));
+            });
+        }, false);
+    }
+
+    private JavaRDD<Integer> partitionIndices(int partitions) {
+        List<Integer> indices = IntStream.range(0, partitions)
+            .boxed()
+            .collect(Collectors.toList());
+        return sparkContext.parallelize(indices, partitions);
+    }
+
+    /**
+     * Produces the rows lazily, so a partition never has to fit in memory unless it is cached.
+     */
+    private static <T> Iterator<T> generate(long rows, Supplier<T> row) {
+        return new Iterator<T>() {
+            private long remaining = rows;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public T next() {
+                if (remaining-- <= 0) {
+                    throw new NoSuchElementException();
+                }
+                return row.get();
+            }
+        };
+    }
+
+    private static long rowsInPartition(long rows, int partitions, int index) {
+        return rows / partitions + (index < rows % partitions ? 1 : 0);
+    }
+}
@@ -1,6 +1,10 @@
 package com.baeldung.dataframes;
 
-public class Customer {
+import java.io.Serializable;
+
+public class Customer implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     String id;
     String name;
     String gender;
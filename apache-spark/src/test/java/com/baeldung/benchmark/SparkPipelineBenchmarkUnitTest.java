@@ -0,0 +1,52 @@
+package com.baeldung.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.baeldung.benchmark.BenchmarkPipelines.Api;
+import com.baeldung.benchmark.BenchmarkPipelines.Pipeline;
+import com.baeldung.benchmark.SparkBenchmarkConfig.SerializerType;
+
+public class SparkPipelineBenchmarkUnitTest {
+
+    private final SparkPipelineBenchmark benchmark = new SparkPipelineBenchmark("local[2]", 2_000, 4_000);
+
+    @Test
+    public void givenKryoAndSerializedCaching_whenRunning_thenAllApisAgreeAndReportShuffleAndCache() {
+        List<BenchmarkResult> results = benchmark.run(new SparkBenchmarkConfig(SerializerType.KRYO, 4, "MEMORY_ONLY_SER", false, 1));
+
+        assertEquals(Pipeline.values().length * Api.values().length, results.size());
+        Map<Pipeline, List<Long>> groupsByPipeline = results.stream()
+            .collect(Collectors.groupingBy(BenchmarkResult::getPipeline, Collectors.mapping(BenchmarkResult::getGroups, Collectors.toList())));
+        for (List<Long> groups : groupsByPipeline.values()) {
+            assertTrue(groups.get(0) > 0);
+            assertTrue(groups.stream()
+                .allMatch(groups.get(0)::equals));
+        }
+        for (BenchmarkResult result : results) {
+            assertTrue(result.getShuffleBytesWritten() > 0);
+            assertTrue(result.getShuffleBytesRead() > 0);
+            assertTrue(result.getCachedBytes() > 0);
+        }
+    }
+
+    @Test
+    public void givenJavaSerializerWithoutCaching_whenRunning_thenNothingIsCached() {
+        List<BenchmarkResult> results = benchmark.run(new SparkBenchmarkConfig(SerializerType.JAVA, 4, "NONE", false, 1));
+
+        for (BenchmarkResult result : results) {
+            assertEquals(0, result.getCachedBytes());
+            assertTrue(result.getShuffleBytesWritten() > 0);
+        }
+        // four thousand transactions at twenty per customer
+        assertTrue(results.stream()
+            .filter(result -> result.getPipeline() == Pipeline.CUSTOMER_SPENDING)
+            .allMatch(result -> result.getGroups() == 200));
+    }
+}
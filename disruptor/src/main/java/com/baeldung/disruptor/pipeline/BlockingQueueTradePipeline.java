@@ -0,0 +1,128 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * The same stages as {@link DisruptorTradePipeline}, connected the conventional way: one thread per
+ * stage and an {@link ArrayBlockingQueue} between consecutive stages. Queues cannot express the diamond
+ * without copying the trade, so the stages run one after the other, and every trade is a new object.
+ * An empty input queue plays the role of {@code endOfBatch}.
+ * <p>
+ * A failing stage stops its thread; the failure is rethrown by {@link #publish(long, int, long, long)}
+ * once the queue in front of it fills up, and by {@link #awaitCompleted(long, Duration)}.
+ */
+public class BlockingQueueTradePipeline implements TradePipeline {
+
+    private final List<BlockingQueue<TradeEvent>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final JournalHandler journal;
+    private final LatencyRecordingHandler latencyRecorder = new LatencyRecordingHandler();
+    private final AtomicReference<Throwable> stageFailure = new AtomicReference<>();
+
+    public BlockingQueueTradePipeline(int queueCapacity, EnrichHandler enricher, WritableByteChannel journalChannel) {
+        this.journal = new JournalHandler(journalChannel, 64 * 1024);
+        List<EventHandler<TradeEvent>> stages = List.of(new DecodeHandler(), enricher, journal, latencyRecorder);
+        for (int i = 0; i < stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            EventHandler<TradeEvent> stage = stages.get(i);
+            BlockingQueue<TradeEvent> in = queues.get(i);
+            BlockingQueue<TradeEvent> out = i + 1 < stages.size() ? queues.get(i + 1) : null;
+            Thread thread = new Thread(() -> runStage(stage, in, out), "trade-stage-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    private void runStage(EventHandler<TradeEvent> stage, BlockingQueue<TradeEvent> in, BlockingQueue<TradeEvent> out) {
+        long sequence = 0;
+        try {
+            while (!Thread.currentThread()
+                .isInterrupted()) {
+                TradeEvent event = in.take();
+                stage.onEvent(event, sequence++, in.isEmpty());
+                if (out != null) {
+                    out.put(event);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        } catch (Throwable e) {
+            stageFailure.compareAndSet(null, new IllegalStateException(Thread.currentThread()
+                .getName() + " failed at sequence " + sequence, e));
+        }
+    }
+
+    @Override
+    public void publish(long accountId, int instrumentId, long quantity, long priceTicks) {
+        TradeEvent event = new TradeEvent();
+        TradeCodec.encode(event.payload, accountId, instrumentId, quantity, priceTicks);
+        event.publishedNanos = System.nanoTime();
+        try {
+            while (!queues.get(0)
+                .offer(event, 10, TimeUnit.MILLISECONDS)) {
+                rethrowStageFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+
+    @Override
+    public void awaitCompleted(long trades, Duration timeout) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (latencyRecorder.getCompletedTrades() < trades) {
+            rethrowStageFailure();
+            if (System.nanoTime() - deadline > 0) {
+                throw new TimeoutException(latencyRecorder.getCompletedTrades() + " of " + trades + " trades completed within " + timeout);
+            }
+            TimeUnit.MICROSECONDS.sleep(100);
+        }
+        rethrowStageFailure();
+    }
+
+    private void rethrowStageFailure() {
+        Throwable failure = stageFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Trade pipeline stage failed", failure);
+        }
+    }
+
+    @Override
+    public LatencyRecordingHandler getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    @Override
+    public JournalHandler getJournal() {
+        return journal;
+    }
+
+    @Override
+    public void close() {
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+        }
+        journal.flush();
+    }
+}
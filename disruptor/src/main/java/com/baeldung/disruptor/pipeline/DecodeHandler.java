@@ -0,0 +1,14 @@
+package com.baeldung.disruptor.pipeline;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * First stage: turns the raw payload into the typed fields read by the later stages.
+ */
+public class DecodeHandler implements EventHandler<TradeEvent> {
+
+    @Override
+    public void onEvent(TradeEvent event, long sequence, boolean endOfBatch) {
+        TradeCodec.decode(event.payload, event);
+    }
+}
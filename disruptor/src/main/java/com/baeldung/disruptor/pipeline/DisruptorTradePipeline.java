@@ -0,0 +1,112 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.lmax.disruptor.ExceptionHandler;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+/**
+ * Trade pipeline on a single ring buffer. Decoding runs first, enrichment and journaling both only
+ * depend on decoding and run in parallel, and the latency stage waits for both (a diamond):
+ *
+ * <pre>
+ *            +-> enrich --+
+ * decode ----+            +--> record latency
+ *            +-> journal -+
+ * </pre>
+ * A handler that throws skips that trade while the other stages carry on, and the first failure is rethrown by
+ * {@link #awaitCompleted(long, Duration)}.
+ */
+public class DisruptorTradePipeline implements TradePipeline {
+
+    private final Disruptor<TradeEvent> disruptor;
+    private final RingBuffer<TradeEvent> ringBuffer;
+    private final JournalHandler journal;
+    private final LatencyRecordingHandler latencyRecorder = new LatencyRecordingHandler();
+    private final AtomicReference<Throwable> stageFailure = new AtomicReference<>();
+
+    @SuppressWarnings("unchecked")
+    public DisruptorTradePipeline(int ringBufferSize, WaitStrategyType waitStrategy, EnrichHandler enricher, WritableByteChannel journalChannel) {
+        this.journal = new JournalHandler(journalChannel, 64 * 1024);
+        this.disruptor = new Disruptor<>(TradeEvent.EVENT_FACTORY, ringBufferSize, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, waitStrategy.create());
+        disruptor.setDefaultExceptionHandler(new FailureRecordingExceptionHandler());
+        disruptor.handleEventsWith(new DecodeHandler())
+            .then(enricher, journal)
+            .then(latencyRecorder);
+        this.ringBuffer = disruptor.start();
+    }
+
+    /**
+     * Must only be called from one thread, the pipeline is set up for a single producer.
+     */
+    @Override
+    public void publish(long accountId, int instrumentId, long quantity, long priceTicks) {
+        final long seq = ringBuffer.next();
+        final TradeEvent event = ringBuffer.get(seq);
+        TradeCodec.encode(event.payload, accountId, instrumentId, quantity, priceTicks);
+        event.publishedNanos = System.nanoTime();
+        ringBuffer.publish(seq);
+    }
+
+    @Override
+    public void awaitCompleted(long trades, Duration timeout) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (latencyRecorder.getCompletedTrades() < trades) {
+            rethrowStageFailure();
+            if (System.nanoTime() - deadline > 0) {
+                throw new TimeoutException(latencyRecorder.getCompletedTrades() + " of " + trades + " trades completed within " + timeout);
+            }
+            TimeUnit.MICROSECONDS.sleep(100);
+        }
+        rethrowStageFailure();
+    }
+
+    private void rethrowStageFailure() {
+        Throwable failure = stageFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Trade pipeline stage failed", failure);
+        }
+    }
+
+    @Override
+    public LatencyRecordingHandler getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    @Override
+    public JournalHandler getJournal() {
+        return journal;
+    }
+
+    @Override
+    public void close() {
+        disruptor.shutdown();
+        journal.flush();
+    }
+
+    private class FailureRecordingExceptionHandler implements ExceptionHandler<TradeEvent> {
+
+        @Override
+        public void handleEventException(Throwable ex, long sequence, TradeEvent event) {
+            stageFailure.compareAndSet(null, new IllegalStateException("Handler failed at sequence " + sequence, ex));
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            stageFailure.compareAndSet(null, ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            stageFailure.compareAndSet(null, ex);
+        }
+    }
+}
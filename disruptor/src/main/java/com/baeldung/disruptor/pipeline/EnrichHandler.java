@@ -0,0 +1,34 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.util.Arrays;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * Computes the notional of the trade and rejects it when it exceeds the limit of the account.
+ * Limits are kept in a preallocated array indexed by account id, so the lookup allocates nothing.
+ * Account ids beyond the size of the array share the limit of their id modulo that size.
+ */
+public class EnrichHandler implements EventHandler<TradeEvent> {
+
+    private final long[] notionalLimits;
+
+    public EnrichHandler(int accounts, long defaultNotionalLimit) {
+        this.notionalLimits = new long[accounts];
+        Arrays.fill(notionalLimits, defaultNotionalLimit);
+    }
+
+    public void setNotionalLimit(long accountId, long notionalLimit) {
+        notionalLimits[slot(accountId)] = notionalLimit;
+    }
+
+    @Override
+    public void onEvent(TradeEvent event, long sequence, boolean endOfBatch) {
+        event.notional = event.quantity * event.priceTicks;
+        event.rejected = event.notional > notionalLimits[slot(event.accountId)];
+    }
+
+    private int slot(long accountId) {
+        return Math.floorMod(accountId, notionalLimits.length);
+    }
+}
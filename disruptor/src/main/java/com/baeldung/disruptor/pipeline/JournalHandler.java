@@ -0,0 +1,67 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * Appends every decoded trade to a journal. Records are collected in a direct buffer and written
+ * when the handler reaches the end of the batch it was given (or the buffer is full), so a burst of
+ * trades costs one write instead of one per trade.
+ */
+public class JournalHandler implements EventHandler<TradeEvent> {
+
+    private static final int RECORD_LENGTH = TradeCodec.ENCODED_LENGTH;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long journaledTrades;
+    private long writes;
+
+    public JournalHandler(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, RECORD_LENGTH));
+    }
+
+    @Override
+    public void onEvent(TradeEvent event, long sequence, boolean endOfBatch) throws IOException {
+        if (buffer.remaining() < RECORD_LENGTH) {
+            write();
+        }
+        buffer.put(event.payload, 0, RECORD_LENGTH);
+        journaledTrades++;
+        if (endOfBatch) {
+            write();
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        writes++;
+    }
+
+    public long getJournaledTrades() {
+        return journaledTrades;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    void flush() {
+        try {
+            if (buffer.position() > 0) {
+                write();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.baeldung.disruptor.pipeline;
+
+import org.HdrHistogram.Histogram;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * Last stage: records the time from publishing a trade to the end of the pipeline. The histogram is
+ * only written by this handler's thread and read once {@link #getCompletedTrades()} shows that every
+ * trade made it through.
+ */
+public class LatencyRecordingHandler implements EventHandler<TradeEvent> {
+
+    private final Histogram latencies = new Histogram(3);
+    private volatile long completedTrades;
+    private long rejectedTrades;
+
+    @Override
+    public void onEvent(TradeEvent event, long sequence, boolean endOfBatch) {
+        latencies.recordValue(System.nanoTime() - event.publishedNanos);
+        if (event.rejected) {
+            rejectedTrades++;
+        }
+        completedTrades++;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getCompletedTrades() {
+        return completedTrades;
+    }
+
+    public long getRejectedTrades() {
+        return rejectedTrades;
+    }
+}
@@ -0,0 +1,92 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pushes the same paced stream of trades through {@link DisruptorTradePipeline} and
+ * {@link BlockingQueueTradePipeline} and logs the latency percentiles of both.
+ * <p>
+ * Arguments (all optional): wait strategy ({@link WaitStrategyType}, default {@code YIELDING}),
+ * trades per run (default 2,000,000) and trades per second (default 500,000).
+ */
+public class PipelineLatencyHarness {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineLatencyHarness.class);
+
+    private static final int ACCOUNTS = 1024;
+    private static final int CAPACITY = 64 * 1024;
+    private static final Duration COMPLETION_TIMEOUT = Duration.ofMinutes(1);
+
+    public static void main(String[] args) throws Exception {
+        WaitStrategyType waitStrategy = args.length > 0 ? WaitStrategyType.valueOf(args[0]) : WaitStrategyType.YIELDING;
+        int trades = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int tradesPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+
+        report("disruptor (" + waitStrategy + ")", run(journal -> new DisruptorTradePipeline(CAPACITY, waitStrategy, enricher(), journal), trades, tradesPerSecond));
+        report("array blocking queue", run(journal -> new BlockingQueueTradePipeline(CAPACITY, enricher(), journal), trades, tradesPerSecond));
+    }
+
+    static Histogram run(Function<FileChannel, TradePipeline> pipelineFactory, int trades, int tradesPerSecond) throws Exception {
+        // the first run only warms up the JIT
+        runOnce(pipelineFactory, trades / 4, tradesPerSecond);
+        return runOnce(pipelineFactory, trades, tradesPerSecond);
+    }
+
+    private static Histogram runOnce(Function<FileChannel, TradePipeline> pipelineFactory, int trades, int tradesPerSecond) throws Exception {
+        Path journalFile = Files.createTempFile("trade-journal", ".bin");
+        try (FileChannel journal = FileChannel.open(journalFile, StandardOpenOption.WRITE); TradePipeline pipeline = pipelineFactory.apply(journal)) {
+            publishPaced(pipeline, trades, tradesPerSecond);
+            pipeline.awaitCompleted(trades, COMPLETION_TIMEOUT);
+            return pipeline.getLatencyRecorder()
+                .getLatencies()
+                .copy();
+        } finally {
+            deleteQuietly(journalFile);
+        }
+    }
+
+    private static void publishPaced(TradePipeline pipeline, int trades, int tradesPerSecond) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intervalNanos = 1_000_000_000L / tradesPerSecond;
+        long start = System.nanoTime();
+        for (int i = 0; i < trades; i++) {
+            long due = start + i * intervalNanos;
+            while (System.nanoTime() < due) {
+                Thread.onSpinWait();
+            }
+            pipeline.publish(random.nextInt(ACCOUNTS), random.nextInt(500), 1 + random.nextInt(1_000), 1 + random.nextInt(10_000));
+        }
+    }
+
+    private static EnrichHandler enricher() {
+        return new EnrichHandler(ACCOUNTS, 5_000_000L);
+    }
+
+    private static void report(String pipeline, Histogram latencies) {
+        LOGGER.info("{}: p50={}us p99={}us p99.9={}us p99.99={}us max={}us", pipeline, micros(latencies, 50), micros(latencies, 99),
+            micros(latencies, 99.9), micros(latencies, 99.99), latencies.getMaxValue() / 1000.0);
+    }
+
+    private static double micros(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-length binary layout of a trade as it arrives from the wire:
+ * account id (8 bytes), instrument id (4 bytes), quantity (8 bytes), price in ticks (8 bytes).
+ */
+final class TradeCodec {
+
+    static final int ENCODED_LENGTH = 28;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private TradeCodec() {
+    }
+
+    static void encode(byte[] payload, long accountId, int instrumentId, long quantity, long priceTicks) {
+        LONG.set(payload, 0, accountId);
+        INT.set(payload, 8, instrumentId);
+        LONG.set(payload, 12, quantity);
+        LONG.set(payload, 20, priceTicks);
+    }
+
+    static void decode(byte[] payload, TradeEvent event) {
+        event.accountId = (long) LONG.get(payload, 0);
+        event.instrumentId = (int) INT.get(payload, 8);
+        event.quantity = (long) LONG.get(payload, 12);
+        event.priceTicks = (long) LONG.get(payload, 20);
+    }
+}
@@ -0,0 +1,56 @@
+package com.baeldung.disruptor.pipeline;
+
+import com.lmax.disruptor.EventFactory;
+
+/**
+ * Ring buffer slot for one trade. All fields are preallocated and overwritten in place by each stage,
+ * so passing a trade through the pipeline allocates nothing.
+ */
+public final class TradeEvent {
+
+    public final static EventFactory<TradeEvent> EVENT_FACTORY = TradeEvent::new;
+
+    // written by the producer
+    final byte[] payload = new byte[TradeCodec.ENCODED_LENGTH];
+    long publishedNanos;
+
+    // written by DecodeHandler
+    long accountId;
+    int instrumentId;
+    long quantity;
+    long priceTicks;
+
+    // written by EnrichHandler
+    long notional;
+    boolean rejected;
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public int getInstrumentId() {
+        return instrumentId;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public long getNotional() {
+        return notional;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "TradeEvent[accountId=" + accountId + ", instrumentId=" + instrumentId + ", quantity=" + quantity + ", priceTicks=" + priceTicks
+            + ", notional=" + notional + ", rejected=" + rejected + "]";
+    }
+}
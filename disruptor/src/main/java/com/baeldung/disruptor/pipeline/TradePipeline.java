@@ -0,0 +1,27 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decodes, enriches and journals trades on dedicated threads.
+ */
+public interface TradePipeline extends AutoCloseable {
+
+    void publish(long accountId, int instrumentId, long quantity, long priceTicks);
+
+    /**
+     * Waits until the given number of trades went through every stage.
+     *
+     * @throws IllegalStateException if a stage failed
+     * @throws TimeoutException if the trades did not complete within the timeout
+     */
+    void awaitCompleted(long trades, Duration timeout) throws InterruptedException, TimeoutException;
+
+    LatencyRecordingHandler getLatencyRecorder();
+
+    JournalHandler getJournal();
+
+    @Override
+    void close();
+}
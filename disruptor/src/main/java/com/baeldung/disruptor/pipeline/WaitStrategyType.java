@@ -0,0 +1,31 @@
+package com.baeldung.disruptor.pipeline;
+
+import java.util.function.Supplier;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+
+/**
+ * The wait strategies a pipeline can be started with, from the cheapest on CPU to the lowest latency.
+ * Busy spin and yielding only pay off with a free core per handler thread.
+ */
+public enum WaitStrategyType {
+
+    BLOCKING(BlockingWaitStrategy::new),
+    SLEEPING(SleepingWaitStrategy::new),
+    YIELDING(YieldingWaitStrategy::new),
+    BUSY_SPIN(BusySpinWaitStrategy::new);
+
+    private final Supplier<WaitStrategy> factory;
+
+    WaitStrategyType(Supplier<WaitStrategy> factory) {
+        this.factory = factory;
+    }
+
+    public WaitStrategy create() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,144 @@
+package com.baeldung.disruptor.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class TradePipelineUnitTest {
+
+    private static final int TRADES = 10_000;
+
+    @Test
+    public void givenEncodedTrade_whenDecodedAndEnriched_thenFieldsAndRejectionAreSet() {
+        TradeEvent event = new TradeEvent();
+        TradeCodec.encode(event.payload, 7L, 42, 300L, 1_000L);
+        EnrichHandler enricher = new EnrichHandler(16, 1_000_000L);
+        enricher.setNotionalLimit(7, 100_000L);
+
+        new DecodeHandler().onEvent(event, 0, true);
+        enricher.onEvent(event, 0, true);
+
+        assertEquals(7L, event.getAccountId());
+        assertEquals(42, event.getInstrumentId());
+        assertEquals(300L, event.getQuantity());
+        assertEquals(1_000L, event.getPriceTicks());
+        assertEquals(300_000L, event.getNotional());
+        assertTrue(event.isRejected());
+    }
+
+    @Test
+    public void givenAccountIdBeyondTheLimits_whenLimitIsSet_thenEnrichmentUsesTheSameSlot() {
+        EnrichHandler enricher = new EnrichHandler(16, 1_000_000L);
+        enricher.setNotionalLimit(23, 100_000L);
+        TradeEvent event = new TradeEvent();
+        TradeCodec.encode(event.payload, 23L, 42, 300L, 1_000L);
+
+        new DecodeHandler().onEvent(event, 0, true);
+        enricher.onEvent(event, 0, true);
+
+        assertTrue(event.isRejected());
+    }
+
+    @Test
+    public void givenFailingStage_whenAwaitingBlockingQueuePipeline_thenFailureIsRethrown() throws Exception {
+        assertStageFailureIsRethrown(journal -> new BlockingQueueTradePipeline(16, new FailingEnrichHandler(), journal));
+    }
+
+    @Test
+    public void givenFailingStage_whenAwaitingDisruptorPipeline_thenFailureIsRethrown() throws Exception {
+        assertStageFailureIsRethrown(journal -> new DisruptorTradePipeline(16, WaitStrategyType.BLOCKING, new FailingEnrichHandler(), journal));
+    }
+
+    @Test
+    public void givenDisruptorPipeline_whenTradesArePublished_thenEveryStageSeesEveryTrade() throws Exception {
+        for (WaitStrategyType waitStrategy : WaitStrategyType.values()) {
+            assertEveryTradeCompletes(journal -> new DisruptorTradePipeline(1024, waitStrategy, new EnrichHandler(4, 50_000L), journal));
+        }
+    }
+
+    @Test
+    public void givenBlockingQueuePipeline_whenTradesArePublished_thenEveryStageSeesEveryTrade() throws Exception {
+        assertEveryTradeCompletes(journal -> new BlockingQueueTradePipeline(1024, new EnrichHandler(4, 50_000L), journal));
+    }
+
+    private void assertEveryTradeCompletes(Function<WritableByteChannel, TradePipeline> pipelineFactory) throws Exception {
+        CountingChannel journalChannel = new CountingChannel();
+        long expectedRejections = 0;
+        try (TradePipeline pipeline = pipelineFactory.apply(journalChannel)) {
+            for (int i = 0; i < TRADES; i++) {
+                long quantity = 1 + i % 100;
+                long priceTicks = 1 + i % 1_000;
+                if (quantity * priceTicks > 50_000L) {
+                    expectedRejections++;
+                }
+                pipeline.publish(i % 4, i, quantity, priceTicks);
+            }
+            pipeline.awaitCompleted(TRADES, Duration.ofSeconds(30));
+
+            assertEquals(TRADES, pipeline.getLatencyRecorder()
+                .getLatencies()
+                .getTotalCount());
+            assertEquals(expectedRejections, pipeline.getLatencyRecorder()
+                .getRejectedTrades());
+            assertEquals(TRADES, pipeline.getJournal()
+                .getJournaledTrades());
+            assertEquals((long) TRADES * TradeCodec.ENCODED_LENGTH, journalChannel.written);
+        }
+    }
+
+    private void assertStageFailureIsRethrown(Function<WritableByteChannel, TradePipeline> pipelineFactory) throws Exception {
+        try (TradePipeline pipeline = pipelineFactory.apply(new CountingChannel())) {
+            // more trades than the queues hold, publishing must not block on the failed stage
+            for (int i = 0; i < 100; i++) {
+                pipeline.publish(i, i, 1, 1);
+            }
+            pipeline.awaitCompleted(100, Duration.ofSeconds(30));
+            fail("Expected the stage failure to be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getCause()
+                .getCause()
+                .getMessage());
+        }
+    }
+
+    private static class FailingEnrichHandler extends EnrichHandler {
+
+        private FailingEnrichHandler() {
+            super(1, 0);
+        }
+
+        @Override
+        public void onEvent(TradeEvent event, long sequence, boolean endOfBatch) {
+            throw new IllegalArgumentException("boom");
+        }
+    }
+
+    private static class CountingChannel implements WritableByteChannel {
+
+        private volatile long written;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            written += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
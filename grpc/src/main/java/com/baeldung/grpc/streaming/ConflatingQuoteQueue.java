@@ -0,0 +1,62 @@
+package com.baeldung.grpc.streaming;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The quotes waiting to be sent on one stream. A new quote for a ticker that is still waiting replaces the stale
+ * one in place, so a slow subscriber gets the latest price of every ticker instead of a growing backlog. At most
+ * {@code capacity} tickers wait at a time; beyond that the oldest quote is dropped.
+ */
+class ConflatingQuoteQueue {
+
+    private final int capacity;
+    private final LinkedHashMap<String, StockQuote> pending = new LinkedHashMap<>();
+    private long conflated;
+    private long dropped;
+
+    ConflatingQuoteQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(StockQuote quote) {
+        String ticker = quote.getTickerSymbol();
+        if (pending.containsKey(ticker)) {
+            // put keeps the position of an existing key
+            pending.put(ticker, quote);
+            conflated++;
+            return;
+        }
+        if (pending.size() >= capacity) {
+            Iterator<StockQuote> oldest = pending.values()
+                .iterator();
+            oldest.next();
+            oldest.remove();
+            dropped++;
+        }
+        pending.put(ticker, quote);
+    }
+
+    synchronized StockQuote poll() {
+        Iterator<StockQuote> oldest = pending.values()
+            .iterator();
+        if (!oldest.hasNext()) {
+            return null;
+        }
+        StockQuote quote = oldest.next();
+        oldest.remove();
+        return quote;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    synchronized long getConflated() {
+        return conflated;
+    }
+
+    synchronized long getDropped() {
+        return dropped;
+    }
+}
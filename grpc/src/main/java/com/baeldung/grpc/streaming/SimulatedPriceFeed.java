@@ -0,0 +1,58 @@
+package com.baeldung.grpc.streaming;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a new price for every ticker to a {@link StockQuoteHub} once per {@code interval}, following a random
+ * walk that starts at the length of the ticker symbol, like {@code StockServer.fetchStockPriceBid}.
+ */
+public class SimulatedPriceFeed implements AutoCloseable {
+
+    private final StockQuoteHub hub;
+    private final List<String> tickers;
+    private final double[] prices;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int tick;
+
+    public SimulatedPriceFeed(StockQuoteHub hub, List<String> tickers) {
+        this.hub = hub;
+        this.tickers = tickers;
+        this.prices = new double[tickers.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = tickers.get(i)
+                .length();
+        }
+    }
+
+    public void start(Duration interval) {
+        scheduler.scheduleAtFixedRate(this::publishAll, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void publishAll() {
+        tick++;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = Math.max(0.01, prices[i] + random.nextDouble(-0.1d, 0.1d));
+            hub.publish(StockQuote.newBuilder()
+                .setTickerSymbol(tickers.get(i))
+                .setPrice(prices[i])
+                .setOfferNumber(tick)
+                .setDescription("Price for stock:" + tickers.get(i))
+                .build());
+        }
+    }
+}
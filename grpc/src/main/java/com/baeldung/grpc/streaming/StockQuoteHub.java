@@ -0,0 +1,168 @@
+package com.baeldung.grpc.streaming;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * Fans the quotes of one price feed out to many subscriber streams. Publishing never blocks on a subscriber: every
+ * stream has its own {@link ConflatingQuoteQueue}, which is drained only while gRPC reports the stream as ready, and
+ * again from its on-ready handler once the client has caught up.
+ * <p>
+ * A stream that completes or is cancelled leaves the hub, and the quotes its queue conflated or dropped are added
+ * to the hub's totals.
+ */
+public class StockQuoteHub {
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Subscription> all = ConcurrentHashMap.newKeySet();
+    private final int queueCapacity;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    // of the streams that already left the hub
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public StockQuoteHub(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Must be called from the service method, before it returns, so that the handlers are installed in time.
+     */
+    public Subscription subscribe(Collection<String> tickers, ServerCallStreamObserver<StockQuote> observer) {
+        Subscription subscription = new Subscription(tickers, observer);
+        observer.setOnCancelHandler(() -> {
+            subscription.cancelled = true;
+            remove(subscription);
+        });
+        observer.setOnReadyHandler(subscription::drain);
+        all.add(subscription);
+        for (String ticker : tickers) {
+            subscriptions.computeIfAbsent(ticker, key -> ConcurrentHashMap.newKeySet())
+                .add(subscription);
+        }
+        return subscription;
+    }
+
+    public void publish(StockQuote quote) {
+        published.increment();
+        Set<Subscription> subscribers = subscriptions.get(quote.getTickerSymbol());
+        if (subscribers != null) {
+            for (Subscription subscription : subscribers) {
+                subscription.offer(quote);
+            }
+        }
+    }
+
+    /**
+     * Completes every stream once its pending quotes are sent.
+     */
+    public void close() {
+        for (Subscription subscription : all) {
+            subscription.complete();
+        }
+    }
+
+    public int getSubscriptionCount() {
+        return all.size();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getConflated() {
+        long total = conflated.sum();
+        for (Subscription subscription : all) {
+            total += subscription.queue.getConflated();
+        }
+        return total;
+    }
+
+    public long getDropped() {
+        long total = dropped.sum();
+        for (Subscription subscription : all) {
+            total += subscription.queue.getDropped();
+        }
+        return total;
+    }
+
+    private void remove(Subscription subscription) {
+        if (!subscription.removed.compareAndSet(false, true)) {
+            return;
+        }
+        for (String ticker : subscription.tickers) {
+            Set<Subscription> subscribers = subscriptions.get(ticker);
+            if (subscribers != null) {
+                subscribers.remove(subscription);
+            }
+        }
+        conflated.add(subscription.queue.getConflated());
+        dropped.add(subscription.queue.getDropped());
+        all.remove(subscription);
+    }
+
+    public class Subscription {
+
+        private final Collection<String> tickers;
+        private final ServerCallStreamObserver<StockQuote> observer;
+        private final ConflatingQuoteQueue queue = new ConflatingQuoteQueue(queueCapacity);
+        // serializes calls on the observer, which may come from the feed and from gRPC's on-ready handler
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private final AtomicBoolean completing = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private boolean completed;
+
+        Subscription(Collection<String> tickers, ServerCallStreamObserver<StockQuote> observer) {
+            this.tickers = tickers;
+            this.observer = observer;
+        }
+
+        public int getPendingQuotes() {
+            return queue.size();
+        }
+
+        void offer(StockQuote quote) {
+            queue.offer(quote);
+            drain();
+        }
+
+        void complete() {
+            completing.set(true);
+            drain();
+        }
+
+        void drain() {
+            if (drainRequests.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                if (cancelled || completed) {
+                    continue;
+                }
+                StockQuote quote;
+                while (observer.isReady() && (quote = queue.poll()) != null) {
+                    observer.onNext(quote);
+                    sent.increment();
+                }
+                if (completing.get() && queue.size() == 0) {
+                    completed = true;
+                    remove(this);
+                    observer.onCompleted();
+                }
+            } while (drainRequests.decrementAndGet() != 0);
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package com.baeldung.grpc.streaming;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
@@ -9,23 +16,28 @@ import org.slf4j.LoggerFactory;
 
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 public class StockServer {
 
     private static final Logger logger = LoggerFactory.getLogger(StockClient.class.getName());
+    private static final List<String> TICKERS = Arrays.asList("AU", "MSFT", "GOOG", "AMZN", "AAPL", "TSLA", "NFLX", "NVDA");
     private final int port;
     private final Server server;
+    private final StockQuoteHub hub = new StockQuoteHub(TICKERS.size());
+    private final SimulatedPriceFeed priceFeed = new SimulatedPriceFeed(hub, TICKERS);
 
     public StockServer(int port) throws IOException {
         this.port = port;
         server = ServerBuilder.forPort(port)
-            .addService(new StockService())
+            .addService(new StockService(hub))
             .build();
     }
 
     public void start() throws IOException {
         server.start();
+        priceFeed.start(Duration.ofMillis(100));
         logger.info("Server started, listening on " + port);
         Runtime.getRuntime()
             .addShutdownHook(new Thread() {
@@ -43,6 +55,8 @@ public class StockServer {
     }
 
     public void stop() throws InterruptedException {
+        priceFeed.close();
+        hub.close();
         if (server != null) {
             server.shutdown()
                 .awaitTermination(30, TimeUnit.SECONDS);
@@ -57,24 +71,39 @@ public class StockServer {
         }
     }
 
-    private static class StockService extends StockQuoteProviderGrpc.StockQuoteProviderImplBase {
+    static class StockService extends StockQuoteProviderGrpc.StockQuoteProviderImplBase {
 
-        StockService() {
+        private final StockQuoteHub hub;
+
+        StockService(StockQuoteHub hub) {
+            this.hub = hub;
         }
 
         @Override
         public void serverSideStreamingGetListStockQuotes(Stock request, StreamObserver<StockQuote> responseObserver) {
+            ServerCallStreamObserver<StockQuote> call = (ServerCallStreamObserver<StockQuote>) responseObserver;
+            // onReady runs on the call's serialized executor, like this method, one invocation at a time
+            Runnable sendQuotes = new Runnable() {
+                int i = 1;
 
-            for (int i = 1; i <= 5; i++) {
-
-                StockQuote stockQuote = StockQuote.newBuilder()
-                    .setPrice(fetchStockPriceBid(request))
-                    .setOfferNumber(i)
-                    .setDescription("Price for stock:" + request.getTickerSymbol())
-                    .build();
-                responseObserver.onNext(stockQuote);
-            }
-            responseObserver.onCompleted();
+                @Override
+                public void run() {
+                    while (call.isReady() && i <= 5) {
+                        call.onNext(StockQuote.newBuilder()
+                            .setPrice(fetchStockPriceBid(request))
+                            .setOfferNumber(i++)
+                            .setDescription("Price for stock:" + request.getTickerSymbol())
+                            .setTickerSymbol(request.getTickerSymbol())
+                            .build());
+                    }
+                    if (i == 6) {
+                        i++;
+                        call.onCompleted();
+                    }
+                }
+            };
+            call.setOnReadyHandler(sendQuotes);
+            sendQuotes.run();
         }
 
         @Override
@@ -82,21 +111,25 @@ public class StockServer {
             return new StreamObserver<Stock>() {
                 int count;
                 double price = 0.0;
-                StringBuffer sb = new StringBuffer();
+                // one entry per distinct ticker, however many stocks the client sends
+                Map<String, Integer> tickers = new TreeMap<>();
 
                 @Override
                 public void onNext(Stock stock) {
                     count++;
-                    price = +fetchStockPriceBid(stock);
-                    sb.append(":")
-                        .append(stock.getTickerSymbol());
+                    price += fetchStockPriceBid(stock);
+                    tickers.merge(stock.getTickerSymbol(), 1, Integer::sum);
                 }
 
                 @Override
                 public void onCompleted() {
+                    StringBuilder sb = new StringBuilder();
+                    tickers.keySet()
+                        .forEach(ticker -> sb.append(":")
+                            .append(ticker));
                     responseObserver.onNext(StockQuote.newBuilder()
-                        .setPrice(price / count)
-                        .setDescription("Statistics-" + sb.toString())
+                        .setPrice(count == 0 ? 0 : price / count)
+                        .setDescription("Statistics-" + sb)
                         .build());
                     responseObserver.onCompleted();
                 }
@@ -110,9 +143,23 @@ public class StockServer {
 
         @Override
         public StreamObserver<Stock> bidirectionalStreamingGetListsStockQuotes(final StreamObserver<StockQuote> responseObserver) {
+            ServerCallStreamObserver<StockQuote> call = (ServerCallStreamObserver<StockQuote>) responseObserver;
+            // request one stock at a time, and the next only after its quotes went out, so a slow reader slows the writer
+            call.disableAutoRequest();
+            call.request(1);
             return new StreamObserver<Stock>() {
+                final Deque<StockQuote> pending = new ArrayDeque<>();
+                boolean awaitingStock = true;
+                boolean halfClosed;
+                boolean done;
+
+                {
+                    call.setOnReadyHandler(this::drain);
+                }
+
                 @Override
                 public void onNext(Stock request) {
+                    awaitingStock = false;
 
                     for (int i = 1; i <= 5; i++) {
 
@@ -120,22 +167,47 @@ public class StockServer {
                             .setPrice(fetchStockPriceBid(request))
                             .setOfferNumber(i)
                             .setDescription("Price for stock:" + request.getTickerSymbol())
+                            .setTickerSymbol(request.getTickerSymbol())
                             .build();
-                        responseObserver.onNext(stockQuote);
+                        pending.add(stockQuote);
                     }
+                    drain();
                 }
 
                 @Override
                 public void onCompleted() {
-                    responseObserver.onCompleted();
+                    halfClosed = true;
+                    drain();
                 }
 
                 @Override
                 public void onError(Throwable t) {
                     logger.warn("error:{}", t.getMessage());
                 }
+
+                // all callbacks of a call run on its serialized executor, so no locking is needed
+                private void drain() {
+                    while (call.isReady() && !pending.isEmpty()) {
+                        call.onNext(pending.poll());
+                    }
+                    if (!pending.isEmpty() || done) {
+                        return;
+                    }
+                    if (halfClosed) {
+                        done = true;
+                        call.onCompleted();
+                    } else if (!awaitingStock) {
+                        awaitingStock = true;
+                        call.request(1);
+                    }
+                }
             };
         }
+
+        @Override
+        public void subscribeStockQuotes(StockSubscription request, StreamObserver<StockQuote> responseObserver) {
+            hub.subscribe(request.getTickerSymbolsList(), (ServerCallStreamObserver<StockQuote>) responseObserver);
+        }
     }
 
     private static double fetchStockPriceBid(Stock stock) {
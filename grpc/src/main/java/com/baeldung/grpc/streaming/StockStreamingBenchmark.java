@@ -0,0 +1,126 @@
+package com.baeldung.grpc.streaming;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+/**
+ * Subscribes thousands of in-process clients to a {@link StockQuoteHub} and publishes quotes as fast as possible.
+ * Clients ask for one message at a time; the slow ones wait before asking for the next, so their streams stop being
+ * ready and the hub conflates or drops quotes for them instead of buffering.
+ * <p>
+ * Arguments: subscribers (default 2000), fraction of slow subscribers (0.1), delay of a slow subscriber in
+ * milliseconds (5), publishing rounds (2000).
+ */
+public class StockStreamingBenchmark {
+
+    private static final List<String> TICKERS = Arrays.asList("AU", "MSFT", "GOOG", "AMZN", "AAPL", "TSLA", "NFLX", "NVDA");
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        double slowFraction = args.length > 1 ? Double.parseDouble(args[1]) : 0.1;
+        long slowDelayMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+        StockQuoteHub hub = new StockQuoteHub(TICKERS.size());
+        String serverName = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(serverName)
+            .addService(new StockServer.StockService(hub))
+            .build()
+            .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(serverName)
+            .build();
+        ScheduledExecutorService slowClients = Executors.newSingleThreadScheduledExecutor();
+
+        StockQuoteProviderGrpc.StockQuoteProviderStub stub = StockQuoteProviderGrpc.newStub(channel);
+        StockSubscription subscription = StockSubscription.newBuilder()
+            .addAllTickerSymbols(TICKERS)
+            .build();
+        LongAdder received = new LongAdder();
+        CountDownLatch completed = new CountDownLatch(subscribers);
+        int slowSubscribers = (int) (subscribers * slowFraction);
+        for (int i = 0; i < subscribers; i++) {
+            stub.subscribeStockQuotes(subscription, new QuoteCounter(i < slowSubscribers ? slowDelayMillis : 0, slowClients, received, completed));
+        }
+        while (hub.getSubscriptionCount() < subscribers) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        for (int round = 1; round <= rounds; round++) {
+            for (String ticker : TICKERS) {
+                hub.publish(StockQuote.newBuilder()
+                    .setTickerSymbol(ticker)
+                    .setPrice(ticker.length() + round / 1000.0)
+                    .setOfferNumber(round)
+                    .build());
+            }
+        }
+        hub.close();
+        completed.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d subscribers (%d slow, %d ms per quote), %d quotes published%n", subscribers, slowSubscribers, slowDelayMillis,
+            hub.getPublished());
+        System.out.printf("delivered %d quotes in %.2f s: %.0f msgs/s%n", received.sum(), seconds, received.sum() / seconds);
+        System.out.printf("conflated %d, dropped %d%n", hub.getConflated(), hub.getDropped());
+
+        slowClients.shutdownNow();
+        channel.shutdownNow();
+        server.shutdownNow()
+            .awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static class QuoteCounter implements ClientResponseObserver<StockSubscription, StockQuote> {
+
+        private final long delayMillis;
+        private final ScheduledExecutorService scheduler;
+        private final LongAdder received;
+        private final CountDownLatch completed;
+        private ClientCallStreamObserver<StockSubscription> call;
+
+        QuoteCounter(long delayMillis, ScheduledExecutorService scheduler, LongAdder received, CountDownLatch completed) {
+            this.delayMillis = delayMillis;
+            this.scheduler = scheduler;
+            this.received = received;
+            this.completed = completed;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<StockSubscription> requestStream) {
+            call = requestStream;
+            requestStream.disableAutoRequestWithInitial(1);
+        }
+
+        @Override
+        public void onNext(StockQuote quote) {
+            received.increment();
+            if (delayMillis == 0) {
+                call.request(1);
+            } else {
+                scheduler.schedule(() -> call.request(1), delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.baeldung.grpc.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class ConflatingQuoteQueueUnitTest {
+
+    @Test
+    public void whenTickerIsAlreadyPending_thenLatestQuoteReplacesItInPlace() {
+        ConflatingQuoteQueue queue = new ConflatingQuoteQueue(4);
+        queue.offer(quote("MSFT", 1));
+        queue.offer(quote("GOOG", 1));
+        queue.offer(quote("MSFT", 2));
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getConflated());
+        assertEquals(quote("MSFT", 2), queue.poll());
+        assertEquals(quote("GOOG", 1), queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void whenQueueIsFull_thenOldestQuoteIsDropped() {
+        ConflatingQuoteQueue queue = new ConflatingQuoteQueue(2);
+        queue.offer(quote("MSFT", 1));
+        queue.offer(quote("GOOG", 1));
+        queue.offer(quote("AAPL", 1));
+
+        assertEquals(1, queue.getDropped());
+        assertEquals(quote("GOOG", 1), queue.poll());
+        assertEquals(quote("AAPL", 1), queue.poll());
+    }
+
+    private static StockQuote quote(String ticker, int offerNumber) {
+        return StockQuote.newBuilder()
+            .setTickerSymbol(ticker)
+            .setOfferNumber(offerNumber)
+            .setPrice(offerNumber)
+            .build();
+    }
+}
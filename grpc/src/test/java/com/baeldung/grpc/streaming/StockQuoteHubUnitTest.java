@@ -0,0 +1,127 @@
+package com.baeldung.grpc.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+public class StockQuoteHubUnitTest {
+
+    private final StockQuoteHub hub = new StockQuoteHub(2);
+    private Server inProcessServer;
+    private ManagedChannel managedChannel;
+
+    @BeforeEach
+    void setup() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        inProcessServer = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(new StockServer.StockService(hub))
+            .build()
+            .start();
+        managedChannel = InProcessChannelBuilder.forName(serverName)
+            .directExecutor()
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        managedChannel.shutdownNow();
+        inProcessServer.shutdownNow();
+    }
+
+    @Test
+    void givenClientIsNotReady_whenQuotesArePublished_thenTheyAreConflatedAndSentOnceItIsReady() throws InterruptedException {
+        SlowClient client = new SlowClient();
+        StockQuoteProviderGrpc.newStub(managedChannel)
+            .subscribeStockQuotes(StockSubscription.newBuilder()
+                .addAllTickerSymbols(Arrays.asList("MSFT", "GOOG"))
+                .build(), client);
+        waitUntil(() -> hub.getSubscriptionCount() == 1);
+
+        hub.publish(quote("MSFT", 1));
+        hub.publish(quote("GOOG", 1));
+        hub.publish(quote("MSFT", 2));
+        hub.publish(quote("MSFT", 3));
+
+        assertTrue(client.received.isEmpty());
+        assertEquals(0, hub.getSent());
+        assertEquals(2, hub.getConflated());
+
+        client.call.request(2);
+        waitUntil(() -> client.received.size() == 2);
+
+        assertEquals(Arrays.asList(quote("MSFT", 3), quote("GOOG", 1)), client.received);
+        assertEquals(2, hub.getSent());
+
+        hub.close();
+
+        assertTrue(client.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, hub.getSubscriptionCount());
+        assertEquals(2, hub.getConflated());
+        assertEquals(0, hub.getDropped());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static StockQuote quote(String ticker, int offerNumber) {
+        return StockQuote.newBuilder()
+            .setTickerSymbol(ticker)
+            .setOfferNumber(offerNumber)
+            .build();
+    }
+
+    /**
+     * Requests no message up front, so the server stream is not ready until the test asks for some.
+     */
+    private static class SlowClient implements ClientResponseObserver<StockSubscription, StockQuote> {
+
+        private final List<StockQuote> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private ClientCallStreamObserver<StockSubscription> call;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<StockSubscription> requestStream) {
+            call = requestStream;
+            requestStream.disableAutoRequestWithInitial(0);
+        }
+
+        @Override
+        public void onNext(StockQuote quote) {
+            received.add(quote);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            completed.countDown();
+        }
+    }
+}
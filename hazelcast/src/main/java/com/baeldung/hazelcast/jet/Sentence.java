@@ -0,0 +1,27 @@
+package com.baeldung.hazelcast.jet;
+
+import java.io.Serializable;
+
+/**
+ * A line of text and the time it was written, which is the event time the word counts are windowed on.
+ */
+public class Sentence implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long timestamp;
+    private final String text;
+
+    public Sentence(long timestamp, String text) {
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
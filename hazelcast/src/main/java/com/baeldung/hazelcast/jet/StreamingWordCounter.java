@@ -0,0 +1,205 @@
+package com.baeldung.hazelcast.jet;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.flakeidgen.FlakeIdGenerator;
+import com.hazelcast.jet.Jet;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.core.JobStatus;
+import com.hazelcast.jet.core.metrics.Measurement;
+import com.hazelcast.jet.core.metrics.MeasurementPredicates;
+import com.hazelcast.jet.core.metrics.MetricNames;
+import com.hazelcast.jet.core.metrics.MetricTags;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.jet.pipeline.JournalInitialPosition;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.Sources;
+import com.hazelcast.jet.pipeline.StreamSource;
+import com.hazelcast.map.IMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.function.ComparatorEx.comparingLong;
+import static com.hazelcast.function.Functions.wholeItem;
+import static com.hazelcast.jet.Traversers.traverseArray;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.aggregate.AggregateOperations.topN;
+import static com.hazelcast.jet.pipeline.WindowDefinition.sliding;
+import static com.hazelcast.jet.pipeline.WindowDefinition.tumbling;
+
+/**
+ * Long-running counterpart of {@link WordCounter}: one embedded Jet member runs a streaming job for its
+ * whole lifetime instead of a batch job per call.
+ * <p>
+ * Sentences are put into the {@value #SENTENCES_MAP} map, whose event journal is the source of the job.
+ * Words are counted per sliding window of event time, and every time the watermark passes the end of a
+ * window, the top N words of that window are written to the {@value #TOP_WORDS_MAP} map, keyed by the
+ * window end, where any number of clients can read them.
+ * <p>
+ * The watermark trails the latest event time by {@code allowedLagMillis}. Sentences further behind
+ * than that are dropped as late, and so are sentences of a journal partition that stayed idle for
+ * {@code PARTITION_IDLE_TIMEOUT_MILLIS} while the others moved on.
+ */
+public class StreamingWordCounter implements AutoCloseable {
+
+    static final String SENTENCES_MAP = "sentences";
+    static final String TOP_WORDS_MAP = "topWords";
+
+    private static final long DEFAULT_ALLOWED_LAG_MILLIS = 1000;
+    private static final long PARTITION_IDLE_TIMEOUT_MILLIS = 1000;
+
+    private final JetInstance jet;
+    private final IMap<Long, Sentence> sentences;
+    private final IMap<Long, List<WordCount>> topWords;
+    private final FlakeIdGenerator sentenceIds;
+    private final Job job;
+
+    public StreamingWordCounter(long windowMillis, long slideMillis, int topN) {
+        this(windowMillis, slideMillis, topN, DEFAULT_ALLOWED_LAG_MILLIS);
+    }
+
+    public StreamingWordCounter(long windowMillis, long slideMillis, int topN, long allowedLagMillis) {
+        jet = Jet.newJetInstance(jetConfig(windowMillis));
+        sentences = jet.getMap(SENTENCES_MAP);
+        topWords = jet.getMap(TOP_WORDS_MAP);
+        sentenceIds = jet.getHazelcastInstance()
+            .getFlakeIdGenerator(SENTENCES_MAP);
+        job = jet.newJob(createPipeLine(windowMillis, slideMillis, topN, allowedLagMillis));
+        awaitRunning();
+    }
+
+    private void awaitRunning() {
+        while (job.getStatus() != JobStatus.RUNNING) {
+            if (job.getFuture()
+                .isDone()) {
+                throw new IllegalStateException("Word count job ended with status " + job.getStatus());
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static JetConfig jetConfig(long windowMillis) {
+        JetConfig jetConfig = new JetConfig();
+        Config config = jetConfig.getHazelcastConfig();
+        // a single local member, kept apart from the members of hazelcast.xml which look for each other on ports 5701-5703
+        config.setClusterName("streaming-word-counter");
+        config.getNetworkConfig()
+            .setPort(5801)
+            .getJoin()
+            .getMulticastConfig()
+            .setEnabled(false);
+        MapConfig sentencesConfig = config.getMapConfig(SENTENCES_MAP)
+            .setTimeToLiveSeconds(60);
+        sentencesConfig.getEventJournalConfig()
+            .setEnabled(true)
+            .setCapacity(2_000_000);
+        config.getMetricsConfig()
+            .setCollectionFrequencySeconds(1);
+        config.getMapConfig(TOP_WORDS_MAP)
+            .setTimeToLiveSeconds((int) Math.max(60, windowMillis * 10 / 1000));
+        return jetConfig;
+    }
+
+    private Pipeline createPipeLine(long windowMillis, long slideMillis, int topN, long allowedLagMillis) {
+        StreamSource<Map.Entry<Long, Sentence>> source = Sources.<Long, Sentence> mapJournal(SENTENCES_MAP, JournalInitialPosition.START_FROM_OLDEST)
+            .setPartitionIdleTimeout(PARTITION_IDLE_TIMEOUT_MILLIS);
+
+        Pipeline p = Pipeline.create();
+        p.readFrom(source)
+            .withTimestamps(sentence -> sentence.getValue()
+                .getTimestamp(), allowedLagMillis)
+            .flatMap(sentence -> traverseArray(sentence.getValue()
+                .getText()
+                .toLowerCase()
+                .split("\\W+")))
+            .filter(word -> !word.isEmpty())
+            .groupingKey(wholeItem())
+            .window(sliding(windowMillis, slideMillis))
+            .aggregate(counting())
+            // all counts of one sliding window carry the same timestamp, so a tumbling window of one slide collects them again
+            .window(tumbling(slideMillis))
+            .aggregate(topN(topN, comparingLong(KeyedWindowResult<String, Long>::result)))
+            .filter(top -> !top.result()
+                .isEmpty())
+            .map(top -> entry(top.result()
+                .get(0)
+                .end(), toWordCounts(top.result())))
+            .writeTo(Sinks.map(TOP_WORDS_MAP));
+        return p;
+    }
+
+    private static List<WordCount> toWordCounts(List<KeyedWindowResult<String, Long>> counts) {
+        List<WordCount> wordCounts = new ArrayList<>(counts.size());
+        for (KeyedWindowResult<String, Long> count : counts) {
+            wordCounts.add(new WordCount(count.key(), count.result()));
+        }
+        return wordCounts;
+    }
+
+    public void publish(long timestamp, String text) {
+        sentences.set(sentenceIds.newId(), new Sentence(timestamp, text));
+    }
+
+    public void publishAll(Collection<Sentence> batch) {
+        Map<Long, Sentence> entries = new HashMap<>();
+        for (Sentence sentence : batch) {
+            entries.put(sentenceIds.newId(), sentence);
+        }
+        sentences.putAll(entries);
+    }
+
+    /**
+     * @return the most frequent words of the window ending at {@code windowEnd}, most frequent first,
+     *     or {@code null} while that window is still open
+     */
+    public List<WordCount> topWords(long windowEnd) {
+        return topWords.get(windowEnd);
+    }
+
+    /**
+     * @return the end of the latest window with results, or -1 if none is complete yet
+     */
+    public long latestWindowEnd() {
+        return topWords.keySet()
+            .stream()
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(-1);
+    }
+
+    /**
+     * @return the number of sentences the job has read from the journal so far, refreshed every second
+     */
+    public long readSentences() {
+        return job.getMetrics()
+            .filter(MeasurementPredicates.tagValueEquals(MetricTags.SOURCE, "true"))
+            .get(MetricNames.EMITTED_COUNT)
+            .stream()
+            .filter(measurement -> !"snapshot".equals(measurement.tag(MetricTags.ORDINAL)))
+            .mapToLong(Measurement::value)
+            .sum();
+    }
+
+    public IMap<Long, List<WordCount>> getTopWordsMap() {
+        return topWords;
+    }
+
+    @Override
+    public void close() {
+        try {
+            job.cancel();
+        } finally {
+            jet.shutdown();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.baeldung.hazelcast.jet;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class WordCount implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String word;
+    private final long count;
+
+    public WordCount(String word, long count) {
+        this.word = word;
+        this.count = count;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WordCount)) {
+            return false;
+        }
+        WordCount other = (WordCount) o;
+        return count == other.count && word.equals(other.word);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(word, count);
+    }
+
+    @Override
+    public String toString() {
+        return word + "=" + count;
+    }
+}
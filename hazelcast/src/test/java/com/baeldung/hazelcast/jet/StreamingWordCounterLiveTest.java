@@ -0,0 +1,109 @@
+package com.baeldung.hazelcast.jet;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Streams sentences into a single local member as fast as it accepts them while clients keep querying
+ * the latest top words, and logs the sentences/sec processed end to end and the queries/sec served.
+ * The allowed lag spans the whole run, so no sentence of the backlog is dropped as late.
+ */
+public class StreamingWordCounterLiveTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingWordCounterLiveTest.class);
+
+    private static final int SENTENCES = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final long EVENT_TIME_SPAN_MILLIS = 30_000;
+    private static final long WINDOW_MILLIS = 1_000;
+    private static final long ALLOWED_LAG_MILLIS = 60_000;
+    private static final int READERS = 4;
+    private static final String[] WORDS = { "jet", "stream", "window", "watermark", "event", "time", "sliding", "count", "top", "word", "map",
+        "journal", "member", "cluster", "partition", "job" };
+
+    @Test
+    public void whenStreamingSentencesUnderConcurrentQueries_ThenThroughputIsLogged() throws Exception {
+        try (StreamingWordCounter wordCounter = new StreamingWordCounter(WINDOW_MILLIS, 100, 5, ALLOWED_LAG_MILLIS)) {
+            AtomicBoolean publishing = new AtomicBoolean(true);
+            AtomicLong queries = new AtomicLong();
+            ExecutorService readers = Executors.newFixedThreadPool(READERS);
+            for (int i = 0; i < READERS; i++) {
+                readers.submit(() -> {
+                    while (publishing.get()) {
+                        wordCounter.topWords(wordCounter.latestWindowEnd());
+                        queries.incrementAndGet();
+                    }
+                });
+            }
+
+            Random random = new Random(42);
+            long lastWindowEnd = EVENT_TIME_SPAN_MILLIS;
+            long expectedTopCount = 0;
+            long start = System.nanoTime();
+            List<Sentence> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < SENTENCES; i++) {
+                Sentence sentence = new Sentence(i * EVENT_TIME_SPAN_MILLIS / SENTENCES, sentence(random));
+                if (sentence.getTimestamp() >= lastWindowEnd - WINDOW_MILLIS) {
+                    expectedTopCount += countOf(WORDS[0], sentence.getText());
+                }
+                batch.add(sentence);
+                if (batch.size() == BATCH_SIZE) {
+                    wordCounter.publishAll(batch);
+                    batch.clear();
+                }
+            }
+            long publishedNanos = System.nanoTime() - start;
+
+            // the watermark stays behind every sentence until the job has read all of them, then a sentence far ahead closes the windows
+            while (wordCounter.readSentences() < SENTENCES && System.nanoTime() - start < TimeUnit.MINUTES.toNanos(5)) {
+                Thread.sleep(100);
+            }
+            wordCounter.publish(EVENT_TIME_SPAN_MILLIS + ALLOWED_LAG_MILLIS + 10_000, "");
+            while (wordCounter.topWords(lastWindowEnd) == null && System.nanoTime() - start < TimeUnit.MINUTES.toNanos(5)) {
+                Thread.sleep(50);
+            }
+            long processedNanos = System.nanoTime() - start;
+            publishing.set(false);
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+
+            assertEquals(new WordCount(WORDS[0], expectedTopCount), wordCounter.topWords(lastWindowEnd)
+                .get(0));
+            LOGGER.info("published {} sentences/sec, processed {} sentences/sec, served {} queries/sec, top words of last window: {}",
+                SENTENCES * 1_000_000_000L / publishedNanos, SENTENCES * 1_000_000_000L / processedNanos,
+                queries.get() * 1_000_000_000L / processedNanos, wordCounter.topWords(lastWindowEnd));
+        }
+    }
+
+    private static long countOf(String word, String text) {
+        long count = 0;
+        for (String token : text.split(" ")) {
+            if (token.equals(word)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String sentence(Random random) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            // skewed towards the first words so the top words are stable
+            sentence.append(WORDS[(int) (WORDS.length * Math.pow(random.nextDouble(), 2))])
+                .append(' ');
+        }
+        return sentence.toString();
+    }
+}
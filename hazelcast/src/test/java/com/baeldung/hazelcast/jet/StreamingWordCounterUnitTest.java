@@ -0,0 +1,48 @@
+package com.baeldung.hazelcast.jet;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingWordCounterUnitTest {
+
+    private static StreamingWordCounter wordCounter;
+
+    @BeforeClass
+    public static void startCounter() {
+        wordCounter = new StreamingWordCounter(1000, 500, 2, 3000);
+    }
+
+    @AfterClass
+    public static void stopCounter() {
+        wordCounter.close();
+    }
+
+    @Test
+    public void whenSentencesAreStreamed_ThenTopWordsOfEachWindowArePublished() throws InterruptedException {
+        wordCounter.publish(100, "The first second was alright, but the second second was tough.");
+        wordCounter.publish(400, "The second one");
+        wordCounter.publish(1050, "tough tough tough");
+
+        assertNull(wordCounter.topWords(1000));
+
+        // empty sentences move the watermark past the windows above in steps smaller than the allowed lag
+        long deadline = System.currentTimeMillis() + 30_000;
+        for (long eventTime = 1_100; (wordCounter.topWords(1000) == null || wordCounter.topWords(1500) == null) && System.currentTimeMillis() < deadline;
+            eventTime += 100) {
+            wordCounter.publish(eventTime, "");
+            Thread.sleep(100);
+        }
+
+        assertEquals(Arrays.asList(new WordCount("second", 4), new WordCount("the", 3)), wordCounter.topWords(1000));
+        assertEquals(Collections.singletonList(new WordCount("tough", 3)), wordCounter.topWords(1500));
+        assertTrue(wordCounter.latestWindowEnd() >= 1500);
+    }
+}
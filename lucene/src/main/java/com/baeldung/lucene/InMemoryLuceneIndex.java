@@ -1,59 +1,206 @@
 package com.baeldung.lucene;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.util.BytesRef;
 
-public class InMemoryLuceneIndex {
+/**
+ * Index backed by one long-lived {@link IndexWriter}. Searches go through a {@link SearcherManager} that a
+ * background thread refreshes at least every {@code maxStaleSeconds}, so new documents become searchable
+ * without reopening the index per query.
+ * <p>
+ * {@link #indexDocument(String, String)} and {@link #deleteDocument(Term)} wait until their change is
+ * searchable, {@link #indexDocuments(Iterable)} does not and is picked up by the next refresh.
+ */
+public class InMemoryLuceneIndex implements AutoCloseable {
+
+    private static final double DEFAULT_MAX_STALE_SECONDS = 1.0;
+    private static final int BULK_CHUNK_SIZE = 1000;
 
     private Directory memoryIndex;
     private Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final ExecutorService indexingExecutor;
+    private final int indexingThreads;
+    private boolean ownsDirectory;
 
     public InMemoryLuceneIndex(Directory memoryIndex, Analyzer analyzer) {
+        this(memoryIndex, analyzer, Runtime.getRuntime()
+            .availableProcessors(), DEFAULT_MAX_STALE_SECONDS);
+    }
+
+    public InMemoryLuceneIndex(Directory memoryIndex, Analyzer analyzer, int indexingThreads, double maxStaleSeconds) {
         super();
         this.memoryIndex = memoryIndex;
         this.analyzer = analyzer;
+        this.indexingThreads = indexingThreads;
+        try {
+            this.writer = new IndexWriter(memoryIndex, new IndexWriterConfig(analyzer).setRAMBufferSizeMB(64));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // a minimum staleness of 0 reopens right away for callers waiting on their own change
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSeconds, 0);
+        reopenThread.setName("lucene-nrt-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+        this.indexingExecutor = Executors.newFixedThreadPool(indexingThreads, runnable -> {
+            Thread thread = new Thread(runnable, "lucene-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens (or creates) an index persisted in {@code path}, memory-mapped so that searches read it
+     * through the page cache instead of the heap.
+     */
+    public static InMemoryLuceneIndex persistent(Path path, Analyzer analyzer) throws IOException {
+        return persistent(path, analyzer, Runtime.getRuntime()
+            .availableProcessors(), DEFAULT_MAX_STALE_SECONDS);
+    }
+
+    public static InMemoryLuceneIndex persistent(Path path, Analyzer analyzer, int indexingThreads, double maxStaleSeconds) throws IOException {
+        InMemoryLuceneIndex index = new InMemoryLuceneIndex(new MMapDirectory(path), analyzer, indexingThreads, maxStaleSeconds);
+        index.ownsDirectory = true;
+        return index;
+    }
+
+    public static Document createDocument(String title, String body) {
+        Document document = new Document();
+
+        document.add(new TextField("title", title, Field.Store.YES));
+        document.add(new TextField("body", body, Field.Store.YES));
+        document.add(new SortedDocValuesField("title", new BytesRef(title)));
+        return document;
     }
 
     /**
-     * 
+     *
      * @param title
      * @param body
      */
     public void indexDocument(String title, String body) {
+        try {
+            reopenThread.waitForGeneration(writer.addDocument(createDocument(title, body)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the document to become searchable", e);
+        }
+    }
 
-        IndexWriterConfig indexWriterConfig = new IndexWriterConfig(analyzer);
+    /**
+     * Adds the documents on the indexing threads and returns once all of them are in the writer.
+     * They become searchable with the next background refresh, or right away after {@link #refresh()}.
+     * If a chunk fails or the caller is interrupted, the chunks that have not started yet are cancelled,
+     * while the documents already added stay in the writer.
+     */
+    public void indexDocuments(Iterable<Document> documents) {
+        Semaphore pendingChunks = new Semaphore(indexingThreads * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Document> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
         try {
-            IndexWriter writter = new IndexWriter(memoryIndex, indexWriterConfig);
-            Document document = new Document();
+            for (Document document : documents) {
+                chunk.add(document);
+                if (chunk.size() == BULK_CHUNK_SIZE) {
+                    futures.add(submitChunk(chunk, pendingChunks));
+                    chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                futures.add(submitChunk(chunk, pendingChunks));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while bulk indexing", e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof IOException ioException) {
+                throw new UncheckedIOException("Bulk indexing failed", ioException);
+            }
+            throw new IllegalStateException("Bulk indexing failed", e.getCause());
+        }
+    }
 
-            document.add(new TextField("title", title, Field.Store.YES));
-            document.add(new TextField("body", body, Field.Store.YES));
-            document.add(new SortedDocValuesField("title", new BytesRef(title)));
+    private static void cancel(List<Future<?>> futures) {
+        // running chunks are left to finish, interrupting an IndexWriter thread may close the index
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private Future<?> submitChunk(List<Document> chunk, Semaphore pendingChunks) throws InterruptedException {
+        pendingChunks.acquire();
+        return indexingExecutor.submit(() -> {
+            try {
+                for (Document document : chunk) {
+                    writer.addDocument(document);
+                }
+                return null;
+            } finally {
+                pendingChunks.release();
+            }
+        });
+    }
+
+    /**
+     * Makes every document added so far searchable.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            writter.addDocument(document);
-            writter.close();
+    /**
+     * Makes the documents added so far durable. Only meaningful for a {@link #persistent(Path, Analyzer)} index.
+     */
+    public void commit() {
+        try {
+            writer.commit();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -63,17 +210,8 @@ public class InMemoryLuceneIndex {
         try {
             Query query = new QueryParser(inField, analyzer).parse(queryString);
 
-            IndexReader indexReader = DirectoryReader.open(memoryIndex);
-            IndexSearcher searcher = new IndexSearcher(indexReader);
-            TopDocs topDocs = searcher.search(query, 10);
-            StoredFields storedFields = searcher.storedFields();
-            List<Document> documents = new ArrayList<>();
-            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
-                documents.add(storedFields.document(scoreDoc.doc));
-            }
-
-            return documents;
-        } catch (IOException | ParseException e) {
+            return searchIndex(query);
+        } catch (ParseException e) {
             e.printStackTrace();
         }
         return null;
@@ -82,27 +220,35 @@ public class InMemoryLuceneIndex {
 
     public void deleteDocument(Term term) {
         try {
-            IndexWriterConfig indexWriterConfig = new IndexWriterConfig(analyzer);
-            IndexWriter writter = new IndexWriter(memoryIndex, indexWriterConfig);
-            writter.deleteDocuments(term);
-            writter.close();
+            reopenThread.waitForGeneration(writer.deleteDocuments(term));
         } catch (IOException e) {
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the deletion to become searchable", e);
         }
     }
 
     public List<Document> searchIndex(Query query) {
+        return searchIndex(query, null);
+    }
+
+    public List<Document> searchIndex(Query query, Sort sort) {
         try {
-            IndexReader indexReader = DirectoryReader.open(memoryIndex);
-            IndexSearcher searcher = new IndexSearcher(indexReader);
-            TopDocs topDocs = searcher.search(query, 10);
-            StoredFields storedFields = searcher.storedFields();
-            List<Document> documents = new ArrayList<>();
-            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
-                documents.add(storedFields.document(scoreDoc.doc));
-            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = sort == null ? searcher.search(query, 10) : searcher.search(query, 10, sort);
+                StoredFields storedFields = searcher.storedFields();
+                List<Document> documents = new ArrayList<>();
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    documents.add(storedFields.document(scoreDoc.doc));
+                }
 
-            return documents;
+                return documents;
+            } finally {
+                searcherManager.release(searcher);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -110,23 +256,23 @@ public class InMemoryLuceneIndex {
 
     }
 
-    public List<Document> searchIndex(Query query, Sort sort) {
+    @Override
+    public void close() throws IOException {
+        indexingExecutor.shutdown();
         try {
-            IndexReader indexReader = DirectoryReader.open(memoryIndex);
-            IndexSearcher searcher = new IndexSearcher(indexReader);
-            TopDocs topDocs = searcher.search(query, 10, sort);
-            StoredFields storedFields = searcher.storedFields();
-            List<Document> documents = new ArrayList<>();
-            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
-                documents.add(storedFields.document(scoreDoc.doc));
+            indexingExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the indexing threads", e);
+        } finally {
+            reopenThread.close();
+            searcherManager.close();
+            writer.close();
+            if (ownsDirectory) {
+                memoryIndex.close();
             }
-
-            return documents;
-        } catch (IOException e) {
-            e.printStackTrace();
         }
-        return null;
-
     }
 
 }
@@ -0,0 +1,172 @@
+package com.baeldung.lucene.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.baeldung.lucene.InMemoryLuceneIndex;
+
+/**
+ * Measures bulk indexing in documents per second and query latency of {@link InMemoryLuceneIndex},
+ * on the heap ({@code memory}) and memory-mapped from a temporary directory ({@code mmap}).
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class InMemoryLuceneIndexBenchmark {
+
+    private static final int BULK_DOCUMENTS = 20_000;
+    private static final int SEARCHED_DOCUMENTS = 200_000;
+    private static final String[] WORDS = { "lucene", "index", "search", "query", "writer", "reader", "segment", "merge", "term", "field",
+        "document", "analyzer", "token", "score", "near", "real", "time", "refresh", "commit", "directory" };
+
+    @State(Scope.Benchmark)
+    public static class BulkIndexState {
+
+        @Param({ "memory", "mmap" })
+        public String directory;
+
+        @Param({ "1", "4" })
+        public int indexingThreads;
+
+        List<Document> documents;
+        IndexHolder holder;
+
+        @Setup(Level.Trial)
+        public void createDocuments() {
+            documents = documents(BULK_DOCUMENTS, 42);
+        }
+
+        @Setup(Level.Iteration)
+        public void openIndex() throws IOException {
+            holder = new IndexHolder(directory, indexingThreads);
+        }
+
+        @TearDown(Level.Iteration)
+        public void closeIndex() throws IOException {
+            holder.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        @Param({ "memory", "mmap" })
+        public String directory;
+
+        IndexHolder holder;
+        TermQuery[] queries;
+        int next;
+
+        @Setup(Level.Trial)
+        public void buildIndex() throws IOException {
+            holder = new IndexHolder(directory, Runtime.getRuntime()
+                .availableProcessors());
+            holder.index.indexDocuments(documents(SEARCHED_DOCUMENTS, 7));
+            holder.index.refresh();
+            queries = new TermQuery[WORDS.length];
+            for (int i = 0; i < WORDS.length; i++) {
+                queries[i] = new TermQuery(new Term("body", WORDS[i]));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void closeIndex() throws IOException {
+            holder.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BULK_DOCUMENTS)
+    public void bulkIndex(BulkIndexState state) {
+        state.holder.index.indexDocuments(state.documents);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void termQuery(SearchState state, Blackhole blackhole) {
+        TermQuery query = state.queries[state.next++ % state.queries.length];
+        blackhole.consume(state.holder.index.searchIndex(query));
+    }
+
+    private static List<Document> documents(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder body = new StringBuilder();
+            for (int word = 0; word < 30; word++) {
+                body.append(WORDS[random.nextInt(WORDS.length)])
+                    .append(' ');
+            }
+            documents.add(InMemoryLuceneIndex.createDocument("document " + i, body.toString()));
+        }
+        return documents;
+    }
+
+    static class IndexHolder implements AutoCloseable {
+
+        final InMemoryLuceneIndex index;
+        final Path path;
+
+        IndexHolder(String directory, int indexingThreads) throws IOException {
+            if ("mmap".equals(directory)) {
+                path = Files.createTempDirectory("lucene-benchmark");
+                index = InMemoryLuceneIndex.persistent(path, new StandardAnalyzer(), indexingThreads, 1.0);
+            } else {
+                path = null;
+                index = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer(), indexingThreads, 1.0);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            index.close();
+            if (path != null) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder())
+                        .toList()) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InMemoryLuceneIndexBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.baeldung.lucene;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InMemoryLuceneIndexBulkIntegrationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenBulkIndexedDocumentsWhenRefreshedThenAllAreSearchable() throws IOException {
+        try (InMemoryLuceneIndex index = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer(), 4, 60)) {
+            index.indexDocuments(documents(5_000));
+
+            Assert.assertTrue(index.searchIndex(new TermQuery(new Term("body", "bulk")))
+                .isEmpty());
+
+            index.refresh();
+
+            Assert.assertEquals(10, index.searchIndex(new TermQuery(new Term("body", "bulk")))
+                .size());
+            Assert.assertEquals(1, index.searchIndex(new TermQuery(new Term("body", "number4999")))
+                .size());
+        }
+    }
+
+    @Test
+    public void givenBulkIndexedDocumentsWhenWaitingForBackgroundRefreshThenTheyBecomeSearchable() throws Exception {
+        try (InMemoryLuceneIndex index = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer(), 2, 0.05)) {
+            index.indexDocuments(documents(100));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (index.searchIndex(new TermQuery(new Term("body", "number99")))
+                .isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assert.assertEquals(1, index.searchIndex(new TermQuery(new Term("body", "number99")))
+                .size());
+        }
+    }
+
+    @Test
+    public void givenPersistentIndexWhenCommittedAndReopenedThenDocumentsAreKept() throws IOException {
+        Path path = folder.newFolder("index")
+            .toPath();
+        try (InMemoryLuceneIndex index = InMemoryLuceneIndex.persistent(path, new StandardAnalyzer())) {
+            index.indexDocuments(documents(1_000));
+            index.commit();
+        }
+
+        try (InMemoryLuceneIndex index = InMemoryLuceneIndex.persistent(path, new StandardAnalyzer())) {
+            Assert.assertEquals(1, index.searchIndex("body", "number999")
+                .size());
+        }
+    }
+
+    private static List<Document> documents(int count) {
+        List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(InMemoryLuceneIndex.createDocument("title " + i, "bulk document number" + i));
+        }
+        return documents;
+    }
+}
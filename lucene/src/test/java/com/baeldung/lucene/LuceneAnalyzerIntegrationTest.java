@@ -26,6 +26,7 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.After;
 import org.junit.Test;
 
 public class LuceneAnalyzerIntegrationTest {
@@ -33,6 +34,15 @@ public class LuceneAnalyzerIntegrationTest {
     private static final String SAMPLE_TEXT = "This is baeldung.com Lucene Analyzers test";
     private static final String FIELD_NAME = "sampleName";
 
+    private InMemoryLuceneIndex luceneIndex;
+
+    @After
+    public void closeIndex() throws IOException {
+        if (luceneIndex != null) {
+            luceneIndex.close();
+        }
+    }
+
     @Test
     public void whenUseStandardAnalyzer_thenAnalyzed() throws IOException {
         List<String> result = analyze(SAMPLE_TEXT, new StandardAnalyzer());
@@ -101,7 +111,7 @@ public class LuceneAnalyzerIntegrationTest {
     
     @Test
     public void givenTermQuery_whenUseCustomAnalyzer_thenCorrect() {
-        InMemoryLuceneIndex luceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new MyCustomAnalyzer());
+        luceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new MyCustomAnalyzer());
         luceneIndex.indexDocument("introduction", "introduction to lucene");
         luceneIndex.indexDocument("analyzers", "guide to lucene analyzers");
         Query query = new TermQuery(new Term("body", "Introduct"));
@@ -118,7 +128,7 @@ public class LuceneAnalyzerIntegrationTest {
 
         PerFieldAnalyzerWrapper wrapper =
           new PerFieldAnalyzerWrapper(new StandardAnalyzer(), analyzerMap);
-        InMemoryLuceneIndex luceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), wrapper);
+        luceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), wrapper);
         luceneIndex.indexDocument("introduction", "introduction to lucene");
         luceneIndex.indexDocument("analyzers", "guide to lucene analyzers");
         
@@ -1,5 +1,6 @@
 package com.baeldung.lucene;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
@@ -17,14 +18,22 @@ import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.util.BytesRef;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class LuceneInMemorySearchIntegrationTest {
 
+    private InMemoryLuceneIndex inMemoryLuceneIndex;
+
+    @After
+    public void closeIndex() throws IOException {
+        inMemoryLuceneIndex.close();
+    }
+
     @Test
     public void givenSearchQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("Hello world", "Some hello world ");
 
         List<Document> documents = inMemoryLuceneIndex.searchIndex("body", "world");
@@ -34,7 +43,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenTermQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("activity", "running in track");
         inMemoryLuceneIndex.indexDocument("activity", "Cars are running on road");
 
@@ -47,7 +56,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenPrefixQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("article", "Lucene introduction");
         inMemoryLuceneIndex.indexDocument("article", "Introduction to Lucene");
 
@@ -60,7 +69,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenBooleanQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("Destination", "Las Vegas singapore car");
         inMemoryLuceneIndex.indexDocument("Commutes in singapore", "Bus Car Bikes");
 
@@ -79,7 +88,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenPhraseQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("quotes", "A rose by any other name would smell as sweet.");
 
         Query query = new PhraseQuery(1, "body", new BytesRef("smell"), new BytesRef("sweet"));
@@ -90,7 +99,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenFuzzyQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("article", "Halloween Festival");
         inMemoryLuceneIndex.indexDocument("decoration", "Decorations for Halloween");
 
@@ -103,7 +112,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenWildCardQueryWhenFetchedDocumentThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("article", "Lucene introduction");
         inMemoryLuceneIndex.indexDocument("article", "Introducing Lucene with Spring");
 
@@ -116,7 +125,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void givenSortFieldWhenSortedThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("Ganges", "River in India");
         inMemoryLuceneIndex.indexDocument("Mekong", "This river flows in south Asia");
         inMemoryLuceneIndex.indexDocument("Amazon", "Rain forest river");
@@ -136,7 +145,7 @@ public class LuceneInMemorySearchIntegrationTest {
 
     @Test
     public void whenDocumentDeletedThenCorrect() {
-        InMemoryLuceneIndex inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
+        inMemoryLuceneIndex = new InMemoryLuceneIndex(new ByteBuffersDirectory(), new StandardAnalyzer());
         inMemoryLuceneIndex.indexDocument("Ganges", "River in India");
         inMemoryLuceneIndex.indexDocument("Mekong", "This river flows in south Asia");
 
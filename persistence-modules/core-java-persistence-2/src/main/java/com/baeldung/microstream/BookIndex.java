@@ -0,0 +1,45 @@
+package com.baeldung.microstream;
+
+import one.microstream.reference.Lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A secondary index from the hash of a book attribute to book positions. The hashes are spread over a fixed number
+ * of shards, each loaded lazily, so a lookup only brings one shard into memory. Different keys may share a hash, so
+ * callers have to check the attribute of the books they read.
+ */
+public class BookIndex {
+
+    private final List<Lazy<BookIndexShard>> shards;
+
+    public BookIndex(int shardCount) {
+        shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(Lazy.Reference(new BookIndexShard()));
+        }
+    }
+
+    long[] positions(Object key, ResidentSet residentSet) {
+        int hash = hash(key);
+        return residentSet.get(shard(hash))
+            .positions(hash);
+    }
+
+    void add(Object key, long position, ResidentSet residentSet, Set<Object> changed) {
+        int hash = hash(key);
+        residentSet.get(shard(hash))
+            .add(hash, position, changed);
+    }
+
+    private Lazy<BookIndexShard> shard(int hash) {
+        return shards.get(Math.floorMod(hash, shards.size()));
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,44 @@
+package com.baeldung.microstream;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * One shard of a {@link BookIndex}: the key hashes and positions of its books in two parallel primitive arrays. The
+ * shard is stored as three entities however many books it indexes, which keeps the per-entity bookkeeping of the
+ * storage independent of the number of books.
+ */
+public class BookIndexShard {
+
+    private int[] hashes = new int[16];
+    private long[] positions = new long[16];
+    private int size;
+
+    void add(int hash, long position, Set<Object> changed) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        hashes[size] = hash;
+        positions[size] = position;
+        size++;
+        // arrays that were stored before are not stored again along with the shard
+        changed.add(this);
+        changed.add(hashes);
+        changed.add(positions);
+    }
+
+    long[] positions(int hash) {
+        long[] matches = new long[4];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = positions[i];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+}
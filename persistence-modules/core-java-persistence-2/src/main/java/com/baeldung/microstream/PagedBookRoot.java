@@ -0,0 +1,57 @@
+package com.baeldung.microstream;
+
+import one.microstream.reference.Lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A root whose books are split into fixed-size pages that are loaded on demand, unlike {@link RootInstanceLazy},
+ * where the whole list is one lazy reference. A book's position is its insertion order, so its page and slot follow
+ * from the page size.
+ */
+public class PagedBookRoot {
+
+    private final String name;
+    private final int pageSize;
+    private final List<Lazy<ArrayList<Book>>> pages;
+    private final BookIndex byAuthor;
+    private final BookIndex byTitle;
+    private long size;
+
+    public PagedBookRoot(String name, int pageSize, int indexShards) {
+        this.name = name;
+        this.pageSize = pageSize;
+        this.pages = new ArrayList<>();
+        this.byAuthor = new BookIndex(indexShards);
+        this.byTitle = new BookIndex(indexShards);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    List<Lazy<ArrayList<Book>>> getPages() {
+        return pages;
+    }
+
+    BookIndex getByAuthor() {
+        return byAuthor;
+    }
+
+    BookIndex getByTitle() {
+        return byTitle;
+    }
+
+    long nextPosition() {
+        return size++;
+    }
+}
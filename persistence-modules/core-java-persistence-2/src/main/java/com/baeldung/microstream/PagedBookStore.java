@@ -0,0 +1,151 @@
+package com.baeldung.microstream;
+
+import one.microstream.persistence.types.Storer;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.embedded.types.EmbeddedStorageManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads and appends books of a {@link PagedBookRoot}. Only the most recently used pages and index shards stay in
+ * memory; the others are unloaded and read back from the storage when needed. The author and title indexes are
+ * updated and committed together with the books that change them.
+ * <p>
+ * Every commit rewrites the index shards it touched, so bulk loads should go through {@link #addAll(Collection)}
+ * with large batches rather than through {@link #add(Book)}.
+ */
+public class PagedBookStore implements AutoCloseable {
+
+    private final EmbeddedStorageManager storageManager;
+    private final PagedBookRoot root;
+    private final ResidentSet residentPages;
+    private final ResidentSet residentIndexShards;
+
+    public PagedBookStore(EmbeddedStorageManager storageManager, int maxResidentPages, int maxResidentIndexShards) {
+        this.storageManager = storageManager;
+        this.root = (PagedBookRoot) storageManager.root();
+        this.residentPages = new ResidentSet(maxResidentPages);
+        this.residentIndexShards = new ResidentSet(maxResidentIndexShards);
+    }
+
+    public synchronized void add(Book book) {
+        addAll(Collections.singletonList(book));
+    }
+
+    public synchronized void addAll(Collection<Book> books) {
+        // a storer serializes an object when it is first passed in, so every changed object is stored once at the end
+        Set<Object> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Lazy<ArrayList<Book>>> pages = root.getPages();
+        for (Book book : books) {
+            long position = root.nextPosition();
+            int slot = (int) (position % root.getPageSize());
+            ArrayList<Book> page;
+            if (slot == 0) {
+                page = new ArrayList<>(root.getPageSize());
+                Lazy<ArrayList<Book>> reference = Lazy.Reference(page);
+                pages.add(reference);
+                residentPages.get(reference);
+                changed.add(pages);
+            } else {
+                page = residentPages.get(pages.get(pages.size() - 1));
+            }
+            page.add(book);
+            changed.add(page);
+            root.getByAuthor()
+                .add(book.getAuthor(), position, residentIndexShards, changed);
+            root.getByTitle()
+                .add(book.getTitle(), position, residentIndexShards, changed);
+        }
+        changed.add(root);
+        Storer storer = storageManager.createStorer();
+        changed.forEach(storer::store);
+        storer.commit();
+        trim();
+    }
+
+    public synchronized long size() {
+        return root.getSize();
+    }
+
+    public synchronized Book get(long position) {
+        if (position < 0 || position >= root.getSize()) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + root.getSize());
+        }
+        Book book = page(position).get(slot(position));
+        trim();
+        return book;
+    }
+
+    public synchronized List<Book> findByAuthor(Author author) {
+        return books(root.getByAuthor()
+            .positions(author, residentIndexShards), book -> book.getAuthor()
+                .equals(author));
+    }
+
+    public synchronized List<Book> findByTitle(String title) {
+        return books(root.getByTitle()
+            .positions(title, residentIndexShards), book -> book.getTitle()
+                .equals(title));
+    }
+
+    /**
+     * Visits every book in insertion order, loading one page after the other.
+     */
+    public synchronized void forEach(Consumer<? super Book> action) {
+        for (Lazy<ArrayList<Book>> reference : root.getPages()) {
+            residentPages.get(reference)
+                .forEach(action);
+            trim();
+        }
+    }
+
+    public synchronized int residentPages() {
+        return residentPages.size();
+    }
+
+    /**
+     * @return how many times a page had to be read from the storage
+     */
+    public synchronized long pageLoads() {
+        return residentPages.loads();
+    }
+
+    @Override
+    public void close() {
+        storageManager.shutdown();
+    }
+
+    private List<Book> books(long[] positions, Predicate<Book> matches) {
+        List<Book> books = new ArrayList<>(positions.length);
+        // positions are ascending, so the books of one page are read together
+        for (long position : positions) {
+            Book book = page(position).get(slot(position));
+            if (matches.test(book)) {
+                books.add(book);
+            }
+        }
+        trim();
+        return books;
+    }
+
+    private ArrayList<Book> page(long position) {
+        return residentPages.get(root.getPages()
+            .get((int) (position / root.getPageSize())));
+    }
+
+    private int slot(long position) {
+        return (int) (position % root.getPageSize());
+    }
+
+    private void trim() {
+        residentPages.trim();
+        residentIndexShards.trim();
+    }
+}
@@ -0,0 +1,119 @@
+package com.baeldung.microstream;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Query latency of a {@link PagedBookStore} holding {@code books} books, of which at most {@code maxResidentPages}
+ * pages are kept in memory. Sample mode reports latency percentiles; the heap in use after loading and after the
+ * queries is printed at the end of each trial. Loading 10M books takes a few minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class PagedBookStoreBenchmark {
+
+    private static final int AUTHORS = 100_000;
+
+    @Param({ "10000000" })
+    public int books;
+
+    @Param({ "1000" })
+    public int pageSize;
+
+    @Param({ "500" })
+    public int maxResidentPages;
+
+    private final Author[] authors = new Author[AUTHORS];
+    private Path directory;
+    private PagedBookStore store;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        directory = Files.createTempDirectory("paged-book-store");
+        store = StorageManager.loadOrCreatePagedStorage(directory, "benchmark", pageSize, maxResidentPages);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors[i] = new Author("Name " + i, "Surname " + i);
+        }
+        List<Book> batch = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            batch.add(new Book("Title " + i, authors[i % AUTHORS], 1900 + i % 120));
+            if (batch.size() == 500_000) {
+                store.addAll(batch);
+                batch.clear();
+            }
+        }
+        store.addAll(batch);
+        System.out.printf("%nLoaded %d books, heap in use %d MB%n", store.size(), usedHeapMb());
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        System.out.printf("%nHeap in use %d MB, %d resident pages, %d page loads%n", usedHeapMb(), store.residentPages(), store.pageLoads());
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile()
+                    .delete());
+        }
+    }
+
+    @Benchmark
+    public Book getByPosition() {
+        return store.get(ThreadLocalRandom.current()
+            .nextLong(books));
+    }
+
+    @Benchmark
+    public List<Book> findByTitle() {
+        return store.findByTitle("Title " + ThreadLocalRandom.current()
+            .nextInt(books));
+    }
+
+    @Benchmark
+    public List<Book> findByAuthor() {
+        int i = ThreadLocalRandom.current()
+            .nextInt(AUTHORS);
+        return store.findByAuthor(new Author("Name " + i, "Surname " + i));
+    }
+
+    private static long usedHeapMb() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean()
+            .getHeapMemoryUsage()
+            .getUsed() / (1024 * 1024);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PagedBookStoreBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
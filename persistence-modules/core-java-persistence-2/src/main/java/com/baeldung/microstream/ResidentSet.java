@@ -0,0 +1,51 @@
+package com.baeldung.microstream;
+
+import one.microstream.reference.Lazy;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps at most {@code capacity} lazy references loaded, unloading the least recently used ones. Unloading only
+ * drops the in-memory copy, the next access reads it back from the storage.
+ * <p>
+ * References are only unloaded in {@link #trim()}, which has to be called once pending changes are committed.
+ */
+class ResidentSet {
+
+    private final int capacity;
+    private final LinkedHashMap<Lazy<?>, Boolean> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private long loads;
+
+    ResidentSet(int capacity) {
+        this.capacity = capacity;
+    }
+
+    <T> T get(Lazy<T> reference) {
+        if (!reference.isLoaded()) {
+            loads++;
+        }
+        loaded.put(reference, Boolean.TRUE);
+        return reference.get();
+    }
+
+    void trim() {
+        Iterator<Lazy<?>> eldest = loaded.keySet()
+            .iterator();
+        while (loaded.size() > capacity && eldest.hasNext()) {
+            Lazy<?> reference = eldest.next();
+            if (reference.isStored()) {
+                reference.clear();
+                eldest.remove();
+            }
+        }
+    }
+
+    int size() {
+        return loaded.size();
+    }
+
+    long loads() {
+        return loads;
+    }
+}
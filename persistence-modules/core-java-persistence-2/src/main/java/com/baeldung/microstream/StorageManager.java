@@ -9,6 +9,7 @@ import java.util.List;
 public class StorageManager {
 
     public static final String STORAGE_ROOT_FOLDER = "storage";
+    private static final int PAGED_STORAGE_INDEX_SHARDS = 4096;
 
     public static EmbeddedStorageManager initializeStorageWithStringAsRoot(Path directory, String root) {
         EmbeddedStorageManager storageManager = EmbeddedStorage.start(directory);
@@ -57,4 +58,13 @@ public class StorageManager {
         return storageManager;
     }
 
+    public static PagedBookStore loadOrCreatePagedStorage(Path directory, String root, int pageSize, int maxResidentPages) {
+        EmbeddedStorageManager storageManager = EmbeddedStorage.start(directory);
+        if (storageManager.root() == null) {
+            storageManager.setRoot(new PagedBookRoot(root, pageSize, PAGED_STORAGE_INDEX_SHARDS));
+            storageManager.storeRoot();
+        }
+        return new PagedBookStore(storageManager, maxResidentPages, PAGED_STORAGE_INDEX_SHARDS / 4);
+    }
+
 }
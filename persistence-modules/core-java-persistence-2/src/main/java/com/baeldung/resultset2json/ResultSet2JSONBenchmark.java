@@ -0,0 +1,142 @@
+package com.baeldung.resultset2json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Exports an H2 table to JSON with the {@link ResultSetJsonWriter} and the {@link ResultSet2JSON} approaches. Every
+ * approach writes the complete document to a stream that discards the bytes. Run with {@code -prof gc} to compare
+ * allocation as well: the JSONArray and jOOQ approaches hold the whole result in memory before writing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ResultSet2JSONBenchmark {
+
+    private static final String QUERY = "SELECT * FROM customers";
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "1000" })
+    public int fetchSize;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:rs2jsonbenchmark", "user", "password");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, username VARCHAR(32), first_name VARCHAR(32), last_name VARCHAR(32), "
+                + "score DOUBLE PRECISION, active BOOLEAN, created TIMESTAMP)");
+            statement.execute("INSERT INTO customers SELECT X, 'user' || X, 'First' || MOD(X, 1000), 'Last' || MOD(X, 5000), RAND() * 100, "
+                + "MOD(X, 3) = 0, DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE customers");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long streamingJackson(Blackhole blackhole) throws SQLException, IOException {
+        CountingOutputStream out = new CountingOutputStream(blackhole);
+        ResultSetJsonWriter.write(connection, QUERY, fetchSize, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long jsonArray(Blackhole blackhole) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(QUERY)) {
+            return write(ResultSet2JSON.resultSet2JdbcWithoutJOOQ(resultSet).toString(), blackhole);
+        }
+    }
+
+    @Benchmark
+    public long jooqFormatJson(Blackhole blackhole) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(QUERY)) {
+            CountingOutputStream out = new CountingOutputStream(blackhole);
+            DSL.using(connection)
+                .fetch(resultSet)
+                .formatJSON(out);
+            return out.count;
+        }
+    }
+
+    @Benchmark
+    public long customisedJooq(Blackhole blackhole) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(QUERY)) {
+            return write(ResultSet2JSON.resultSet2JdbcUsingCustomisedJOOQ(resultSet, connection).toString(), blackhole);
+        }
+    }
+
+    private static long write(String json, Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(blackhole);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(json);
+        }
+        return out.count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResultSet2JSONBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+        private long count;
+
+        CountingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            blackhole.consume(bytes);
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.baeldung.resultset2json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Writes a {@link ResultSet} as a JSON array of objects straight to an {@link OutputStream}, one row at a time,
+ * so memory use does not grow with the number of rows. Column names and the getter for every column are resolved
+ * once per result set instead of once per cell.
+ */
+public class ResultSetJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private ResultSetJsonWriter() {
+    }
+
+    /**
+     * Runs {@code sql} with a forward-only cursor that fetches {@code fetchSize} rows per round trip and writes the
+     * result to {@code out}. Auto-commit is switched off while reading, as PostgreSQL only uses a cursor inside a
+     * transaction. MySQL additionally needs {@code useCursorFetch=true} on the connection URL.
+     *
+     * @return the number of rows written
+     */
+    public static long write(Connection connection, String sql, int fetchSize, OutputStream out) throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return write(resultSet, out);
+            }
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining rows of {@code resultSet} to {@code out}. Neither is closed.
+     *
+     * @return the number of rows written
+     */
+    public static long write(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        ColumnWriter[] columns = columnWriters(resultSet.getMetaData());
+        long rows = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (ColumnWriter column : columns) {
+                    generator.writeFieldName(column.name);
+                    column.write(resultSet, generator);
+                }
+                generator.writeEndObject();
+                rows++;
+            }
+            generator.writeEndArray();
+        }
+        return rows;
+    }
+
+    private static ColumnWriter[] columnWriters(ResultSetMetaData metaData) throws SQLException {
+        ColumnWriter[] columns = new ColumnWriter[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            int index = i + 1;
+            columns[i] = new ColumnWriter(new SerializedString(metaData.getColumnName(index)), valueWriter(index, metaData.getColumnType(index)));
+        }
+        return columns;
+    }
+
+    private static ValueWriter valueWriter(int index, int sqlType) {
+        switch (sqlType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            return (resultSet, generator) -> {
+                int value = resultSet.getInt(index);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            };
+        case Types.BIGINT:
+            return (resultSet, generator) -> {
+                long value = resultSet.getLong(index);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            };
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return (resultSet, generator) -> {
+                double value = resultSet.getDouble(index);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            };
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return (resultSet, generator) -> {
+                BigDecimal value = resultSet.getBigDecimal(index);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            };
+        case Types.BIT:
+        case Types.BOOLEAN:
+            return (resultSet, generator) -> {
+                boolean value = resultSet.getBoolean(index);
+                if (resultSet.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeBoolean(value);
+                }
+            };
+        default:
+            // text, dates and everything else are written in the driver's string form
+            return (resultSet, generator) -> generator.writeString(resultSet.getString(index));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+
+        void write(ResultSet resultSet, JsonGenerator generator) throws SQLException, IOException;
+    }
+
+    private static class ColumnWriter {
+
+        private final SerializedString name;
+        private final ValueWriter valueWriter;
+
+        ColumnWriter(SerializedString name, ValueWriter valueWriter) {
+            this.name = name;
+            this.valueWriter = valueWriter;
+        }
+
+        void write(ResultSet resultSet, JsonGenerator generator) throws SQLException, IOException {
+            valueWriter.write(resultSet, generator);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.baeldung.script;
+
+import java.time.Duration;
+
+public class ScriptExecutionStats {
+
+    private final long statements;
+    private final long batches;
+    private final Duration elapsed;
+
+    public ScriptExecutionStats(long statements, long batches, Duration elapsed) {
+        this.statements = statements;
+        this.batches = batches;
+        this.elapsed = elapsed;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getStatementsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : statements * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements in %d batches, %d ms, %.0f statements/s", statements, batches, elapsed.toMillis(), getStatementsPerSecond());
+    }
+}
@@ -3,72 +3,290 @@ package com.baeldung.script;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Streams a SQL script through a {@link SqlScriptTokenizer} and executes it in JDBC batches. Parsing runs on the
+ * calling thread while batches execute on a separate one, so reading the script overlaps with the database work.
+ */
 public class SqlScriptBatchExecutor {
     private static final Log logger = LogFactory.getLog(SqlScriptBatchExecutor.class);
-    private static final Pattern COMMENT_PATTERN = Pattern.compile("--.*|/\\*(.|[\\r\\n])*?\\*/");
-    public static void executeBatchedSQL(String scriptFilePath, Connection connection, int batchSize) throws Exception {
-        List<String> sqlStatements = parseSQLScript(scriptFilePath);
-        executeSQLBatches(connection, sqlStatements, batchSize);
+    private static final int QUEUED_BATCHES_PER_CONNECTION = 4;
+    private static final String SCRIPT_ORDER = "";
+
+    /**
+     * Executes the script on {@code connection}, keeping the statement order of the script.
+     */
+    public static ScriptExecutionStats executeBatchedSQL(String scriptFilePath, Connection connection, int batchSize) throws Exception {
+        try (ExecutionLanes lanes = new ExecutionLanes(Collections.singletonList(connection), false)) {
+            return execute(scriptFilePath, lanes, batchSize, false);
+        }
     }
-    private static List<String> parseSQLScript(String scriptFilePath) throws IOException {
-        List<String> sqlStatements = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(scriptFilePath))) {
-            StringBuilder currentStatement = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Matcher commentMatcher = COMMENT_PATTERN.matcher(line);
-                line = commentMatcher.replaceAll("");
-                line = line.trim();
-
-                if (line.isEmpty()) {
+
+    /**
+     * Executes the script on up to {@code connections} connections of {@code dataSource}. Consecutive INSERTs form
+     * one group per target table, and the groups of different tables run in parallel. Every other statement is a
+     * barrier that waits for all INSERTs before it and runs alone. INSERTs into tables that reference each other
+     * must therefore be separated by a barrier, or use this method with a single connection.
+     */
+    public static ScriptExecutionStats executeBatchedSQL(String scriptFilePath, DataSource dataSource, int batchSize, int connections) throws Exception {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                connection.setAutoCommit(false);
+            }
+        } catch (SQLException e) {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+            throw e;
+        }
+        try (ExecutionLanes lanes = new ExecutionLanes(opened, true)) {
+            return execute(scriptFilePath, lanes, batchSize, true);
+        }
+    }
+
+    private static ScriptExecutionStats execute(String scriptFilePath, ExecutionLanes lanes, int batchSize, boolean groupByTable) throws Exception {
+        long start = System.nanoTime();
+        long statements = 0;
+        long batches = 0;
+        Map<String, List<String>> pendingBatches = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(scriptFilePath))) {
+            SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(reader);
+            String sql;
+            while ((sql = tokenizer.nextStatement()) != null) {
+                statements++;
+                String table = insertTarget(sql);
+                if (table == null && groupByTable) {
+                    batches += submitAll(pendingBatches, lanes);
+                    lanes.executeAlone(sql);
+                    batches++;
                     continue;
                 }
+                String group = groupByTable ? table : SCRIPT_ORDER;
+                List<String> batch = pendingBatches.computeIfAbsent(group, key -> new ArrayList<>(batchSize));
+                batch.add(sql);
+                if (batch.size() == batchSize) {
+                    lanes.submit(group, pendingBatches.remove(group));
+                    batches++;
+                }
+            }
+        }
+        batches += submitAll(pendingBatches, lanes);
+        lanes.awaitAndCommit();
 
-                currentStatement.append(line).append(" ");
+        ScriptExecutionStats stats = new ScriptExecutionStats(statements, batches, Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Executed " + scriptFilePath + ": " + stats);
+        return stats;
+    }
 
-                if (line.endsWith(";")) {
-                    sqlStatements.add(currentStatement.toString());
-                    logger.info(currentStatement.toString());
-                    currentStatement.setLength(0);
-                }
+    private static int submitAll(Map<String, List<String>> pendingBatches, ExecutionLanes lanes) throws Exception {
+        int submitted = 0;
+        for (Map.Entry<String, List<String>> batch : pendingBatches.entrySet()) {
+            lanes.submit(batch.getKey(), batch.getValue());
+            submitted++;
+        }
+        pendingBatches.clear();
+        return submitted;
+    }
+
+    /**
+     * @return the lower-cased table of an {@code INSERT INTO} statement, or {@code null} for any other statement
+     */
+    static String insertTarget(String sql) {
+        int position = skipKeyword(sql, 0, "INSERT");
+        position = position < 0 ? -1 : skipKeyword(sql, position, "INTO");
+        if (position < 0) {
+            return null;
+        }
+        int end = position;
+        while (end < sql.length() && !Character.isWhitespace(sql.charAt(end)) && sql.charAt(end) != '(') {
+            end++;
+        }
+        return end == position ? null : sql.substring(position, end)
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static int skipKeyword(String sql, int from, String keyword) {
+        if (!sql.regionMatches(true, from, keyword, 0, keyword.length())) {
+            return -1;
+        }
+        int position = from + keyword.length();
+        if (position >= sql.length() || !Character.isWhitespace(sql.charAt(position))) {
+            return -1;
+        }
+        while (position < sql.length() && Character.isWhitespace(sql.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static void executeBatch(Connection connection, List<String> sqlStatements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : sqlStatements) {
+                statement.addBatch(sql);
             }
-        } catch (IOException e) {
-           throw e;
+            statement.executeBatch();
         }
-        return sqlStatements;
     }
 
-    private static void executeSQLBatches(Connection connection, List<String> sqlStatements, int batchSize)
-            throws SQLException {
-        int count = 0;
-        Statement statement = connection.createStatement();
+    /**
+     * One single-threaded executor per connection. A group of statements always runs on the same lane, which keeps
+     * its order, and at most {@value #QUEUED_BATCHES_PER_CONNECTION} batches per connection wait for execution.
+     */
+    private static class ExecutionLanes implements AutoCloseable {
 
-        for (String sql : sqlStatements) {
-            statement.addBatch(sql);
-            count++;
+        private final List<Connection> connections;
+        private final List<ExecutorService> executors = new ArrayList<>();
+        private final List<Future<?>> lastTasks = new ArrayList<>();
+        private final Map<String, Integer> laneByGroup = new HashMap<>();
+        private final Semaphore queuedBatches;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final boolean ownsConnections;
 
-            if (count % batchSize == 0) {
-                logger.info("Executing batch");
-                statement.executeBatch();
-                statement.clearBatch();
+        ExecutionLanes(List<Connection> connections, boolean ownsConnections) {
+            this.connections = connections;
+            this.ownsConnections = ownsConnections;
+            this.queuedBatches = new Semaphore(connections.size() * QUEUED_BATCHES_PER_CONNECTION);
+            for (int i = 0; i < connections.size(); i++) {
+                int lane = i;
+                executors.add(Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "sql-script-lane-" + lane);
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+                lastTasks.add(null);
             }
         }
-        // Execute any remaining statements
-        if (count % batchSize != 0) {
-            statement.executeBatch();
+
+        void submit(String group, List<String> batch) throws Exception {
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            int lane = laneByGroup.computeIfAbsent(group, key -> laneByGroup.size() % connections.size());
+            Future<?> previous = lastTasks.get(lane);
+            if (previous != null && previous.isDone()) {
+                await(previous);
+            }
+            queuedBatches.acquire();
+            Connection connection = connections.get(lane);
+            lastTasks.set(lane, executors.get(lane)
+                .submit(() -> {
+                    try {
+                        // batches queued behind a failed one are skipped, the failure is reported instead
+                        if (failure.get() == null) {
+                            executeBatch(connection, batch);
+                        }
+                        return null;
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        queuedBatches.release();
+                    }
+                }));
+        }
+
+        /**
+         * Waits for every queued batch, commits, then runs {@code sql} on its own.
+         */
+        void executeAlone(String sql) throws Exception {
+            awaitAndCommit();
+            Connection connection = connections.get(0);
+            executeBatch(connection, Collections.singletonList(sql));
+            commit(connection);
+        }
+
+        /**
+         * Waits for the last batch of every lane, even after one failed, so no batch still runs once the lanes are
+         * closed. The first failure is thrown with those of the other lanes as suppressed.
+         */
+        void awaitAndCommit() throws Exception {
+            List<Exception> laneFailures = new ArrayList<>();
+            for (int lane = 0; lane < lastTasks.size(); lane++) {
+                Future<?> task = lastTasks.get(lane);
+                if (task != null) {
+                    try {
+                        await(task);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        laneFailures.add(e);
+                    }
+                    lastTasks.set(lane, null);
+                }
+            }
+            Exception firstFailure = failure.get() != null ? failure.get() : laneFailures.isEmpty() ? null : laneFailures.get(0);
+            if (firstFailure != null) {
+                laneFailures.stream()
+                    .filter(laneFailure -> laneFailure != firstFailure)
+                    .forEach(firstFailure::addSuppressed);
+                throw firstFailure;
+            }
+            for (Connection connection : connections) {
+                commit(connection);
+            }
+        }
+
+        private static void commit(Connection connection) throws SQLException {
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+
+        private static void await(Future<?> task) throws Exception {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            // queued batches are dropped, a running one gets to finish before its connection is closed
+            executors.forEach(ExecutorService::shutdownNow);
+            try {
+                for (ExecutorService executor : executors) {
+                    executor.awaitTermination(1, TimeUnit.MINUTES);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            } finally {
+                if (ownsConnections) {
+                    for (Connection connection : connections) {
+                        connection.close();
+                    }
+                }
+            }
         }
-        connection.commit();
     }
 }
@@ -0,0 +1,192 @@
+package com.baeldung.script;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a SQL script into statements while reading it, so the script never has to fit in memory.
+ * <p>
+ * Statements end at a {@code ;} outside of string literals, quoted identifiers and dollar-quoted bodies
+ * ({@code $$ ... $$} or {@code $tag$ ... $tag$}). Line comments and (nested) block comments are dropped.
+ * Doubled quotes inside a literal are treated as escaped quotes.
+ */
+public class SqlScriptTokenizer {
+
+    private static final int EOF = -1;
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final StringBuilder statement = new StringBuilder();
+    private int pushedBack = NONE;
+
+    /**
+     * @param reader the script, ideally buffered
+     */
+    public SqlScriptTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next statement without its terminating {@code ;} and surrounding whitespace, or {@code null} once
+     *     the script is exhausted
+     */
+    public String nextStatement() throws IOException {
+        statement.setLength(0);
+        int c;
+        while ((c = read()) != EOF) {
+            switch (c) {
+            case ';':
+                if (!isBlank(statement)) {
+                    return statement.toString()
+                        .trim();
+                }
+                statement.setLength(0);
+                break;
+            case '\'':
+            case '"':
+            case '`':
+                statement.append((char) c);
+                copyQuoted((char) c);
+                break;
+            case '-':
+                if (peek() == '-') {
+                    skipLineComment();
+                    appendSeparator();
+                } else {
+                    statement.append('-');
+                }
+                break;
+            case '/':
+                if (peek() == '*') {
+                    read();
+                    skipBlockComment();
+                    appendSeparator();
+                } else {
+                    statement.append('/');
+                }
+                break;
+            case '$':
+                statement.append('$');
+                if (statement.length() == 1 || !isIdentifierPart(statement.charAt(statement.length() - 2))) {
+                    copyDollarQuoted();
+                }
+                break;
+            default:
+                statement.append((char) c);
+            }
+        }
+        return isBlank(statement) ? null : statement.toString()
+            .trim();
+    }
+
+    private void copyQuoted(char quote) throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            statement.append((char) c);
+            if (c == quote) {
+                if (peek() != quote) {
+                    return;
+                }
+                statement.append((char) read());
+            }
+        }
+        throw new IOException("Unterminated " + quote + " quote in SQL script");
+    }
+
+    /**
+     * Called right after a {@code $} that may open a dollar-quoted body. Anything else, such as a {@code $1}
+     * parameter, is copied as it is.
+     */
+    private void copyDollarQuoted() throws IOException {
+        StringBuilder tag = new StringBuilder("$");
+        int c = read();
+        while (c != EOF && (tag.length() == 1 ? Character.isLetter(c) || c == '_' : isIdentifierPart((char) c))) {
+            tag.append((char) c);
+            statement.append((char) c);
+            c = read();
+        }
+        if (c != '$') {
+            unread(c);
+            return;
+        }
+        tag.append('$');
+        statement.append('$');
+
+        String delimiter = tag.toString();
+        int matched = 0;
+        while ((c = read()) != EOF) {
+            statement.append((char) c);
+            if (c == delimiter.charAt(matched)) {
+                matched++;
+                if (matched == delimiter.length()) {
+                    return;
+                }
+            } else {
+                matched = c == '$' ? 1 : 0;
+            }
+        }
+        throw new IOException("Unterminated " + delimiter + " body in SQL script");
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = read()) != EOF && c != '\n') {
+            // skip
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int depth = 1;
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '*' && peek() == '/') {
+                read();
+                if (--depth == 0) {
+                    return;
+                }
+            } else if (c == '/' && peek() == '*') {
+                read();
+                depth++;
+            }
+        }
+        throw new IOException("Unterminated block comment in SQL script");
+    }
+
+    private void appendSeparator() {
+        if (statement.length() > 0 && !Character.isWhitespace(statement.charAt(statement.length() - 1))) {
+            statement.append(' ');
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        int c = read();
+        unread(c);
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.baeldung.microstream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PagedBookStoreUnitTest {
+
+    private static final int BOOKS = 1000;
+    private static final int AUTHORS = 7;
+
+    @Test
+    void givenPagedStorage_whenQueryingByAuthorAndTitle_thenIndexedBooksAreReturned(@TempDir Path tempDir) {
+        try (PagedBookStore store = StorageManager.loadOrCreatePagedStorage(tempDir, "baeldung-demo-7", 50, 3)) {
+            store.addAll(books(0, BOOKS));
+
+            assertThat(store.size()).isEqualTo(BOOKS);
+            assertThat(store.findByTitle("Title 123")).containsExactly(book(123));
+            assertThat(store.findByTitle("Missing")).isEmpty();
+            List<Book> byAuthor = store.findByAuthor(author(3));
+            assertThat(byAuthor).hasSize(143)
+                .allMatch(book -> book.getAuthor().equals(author(3)));
+            assertThat(store.residentPages()).isLessThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    void givenBooksAddedOneByOne_whenReopeningStorage_thenBooksAndIndexesAreRestored(@TempDir Path tempDir) {
+        try (PagedBookStore store = StorageManager.loadOrCreatePagedStorage(tempDir, "baeldung-demo-8", 50, 3)) {
+            store.addAll(books(0, 120));
+            for (Book book : books(120, 130)) {
+                store.add(book);
+            }
+        }
+
+        try (PagedBookStore store = StorageManager.loadOrCreatePagedStorage(tempDir, "baeldung-demo-8", 50, 3)) {
+            assertThat(store.size()).isEqualTo(130);
+            assertThat(store.get(125)).isEqualTo(book(125));
+            assertThat(store.findByTitle("Title 7")).containsExactly(book(7));
+            assertThat(store.findByAuthor(author(0))).hasSize(19);
+        }
+    }
+
+    @Test
+    void givenSmallMemoryBudget_whenScanningAllBooks_thenColdPagesAreUnloaded(@TempDir Path tempDir) {
+        try (PagedBookStore store = StorageManager.loadOrCreatePagedStorage(tempDir, "baeldung-demo-9", 50, 2)) {
+            store.addAll(books(0, BOOKS));
+            List<Book> scanned = new ArrayList<>();
+            store.forEach(scanned::add);
+            assertThat(scanned).hasSize(BOOKS)
+                .startsWith(book(0), book(1));
+            assertThat(store.residentPages()).isLessThanOrEqualTo(2);
+
+            long loadsBefore = store.pageLoads();
+            assertThat(store.get(0)).isEqualTo(book(0));
+            assertThat(store.pageLoads()).isEqualTo(loadsBefore + 1);
+        }
+    }
+
+    private static List<Book> books(int from, int to) {
+        List<Book> books = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    private static Book book(int i) {
+        return new Book("Title " + i, author(i % AUTHORS), 1900 + i % 120);
+    }
+
+    private static Author author(int i) {
+        return new Author("Name " + i, "Surname " + i);
+    }
+}
@@ -0,0 +1,57 @@
+package com.baeldung.resultset2json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.json.JSONArray;
+import org.junit.jupiter.api.Test;
+
+public class ResultSetJsonWriterUnitTest {
+
+    @Test
+    void givenCsvTable_whenWrittenWithStreamingWriter_thenMatchesJSONArrayConversion() throws SQLException, IOException {
+        try (Connection dbConnection = DriverManager.getConnection("jdbc:h2:mem:rs2jdbc4", "user", "password");
+            Statement stmt = dbConnection.createStatement()) {
+            stmt.execute("CREATE TABLE words AS SELECT * FROM CSVREAD('./example.csv')");
+
+            JSONArray expected;
+            try (ResultSet resultSet = stmt.executeQuery("SELECT * FROM words")) {
+                expected = ResultSet2JSON.resultSet2JdbcWithoutJOOQ(resultSet);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long rows;
+            try (ResultSet resultSet = stmt.executeQuery("SELECT * FROM words")) {
+                rows = ResultSetJsonWriter.write(resultSet, out);
+            }
+
+            assertEquals(3, rows);
+            assertTrue(expected.similar(new JSONArray(out.toString(StandardCharsets.UTF_8))));
+        }
+    }
+
+    @Test
+    void givenTypedColumnsAndNulls_whenWrittenWithFetchSize_thenValuesKeepTheirJsonTypes() throws SQLException, IOException {
+        try (Connection dbConnection = DriverManager.getConnection("jdbc:h2:mem:rs2jdbc5", "user", "password");
+            Statement stmt = dbConnection.createStatement()) {
+            stmt.execute("CREATE TABLE accounts (id BIGINT, age INT, balance DECIMAL(10, 2), active BOOLEAN, nickname VARCHAR(20))");
+            stmt.execute("INSERT INTO accounts VALUES (1, 42, 10.50, TRUE, 'ann'), (2, NULL, NULL, NULL, NULL)");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long rows = ResultSetJsonWriter.write(dbConnection, "SELECT * FROM accounts ORDER BY id", 1, out);
+
+            assertEquals(2, rows);
+            assertEquals("[{\"ID\":1,\"AGE\":42,\"BALANCE\":10.50,\"ACTIVE\":true,\"NICKNAME\":\"ann\"},"
+                + "{\"ID\":2,\"AGE\":null,\"BALANCE\":null,\"ACTIVE\":null,\"NICKNAME\":null}]", out.toString(StandardCharsets.UTF_8));
+            assertTrue(dbConnection.getAutoCommit());
+        }
+    }
+}
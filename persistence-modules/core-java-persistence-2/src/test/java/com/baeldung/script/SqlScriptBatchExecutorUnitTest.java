@@ -5,9 +5,14 @@ import org.apache.commons.logging.LogFactory;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.AfterAll;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
@@ -44,4 +49,63 @@ public class SqlScriptBatchExecutorUnitTest {
         }
     }
 
+    @Test
+    public void givenDataSource_whenScriptInsertsIntoSeveralTables_thenTablesAreLoadedInParallel() throws Exception {
+        Path script = Files.createTempFile("seed", ".sql");
+        try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+            writer.write("CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(50));\n");
+            writer.write("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(50));\n");
+            for (int i = 0; i < 500; i++) {
+                writer.write("INSERT INTO customers VALUES (" + i + ", 'customer; " + i + "');\n");
+                writer.write("-- product " + i + "\nINSERT INTO products VALUES (" + i + ", 'product " + i + "');\n");
+            }
+            writer.write("CREATE INDEX customers_name ON customers (name);\n");
+            writer.write("INSERT INTO customers SELECT id + 1000, name FROM customers;\n");
+        }
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:testdb4;DB_CLOSE_DELAY=-1");
+        dataSource.setUser(USERNAME);
+        dataSource.setPassword(PASSWORD);
+
+        ScriptExecutionStats stats = SqlScriptBatchExecutor.executeBatchedSQL(script.toString(), dataSource, 100, 2);
+
+        try (Connection verification = dataSource.getConnection(); Statement statement = verification.createStatement()) {
+            ResultSet customers = statement.executeQuery("SELECT COUNT(1) FROM customers");
+            customers.next();
+            Assert.assertEquals(1000, customers.getInt(1));
+            ResultSet products = statement.executeQuery("SELECT COUNT(1) FROM products");
+            products.next();
+            Assert.assertEquals(500, products.getInt(1));
+        } finally {
+            Files.delete(script);
+        }
+        Assert.assertEquals(1004, stats.getStatements());
+        Assert.assertTrue(stats.getStatementsPerSecond() > 0);
+    }
+
+    @Test
+    public void givenDataSource_whenOneTableFails_thenTheBatchErrorIsThrownAfterEveryLaneFinished() throws Exception {
+        Path script = Files.createTempFile("failing-seed", ".sql");
+        try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+            writer.write("CREATE TABLE orders (id INT PRIMARY KEY);\n");
+            writer.write("CREATE TABLE invoices (id INT PRIMARY KEY);\n");
+            for (int i = 0; i < 500; i++) {
+                writer.write("INSERT INTO orders VALUES (" + i + ");\n");
+                writer.write("INSERT INTO invoices VALUES (" + (i == 250 ? 0 : i) + ");\n");
+            }
+        }
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:testdb5;DB_CLOSE_DELAY=-1");
+        dataSource.setUser(USERNAME);
+        dataSource.setPassword(PASSWORD);
+
+        try {
+            SqlScriptBatchExecutor.executeBatchedSQL(script.toString(), dataSource, 100, 2);
+            Assert.fail("Expected the duplicate invoice to fail the script");
+        } catch (BatchUpdateException e) {
+            Assert.assertEquals(0, e.getSuppressed().length);
+        } finally {
+            Files.delete(script);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.baeldung.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SqlScriptTokenizerUnitTest {
+
+    @Test
+    void givenCommentsAndQuotedSemicolons_whenTokenizing_thenOnlyRealTerminatorsSplit() throws IOException {
+        String script = "/* header; /* nested; */ still comment */\n"
+            + "CREATE TABLE notes (id INT, body VARCHAR(100)); -- trailing; comment\n"
+            + "INSERT INTO notes VALUES (1, 'it''s; fine');\n"
+            + "INSERT INTO \"odd;table\" VALUES (2, 'a -- not a comment');\n"
+            + "SELECT 10 / 2 - 1;;\n"
+            + "SELECT 1";
+
+        assertThat(tokenize(script)).containsExactly(
+            "CREATE TABLE notes (id INT, body VARCHAR(100))",
+            "INSERT INTO notes VALUES (1, 'it''s; fine')",
+            "INSERT INTO \"odd;table\" VALUES (2, 'a -- not a comment')",
+            "SELECT 10 / 2 - 1",
+            "SELECT 1");
+    }
+
+    @Test
+    void givenDollarQuotedBodies_whenTokenizing_thenBodiesStayInOneStatement() throws IOException {
+        String script = "CREATE FUNCTION one() RETURNS INT AS $$ SELECT 1; $$ LANGUAGE sql;\n"
+            + "DO $body$ BEGIN RAISE NOTICE '$$;'; END $body$;\n"
+            + "PREPARE q AS SELECT $1;";
+
+        assertThat(tokenize(script)).containsExactly(
+            "CREATE FUNCTION one() RETURNS INT AS $$ SELECT 1; $$ LANGUAGE sql",
+            "DO $body$ BEGIN RAISE NOTICE '$$;'; END $body$",
+            "PREPARE q AS SELECT $1");
+    }
+
+    @Test
+    void givenUnterminatedLiteral_whenTokenizing_thenFails() {
+        assertThatThrownBy(() -> tokenize("INSERT INTO notes VALUES ('oops);")).isInstanceOf(IOException.class)
+            .hasMessageContaining("Unterminated");
+    }
+
+    private static List<String> tokenize(String script) throws IOException {
+        SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(new StringReader(script));
+        List<String> statements = new ArrayList<>();
+        String statement;
+        while ((statement = tokenizer.nextStatement()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+}
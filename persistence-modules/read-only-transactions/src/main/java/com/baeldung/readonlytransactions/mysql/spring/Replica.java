@@ -0,0 +1,148 @@
+package com.baeldung.readonlytransactions.mysql.spring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * A read replica with its routing state: whether it passed the last health check, its replication lag and the
+ * number of connections currently handed out. Connections are wrapped to keep the in-flight count and to time
+ * every statement execution.
+ */
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final int weight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReplicaMetrics metrics = new ReplicaMetrics();
+    private volatile boolean healthy = true;
+    private volatile long lagMillis;
+
+    public Replica(String name, DataSource dataSource, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        this.name = name;
+        this.dataSource = dataSource;
+        this.weight = weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public ReplicaMetrics getMetrics() {
+        return metrics;
+    }
+
+    void setHealth(boolean healthy, long lagMillis) {
+        this.healthy = healthy;
+        this.lagMillis = lagMillis;
+    }
+
+    Connection connect() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            metrics.recordConnectionFailure();
+            throw e;
+        }
+        metrics.recordConnection(System.nanoTime() - start);
+        inFlight.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Replica.class.getClassLoader(), new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public String toString() {
+        return name + (healthy ? "" : " (unhealthy)") + ", lag " + lagMillis + " ms, in flight " + inFlight.get() + ", " + metrics;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName()
+                .equals("close") && closed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+            Object result = Replica.invoke(target, method, args);
+            if (result instanceof Statement && method.getReturnType()
+                .isInterface()) {
+                return Proxy.newProxyInstance(Replica.class.getClassLoader(), new Class<?>[] { method.getReturnType() }, new StatementHandler(result));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+
+        StatementHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName()
+                .startsWith("execute")) {
+                return Replica.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = Replica.invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                metrics.recordQuery(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.baeldung.readonlytransactions.mysql.spring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection-wait and query-latency counters of one {@link Replica}.
+ */
+public class ReplicaMetrics {
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder connectionFailures = new LongAdder();
+    private final LongAdder connectionWaitNanos = new LongAdder();
+    private final LongAccumulator maxConnectionWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryFailures = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAccumulator maxQueryNanos = new LongAccumulator(Long::max, 0);
+
+    void recordConnection(long waitNanos) {
+        connections.increment();
+        connectionWaitNanos.add(waitNanos);
+        maxConnectionWaitNanos.accumulate(waitNanos);
+    }
+
+    void recordConnectionFailure() {
+        connectionFailures.increment();
+    }
+
+    void recordQuery(long nanos, boolean failed) {
+        queries.increment();
+        if (failed) {
+            queryFailures.increment();
+        }
+        queryNanos.add(nanos);
+        maxQueryNanos.accumulate(nanos);
+    }
+
+    public long getConnections() {
+        return connections.sum();
+    }
+
+    public long getConnectionFailures() {
+        return connectionFailures.sum();
+    }
+
+    public double getAverageConnectionWaitMillis() {
+        return average(connectionWaitNanos.sum(), getConnections());
+    }
+
+    public double getMaxConnectionWaitMillis() {
+        return maxConnectionWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getQueryFailures() {
+        return queryFailures.sum();
+    }
+
+    public double getAverageQueryMillis() {
+        return average(queryNanos.sum(), getQueries());
+    }
+
+    public double getMaxQueryMillis() {
+        return maxQueryNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double average(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("connections=%d (failed %d, avg wait %.2f ms, max %.2f ms), queries=%d (failed %d, avg %.2f ms, max %.2f ms)", getConnections(),
+            getConnectionFailures(), getAverageConnectionWaitMillis(), getMaxConnectionWaitMillis(), getQueries(), getQueryFailures(), getAverageQueryMillis(),
+            getMaxQueryMillis());
+    }
+}
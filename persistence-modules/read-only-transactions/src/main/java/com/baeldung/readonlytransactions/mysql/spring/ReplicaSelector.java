@@ -0,0 +1,60 @@
+package com.baeldung.readonlytransactions.mysql.spring;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the replica for the next read-only connection among the healthy ones.
+ */
+@FunctionalInterface
+public interface ReplicaSelector {
+
+    /**
+     * @param healthyReplicas never empty
+     */
+    Replica select(List<Replica> healthyReplicas);
+
+    /**
+     * The replica with the fewest connections in flight relative to its weight, so slow replicas automatically
+     * receive less work.
+     */
+    static ReplicaSelector leastInFlight() {
+        return replicas -> {
+            Replica selected = null;
+            double lowestLoad = Double.MAX_VALUE;
+            // start at a random offset so that ties do not always go to the first replica
+            int offset = ThreadLocalRandom.current()
+                .nextInt(replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((offset + i) % replicas.size());
+                double load = (double) replica.getInFlight() / replica.getWeight();
+                if (load < lowestLoad) {
+                    lowestLoad = load;
+                    selected = replica;
+                }
+            }
+            return selected;
+        };
+    }
+
+    /**
+     * A random replica, each chosen with a probability proportional to its weight.
+     */
+    static ReplicaSelector weighted() {
+        return replicas -> {
+            int totalWeight = 0;
+            for (Replica replica : replicas) {
+                totalWeight += replica.getWeight();
+            }
+            int ticket = ThreadLocalRandom.current()
+                .nextInt(totalWeight);
+            for (Replica replica : replicas) {
+                ticket -= replica.getWeight();
+                if (ticket < 0) {
+                    return replica;
+                }
+            }
+            return replicas.get(replicas.size() - 1);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.baeldung.readonlytransactions.mysql.spring;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Measures how far a replica is behind its source.
+ */
+@FunctionalInterface
+public interface ReplicationLagProbe {
+
+    /**
+     * @return the lag in milliseconds, {@link Long#MAX_VALUE} when replication is not running
+     */
+    long lagMillis(Connection connection) throws SQLException;
+
+    /**
+     * Only checks that the replica answers, and reports no lag.
+     */
+    static ReplicationLagProbe none() {
+        return connection -> {
+            if (!connection.isValid(1)) {
+                throw new SQLException("Connection is not valid");
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Reads {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS} (MySQL 8.0.22 and later).
+     */
+    static ReplicationLagProbe mysql() {
+        return connection -> {
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!resultSet.next()) {
+                    return Long.MAX_VALUE;
+                }
+                long seconds = resultSet.getLong("Seconds_Behind_Source");
+                return resultSet.wasNull() ? Long.MAX_VALUE : seconds * 1000;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code sql}, which has to return the lag in milliseconds as a single number, e.g. for PostgreSQL
+     * {@code SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)}.
+     */
+    static ReplicationLagProbe query(String sql) {
+        return connection -> {
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return Long.MAX_VALUE;
+                }
+                long lag = resultSet.getLong(1);
+                return resultSet.wasNull() ? Long.MAX_VALUE : lag;
+            }
+        };
+    }
+}
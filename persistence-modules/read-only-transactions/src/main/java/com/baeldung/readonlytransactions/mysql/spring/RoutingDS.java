@@ -4,32 +4,150 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
-public class RoutingDS extends AbstractRoutingDataSource {
+/**
+ * Sends read-only work to one of several replicas and everything else to the writer.
+ * <p>
+ * A background check marks a replica unhealthy when it cannot be reached or lags behind the writer by more than
+ * {@code maxLag}, and healthy again once it has caught up. A replica whose connection attempt fails is skipped
+ * right away. Reads fall back to the writer when no replica is healthy.
+ */
+public class RoutingDS extends AbstractRoutingDataSource implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(RoutingDS.class);
+    private static final String WRITER = "writer";
+
+    private final List<Replica> replicas;
+    private final ReplicaSelector selector;
+    private final ReplicationLagProbe lagProbe;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+    private ScheduledExecutorService healthChecker;
 
     RoutingDS(DataSource writer, DataSource reader) {
+        this(writer, Collections.singletonList(new Replica("reader", reader, 1)), ReplicaSelector.leastInFlight(), ReplicationLagProbe.none(),
+            Duration.ofSeconds(30), Duration.ofSeconds(5));
+    }
+
+    RoutingDS(DataSource writer, List<Replica> replicas, ReplicaSelector selector, ReplicationLagProbe lagProbe, Duration maxLag, Duration checkInterval) {
+        this.replicas = new ArrayList<>(replicas);
+        this.selector = selector;
+        this.lagProbe = lagProbe;
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
 
         Map<Object, Object> dataSources = new HashMap<>();
-        dataSources.put("writer", writer);
-        dataSources.put("reader", reader);
+        dataSources.put(WRITER, writer);
+        replicas.forEach(replica -> dataSources.put(replica.getName(), replica.getDataSource()));
 
         setTargetDataSources(dataSources);
+        setDefaultTargetDataSource(writer);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
     }
 
     @Override
     protected Object determineCurrentLookupKey() {
-        String dataSourceMode = ReadOnlyContext.isReadOnly() ? "reader" : "writer";
+        // replicas are picked in getConnection(), so only the writer is looked up here
+        return WRITER;
+    }
 
-        // Testing data source switch
-        logger.debug("-----------------------------Datasource: {} ---------------------------------", dataSourceMode);
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadOnlyContext.isReadOnly()) {
+            return super.getConnection();
+        }
+        List<Replica> candidates = healthyReplicas();
+        while (!candidates.isEmpty()) {
+            Replica replica = selector.select(candidates);
+            try {
+                Connection connection = replica.connect();
+                // Testing data source switch
+                logger.debug("-----------------------------Datasource: {} ---------------------------------", replica.getName());
+                return connection;
+            } catch (SQLException e) {
+                logger.warn("Replica {} is unreachable, taking it out of rotation", replica.getName(), e);
+                replica.setHealth(false, replica.getLagMillis());
+                candidates.remove(replica);
+            }
+        }
+        logger.debug("No healthy replica, reading from the writer");
+        return super.getConnection();
+    }
 
-        return dataSourceMode;
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (ReadOnlyContext.isReadOnly()) {
+            throw new SQLFeatureNotSupportedException("Replicas are connected with their own credentials");
+        }
+        return super.getConnection(username, password);
     }
 
+    public List<Replica> getReplicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+
+    /**
+     * Probes every replica once. Runs in the background every {@code checkInterval}.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            long lag;
+            try (Connection connection = replica.getDataSource()
+                .getConnection()) {
+                lag = lagProbe.lagMillis(connection);
+            } catch (SQLException | RuntimeException e) {
+                lag = Long.MAX_VALUE;
+                logger.debug("Health check of replica {} failed", replica.getName(), e);
+            }
+            boolean healthy = lag <= maxLagMillis;
+            replica.setHealth(healthy, lag);
+            if (healthy != wasHealthy) {
+                logger.info("Replica {} is {} (lag {} ms)", replica.getName(), healthy ? "back in rotation" : "out of rotation", lag);
+            }
+            logger.debug("Replica {}", replica);
+        }
+    }
+
+    private List<Replica> healthyReplicas() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isHealthy()) {
+                healthy.add(replica);
+            }
+        }
+        return healthy;
+    }
 }
@@ -0,0 +1,188 @@
+package com.baeldung.readonlytransactions.mysql.spring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class RoutingDSUnitTest {
+
+    private static final String LAG_QUERY = "SELECT lag_ms FROM replication_status";
+
+    private DataSource writer;
+    private Replica replica1;
+    private Replica replica2;
+    private RoutingDS routingDS;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        writer = h2("writer");
+        replica1 = new Replica("replica1", h2("replica1"), 1);
+        replica2 = new Replica("replica2", h2("replica2"), 1);
+        for (DataSource dataSource : Arrays.asList(writer, replica1.getDataSource(), replica2.getDataSource())) {
+            execute(dataSource, "CREATE TABLE IF NOT EXISTS replication_status (lag_ms BIGINT)");
+            execute(dataSource, "DELETE FROM replication_status");
+            execute(dataSource, "INSERT INTO replication_status VALUES (0)");
+        }
+        routingDS = routingDS(Arrays.asList(replica1, replica2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDS.close();
+    }
+
+    @Test
+    void givenHealthyReplicas_whenReadingOnly_thenConnectionsAreSpreadAcrossReplicas() throws SQLException {
+        Map<String, Integer> reads = new HashMap<>();
+        ReadOnlyContext.enter();
+        try {
+            for (int i = 0; i < 100; i++) {
+                reads.merge(routedDatabase(), 1, Integer::sum);
+            }
+        } finally {
+            ReadOnlyContext.exit();
+        }
+
+        assertEquals(2, reads.size());
+        assertTrue(reads.get("REPLICA1") > 10);
+        assertTrue(reads.get("REPLICA2") > 10);
+    }
+
+    @Test
+    void givenOpenConnectionOnOneReplica_whenReadingOnly_thenLeastInFlightReplicaIsChosen() throws SQLException {
+        ReadOnlyContext.enter();
+        try (Connection first = routingDS.getConnection(); Connection second = routingDS.getConnection()) {
+            assertEquals(1, replica1.getInFlight());
+            assertEquals(1, replica2.getInFlight());
+        } finally {
+            ReadOnlyContext.exit();
+        }
+        assertEquals(0, replica1.getInFlight());
+        assertEquals(0, replica2.getInFlight());
+    }
+
+    @Test
+    void givenLaggingReplica_whenHealthIsChecked_thenReplicaIsTakenOutOfRotationUntilItCatchesUp() throws SQLException {
+        execute(replica1.getDataSource(), "UPDATE replication_status SET lag_ms = 5000");
+        routingDS.checkReplicas();
+
+        assertFalse(replica1.isHealthy());
+        assertEquals(5000, replica1.getLagMillis());
+        assertEquals("REPLICA2", readOnly());
+
+        execute(replica1.getDataSource(), "UPDATE replication_status SET lag_ms = 100");
+        routingDS.checkReplicas();
+
+        assertTrue(replica1.isHealthy());
+    }
+
+    @Test
+    void givenAllReplicasLagging_whenReadingOnly_thenWriterIsUsed() throws SQLException {
+        execute(replica1.getDataSource(), "UPDATE replication_status SET lag_ms = 5000");
+        execute(replica2.getDataSource(), "DELETE FROM replication_status");
+        routingDS.checkReplicas();
+
+        assertEquals(Long.MAX_VALUE, replica2.getLagMillis());
+        assertEquals("WRITER", readOnly());
+    }
+
+    @Test
+    void givenUnreachableReplica_whenReadingOnly_thenReadFailsOverToTheOtherReplica() throws SQLException {
+        Replica unreachable = new Replica("unreachable", h2("missing;IFEXISTS=TRUE"), 1);
+        routingDS.close();
+        // always the first healthy replica, so the unreachable one is tried before replica1
+        ReplicaSelector firstHealthy = replicas -> replicas.get(0);
+        routingDS = new RoutingDS(writer, Arrays.asList(unreachable, replica1), firstHealthy, ReplicationLagProbe.query(LAG_QUERY),
+            Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        assertEquals("REPLICA1", readOnly());
+        assertFalse(unreachable.isHealthy());
+        assertEquals(1, unreachable.getMetrics()
+            .getConnectionFailures());
+    }
+
+    @Test
+    void givenReadWriteWork_whenConnecting_thenWriterIsUsed() throws SQLException {
+        assertEquals("WRITER", routedDatabase());
+        assertEquals(0, replica1.getMetrics()
+            .getConnections() + replica2.getMetrics()
+            .getConnections());
+    }
+
+    @Test
+    void givenReadOnlyQueries_whenExecuted_thenConnectionAndQueryMetricsAreRecorded() throws SQLException {
+        ReadOnlyContext.enter();
+        try {
+            for (int i = 0; i < 10; i++) {
+                routedDatabase();
+            }
+        } finally {
+            ReadOnlyContext.exit();
+        }
+
+        List<Replica> replicas = routingDS.getReplicas();
+        long connections = 0;
+        long queries = 0;
+        for (Replica replica : replicas) {
+            connections += replica.getMetrics()
+                .getConnections();
+            queries += replica.getMetrics()
+                .getQueries();
+        }
+        assertEquals(10, connections);
+        assertEquals(10, queries);
+        assertTrue(replica1.getMetrics()
+            .getMaxQueryMillis() > 0);
+    }
+
+    private RoutingDS routingDS(List<Replica> replicas) {
+        RoutingDS dataSource = new RoutingDS(writer, replicas, ReplicaSelector.leastInFlight(), ReplicationLagProbe.query(LAG_QUERY), Duration.ofSeconds(1),
+            Duration.ofMinutes(1));
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private String readOnly() throws SQLException {
+        ReadOnlyContext.enter();
+        try {
+            return routedDatabase();
+        } finally {
+            ReadOnlyContext.exit();
+        }
+    }
+
+    private String routedDatabase() throws SQLException {
+        try (Connection connection = routingDS.getConnection(); Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT DATABASE()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.baeldung.redis_scan.client;
 
+import com.baeldung.redis_scan.iterator.AdaptiveScanCount;
+import com.baeldung.redis_scan.iterator.PrefetchingRedisIterator;
 import com.baeldung.redis_scan.iterator.RedisIterator;
+import com.baeldung.redis_scan.iterator.ScanSpliterator;
 import com.baeldung.redis_scan.strategy.ScanStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +13,7 @@ import redis.clients.jedis.JedisPool;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class RedisClient {
     private static Logger log = LoggerFactory.getLogger(RedisClient.class);
@@ -138,6 +142,10 @@ public class RedisClient {
         return new RedisIterator(jedisPool, initialScanCount, pattern, strategy);
     }
 
+    public <T> Stream<T> scan(int initialScanCount, String pattern, ScanStrategy<T> strategy) {
+        return ScanSpliterator.stream(new PrefetchingRedisIterator<>(jedisPool, pattern, strategy, new AdaptiveScanCount(initialScanCount), 4));
+    }
+
     public void flushAll() {
         try (Jedis jedis = jedisPool.getResource()) {
             jedis.flushAll();
@@ -0,0 +1,52 @@
+package com.baeldung.redis_scan.iterator;
+
+/**
+ * Chooses the {@code COUNT} hint of the next {@code SCAN} page from the latency of the previous one. Pages that come
+ * back well under the target double the count, slower ones halve it, so a scan moves as many keys per round trip as
+ * it can without blocking the server for long.
+ */
+public class AdaptiveScanCount {
+
+    private static final long DEFAULT_TARGET_LATENCY_NANOS = 2_000_000;
+    private static final int DEFAULT_MIN_COUNT = 10;
+    private static final int DEFAULT_MAX_COUNT = 10_000;
+
+    private final int minCount;
+    private final int maxCount;
+    private final long targetLatencyNanos;
+    private volatile int count;
+
+    public AdaptiveScanCount(int initialCount, int minCount, int maxCount, long targetLatencyNanos) {
+        if (minCount <= 0 || minCount > maxCount) {
+            throw new IllegalArgumentException("Expected 0 < minCount <= maxCount");
+        }
+        this.minCount = minCount;
+        this.maxCount = maxCount;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.count = Math.max(minCount, Math.min(maxCount, initialCount));
+    }
+
+    public AdaptiveScanCount(int initialCount) {
+        this(initialCount, DEFAULT_MIN_COUNT, DEFAULT_MAX_COUNT, DEFAULT_TARGET_LATENCY_NANOS);
+    }
+
+    /**
+     * A count that never changes, i.e. the behaviour of {@link RedisIterator}.
+     */
+    public static AdaptiveScanCount fixed(int count) {
+        return new AdaptiveScanCount(count, count, count, Long.MAX_VALUE);
+    }
+
+    public int current() {
+        return count;
+    }
+
+    public void record(long pageLatencyNanos) {
+        int current = count;
+        if (pageLatencyNanos > targetLatencyNanos) {
+            count = Math.max(minCount, current / 2);
+        } else if (pageLatencyNanos < targetLatencyNanos / 2) {
+            count = (int) Math.min(maxCount, current * 2L);
+        }
+    }
+}
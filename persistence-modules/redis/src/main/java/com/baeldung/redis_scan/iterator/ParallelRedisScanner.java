@@ -0,0 +1,126 @@
+package com.baeldung.redis_scan.iterator;
+
+import com.baeldung.redis_scan.strategy.ScanStrategy;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Scans several Redis nodes at the same time, typically the masters of a cluster. A SCAN cursor only walks the
+ * keyspace of the node it was issued to, so every node gets its own {@link PrefetchingRedisIterator} and thread.
+ * <p>
+ * This only makes sense for {@code SCAN} itself: {@code HSCAN}, {@code SSCAN} and {@code ZSCAN} read a single key,
+ * which lives on a single node.
+ */
+public class ParallelRedisScanner<T> {
+
+    private final List<JedisPool> nodes;
+    private final String pattern;
+    private final ScanStrategy<T> strategy;
+    private final int initialScanCount;
+    private final int prefetchPages;
+
+    public ParallelRedisScanner(List<JedisPool> nodes, String pattern, ScanStrategy<T> strategy, int initialScanCount, int prefetchPages) {
+        this.nodes = new ArrayList<>(nodes);
+        this.pattern = pattern;
+        this.strategy = strategy;
+        this.initialScanCount = initialScanCount;
+        this.prefetchPages = prefetchPages;
+    }
+
+    /**
+     * Hands every page of every node to {@code pageConsumer}, which is called from one thread per node and therefore
+     * has to be thread-safe.
+     *
+     * @return the number of elements scanned
+     */
+    public long forEachPage(Consumer<? super List<T>> pageConsumer) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(nodes.size(), runnable -> {
+            Thread thread = new Thread(runnable, "redis-scan-node-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LongAdder scanned = new LongAdder();
+        try {
+            List<Future<?>> scans = new ArrayList<>(nodes.size());
+            for (JedisPool node : nodes) {
+                scans.add(executor.submit(() -> {
+                    try (PrefetchingRedisIterator<T> pages = iterator(node)) {
+                        while (pages.hasNext()) {
+                            List<T> page = pages.next();
+                            pageConsumer.accept(page);
+                            scanned.add(page.size());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> scan : scans) {
+                scan.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while scanning", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return scanned.sum();
+    }
+
+    /**
+     * The elements of all nodes as one parallel stream, one node per stream task. Close the stream when it is not
+     * fully consumed.
+     */
+    public Stream<T> stream() {
+        return nodes.stream()
+            .parallel()
+            .flatMap(node -> ScanSpliterator.stream(iterator(node)));
+    }
+
+    private PrefetchingRedisIterator<T> iterator(JedisPool node) {
+        return new PrefetchingRedisIterator<>(node, pattern, strategy, new AdaptiveScanCount(initialScanCount), prefetchPages);
+    }
+
+    /**
+     * The masters of the cluster {@code node} belongs to, read from {@code CLUSTER NODES}. Replicas are left out
+     * because they hold the same keys as their master.
+     */
+    public static List<HostAndPort> clusterMasters(Jedis node) {
+        return parseMasters(node.clusterNodes());
+    }
+
+    static List<HostAndPort> parseMasters(String clusterNodes) {
+        List<HostAndPort> masters = new ArrayList<>();
+        for (String line : clusterNodes.split("\n")) {
+            String[] fields = line.trim()
+                .split(" ");
+            if (fields.length < 3) {
+                continue;
+            }
+            List<String> flags = List.of(fields[2].split(","));
+            if (flags.contains("master") && !flags.contains("fail")) {
+                // address is host:port@cport[,hostname]
+                String address = fields[1].split("[@,]")[0];
+                masters.add(HostAndPort.from(address));
+            }
+        }
+        return masters;
+    }
+}
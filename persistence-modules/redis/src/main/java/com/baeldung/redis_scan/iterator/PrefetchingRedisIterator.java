@@ -0,0 +1,150 @@
+package com.baeldung.redis_scan.iterator;
+
+import com.baeldung.redis_scan.strategy.ScanStrategy;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link RedisIterator} alternative that fetches pages on a background thread while the caller is still working
+ * on the previous ones. The whole scan runs on a single pooled connection and at most {@code prefetchPages} pages
+ * are buffered, so a slow consumer holds the scan back instead of filling the heap.
+ * <p>
+ * Failures of the scan are rethrown from {@link #hasNext()}. Close the iterator when abandoning it early to stop
+ * the background thread and return its connection.
+ */
+public class PrefetchingRedisIterator<T> implements Iterator<List<T>>, AutoCloseable {
+
+    private static final List<Object> END = new ArrayList<>(0);
+
+    private final JedisPool jedisPool;
+    private final String pattern;
+    private final ScanStrategy<T> strategy;
+    private final AdaptiveScanCount scanCount;
+    private final BlockingQueue<List<T>> pages;
+    private final Thread fetcher;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+    private List<T> nextPage;
+    private boolean finished;
+
+    public PrefetchingRedisIterator(JedisPool jedisPool, String pattern, ScanStrategy<T> strategy, AdaptiveScanCount scanCount, int prefetchPages) {
+        this.jedisPool = jedisPool;
+        this.pattern = pattern;
+        this.strategy = strategy;
+        this.scanCount = scanCount;
+        this.pages = new ArrayBlockingQueue<>(prefetchPages);
+        this.fetcher = new Thread(this::fetchAll, "redis-scan-prefetch");
+        this.fetcher.setDaemon(true);
+        this.fetcher.start();
+    }
+
+    public PrefetchingRedisIterator(JedisPool jedisPool, String pattern, ScanStrategy<T> strategy) {
+        this(jedisPool, pattern, strategy, new AdaptiveScanCount(100), 4);
+    }
+
+    private void fetchAll() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                ScanParams scanParams = new ScanParams().match(pattern)
+                    .count(scanCount.current());
+                long start = System.nanoTime();
+                ScanResult<T> scanResult = strategy.scan(jedis, cursor, scanParams);
+                scanCount.record(System.nanoTime() - start);
+                cursor = scanResult.getCursor();
+                if (!scanResult.getResult()
+                    .isEmpty()) {
+                    pages.put(scanResult.getResult());
+                }
+            } while (!closed && !ScanParams.SCAN_POINTER_START.equals(cursor));
+        } catch (InterruptedException e) {
+            if (!closed) {
+                failure = new IllegalStateException("SCAN prefetching was interrupted", e);
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            // without the end marker, a consumer waiting in hasNext() would block forever
+            signalEnd();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void signalEnd() {
+        if (closed) {
+            return;
+        }
+        try {
+            pages.put((List<T>) (List<?>) END);
+        } catch (InterruptedException e) {
+            // closed while the consumer was not reading
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextPage = pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next SCAN page", e);
+        }
+        if (nextPage == END) {
+            nextPage = null;
+            finished = true;
+            rethrowFailure();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> page = nextPage;
+        nextPage = null;
+        return page;
+    }
+
+    private void rethrowFailure() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("SCAN failed", failure);
+        }
+    }
+
+    public AdaptiveScanCount getScanCount() {
+        return scanCount;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        finished = true;
+        fetcher.interrupt();
+        pages.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.baeldung.redis_scan.iterator;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Flattens the pages of a SCAN into single elements. SCAN may return an element more than once, so the spliterator
+ * does not claim {@link Spliterator#DISTINCT}; add {@code distinct()} to the stream when duplicates matter.
+ */
+public class ScanSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final Iterator<List<T>> pages;
+    private Iterator<T> page = Collections.emptyIterator();
+
+    public ScanSpliterator(Iterator<List<T>> pages) {
+        super(Long.MAX_VALUE, Spliterator.NONNULL);
+        this.pages = pages;
+    }
+
+    /**
+     * A sequential stream over the elements of {@code pages}; closing the stream closes {@code pages} when it is
+     * {@link AutoCloseable}.
+     */
+    public static <T> Stream<T> stream(Iterator<List<T>> pages) {
+        Stream<T> stream = StreamSupport.stream(new ScanSpliterator<>(pages), false);
+        if (pages instanceof AutoCloseable) {
+            return stream.onClose(() -> {
+                try {
+                    ((AutoCloseable) pages).close();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        return stream;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!page.hasNext()) {
+            if (!pages.hasNext()) {
+                return false;
+            }
+            page = pages.next()
+                .iterator();
+        }
+        action.accept(page.next());
+        return true;
+    }
+}
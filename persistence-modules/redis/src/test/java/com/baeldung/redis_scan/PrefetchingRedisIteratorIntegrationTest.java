@@ -0,0 +1,136 @@
+package com.baeldung.redis_scan;
+
+import com.baeldung.redis_scan.client.RedisClient;
+import com.baeldung.redis_scan.iterator.AdaptiveScanCount;
+import com.baeldung.redis_scan.iterator.ParallelRedisScanner;
+import com.baeldung.redis_scan.iterator.PrefetchingRedisIterator;
+import com.baeldung.redis_scan.strategy.impl.Scan;
+import org.junit.*;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class PrefetchingRedisIteratorIntegrationTest {
+
+    private static final int KEYS_PER_NODE = 20_000;
+
+    private static RedisServer firstServer;
+    private static RedisServer secondServer;
+    private static JedisPool firstNode;
+    private static JedisPool secondNode;
+    private static int firstPort;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        firstPort = freePort();
+        int secondPort = freePort();
+        firstServer = RedisServer.builder()
+                .port(firstPort)
+                .setting("maxmemory 128M")
+                .build();
+        secondServer = RedisServer.builder()
+                .port(secondPort)
+                .setting("maxmemory 128M")
+                .build();
+        firstServer.start();
+        secondServer.start();
+        firstNode = new JedisPool("127.0.0.1", firstPort);
+        secondNode = new JedisPool("127.0.0.1", secondPort);
+        seed(firstNode, "first");
+        seed(secondNode, "second");
+    }
+
+    @AfterClass
+    public static void destroy() {
+        firstNode.close();
+        secondNode.close();
+        firstServer.stop();
+        secondServer.stop();
+    }
+
+    @Test
+    public void givenManyKeys_whenPrefetching_thenEveryKeyIsReturnedAndCountGrows() {
+        Set<String> keys = new HashSet<>();
+        try (PrefetchingRedisIterator<String> iterator = new PrefetchingRedisIterator<>(firstNode, "key:*", new Scan(),
+                new AdaptiveScanCount(10, 10, 1000, 50_000_000), 2)) {
+            while (iterator.hasNext()) {
+                keys.addAll(iterator.next());
+            }
+            Assert.assertTrue(iterator.getScanCount().current() > 10);
+        }
+        Assert.assertEquals(KEYS_PER_NODE, keys.size());
+    }
+
+    @Test
+    public void givenPattern_whenStreaming_thenOnlyMatchingKeysAreReturned() {
+        RedisClient redisClient = RedisClient.getInstance("127.0.0.1", firstPort);
+        try (Stream<String> keys = redisClient.scan(100, "key:first:1*", new Scan())) {
+            long expected = 1 + 10 + 100 + 1000 + 10_000;
+            Assert.assertEquals(expected, keys.distinct().count());
+        } finally {
+            redisClient.destroyInstance();
+        }
+    }
+
+    @Test
+    public void givenAbandonedStream_whenClosed_thenScanStops() throws InterruptedException {
+        try (Stream<String> keys = new ParallelRedisScanner<>(Collections.singletonList(firstNode), "key:*", new Scan(), 10, 1).stream()) {
+            Assert.assertEquals(5, keys.limit(5).count());
+        }
+        // the fetcher returns its connection once it notices the interrupt
+        for (int i = 0; i < 100 && firstNode.getNumActive() > 0; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(0, firstNode.getNumActive());
+    }
+
+    @Test
+    public void givenScanFailingWithError_whenIterating_thenErrorIsRethrownInsteadOfBlocking() {
+        try (PrefetchingRedisIterator<String> iterator = new PrefetchingRedisIterator<>(firstNode, "key:*", (jedis, cursor, scanParams) -> {
+            throw new NoClassDefFoundError("redis/clients/jedis/resps/ScanResult");
+        })) {
+            iterator.hasNext();
+            Assert.fail("Expected the scan error to be rethrown");
+        } catch (NoClassDefFoundError e) {
+            Assert.assertEquals("redis/clients/jedis/resps/ScanResult", e.getMessage());
+        }
+    }
+
+    @Test
+    public void givenTwoNodes_whenScanningInParallel_thenKeysOfBothNodesAreReturned() {
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        ParallelRedisScanner<String> scanner = new ParallelRedisScanner<>(Arrays.asList(firstNode, secondNode), "key:*", new Scan(), 100, 4);
+
+        long scanned = scanner.forEachPage(keys::addAll);
+
+        Assert.assertEquals(2 * KEYS_PER_NODE, keys.size());
+        Assert.assertTrue(scanned >= keys.size());
+        Assert.assertEquals(2 * KEYS_PER_NODE, scanner.stream().collect(Collectors.toSet()).size());
+    }
+
+    private static void seed(JedisPool node, String prefix) {
+        try (Jedis jedis = node.getResource()) {
+            for (int i = 0; i < KEYS_PER_NODE; i += 1000) {
+                String[] keysValues = new String[2000];
+                for (int j = 0; j < 1000; j++) {
+                    keysValues[2 * j] = "key:" + prefix + ":" + (i + j);
+                    keysValues[2 * j + 1] = "v";
+                }
+                jedis.mset(keysValues);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
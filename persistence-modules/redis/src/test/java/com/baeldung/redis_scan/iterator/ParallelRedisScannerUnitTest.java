@@ -0,0 +1,21 @@
+package com.baeldung.redis_scan.iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import redis.clients.jedis.HostAndPort;
+
+import java.util.Arrays;
+
+public class ParallelRedisScannerUnitTest {
+
+    @Test
+    public void givenClusterNodesOutput_whenParsed_thenOnlyLiveMastersAreReturned() {
+        String clusterNodes = "07c37dfeb235213a872192d90877d0cd55635b91 127.0.0.1:30004@31004,host-4 slave e7d1eecce10fd6bb5eb35b9f99a514335d9ba9ca 0 1426238317239 4 connected\n"
+                + "67ed2db8d677e59ec4a4cefb06858cf2a1a89fa1 127.0.0.1:30002@31002,host-2 master - 0 1426238316232 2 connected 5461-10922\n"
+                + "292f8b365bb7edb5e285caf0b7e6ddc7265d2f4f 127.0.0.1:30003@31003 master,fail - 1426238317741 1426238316232 3 connected\n"
+                + "e7d1eecce10fd6bb5eb35b9f99a514335d9ba9ca 127.0.0.1:30001@31001 myself,master - 0 0 1 connected 0-5460\n";
+
+        Assert.assertEquals(Arrays.asList(new HostAndPort("127.0.0.1", 30002), new HostAndPort("127.0.0.1", 30001)),
+                ParallelRedisScanner.parseMasters(clusterNodes));
+    }
+}
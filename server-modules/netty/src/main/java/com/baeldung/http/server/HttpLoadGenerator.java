@@ -0,0 +1,225 @@
+package com.baeldung.http.server;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * A closed-loop load generator in the style of wrk: every connection sends a POST, waits for the whole response and
+ * sends the next one. Besides requests per second it reports the heap allocated by the server's event loop threads
+ * per request, which is where {@link PooledHttpServerHandler} and {@link CustomHttpServerHandler} differ.
+ * <p>
+ * {@link #main(String[])} compares both handlers in this JVM; the settings are read from the system properties
+ * {@code load.port}, {@code load.connections}, {@code load.seconds} and {@code load.bodyBytes}.
+ */
+public class HttpLoadGenerator {
+
+    private final String host;
+    private final int port;
+    private final int connections;
+    private final FullHttpRequest request;
+
+    public HttpLoadGenerator(String host, int port, int connections, int bodyBytes) {
+        this.host = host;
+        this.port = port;
+        this.connections = connections;
+        byte[] body = new byte[bodyBytes];
+        Arrays.fill(body, (byte) 'x');
+        request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/?load=test", Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(body)));
+        request.headers()
+            .set(HttpHeaderNames.HOST, host)
+            .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE)
+            .set(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+            .setInt(HttpHeaderNames.CONTENT_LENGTH, bodyBytes);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("load.port", 8090);
+        int connections = Integer.getInteger("load.connections", 16);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+        int bodyBytes = Integer.getInteger("load.bodyBytes", 1024);
+
+        System.out.printf("%d connections, %d byte bodies, %d s per handler%n", connections, bodyBytes, duration.getSeconds());
+        for (boolean pooled : new boolean[] { false, true }) {
+            HttpServer server = new HttpServer(port, pooled);
+            server.start();
+            try {
+                HttpLoadGenerator generator = new HttpLoadGenerator("127.0.0.1", port, connections, bodyBytes);
+                generator.run(Duration.ofSeconds(2));
+                Result result = generator.run(duration);
+                System.out.printf("%-8s %s%n", pooled ? "pooled" : "default", result);
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    public Result run(Duration duration) throws InterruptedException {
+        Counters counters = new Counters();
+        EventLoopGroup group = new NioEventLoopGroup(Math.max(1, Runtime.getRuntime()
+            .availableProcessors() / 2));
+        try {
+            Bootstrap b = new Bootstrap();
+            b.group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                            .addLast(new HttpClientCodec())
+                            .addLast(new ConnectionHandler(counters));
+                    }
+                });
+
+            long allocatedBefore = serverAllocatedBytes();
+            long start = System.nanoTime();
+            List<Channel> channels = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                channels.add(b.connect(host, port)
+                    .sync()
+                    .channel());
+            }
+            Thread.sleep(duration.toMillis());
+            counters.running = false;
+            for (Channel channel : channels) {
+                channel.closeFuture()
+                    .await(5, TimeUnit.SECONDS);
+            }
+            long elapsed = System.nanoTime() - start;
+            return new Result(counters.requests.sum(), counters.errors.sum(), elapsed, counters.latencyNanos.sum(), serverAllocatedBytes() - allocatedBefore);
+        } finally {
+            group.shutdownGracefully()
+                .sync();
+        }
+    }
+
+    /**
+     * Heap allocated so far by the threads of {@link HttpServer}'s worker group.
+     */
+    static long serverAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces()
+            .keySet()) {
+            if (thread.getName()
+                .startsWith(HttpServer.WORKER_THREAD_PREFIX)) {
+                total += Math.max(0, threads.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return total;
+    }
+
+    private static class Counters {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private volatile boolean running = true;
+    }
+
+    private class ConnectionHandler extends SimpleChannelInboundHandler<HttpObject> {
+
+        private final Counters counters;
+        private long sentAt;
+
+        ConnectionHandler(Counters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            send(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+            if (msg instanceof LastHttpContent) {
+                counters.latencyNanos.add(System.nanoTime() - sentAt);
+                counters.requests.increment();
+                if (counters.running) {
+                    send(ctx);
+                } else {
+                    ctx.close();
+                }
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            counters.errors.increment();
+            ctx.close();
+        }
+
+        private void send(ChannelHandlerContext ctx) {
+            sentAt = System.nanoTime();
+            ctx.writeAndFlush(request.retainedDuplicate());
+        }
+    }
+
+    public static class Result {
+
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final long latencyNanos;
+        private final long allocatedBytes;
+
+        Result(long requests, long errors, long elapsedNanos, long latencyNanos, long allocatedBytes) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.latencyNanos = latencyNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getRequestsPerSecond() {
+            return requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        public double getAverageLatencyMicros() {
+            return requests == 0 ? 0 : latencyNanos / (double) requests / 1000;
+        }
+
+        public double getAllocatedBytesPerRequest() {
+            return requests == 0 ? 0 : allocatedBytes / (double) requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%10.0f req/s, avg latency %8.1f us, %8.0f bytes allocated/request, %d errors", getRequestsPerSecond(), getAverageLatencyMicros(),
+                getAllocatedBytesPerRequest(), errors);
+        }
+    }
+}
@@ -4,10 +4,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
@@ -15,50 +21,89 @@ import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
 public class HttpServer {
 
+    static final String WORKER_THREAD_PREFIX = "http-server-worker";
+
     private int port;
+    private final boolean pooled;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private Channel channel;
     static Logger logger = LoggerFactory.getLogger(HttpServer.class);
 
     public HttpServer(int port) {
+        this(port, false);
+    }
+
+    /**
+     * @param pooled whether to answer with {@link PooledHttpServerHandler} instead of {@link CustomHttpServerHandler}
+     */
+    public HttpServer(int port, boolean pooled) {
         this.port = port;
+        this.pooled = pooled;
     }
 
     public static void main(String[] args) throws Exception {
 
         int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        boolean pooled = args.length > 1 && "pooled".equals(args[1]);
 
-        new HttpServer(port).run();
+        new HttpServer(port, pooled).run();
     }
 
     public void run() throws Exception {
-        EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
         try {
-            ServerBootstrap b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
-                .handler(new LoggingHandler(LogLevel.INFO))
-                .childHandler(new ChannelInitializer<SocketChannel>() {
-                    @Override
-                    protected void initChannel(SocketChannel ch) throws Exception {
-                        ChannelPipeline p = ch.pipeline();
-                        p.addLast(new HttpRequestDecoder());
-                        p.addLast(new HttpResponseEncoder());
-                        p.addLast(new CustomHttpServerHandler());
-                    }
-                });
-
-            ChannelFuture f = b.bind(port)
+            start().closeFuture()
                 .sync();
-            f.channel()
-                .closeFuture()
-                .sync();
-
         } finally {
-            bossGroup.shutdownGracefully();
-            workerGroup.shutdownGracefully();
+            stop();
+        }
+    }
+
+    /**
+     * Binds the server and returns without waiting for it to close. Uses the native epoll transport when it is
+     * available, NIO otherwise.
+     */
+    public Channel start() throws InterruptedException {
+        boolean epoll = Epoll.isAvailable();
+        DefaultThreadFactory workerThreads = new DefaultThreadFactory(WORKER_THREAD_PREFIX);
+        bossGroup = epoll ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+        workerGroup = epoll ? new EpollEventLoopGroup(0, workerThreads) : new NioEventLoopGroup(0, workerThreads);
+        Class<? extends ServerChannel> channelClass = epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+
+        ServerBootstrap b = new ServerBootstrap();
+        b.group(bossGroup, workerGroup)
+            .channel(channelClass)
+            .handler(new LoggingHandler(LogLevel.INFO))
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) throws Exception {
+                    ChannelPipeline p = ch.pipeline();
+                    p.addLast(new HttpRequestDecoder());
+                    p.addLast(new HttpResponseEncoder());
+                    p.addLast(pooled ? new PooledHttpServerHandler() : new CustomHttpServerHandler());
+                }
+            });
+        if (pooled) {
+            b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        }
+
+        channel = b.bind(port)
+            .sync()
+            .channel();
+        logger.info("Listening on port {} with {} transport and {} handler", port, epoll ? "epoll" : "NIO", pooled ? "pooled" : "default");
+        return channel;
+    }
+
+    public void stop() {
+        if (channel != null) {
+            channel.close()
+                .syncUninterruptibly();
         }
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
     }
 }
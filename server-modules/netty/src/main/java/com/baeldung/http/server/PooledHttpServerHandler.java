@@ -0,0 +1,163 @@
+package com.baeldung.http.server;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Answers like {@link CustomHttpServerHandler}, but writes the response straight into buffers of the channel's
+ * allocator (pooled, see {@link HttpServer}) instead of building a {@code String} first.
+ * <p>
+ * A request whose body arrives in one piece gets a response with a {@code Content-Length}. A larger body is answered
+ * chunk by chunk as it arrives, with {@code Transfer-Encoding: chunked}, so it is never held in memory as a whole;
+ * reading stops while the channel is not writable.
+ */
+public class PooledHttpServerHandler extends SimpleChannelInboundHandler<HttpObject> {
+
+    private HttpRequest request;
+    private ByteBuf responseData;
+    private boolean headersSent;
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel()
+            .isWritable()) {
+            ctx.channel()
+                .config()
+                .setAutoRead(true);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = this.request = (HttpRequest) msg;
+
+            if (HttpUtil.is100ContinueExpected(request)) {
+                ctx.write(new DefaultFullHttpResponse(HTTP_1_1, CONTINUE, Unpooled.EMPTY_BUFFER));
+            }
+
+            release();
+            headersSent = false;
+            responseData = ctx.alloc()
+                .buffer();
+            RequestUtils.writeParams(request, responseData);
+        }
+
+        RequestUtils.writeDecoderResult(request, responseData);
+
+        if (msg instanceof HttpContent) {
+            HttpContent httpContent = (HttpContent) msg;
+
+            RequestUtils.writeBody(httpContent, responseData);
+            RequestUtils.writeDecoderResult(request, responseData);
+
+            if (msg instanceof LastHttpContent) {
+                LastHttpContent trailer = (LastHttpContent) msg;
+                RequestUtils.writeLastResponse(trailer, responseData);
+                writeLastResponse(ctx, trailer);
+            } else {
+                writeChunk(ctx);
+            }
+        }
+    }
+
+    private void writeChunk(ChannelHandlerContext ctx) {
+        if (!headersSent) {
+            HttpResponse httpResponse = new DefaultHttpResponse(HTTP_1_1, request.decoderResult()
+                .isSuccess() ? OK : BAD_REQUEST);
+            httpResponse.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+            HttpUtil.setTransferEncodingChunked(httpResponse, true);
+            HttpUtil.setKeepAlive(httpResponse, HttpUtil.isKeepAlive(request));
+            ctx.write(httpResponse);
+            headersSent = true;
+        }
+        ctx.write(new DefaultHttpContent(responseData));
+        responseData = ctx.alloc()
+            .buffer();
+
+        if (!ctx.channel()
+            .isWritable()) {
+            // the client reads slower than it sends, stop reading until the written chunks are gone
+            ctx.channel()
+                .config()
+                .setAutoRead(false);
+            ctx.flush();
+        }
+    }
+
+    private void writeLastResponse(ChannelHandlerContext ctx, LastHttpContent trailer) {
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        ByteBuf content = responseData;
+        responseData = null;
+
+        if (headersSent) {
+            ctx.write(new DefaultLastHttpContent(content));
+        } else {
+            FullHttpResponse httpResponse = new DefaultFullHttpResponse(HTTP_1_1, ((HttpObject) trailer).decoderResult()
+                .isSuccess() ? OK : BAD_REQUEST, content);
+
+            httpResponse.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+
+            if (keepAlive) {
+                httpResponse.headers()
+                    .setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+                httpResponse.headers()
+                    .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            }
+
+            ctx.write(httpResponse);
+        }
+
+        if (!keepAlive) {
+            ctx.writeAndFlush(Unpooled.EMPTY_BUFFER)
+                .addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        release();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        cause.printStackTrace();
+        ctx.close();
+    }
+
+    private void release() {
+        if (responseData != null) {
+            responseData.release();
+            responseData = null;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.codec.DecoderResult;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpObject;
@@ -83,4 +84,73 @@ class RequestUtils {
         return responseData;
     }
 
+    static void writeParams(HttpRequest request, ByteBuf target) {
+        QueryStringDecoder queryStringDecoder = new QueryStringDecoder(request.uri());
+        Map<String, List<String>> params = queryStringDecoder.parameters();
+        if (!params.isEmpty()) {
+            for (Entry<String, List<String>> p : params.entrySet()) {
+                String key = p.getKey()
+                    .toUpperCase();
+                for (String val : p.getValue()) {
+                    ByteBufUtil.writeAscii(target, "Parameter: ");
+                    ByteBufUtil.writeUtf8(target, key);
+                    ByteBufUtil.writeAscii(target, " = ");
+                    ByteBufUtil.writeUtf8(target, val.toUpperCase());
+                    ByteBufUtil.writeAscii(target, "\r\n");
+                }
+            }
+            ByteBufUtil.writeAscii(target, "\r\n");
+        }
+    }
+
+    /**
+     * Copies the body into {@code target} with ASCII letters in upper case. Unlike {@link #formatBody(HttpContent)}
+     * it never decodes the bytes, so a UTF-8 character split across two chunks stays intact; non-ASCII letters are
+     * left as they are.
+     */
+    static void writeBody(HttpContent httpContent, ByteBuf target) {
+        ByteBuf content = httpContent.content();
+        int length = content.readableBytes();
+        if (length > 0) {
+            int start = target.writerIndex();
+            target.writeBytes(content, content.readerIndex(), length);
+            for (int i = start; i < start + length; i++) {
+                byte b = target.getByte(i);
+                if (b >= 'a' && b <= 'z') {
+                    target.setByte(i, b - ('a' - 'A'));
+                }
+            }
+            ByteBufUtil.writeAscii(target, "\r\n");
+        }
+    }
+
+    static void writeDecoderResult(HttpObject o, ByteBuf target) {
+        DecoderResult result = o.decoderResult();
+        if (!result.isSuccess()) {
+            ByteBufUtil.writeAscii(target, "..Decoder Failure: ");
+            ByteBufUtil.writeUtf8(target, String.valueOf(result.cause()));
+            ByteBufUtil.writeAscii(target, "\r\n");
+        }
+    }
+
+    static void writeLastResponse(LastHttpContent trailer, ByteBuf target) {
+        ByteBufUtil.writeAscii(target, "Good Bye!\r\n");
+
+        if (!trailer.trailingHeaders()
+            .isEmpty()) {
+            ByteBufUtil.writeAscii(target, "\r\n");
+            for (CharSequence name : trailer.trailingHeaders()
+                .names()) {
+                for (CharSequence value : trailer.trailingHeaders()
+                    .getAll(name)) {
+                    ByteBufUtil.writeAscii(target, "P.S. Trailing Header: ");
+                    ByteBufUtil.writeUtf8(target, name);
+                    ByteBufUtil.writeAscii(target, " = ");
+                    ByteBufUtil.writeUtf8(target, value);
+                    ByteBufUtil.writeAscii(target, "\r\n");
+                }
+            }
+            ByteBufUtil.writeAscii(target, "\r\n");
+        }
+    }
 }
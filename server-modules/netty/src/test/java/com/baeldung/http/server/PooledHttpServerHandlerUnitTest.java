@@ -0,0 +1,98 @@
+package com.baeldung.http.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.CharsetUtil;
+
+public class PooledHttpServerHandlerUnitTest {
+
+    @Test
+    public void whenBodyArrivesAtOnce_thenResponseMatchesDefaultHandler() {
+        FullHttpResponse expected = respond(new CustomHttpServerHandler(), "hello world!");
+        FullHttpResponse actual = respond(new PooledHttpServerHandler(), "hello world!");
+
+        assertEquals(expected.status(), actual.status());
+        assertEquals(expected.headers()
+            .get(HttpHeaderNames.CONTENT_LENGTH),
+            actual.headers()
+                .get(HttpHeaderNames.CONTENT_LENGTH));
+        assertEquals(expected.content()
+            .toString(CharsetUtil.UTF_8),
+            actual.content()
+                .toString(CharsetUtil.UTF_8));
+        assertTrue(actual.content()
+            .toString(CharsetUtil.UTF_8)
+            .contains("Parameter: NAME = BAELDUNG\r\n"));
+        expected.release();
+        actual.release();
+    }
+
+    @Test
+    public void whenBodyArrivesInChunks_thenResponseIsStreamedChunked() {
+        EmbeddedChannel channel = new EmbeddedChannel(new PooledHttpServerHandler());
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+        HttpUtil.setTransferEncodingChunked(request, true);
+        request.headers()
+            .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+
+        channel.writeInbound(request);
+        channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer("first ", CharsetUtil.UTF_8)));
+
+        HttpResponse response = channel.readOutbound();
+        assertTrue(HttpUtil.isTransferEncodingChunked(response));
+        assertFalse(response instanceof FullHttpResponse);
+        HttpContent first = channel.readOutbound();
+        assertEquals("FIRST \r\n", first.content()
+            .toString(CharsetUtil.UTF_8));
+        first.release();
+
+        channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer("grüße", CharsetUtil.UTF_8)));
+        channel.writeInbound(new DefaultLastHttpContent());
+
+        HttpContent second = channel.readOutbound();
+        assertEquals("GRüßE\r\n", second.content()
+            .toString(CharsetUtil.UTF_8));
+        second.release();
+        LastHttpContent last = channel.readOutbound();
+        assertEquals("Good Bye!\r\n", last.content()
+            .toString(CharsetUtil.UTF_8));
+        last.release();
+        assertFalse(channel.finish());
+    }
+
+    private static FullHttpResponse respond(ChannelHandler handler, String body) {
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/?name=baeldung");
+        request.headers()
+            .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        ByteBuf content = Unpooled.copiedBuffer(body, CharsetUtil.UTF_8);
+        HttpUtil.setContentLength(request, content.readableBytes());
+
+        channel.writeInbound(request, new DefaultLastHttpContent(content));
+
+        FullHttpResponse response = channel.readOutbound();
+        channel.finishAndReleaseAll();
+        return response;
+    }
+}
@@ -3,26 +3,128 @@ package com.baeldung.dataloaderbatchprocessing;
 import org.dataloader.BatchLoader;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.baeldung.dataloaderbatchprocessing.cache.InFlightCacheMap;
+import com.baeldung.dataloaderbatchprocessing.cache.TtlValueCache;
 import com.baeldung.dataloaderbatchprocessing.entity.User;
 import com.baeldung.dataloaderbatchprocessing.service.UserService;
+import com.baeldung.dataloaderbatchprocessing.stats.MicrometerStatisticsCollector;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Creates the data loaders for users. Batches hold at most {@code dataloader.users.max-batch-size} keys. When
+ * {@code dataloader.users.cache-ttl} is set, users are also kept in a cache shared by all loaders for that long, so
+ * later requests do not fetch them again.
+ * <p>
+ * {@link #createUserLoader()} creates a loader for one request, which the caller dispatches. {@link #load(String)}
+ * goes through a loader shared by all callers instead: its loads are collected for
+ * {@code dataloader.users.dispatch-window} and then fetched together, or as soon as a batch is full.
+ */
 @Component
-public class UserDataLoader {
+public class UserDataLoader implements AutoCloseable {
 
     private final UserService userService;
+    private final int maxBatchSize;
+    private final TtlValueCache<String, User> valueCache;
+    private final MicrometerStatisticsCollector statistics;
+    private final Timer batchLatency;
+    private final DataLoader<String, User> sharedLoader;
+    private final ScheduledExecutorService dispatcher;
 
-    public UserDataLoader(UserService userService) {
+    public UserDataLoader(UserService userService, ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${dataloader.users.max-batch-size:100}") int maxBatchSize,
+        @Value("${dataloader.users.dispatch-window:5ms}") Duration dispatchWindow,
+        @Value("${dataloader.users.cache-ttl:0s}") Duration cacheTtl,
+        @Value("${dataloader.users.cache-max-entries:10000}") int cacheMaxEntries) {
         this.userService = userService;
+        this.maxBatchSize = maxBatchSize;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.statistics = new MicrometerStatisticsCollector(registry, "users");
+        this.batchLatency = Timer.builder("dataloader.batch.latency")
+            .tag("loader", "users")
+            .register(registry);
+        if (cacheTtl.isZero()) {
+            this.valueCache = null;
+        } else {
+            this.valueCache = new TtlValueCache<>(cacheTtl, cacheMaxEntries);
+            FunctionCounter.builder("dataloader.value.cache.requests", valueCache, TtlValueCache::getHitCount)
+                .tag("loader", "users")
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("dataloader.value.cache.requests", valueCache, TtlValueCache::getMissCount)
+                .tag("loader", "users")
+                .tag("result", "miss")
+                .register(registry);
+        }
+
+        this.sharedLoader = DataLoaderFactory.newDataLoader(userBatchLoader(), options().setCacheMap(new InFlightCacheMap<>()));
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-loader-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long window = Math.max(dispatchWindow.toNanos(), 1);
+        dispatcher.scheduleAtFixedRate(this::dispatchShared, window, window, TimeUnit.NANOSECONDS);
     }
 
     public DataLoader<String, User> createUserLoader() {
-        BatchLoader<String, User> userBatchLoader = ids -> {
+        return DataLoaderFactory.newDataLoader(userBatchLoader(), options());
+    }
+
+    /**
+     * Loads a user through the shared loader; no dispatch is needed.
+     */
+    public CompletableFuture<User> load(String id) {
+        CompletableFuture<User> user = sharedLoader.load(id);
+        if (sharedLoader.dispatchDepth() >= maxBatchSize) {
+            sharedLoader.dispatch();
+        }
+        return user;
+    }
+
+    public MicrometerStatisticsCollector getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+    }
+
+    private void dispatchShared() {
+        if (sharedLoader.dispatchDepth() > 0) {
+            sharedLoader.dispatch();
+        }
+    }
+
+    private DataLoaderOptions options() {
+        DataLoaderOptions options = DataLoaderOptions.newOptions()
+            .setMaxBatchSize(maxBatchSize)
+            .setStatisticsCollector(() -> statistics);
+        return valueCache == null ? options : options.setValueCache(valueCache);
+    }
+
+    private BatchLoader<String, User> userBatchLoader() {
+        return ids -> {
+            Timer.Sample sample = Timer.start();
             return userService.getUsersByIds(ids)
+                .whenComplete((users, failure) -> sample.stop(batchLatency))
                 .thenApply(users -> {
                     Map<String, User> userMap = users.stream()
                         .collect(Collectors.toMap(User::getId, user -> user));
@@ -31,7 +133,5 @@ public class UserDataLoader {
                         .collect(Collectors.toList());
                 });
         };
-
-        return DataLoaderFactory.newDataLoader(userBatchLoader);
     }
 }
@@ -0,0 +1,52 @@
+package com.baeldung.dataloaderbatchprocessing.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dataloader.CacheMap;
+
+/**
+ * Keeps the futures of a data loader only until they complete. Concurrent loads of the same key still share one
+ * future, but a loader that lives as long as the application does not keep every value it ever loaded; completed
+ * values are cached by its {@link org.dataloader.ValueCache}, if any.
+ */
+public class InFlightCacheMap<K, V> implements CacheMap<K, V> {
+
+    private final Map<K, CompletableFuture<V>> futures = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean containsKey(K key) {
+        return futures.containsKey(key);
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return futures.get(key);
+    }
+
+    @Override
+    public Collection<CompletableFuture<V>> getAll() {
+        return futures.values();
+    }
+
+    @Override
+    public CacheMap<K, V> set(K key, CompletableFuture<V> future) {
+        futures.put(key, future);
+        future.whenComplete((value, failure) -> futures.remove(key, future));
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> delete(K key) {
+        futures.remove(key);
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> clear() {
+        futures.clear();
+        return this;
+    }
+}
@@ -0,0 +1,126 @@
+package com.baeldung.dataloaderbatchprocessing.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+
+/**
+ * A second-level cache shared by data loaders: values live for {@code ttl} and at most {@code maxEntries} are kept.
+ * When the cache is full, expired entries are evicted, and new values are not cached if it is still full.
+ * <p>
+ * Missing keys are answered in one {@link #getValues(List)} call, so a batch only loads the keys that are not
+ * cached. {@code null} values are not cached.
+ */
+public class TtlValueCache<K, V> implements ValueCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TtlValueCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        V value = lookup(key);
+        return value == null ? CompletableFuture.failedFuture(new IllegalStateException("Not cached: " + key)) : CompletableFuture.completedFuture(value);
+    }
+
+    @Override
+    public CompletableFuture<List<Try<V>>> getValues(List<K> keys) {
+        List<Try<V>> values = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            V value = lookup(key);
+            values.add(value == null ? Try.alwaysFailed() : Try.succeeded(value));
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
+    @Override
+    public CompletableFuture<V> set(K key, V value) {
+        store(key, value);
+        return CompletableFuture.completedFuture(value);
+    }
+
+    @Override
+    public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) {
+        for (int i = 0; i < keys.size(); i++) {
+            store(keys.get(i), values.get(i));
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        entries.remove(key);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        entries.clear();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            hits.increment();
+            return entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void store(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            long now = System.nanoTime();
+            entries.values()
+                .removeIf(entry -> entry.expiresAt - now <= 0);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.baeldung.dataloaderbatchprocessing.stats;
+
+import org.dataloader.stats.SimpleStatisticsCollector;
+import org.dataloader.stats.context.IncrementBatchLoadCountByStatisticsContext;
+import org.dataloader.stats.context.IncrementBatchLoadExceptionCountStatisticsContext;
+import org.dataloader.stats.context.IncrementCacheHitCountStatisticsContext;
+import org.dataloader.stats.context.IncrementLoadCountStatisticsContext;
+import org.dataloader.stats.context.IncrementLoadErrorCountStatisticsContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collects the statistics of the data loaders named {@code loader} and publishes them to Micrometer:
+ * {@code dataloader.loads}, {@code dataloader.load.errors}, {@code dataloader.cache.hits}, the batch size
+ * distribution {@code dataloader.batch.size} and the gauge {@code dataloader.cache.hit.ratio}. Can be shared by
+ * several data loaders.
+ * <p>
+ * The data loader reports through the methods taking a statistics context, so only those are instrumented; the
+ * deprecated ones without a context are left to {@link SimpleStatisticsCollector}.
+ */
+public class MicrometerStatisticsCollector extends SimpleStatisticsCollector {
+
+    private final Counter loads;
+    private final Counter loadErrors;
+    private final Counter cacheHits;
+    private final Counter batchLoadErrors;
+    private final DistributionSummary batchSize;
+
+    public MicrometerStatisticsCollector(MeterRegistry registry, String loader) {
+        loads = Counter.builder("dataloader.loads")
+            .tag("loader", loader)
+            .register(registry);
+        loadErrors = Counter.builder("dataloader.load.errors")
+            .tag("loader", loader)
+            .register(registry);
+        cacheHits = Counter.builder("dataloader.cache.hits")
+            .description("Loads answered by the loader's own cache, without a batch")
+            .tag("loader", loader)
+            .register(registry);
+        batchLoadErrors = Counter.builder("dataloader.batch.errors")
+            .tag("loader", loader)
+            .register(registry);
+        batchSize = DistributionSummary.builder("dataloader.batch.size")
+            .tag("loader", loader)
+            .register(registry);
+        Gauge.builder("dataloader.cache.hit.ratio", this, collector -> collector.getStatistics()
+                .getCacheHitRatio())
+            .tag("loader", loader)
+            .register(registry);
+    }
+
+    @Override
+    public <K> long incrementLoadCount(IncrementLoadCountStatisticsContext<K> context) {
+        loads.increment();
+        return super.incrementLoadCount(context);
+    }
+
+    @Override
+    public <K> long incrementLoadErrorCount(IncrementLoadErrorCountStatisticsContext<K> context) {
+        loadErrors.increment();
+        return super.incrementLoadErrorCount(context);
+    }
+
+    @Override
+    public <K> long incrementBatchLoadCountBy(long delta, IncrementBatchLoadCountByStatisticsContext<K> context) {
+        // called once per batch, with the number of keys in it
+        batchSize.record(delta);
+        return super.incrementBatchLoadCountBy(delta, context);
+    }
+
+    @Override
+    public <K> long incrementBatchLoadExceptionCount(IncrementBatchLoadExceptionCountStatisticsContext<K> context) {
+        batchLoadErrors.increment();
+        return super.incrementBatchLoadExceptionCount(context);
+    }
+
+    @Override
+    public <K> long incrementCacheHitCount(IncrementCacheHitCountStatisticsContext<K> context) {
+        cacheHits.increment();
+        return super.incrementCacheHitCount(context);
+    }
+}
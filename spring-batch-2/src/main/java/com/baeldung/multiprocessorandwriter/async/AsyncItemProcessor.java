@@ -0,0 +1,30 @@
+package com.baeldung.multiprocessorandwriter.async;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Hands every item to {@code delegate} on {@code taskExecutor} and returns at once with a future of the result, so
+ * the items of a chunk are processed concurrently. Use it together with {@link AsyncItemWriter}, which waits for the
+ * results in item order. The executor bounds how many items are in flight.
+ */
+public class AsyncItemProcessor<I, O> implements ItemProcessor<I, Future<O>> {
+
+    private final ItemProcessor<I, O> delegate;
+    private final TaskExecutor taskExecutor;
+
+    public AsyncItemProcessor(ItemProcessor<I, O> delegate, TaskExecutor taskExecutor) {
+        this.delegate = delegate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public Future<O> process(I item) {
+        FutureTask<O> task = new FutureTask<>(() -> delegate.process(item));
+        taskExecutor.execute(task);
+        return task;
+    }
+}
@@ -0,0 +1,62 @@
+package com.baeldung.multiprocessorandwriter.async;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+
+/**
+ * Waits for the results of {@link AsyncItemProcessor} in item order and writes them with {@code delegate} in the
+ * chunk transaction, so the output has the same order as the input. Filtered items (a {@code null} result) are
+ * dropped, and a failed item fails the chunk with the exception thrown by the processor.
+ */
+public class AsyncItemWriter<T> implements ItemStreamWriter<Future<T>> {
+
+    private final ItemWriter<T> delegate;
+
+    public AsyncItemWriter(ItemWriter<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Future<T>> futures) throws Exception {
+        Chunk<T> items = new Chunk<>();
+        for (Future<T> future : futures) {
+            T item;
+            try {
+                item = future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        delegate.write(items);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream stream) {
+            stream.update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.baeldung.multiprocessorandwriter.config;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
@@ -22,18 +23,27 @@ import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.item.support.CompositeItemWriter;
 import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.baeldung.multiprocessorandwriter.async.AsyncItemProcessor;
+import com.baeldung.multiprocessorandwriter.async.AsyncItemWriter;
 import com.baeldung.multiprocessorandwriter.model.Customer;
 import com.baeldung.multiprocessorandwriter.processor.CustomerProcessorRouter;
+import com.baeldung.multiprocessorandwriter.processor.ProcessorMetrics;
 import com.baeldung.multiprocessorandwriter.processor.TypeAProcessor;
 import com.baeldung.multiprocessorandwriter.processor.TypeBProcessor;
+import com.baeldung.multiprocessorandwriter.remote.ChunkSendingItemWriter;
+import com.baeldung.multiprocessorandwriter.remote.LocalChunkChannel;
 
 import jakarta.persistence.EntityManagerFactory;
 
@@ -65,8 +75,24 @@ public class BatchConfig {
     }
 
     @Bean
-    public CustomerProcessorRouter processorRouter(TypeAProcessor typeAProcessor, TypeBProcessor typeBProcessor) {
-        return new CustomerProcessorRouter(typeAProcessor, typeBProcessor);
+    public ProcessorMetrics processorMetrics() {
+        return new ProcessorMetrics();
+    }
+
+    @Bean
+    public CustomerProcessorRouter processorRouter(TypeAProcessor typeAProcessor, TypeBProcessor typeBProcessor, ProcessorMetrics processorMetrics) {
+        return new CustomerProcessorRouter(typeAProcessor, typeBProcessor, processorMetrics);
+    }
+
+    @Bean
+    public TaskExecutor customerProcessingExecutor(@Value("${customer.processing.concurrency:16}") int concurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("customer-processing-");
+        // virtual threads suit processors that mostly wait for enrichment services
+        executor.setVirtualThreads(Runtime.version()
+            .feature() >= 21);
+        // blocks the step when that many items are in flight
+        executor.setConcurrencyLimit(concurrency);
+        return executor;
     }
 
     @Bean
@@ -94,12 +120,34 @@ public class BatchConfig {
 
     @Bean
     public Step processCustomersStep(JobRepository jobRepository, PlatformTransactionManager transactionManager, FlatFileItemReader<Customer> reader,
-        CustomerProcessorRouter processorRouter, CompositeItemWriter<Customer> compositeWriter) {
-        return new StepBuilder("processCustomersStep", jobRepository).<Customer, Customer> chunk(10, transactionManager)
-            .reader(reader)
-            .processor(processorRouter)
-            .writer(compositeWriter)
-            .build();
+        CustomerProcessorRouter processorRouter, CompositeItemWriter<Customer> compositeWriter, ProcessorMetrics processorMetrics,
+        TaskExecutor customerProcessingExecutor, @Value("${customer.processing.mode:SYNC}") ProcessingMode mode,
+        @Value("${customer.processing.concurrency:16}") int concurrency) {
+        StepBuilder stepBuilder = new StepBuilder("processCustomersStep", jobRepository);
+        switch (mode) {
+        case ASYNC:
+            return stepBuilder.<Customer, Future<Customer>> chunk(10, transactionManager)
+                .reader(reader)
+                .processor(new AsyncItemProcessor<>(processorRouter, customerProcessingExecutor))
+                .writer(new AsyncItemWriter<>(compositeWriter))
+                .listener(processorMetrics)
+                .build();
+        case REMOTE:
+            LocalChunkChannel<Customer, Customer> channel = new LocalChunkChannel<>(processorRouter, compositeWriter, new TransactionTemplate(transactionManager),
+                concurrency);
+            return stepBuilder.<Customer, Customer> chunk(10, transactionManager)
+                .reader(reader)
+                .writer(new ChunkSendingItemWriter<>(channel, 2 * concurrency))
+                .listener(processorMetrics)
+                .build();
+        default:
+            return stepBuilder.<Customer, Customer> chunk(10, transactionManager)
+                .reader(reader)
+                .processor(processorRouter)
+                .writer(compositeWriter)
+                .listener(processorMetrics)
+                .build();
+        }
     }
 
     @Bean
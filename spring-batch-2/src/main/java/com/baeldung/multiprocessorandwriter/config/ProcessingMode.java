@@ -0,0 +1,23 @@
+package com.baeldung.multiprocessorandwriter.config;
+
+/**
+ * How {@code processCustomersStep} processes the customers, selected with the {@code customer.processing.mode}
+ * property.
+ */
+public enum ProcessingMode {
+
+    /**
+     * One item after the other, in the chunk transaction.
+     */
+    SYNC,
+
+    /**
+     * The items of a chunk concurrently on a bounded executor, written in order in the chunk transaction.
+     */
+    ASYNC,
+
+    /**
+     * Whole chunks sent to in-JVM workers that process and write them, as with remote chunking.
+     */
+    REMOTE
+}
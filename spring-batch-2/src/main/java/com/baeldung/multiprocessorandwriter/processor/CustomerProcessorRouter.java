@@ -7,19 +7,31 @@ import com.baeldung.multiprocessorandwriter.model.Customer;
 public class CustomerProcessorRouter implements ItemProcessor<Customer, Customer> {
     private final TypeAProcessor typeAProcessor;
     private final TypeBProcessor typeBProcessor;
+    private final ProcessorMetrics metrics;
 
     public CustomerProcessorRouter(TypeAProcessor typeAProcessor,
         TypeBProcessor typeBProcessor) {
+        this(typeAProcessor, typeBProcessor, new ProcessorMetrics());
+    }
+
+    public CustomerProcessorRouter(TypeAProcessor typeAProcessor,
+        TypeBProcessor typeBProcessor, ProcessorMetrics metrics) {
         this.typeAProcessor = typeAProcessor;
         this.typeBProcessor = typeBProcessor;
+        this.metrics = metrics;
     }
 
     @Override
     public Customer process(Customer customer) throws Exception {
+        long start = System.nanoTime();
         if ("A".equals(customer.getType())) {
-            return typeAProcessor.process(customer);
+            Customer processed = typeAProcessor.process(customer);
+            metrics.record("A", System.nanoTime() - start);
+            return processed;
         } else if ("B".equals(customer.getType())) {
-            return typeBProcessor.process(customer);
+            Customer processed = typeBProcessor.process(customer);
+            metrics.record("B", System.nanoTime() - start);
+            return processed;
         }
         return customer;
     }
@@ -0,0 +1,84 @@
+package com.baeldung.multiprocessorandwriter.processor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+/**
+ * Counts the items handled by each processor type and the time spent in them. The counters are reset before every
+ * step, and at the end of the step they are logged and saved in the step execution context as
+ * {@code processor.<type>.count} and {@code processor.<type>.nanos}. Safe to update from several threads.
+ */
+public class ProcessorMetrics implements StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessorMetrics.class);
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+
+    public void record(String type, long nanos) {
+        Counter counter = counters.computeIfAbsent(type, key -> new Counter());
+        counter.count.increment();
+        counter.nanos.add(nanos);
+    }
+
+    public long getCount(String type) {
+        Counter counter = counters.get(type);
+        return counter == null ? 0 : counter.count.sum();
+    }
+
+    /**
+     * @return items per second of this type since the step started, i.e. including the concurrency of the step
+     */
+    public double getThroughput(String type) {
+        double seconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return seconds == 0 ? 0 : getCount(type) / seconds;
+    }
+
+    public double getAverageMillis(String type) {
+        Counter counter = counters.get(type);
+        long count = counter == null ? 0 : counter.count.sum();
+        return count == 0 ? 0 : counter.nanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        counters.clear();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        counters.forEach((type, counter) -> {
+            stepExecution.getExecutionContext()
+                .putLong("processor." + type + ".count", counter.count.sum());
+            stepExecution.getExecutionContext()
+                .putLong("processor." + type + ".nanos", counter.nanos.sum());
+        });
+        logger.info("Processor metrics of {}: {}", stepExecution.getStepName(), this);
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(counters).keySet()
+            .forEach(type -> sb.append(sb.length() == 0 ? "" : ", ")
+                .append(String.format("%s=%d items (avg %.3f ms, %.0f items/s)", type, getCount(type), getAverageMillis(type), getThroughput(type))));
+        return sb.toString();
+    }
+
+    private static class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
@@ -0,0 +1,28 @@
+package com.baeldung.multiprocessorandwriter.remote;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The items of one chunk read by the manager step, sent to a worker for processing and writing.
+ */
+public class ChunkRequest<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long sequence;
+    private final List<T> items;
+
+    public ChunkRequest(long sequence, List<T> items) {
+        this.sequence = sequence;
+        this.items = items;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+}
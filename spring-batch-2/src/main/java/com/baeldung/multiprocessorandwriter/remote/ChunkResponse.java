@@ -0,0 +1,52 @@
+package com.baeldung.multiprocessorandwriter.remote;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of a {@link ChunkRequest}: how many items were written and filtered, or why the chunk failed.
+ */
+public class ChunkResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long sequence;
+    private final int writeCount;
+    private final int filterCount;
+    private final String failure;
+
+    private ChunkResponse(long sequence, int writeCount, int filterCount, String failure) {
+        this.sequence = sequence;
+        this.writeCount = writeCount;
+        this.filterCount = filterCount;
+        this.failure = failure;
+    }
+
+    public static ChunkResponse success(long sequence, int writeCount, int filterCount) {
+        return new ChunkResponse(sequence, writeCount, filterCount, null);
+    }
+
+    public static ChunkResponse failure(long sequence, Throwable cause) {
+        return new ChunkResponse(sequence, 0, 0, cause.getClass()
+            .getName() + ": " + cause.getMessage());
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    public int getFilterCount() {
+        return filterCount;
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,87 @@
+package com.baeldung.multiprocessorandwriter.remote;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.WriteFailedException;
+
+/**
+ * The manager side of remote chunking: instead of writing, every chunk read by the step is sent to the workers of a
+ * {@link LocalChunkChannel}. At most {@code maxInFlight} chunks are outstanding; the step waits for the oldest one
+ * before sending more. A failed chunk fails the next write, and the step fails when a chunk still outstanding at the
+ * end fails.
+ * <p>
+ * As with any remote chunking, the reader position is committed when a chunk is sent, not when it is written.
+ */
+public class ChunkSendingItemWriter<T> implements ItemWriter<T>, StepExecutionListener {
+
+    private final LocalChunkChannel<T, ?> channel;
+    private final int maxInFlight;
+    private final Deque<CompletableFuture<ChunkResponse>> inFlight = new ArrayDeque<>();
+    private long sequence;
+    private long filterCount;
+
+    public ChunkSendingItemWriter(LocalChunkChannel<T, ?> channel, int maxInFlight) {
+        this.channel = channel;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        inFlight.clear();
+        sequence = 0;
+        filterCount = 0;
+        channel.open();
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) {
+        while (!inFlight.isEmpty() && (inFlight.size() >= maxInFlight || inFlight.peek()
+            .isDone())) {
+            receive(inFlight.poll());
+        }
+        inFlight.add(channel.send(new ChunkRequest<>(sequence++, new ArrayList<>(chunk.getItems()))));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        ExitStatus exitStatus = null;
+        try {
+            while (!inFlight.isEmpty()) {
+                receive(inFlight.poll());
+            }
+        } catch (WriteFailedException e) {
+            inFlight.clear();
+            stepExecution.addFailureException(e);
+            stepExecution.upgradeStatus(BatchStatus.FAILED);
+            exitStatus = ExitStatus.FAILED.addExitDescription(e);
+        }
+        try {
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            stepExecution.upgradeStatus(BatchStatus.FAILED);
+            exitStatus = ExitStatus.FAILED.addExitDescription(e);
+        }
+        stepExecution.setFilterCount(stepExecution.getFilterCount() + filterCount);
+        stepExecution.setWriteCount(stepExecution.getWriteCount() - filterCount);
+        return exitStatus;
+    }
+
+    private void receive(CompletableFuture<ChunkResponse> future) {
+        ChunkResponse response = future.join();
+        if (!response.isSuccessful()) {
+            throw new WriteFailedException("Chunk " + response.getSequence() + " failed on the worker: " + response.getFailure(), null);
+        }
+        filterCount += response.getFilterCount();
+    }
+}
@@ -0,0 +1,91 @@
+package com.baeldung.multiprocessorandwriter.remote;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The worker side of remote chunking, running in the same JVM: {@code workers} threads take {@link ChunkRequest}s,
+ * process their items and write the results, each chunk in its own transaction. Replacing this class with a message
+ * broker and worker processes scales the job out without changing the manager step.
+ * <p>
+ * Chunks are processed concurrently, but written one at a time because the writers are not thread-safe. Chunks may
+ * therefore be written in a different order than they were read.
+ */
+public class LocalChunkChannel<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalChunkChannel.class);
+
+    private final ItemProcessor<I, O> processor;
+    private final ItemWriter<O> writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final Object writeLock = new Object();
+    private ExecutorService executor;
+
+    public LocalChunkChannel(ItemProcessor<I, O> processor, ItemWriter<O> writer, TransactionTemplate transactionTemplate, int workers) {
+        this.processor = processor;
+        this.writer = writer;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+    }
+
+    public void open() {
+        if (writer instanceof ItemStream stream) {
+            stream.open(new ExecutionContext());
+        }
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> new Thread(runnable, "chunk-worker-" + threads.incrementAndGet()));
+    }
+
+    public CompletableFuture<ChunkResponse> send(ChunkRequest<I> request) {
+        return CompletableFuture.supplyAsync(() -> handle(request), executor);
+    }
+
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        if (writer instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+
+    private ChunkResponse handle(ChunkRequest<I> request) {
+        try {
+            Chunk<O> outputs = new Chunk<>();
+            for (I item : request.getItems()) {
+                O output = processor.process(item);
+                if (output != null) {
+                    outputs.add(output);
+                }
+            }
+            synchronized (writeLock) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        writer.write(outputs);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            return ChunkResponse.success(request.getSequence(), outputs.size(), request.getItems()
+                .size() - outputs.size());
+        } catch (Exception e) {
+            logger.error("Chunk {} failed", request.getSequence(), e);
+            return ChunkResponse.failure(request.getSequence(), e);
+        }
+    }
+}
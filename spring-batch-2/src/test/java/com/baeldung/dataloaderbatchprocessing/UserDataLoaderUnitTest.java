@@ -0,0 +1,111 @@
+package com.baeldung.dataloaderbatchprocessing;
+
+import com.baeldung.dataloaderbatchprocessing.entity.User;
+import com.baeldung.dataloaderbatchprocessing.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDataLoaderUnitTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserDataLoader userDataLoader;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getUsersByIds(anyList())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(ids.stream()
+                .map(id -> new User(id, "User_" + id))
+                .collect(Collectors.toList()));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        userDataLoader.close();
+    }
+
+    @Test
+    void givenMaxBatchSize_whenLoadingMoreUsers_thenBatchesAreSplit() {
+        userDataLoader = newUserDataLoader(Duration.ofMillis(5), Duration.ZERO);
+        DataLoader<String, User> loader = userDataLoader.createUserLoader();
+
+        List<CompletableFuture<User>> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(loader.load(String.valueOf(i)));
+        }
+        loader.dispatchAndJoin();
+
+        verify(userService, times(3)).getUsersByIds(anyList());
+        assertThat(users.get(249).join().getName()).isEqualTo("User_249");
+        assertThat(meterRegistry.get("dataloader.batch.size").summary().max()).isEqualTo(100);
+        assertThat(meterRegistry.get("dataloader.batch.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void givenCacheTtl_whenNextRequestLoadsSameUsers_thenTheyAreNotFetchedAgain() {
+        userDataLoader = newUserDataLoader(Duration.ofMillis(5), Duration.ofMinutes(1));
+
+        DataLoader<String, User> firstRequest = userDataLoader.createUserLoader();
+        firstRequest.load("101");
+        firstRequest.load("102");
+        firstRequest.dispatchAndJoin();
+
+        DataLoader<String, User> secondRequest = userDataLoader.createUserLoader();
+        CompletableFuture<User> cached = secondRequest.load("101");
+        CompletableFuture<User> fetched = secondRequest.load("103");
+        secondRequest.dispatchAndJoin();
+
+        assertThat(cached.join().getName()).isEqualTo("User_101");
+        assertThat(fetched.join().getName()).isEqualTo("User_103");
+        verify(userService).getUsersByIds(List.of("101", "102"));
+        verify(userService).getUsersByIds(List.of("103"));
+        assertThat(meterRegistry.get("dataloader.value.cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenDispatchWindow_whenConcurrentCallersLoad_thenLoadsAreCoalescedIntoOneBatch() throws Exception {
+        userDataLoader = newUserDataLoader(Duration.ofMillis(500), Duration.ZERO);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        List<CompletableFuture<User>> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String id = String.valueOf(i % 10);
+            users.add(CompletableFuture.supplyAsync(() -> userDataLoader.load(id), callers)
+                .thenCompose(user -> user));
+        }
+        CompletableFuture.allOf(users.toArray(new CompletableFuture<?>[0])).join();
+        callers.shutdown();
+
+        verify(userService, times(1)).getUsersByIds(anyList());
+        assertThat(users.get(19).join().getName()).isEqualTo("User_9");
+        assertThat(meterRegistry.get("dataloader.batch.size").summary().totalAmount()).isEqualTo(10);
+    }
+
+    private UserDataLoader newUserDataLoader(Duration dispatchWindow, Duration cacheTtl) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return new UserDataLoader(userService, beanFactory.getBeanProvider(MeterRegistry.class), 100, dispatchWindow, cacheTtl, 1000);
+    }
+}
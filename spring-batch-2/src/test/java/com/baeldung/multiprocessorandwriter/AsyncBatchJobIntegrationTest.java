@@ -0,0 +1,7 @@
+package com.baeldung.multiprocessorandwriter;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "customer.processing.mode=ASYNC")
+public class AsyncBatchJobIntegrationTest extends BatchJobIntegrationTest {
+}
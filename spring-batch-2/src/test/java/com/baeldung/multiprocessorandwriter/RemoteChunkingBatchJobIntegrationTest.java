@@ -0,0 +1,7 @@
+package com.baeldung.multiprocessorandwriter;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = { "customer.processing.mode=REMOTE", "customer.processing.concurrency=2" })
+public class RemoteChunkingBatchJobIntegrationTest extends BatchJobIntegrationTest {
+}
@@ -0,0 +1,56 @@
+package com.baeldung.multiprocessorandwriter.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+public class AsyncItemProcessorUnitTest {
+
+    @Test
+    public void givenSlowerEarlierItems_whenWritten_thenResultsKeepTheInputOrder() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        executor.setConcurrencyLimit(4);
+        AsyncItemProcessor<Integer, Integer> processor = new AsyncItemProcessor<>(item -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            Thread.sleep(10L * (8 - item));
+            concurrent.decrementAndGet();
+            return item % 3 == 0 ? null : item * 10;
+        }, executor);
+        List<Integer> written = new ArrayList<>();
+        AsyncItemWriter<Integer> writer = new AsyncItemWriter<>(items -> written.addAll(items.getItems()));
+
+        Chunk<Future<Integer>> futures = new Chunk<>();
+        for (int i = 1; i <= 8; i++) {
+            futures.add(processor.process(i));
+        }
+        writer.write(futures);
+
+        assertEquals(List.of(10, 20, 40, 50, 70, 80), written);
+        assertTrue(maxConcurrent.get() > 1 && maxConcurrent.get() <= 4);
+    }
+
+    @Test
+    public void givenFailingItem_whenWritten_thenProcessorExceptionIsThrown() throws Exception {
+        AsyncItemProcessor<Integer, Integer> processor = new AsyncItemProcessor<>(item -> {
+            throw new IllegalArgumentException("bad item " + item);
+        }, new SimpleAsyncTaskExecutor());
+        AsyncItemWriter<Integer> writer = new AsyncItemWriter<>(items -> {
+        });
+
+        Chunk<Future<Integer>> futures = new Chunk<>();
+        futures.add(processor.process(1));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.write(futures));
+    }
+}
@@ -23,7 +23,7 @@ public class LineProcessor implements ItemProcessor<Line, Line>, StepExecutionLi
     @Override
     public Line process(Line line) throws Exception {
         long age = ChronoUnit.YEARS.between(line.getDob(), LocalDate.now());
-        logger.debug("Calculated age " + age + " for line " + line.toString());
+        logger.debug("Calculated age {} for line {}", age, line);
         line.setAge(age);
         return line;
     }
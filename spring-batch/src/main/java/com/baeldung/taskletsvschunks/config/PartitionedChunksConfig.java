@@ -0,0 +1,114 @@
+package com.baeldung.taskletsvschunks.config;
+
+import com.baeldung.taskletsvschunks.chunks.LineProcessor;
+import com.baeldung.taskletsvschunks.model.Line;
+import com.baeldung.taskletsvschunks.partitioned.ByteRangeLineReader;
+import com.baeldung.taskletsvschunks.partitioned.ByteRangePartitioner;
+import com.baeldung.taskletsvschunks.partitioned.PartFileMerger;
+import com.baeldung.taskletsvschunks.partitioned.PartitionFileWriter;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+/**
+ * The chunk-oriented variant of {@link ChunksConfig} for large files: the input is split into {@code gridSize}
+ * byte ranges that are processed by parallel worker steps, each writing its own part file, and the parts are merged
+ * at the end. Every worker can be restarted on its own from its last committed chunk.
+ * <p>
+ * Job parameters: {@code inputFile}, {@code outputFile}, {@code gridSize} (default 4) and {@code chunkSize}
+ * (default 1000).
+ */
+@Configuration
+public class PartitionedChunksConfig {
+
+    @Bean
+    @StepScope
+    public ByteRangeLineReader byteRangeLineReader(@Value("#{jobParameters['inputFile']}") String inputFile,
+      @Value("#{stepExecutionContext['" + ByteRangePartitioner.START_OFFSET + "']}") long startOffset,
+      @Value("#{stepExecutionContext['" + ByteRangePartitioner.END_OFFSET + "']}") long endOffset) {
+        return new ByteRangeLineReader(Path.of(inputFile), startOffset, endOffset);
+    }
+
+    @Bean
+    public LineProcessor partitionedLineProcessor() {
+        return new LineProcessor();
+    }
+
+    @Bean
+    @StepScope
+    public PartitionFileWriter partitionFileWriter(@Value("#{stepExecutionContext['" + ByteRangePartitioner.PART_FILE + "']}") String partFile) {
+        return new PartitionFileWriter(Path.of(partFile));
+    }
+
+    @Bean
+    @JobScope
+    public ByteRangePartitioner byteRangePartitioner(@Value("#{jobParameters['inputFile']}") String inputFile, @Value("#{jobParameters['outputFile']}") String outputFile) {
+        return new ByteRangePartitioner(Path.of(inputFile), Path.of(outputFile));
+    }
+
+    @Bean
+    @JobScope
+    public PartFileMerger partFileMerger(@Value("#{jobParameters['outputFile']}") String outputFile, @Value("#{jobParameters['gridSize'] ?: 4}") int gridSize) {
+        return new PartFileMerger(Path.of(outputFile), gridSize);
+    }
+
+    @Bean
+    public TaskExecutor partitionTaskExecutor() {
+        return new SimpleAsyncTaskExecutor("partition-");
+    }
+
+    @Bean
+    @StepScope
+    public SimpleCompletionPolicy partitionCompletionPolicy(@Value("#{jobParameters['chunkSize'] ?: 1000}") int chunkSize) {
+        return new SimpleCompletionPolicy(chunkSize);
+    }
+
+    @Bean(name = "processLinesPartition")
+    protected Step processLinesPartition(JobRepository jobRepository, PlatformTransactionManager transactionManager, SimpleCompletionPolicy partitionCompletionPolicy,
+      ByteRangeLineReader reader, LineProcessor partitionedLineProcessor, PartitionFileWriter writer) {
+        // the worker runs on the partition threads, where the job scope is not active, so only its parts are scoped
+        return new StepBuilder("processLinesPartition", jobRepository).<Line, Line> chunk(partitionCompletionPolicy, transactionManager)
+          .reader(reader)
+          .processor(partitionedLineProcessor)
+          .writer(writer)
+          .build();
+    }
+
+    @Bean(name = "processLinesPartitioned")
+    @JobScope
+    protected Step processLinesPartitioned(JobRepository jobRepository, @Value("#{jobParameters['gridSize'] ?: 4}") int gridSize, ByteRangePartitioner partitioner,
+      @Qualifier("processLinesPartition") Step worker, @Qualifier("partitionTaskExecutor") TaskExecutor taskExecutor) {
+        return new StepBuilder("processLinesPartitioned", jobRepository).partitioner("processLinesPartition", partitioner)
+          .step(worker)
+          .gridSize(gridSize)
+          .taskExecutor(taskExecutor)
+          .build();
+    }
+
+    @Bean(name = "mergePartFiles")
+    protected Step mergePartFiles(JobRepository jobRepository, PlatformTransactionManager transactionManager, PartFileMerger partFileMerger) {
+        return new StepBuilder("mergePartFiles", jobRepository).tasklet(partFileMerger, transactionManager)
+          .build();
+    }
+
+    @Bean(name = "partitionedChunksJob")
+    public Job partitionedChunksJob(JobRepository jobRepository, @Qualifier("processLinesPartitioned") Step processLinesPartitioned, @Qualifier("mergePartFiles") Step mergePartFiles) {
+        return new JobBuilder("partitionedChunksJob", jobRepository).start(processLinesPartitioned)
+          .next(mergePartFiles)
+          .build();
+    }
+}
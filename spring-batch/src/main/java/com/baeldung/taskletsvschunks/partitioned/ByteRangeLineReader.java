@@ -0,0 +1,122 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import com.baeldung.taskletsvschunks.model.Line;
+import com.opencsv.CSVParser;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ParseException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Reads the lines starting in {@code [startOffset, endOffset)} of a CSV file. The byte offset of the next line is
+ * saved on every chunk commit, so a restarted partition continues right after the last committed line.
+ * <p>
+ * Every partition has its own instance; an instance is not meant to be shared between threads. Records must not
+ * span several lines.
+ */
+public class ByteRangeLineReader implements ItemStreamReader<Line> {
+
+    static final String OFFSET_KEY = "byteRangeLineReader.offset";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private final Path file;
+    private final long startOffset;
+    private final long endOffset;
+    private final CSVParser parser = new CSVParser();
+    private FileChannel channel;
+    private InputStream input;
+    private long position;
+    private byte[] lineBuffer = new byte[256];
+
+    public ByteRangeLineReader(Path file, long startOffset, long endOffset) {
+        this.file = file;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        position = executionContext.containsKey(OFFSET_KEY) ? executionContext.getLong(OFFSET_KEY) : startOffset;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(position);
+            input = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open " + file, e);
+        }
+    }
+
+    @Override
+    public Line read() throws IOException {
+        while (position < endOffset) {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            if (!line.isEmpty()) {
+                return parse(line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(OFFSET_KEY, position);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not close " + file, e);
+        }
+    }
+
+    private String nextLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = input.read()) != -1) {
+            position++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+            }
+            lineBuffer[length++] = (byte) b;
+        }
+        if (b == -1 && length == 0) {
+            return null;
+        }
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private Line parse(String line) {
+        try {
+            String[] fields = parser.parseLine(line);
+            return new Line(fields[0], LocalDate.parse(fields[1], DATE_FORMAT));
+        } catch (IOException | RuntimeException e) {
+            throw new ParseException("Could not parse line ending at byte " + position + " of " + file + ": " + line, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a line-oriented file into {@code gridSize} byte ranges of about the same size. Every boundary is moved
+ * forward to the start of the next line, so each line belongs to exactly one range. Each partition also gets its
+ * own part file for the output, named after the final output file.
+ */
+public class ByteRangePartitioner implements Partitioner {
+
+    public static final String START_OFFSET = "startOffset";
+    public static final String END_OFFSET = "endOffset";
+    public static final String PART_FILE = "partFile";
+
+    private final Path inputFile;
+    private final Path outputFile;
+
+    public ByteRangePartitioner(Path inputFile, Path outputFile) {
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+    }
+
+    public static Path partFile(Path outputFile, int partition) {
+        return outputFile.resolveSibling(String.format("%s.part-%05d", outputFile.getFileName(), partition));
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            for (int i = 0; i < gridSize; i++) {
+                long end = i == gridSize - 1 ? size : Math.max(start, nextLineStart(channel, size * (i + 1) / gridSize));
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_OFFSET, start);
+                context.putLong(END_OFFSET, end);
+                context.putString(PART_FILE, partFile(outputFile, i).toString());
+                partitions.put("partition" + i, context);
+                start = end;
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not partition " + inputFile, e);
+        }
+        return partitions;
+    }
+
+    private static long nextLineStart(FileChannel channel, long offset) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        // the line containing offset - 1 ends at or after offset
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = offset - 1;
+        while (channel.read(buffer.clear(), position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() == '\n') {
+                    return position;
+                }
+            }
+        }
+        return channel.size();
+    }
+}
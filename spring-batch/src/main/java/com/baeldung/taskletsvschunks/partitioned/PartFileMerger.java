@@ -0,0 +1,45 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Concatenates the part files written by the partitions, in partition order, into the output file and deletes them.
+ * The copy goes through {@link FileChannel#transferTo}, so the bytes do not pass through the heap.
+ */
+public class PartFileMerger implements Tasklet {
+
+    private final Path outputFile;
+    private final int partitions;
+
+    public PartFileMerger(Path outputFile, int partitions) {
+        this.outputFile = outputFile;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws IOException {
+        try (FileChannel output = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < partitions; i++) {
+                Path partFile = ByteRangePartitioner.partFile(outputFile, i);
+                try (FileChannel part = FileChannel.open(partFile, StandardOpenOption.READ)) {
+                    long size = part.size();
+                    long transferred = 0;
+                    while (transferred < size) {
+                        transferred += part.transferTo(transferred, size - transferred, output);
+                    }
+                }
+                Files.delete(partFile);
+            }
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,78 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import com.baeldung.taskletsvschunks.model.Line;
+import com.opencsv.CSVWriter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the lines of one partition to its own part file through a large buffer, in the same format as
+ * {@link com.baeldung.taskletsvschunks.utils.FileUtils}. The buffer is flushed on every chunk commit and the file
+ * length saved, so a restarted partition first cuts off whatever was written after the last commit.
+ */
+public class PartitionFileWriter implements ItemStreamWriter<Line> {
+
+    static final String LENGTH_KEY = "partitionFileWriter.length";
+
+    private final Path file;
+    private FileChannel channel;
+    private CSVWriter writer;
+
+    public PartitionFileWriter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        long length = executionContext.containsKey(LENGTH_KEY) ? executionContext.getLong(LENGTH_KEY) : 0;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(length);
+            channel.position(length);
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open " + file, e);
+        }
+        writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    @Override
+    public void write(Chunk<? extends Line> lines) {
+        for (Line line : lines) {
+            writer.writeNext(new String[] { line.getName(), line.getAge()
+                .toString() });
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        try {
+            writer.flush();
+            executionContext.putLong(LENGTH_KEY, channel.position());
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not flush " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not close " + file, e);
+        }
+    }
+}
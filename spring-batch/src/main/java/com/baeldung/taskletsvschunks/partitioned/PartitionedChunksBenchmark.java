@@ -0,0 +1,99 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import ch.qos.logback.classic.Level;
+import com.baeldung.taskletsvschunks.config.PartitionedChunksConfig;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Runs {@code partitionedChunksJob} over a generated file for every combination of grid size and chunk size and
+ * prints the throughput. The file size and the combinations can be changed with the system properties
+ * {@code benchmark.lines}, {@code benchmark.gridSizes} and {@code benchmark.chunkSizes}.
+ */
+public class PartitionedChunksBenchmark {
+
+    private static final String[] FIRST_NAMES = { "Mae", "Earl", "Vincent", "Vera", "Ellen", "Laura", "Robert", "Chloe" };
+    private static final String[] LAST_NAMES = { "Hodges", "Fisher", "Hudson", "Howard", "Byrd", "Hawkins", "Walsh", "Bell" };
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import(PartitionedChunksConfig.class)
+    static class BenchmarkApplication {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int lines = Integer.getInteger("benchmark.lines", 1_000_000);
+        int[] gridSizes = intList(System.getProperty("benchmark.gridSizes", "1,2,4,8"));
+        int[] chunkSizes = intList(System.getProperty("benchmark.chunkSizes", "100,1000,10000"));
+
+        // one debug line per item would measure the console, not the job
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.baeldung.taskletsvschunks")).setLevel(Level.INFO);
+
+        Path directory = Files.createTempDirectory("partitioned-chunks");
+        Path input = directory.resolve("input.csv");
+        Path output = directory.resolve("output.csv");
+        generate(input, lines);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class).properties("spring.batch.job.enabled=false")
+          .run(args)) {
+            JobLauncher jobLauncher = context.getBean(JobLauncher.class);
+            Job job = context.getBean("partitionedChunksJob", Job.class);
+            System.out.printf("%d lines, %d MB%n", lines, Files.size(input) >> 20);
+            System.out.printf("%8s %10s %12s %14s%n", "gridSize", "chunkSize", "millis", "lines/sec");
+            for (int gridSize : gridSizes) {
+                for (int chunkSize : chunkSizes) {
+                    long start = System.nanoTime();
+                    JobExecution execution = jobLauncher.run(job, new JobParametersBuilder().addString("inputFile", input.toString())
+                      .addString("outputFile", output.toString())
+                      .addLong("gridSize", (long) gridSize)
+                      .addLong("chunkSize", (long) chunkSize)
+                      .addLong("run", System.nanoTime())
+                      .toJobParameters());
+                    long millis = (System.nanoTime() - start) / 1_000_000;
+                    if (execution.getStatus() != BatchStatus.COMPLETED) {
+                        throw new IllegalStateException("Job ended with " + execution.getStatus() + ": " + execution.getAllFailureExceptions());
+                    }
+                    System.out.printf("%8d %10d %12d %14.0f%n", gridSize, chunkSize, millis, lines * 1000.0 / Math.max(millis, 1));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    static void generate(Path file, int lines) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write(String.format("%s %s,%02d/%02d/%d%n", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                  1 + random.nextInt(12), 1 + random.nextInt(28), 1940 + random.nextInt(70)));
+            }
+        }
+    }
+
+    private static int[] intList(String values) {
+        String[] parts = values.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+}
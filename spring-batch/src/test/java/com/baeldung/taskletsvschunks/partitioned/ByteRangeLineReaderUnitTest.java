@@ -0,0 +1,82 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.baeldung.taskletsvschunks.model.Line;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+public class ByteRangeLineReaderUnitTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void givenByteRangePartitions_WhenEachIsRead_ThenEveryLineIsReadExactlyOnce() throws Exception {
+        Path input = directory.resolve("input.csv");
+        PartitionedChunksBenchmark.generate(input, 997);
+
+        Map<String, ExecutionContext> partitions = new ByteRangePartitioner(input, directory.resolve("output.csv")).partition(7);
+
+        List<String> names = new ArrayList<>();
+        for (ExecutionContext partition : partitions.values()) {
+            names.addAll(readAll(input, partition));
+        }
+        assertEquals(7, partitions.size());
+        assertEquals(names(input), names);
+    }
+
+    @Test
+    public void givenReaderStateSavedMidway_WhenReopened_ThenReadingContinuesAfterLastSavedLine() throws Exception {
+        Path input = directory.resolve("input.csv");
+        PartitionedChunksBenchmark.generate(input, 100);
+
+        ByteRangeLineReader reader = new ByteRangeLineReader(input, 0, Files.size(input));
+        ExecutionContext context = new ExecutionContext();
+        reader.open(context);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            names.add(reader.read()
+              .getName());
+        }
+        reader.update(context);
+        // read past the saved state, as a chunk that is rolled back would
+        reader.read();
+        reader.close();
+
+        names.addAll(readAll(input, context, 0, Files.size(input)));
+        assertEquals(names(input), names);
+    }
+
+    private static List<String> readAll(Path input, ExecutionContext partition) throws Exception {
+        return readAll(input, new ExecutionContext(), partition.getLong(ByteRangePartitioner.START_OFFSET), partition.getLong(ByteRangePartitioner.END_OFFSET));
+    }
+
+    private static List<String> readAll(Path input, ExecutionContext context, long start, long end) throws Exception {
+        ByteRangeLineReader reader = new ByteRangeLineReader(input, start, end);
+        reader.open(context);
+        List<String> names = new ArrayList<>();
+        Line line;
+        while ((line = reader.read()) != null) {
+            names.add(line.getName());
+        }
+        reader.close();
+        return names;
+    }
+
+    private static List<String> names(Path input) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(input)) {
+            names.add(line.split(",")[0]);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,63 @@
+package com.baeldung.taskletsvschunks.partitioned;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.baeldung.taskletsvschunks.config.PartitionedChunksConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBatchTest
+@EnableAutoConfiguration
+@ContextConfiguration(classes = PartitionedChunksConfig.class)
+public class PartitionedChunksIntegrationTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void givenPartitionedChunksJob_WhenJobEnds_ThenEveryLineIsWrittenOnceInOrder() throws Exception {
+        Path input = directory.resolve("input.csv");
+        Path output = directory.resolve("output.csv");
+        PartitionedChunksBenchmark.generate(input, 1000);
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder().addString("inputFile", input.toString())
+          .addString("outputFile", output.toString())
+          .addLong("gridSize", 4L)
+          .addLong("chunkSize", 64L)
+          .toJobParameters());
+
+        assertEquals(ExitStatus.COMPLETED, jobExecution.getExitStatus());
+        assertEquals(4, jobExecution.getStepExecutions()
+          .stream()
+          .filter(stepExecution -> stepExecution.getStepName()
+            .startsWith("processLinesPartition:"))
+          .count());
+        List<String> inputLines = Files.readAllLines(input);
+        List<String> outputLines = Files.readAllLines(output);
+        assertEquals(inputLines.size(), outputLines.size());
+        for (int i = 0; i < inputLines.size(); i++) {
+            String name = inputLines.get(i)
+              .split(",")[0];
+            assertEquals("\"" + name + "\"", outputLines.get(i)
+              .split(",")[0]);
+        }
+        assertFalse(Files.exists(ByteRangePartitioner.partFile(output, 0)));
+    }
+}
@@ -2,6 +2,7 @@ package com.baeldung.caching.twolevelcache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.AnnotationCacheOperationSource;
 import org.springframework.cache.annotation.EnableCaching;
@@ -15,6 +16,8 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -46,9 +49,26 @@ public class CacheConfig {
     public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration redisCacheConfiguration) {
         return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(connectionFactory)
             .withCacheConfiguration("customerCache", redisCacheConfiguration)
+            .withCacheConfiguration(TwoLevelCustomerService.CACHE_NAME, redisCacheConfiguration)
             .build();
     }
 
+    @Bean
+    public TwoLevelCacheManager twoLevelCacheManager(@Qualifier("redisCacheManager") CacheManager redisCacheManager,
+        RedisConnectionFactory connectionFactory) {
+        return new TwoLevelCacheManager(redisCacheManager, connectionFactory, TwoLevelCacheManager.DEFAULT_CHANNEL, Duration.ofSeconds(3),
+            Duration.ofSeconds(2), 2000);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+        TwoLevelCacheManager twoLevelCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(twoLevelCacheManager, new ChannelTopic(twoLevelCacheManager.getChannel()));
+        return container;
+    }
+
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
@@ -0,0 +1,29 @@
+package com.baeldung.caching.twolevelcache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Getter;
+
+/**
+ * Tells the other instances to drop a local entry. A {@code null} key clears the whole local cache.
+ * <p>
+ * Sent as JSON and read back into this type only, so a subscriber never deserializes arbitrary classes.
+ */
+@Getter
+public class CacheInvalidationMessage {
+
+    private final String origin;
+
+    private final String cacheName;
+
+    private final String key;
+
+    @JsonCreator
+    public CacheInvalidationMessage(@JsonProperty("origin") String origin, @JsonProperty("cacheName") String cacheName,
+        @JsonProperty("key") String key) {
+        this.origin = origin;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+}
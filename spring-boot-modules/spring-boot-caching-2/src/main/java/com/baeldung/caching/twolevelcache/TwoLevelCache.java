@@ -0,0 +1,135 @@
+package com.baeldung.caching.twolevelcache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * A Caffeine near cache in front of a shared Redis cache.
+ * <p>
+ * Local misses read through to Redis and, through {@link #get(Object, Callable)}, to the value loader. Caffeine
+ * computes at most one value per key at a time, so concurrent misses on this instance wait for a single load.
+ * Local entries are refreshed from Redis in the background once they are older than the refresh-ahead interval,
+ * before they expire, so hot keys do not fall through on expiry. Writes go to both tiers and are broadcast so that
+ * the other instances drop their local copy.
+ * <p>
+ * Redis identifies an entry by the string form of its key, so the local tier and the invalidation messages use that
+ * string form as well.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final LoadingCache<String, Object> localCache;
+    private final Cache remoteCache;
+    private final TwoLevelCacheManager cacheManager;
+    private final TwoLevelCacheMetrics metrics = new TwoLevelCacheMetrics(this);
+
+    TwoLevelCache(String name, Caffeine<Object, Object> localCacheBuilder, Cache remoteCache, TwoLevelCacheManager cacheManager) {
+        super(false);
+        this.name = name;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+        this.localCache = localCacheBuilder.recordStats()
+            .build(this::lookupRemote);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public LoadingCache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    public TwoLevelCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return localCache.get(localKey(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(localCache.get(localKey(key), missingKey -> {
+            Object remoteValue = lookupRemote(missingKey);
+            return remoteValue != null ? remoteValue : loadFromSource(missingKey, valueLoader);
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(localKey(key), toStoreValue(value));
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.invalidate(localKey(key));
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    /**
+     * Drops the local copy after another instance changed the entry, or every local entry if {@code key} is {@code null}.
+     */
+    void invalidateLocal(String key) {
+        metrics.recordInvalidationReceived();
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private Object lookupRemote(String key) {
+        long start = System.nanoTime();
+        ValueWrapper remoteValue = remoteCache.get(key);
+        metrics.recordRemoteLookup(remoteValue != null, System.nanoTime() - start);
+        return remoteValue != null ? remoteValue.get() : null;
+    }
+
+    private Object loadFromSource(String key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            metrics.recordSourceLoad(false, System.nanoTime() - start);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        metrics.recordSourceLoad(true, System.nanoTime() - start);
+        if (value != null) {
+            remoteCache.put(key, value);
+        }
+        return value;
+    }
+}
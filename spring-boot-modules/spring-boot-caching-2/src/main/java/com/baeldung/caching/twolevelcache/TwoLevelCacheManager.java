@@ -0,0 +1,118 @@
+package com.baeldung.caching.twolevelcache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Creates a {@link TwoLevelCache} for every cache the remote {@link CacheManager} knows, and keeps the local tiers of
+ * all instances coherent through Redis pub/sub. Register it as a {@link MessageListener} on {@link #getChannel()}.
+ * <p>
+ * Pub/sub delivery is fire-and-forget, so a lost message leaves a stale local entry for at most the local time to live.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String DEFAULT_CHANNEL = "two-level-cache:invalidations";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final String instanceId = UUID.randomUUID()
+        .toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Jackson2JsonRedisSerializer<CacheInvalidationMessage> messageSerializer = new Jackson2JsonRedisSerializer<>(
+        CacheInvalidationMessage.class);
+    private final CacheManager remoteCacheManager;
+    private final RedisConnectionFactory connectionFactory;
+    private final String channel;
+    private final Duration localTimeToLive;
+    private final Duration refreshAhead;
+    private final long localMaximumSize;
+
+    /**
+     * @param localTimeToLive how long an entry may stay in the local tier without being refreshed
+     * @param refreshAhead age after which a local entry that is read gets reloaded from Redis in the background,
+     *                     shorter than {@code localTimeToLive}
+     */
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, RedisConnectionFactory connectionFactory, String channel, Duration localTimeToLive,
+        Duration refreshAhead, long localMaximumSize) {
+        if (refreshAhead.compareTo(localTimeToLive) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be shorter than localTimeToLive");
+        }
+        this.remoteCacheManager = remoteCacheManager;
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+        this.localTimeToLive = localTimeToLive;
+        this.refreshAhead = refreshAhead;
+        this.localMaximumSize = localMaximumSize;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName, Caffeine.newBuilder()
+            .expireAfterWrite(localTimeToLive)
+            .refreshAfterWrite(refreshAhead)
+            .maximumSize(localMaximumSize), remoteCache, this));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        byte[] message = messageSerializer.serialize(new CacheInvalidationMessage(instanceId, cacheName, key));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), message);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = messageSerializer.deserialize(message.getBody());
+        } catch (SerializationException e) {
+            LOGGER.warn("Ignoring unexpected message on {}", channel, e);
+            return;
+        }
+        if (invalidation == null) {
+            return;
+        }
+        if (instanceId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.getKey());
+        }
+    }
+}
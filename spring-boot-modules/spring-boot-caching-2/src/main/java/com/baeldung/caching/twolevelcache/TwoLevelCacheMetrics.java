@@ -0,0 +1,85 @@
+package com.baeldung.caching.twolevelcache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Hit, miss and latency counters per tier of a {@link TwoLevelCache}. The local tier is measured by Caffeine itself,
+ * its load time is the time spent reading through to Redis, including refresh-ahead reloads.
+ */
+public class TwoLevelCacheMetrics {
+
+    private final TwoLevelCache cache;
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remoteNanos = new LongAdder();
+    private final LongAdder sourceLoads = new LongAdder();
+    private final LongAdder sourceLoadFailures = new LongAdder();
+    private final LongAdder sourceLoadNanos = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    TwoLevelCacheMetrics(TwoLevelCache cache) {
+        this.cache = cache;
+    }
+
+    void recordRemoteLookup(boolean hit, long nanos) {
+        (hit ? remoteHits : remoteMisses).increment();
+        remoteNanos.add(nanos);
+    }
+
+    void recordSourceLoad(boolean success, long nanos) {
+        sourceLoads.increment();
+        if (!success) {
+            sourceLoadFailures.increment();
+        }
+        sourceLoadNanos.add(nanos);
+    }
+
+    void recordInvalidationReceived() {
+        invalidationsReceived.increment();
+    }
+
+    public CacheStats getLocalStats() {
+        return cache.getLocalCache()
+            .stats();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public double getAverageRemoteLookupNanos() {
+        long lookups = getRemoteHits() + getRemoteMisses();
+        return lookups == 0 ? 0 : (double) remoteNanos.sum() / lookups;
+    }
+
+    public long getSourceLoads() {
+        return sourceLoads.sum();
+    }
+
+    public long getSourceLoadFailures() {
+        return sourceLoadFailures.sum();
+    }
+
+    public double getAverageSourceLoadNanos() {
+        long loads = getSourceLoads();
+        return loads == 0 ? 0 : (double) sourceLoadNanos.sum() / loads;
+    }
+
+    public long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+
+    @Override
+    public String toString() {
+        CacheStats local = getLocalStats();
+        return String.format("local[hits=%d, misses=%d, avgLoadMicros=%.1f] remote[hits=%d, misses=%d, avgMicros=%.1f] source[loads=%d, failures=%d, avgMicros=%.1f] invalidations=%d",
+            local.hitCount(), local.missCount(), local.averageLoadPenalty() / 1000, getRemoteHits(), getRemoteMisses(), getAverageRemoteLookupNanos() / 1000,
+            getSourceLoads(), getSourceLoadFailures(), getAverageSourceLoadNanos() / 1000, getInvalidationsReceived());
+    }
+}
@@ -0,0 +1,25 @@
+package com.baeldung.caching.twolevelcache;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches customers in a {@link TwoLevelCache}, whose local tier is invalidated when another instance changes an entry.
+ */
+@Service
+public class TwoLevelCustomerService {
+
+    static final String CACHE_NAME = "twoLevelCustomerCache";
+
+    private final CustomerRepository customerRepository;
+
+    public TwoLevelCustomerService(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @Cacheable(cacheNames = CACHE_NAME, cacheManager = "twoLevelCacheManager", sync = true)
+    public Customer getCustomer(String id) {
+        return customerRepository.findById(id)
+            .orElseThrow(RuntimeException::new);
+    }
+}
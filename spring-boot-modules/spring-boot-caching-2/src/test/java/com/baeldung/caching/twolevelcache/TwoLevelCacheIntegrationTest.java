@@ -0,0 +1,203 @@
+package com.baeldung.caching.twolevelcache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import redis.embedded.RedisServer;
+
+class TwoLevelCacheIntegrationTest {
+
+    private static final int REDIS_PORT = 6391;
+    private static final String CACHE_NAME = "customerCache";
+
+    private static RedisServer redisServer;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private LettuceConnectionFactory connectionFactory;
+    private TwoLevelCache firstInstance;
+    private TwoLevelCache secondInstance;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        firstInstance = startInstance();
+        secondInstance = startInstance();
+        firstInstance.getRemoteCache()
+            .clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void givenTwoInstances_whenOneUpdatesAnEntry_thenTheOtherDropsItsLocalCopy() {
+        assertThat(firstInstance.get("1", () -> "Alice")).isEqualTo("Alice");
+        assertThat(secondInstance.get("1", () -> "not loaded, Redis has it")).isEqualTo("Alice");
+        assertThat(secondInstance.getLocalCache()
+            .getIfPresent("1")).isEqualTo("Alice");
+
+        firstInstance.put("1", "Alice Smith");
+
+        await().atMost(Duration.ofSeconds(2))
+            .until(() -> secondInstance.getLocalCache()
+                .getIfPresent("1") == null);
+        assertThat(secondInstance.get("1", String.class)).isEqualTo("Alice Smith");
+        assertThat(firstInstance.getLocalCache()
+            .getIfPresent("1")).isEqualTo("Alice Smith");
+        assertThat(secondInstance.getMetrics()
+            .getInvalidationsReceived()).isGreaterThanOrEqualTo(1);
+        assertThat(secondInstance.getMetrics()
+            .getSourceLoads()).isZero();
+    }
+
+    @Test
+    void givenForeignPayloadOnTheChannel_whenReceived_thenItIsIgnoredAndInvalidationsKeepWorking() {
+        firstInstance.get("5", () -> "Dave");
+        secondInstance.get("5", () -> "not loaded, Redis has it");
+
+        firstInstance.getRemoteCache()
+            .put("5", "Dave Brown");
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(TwoLevelCacheManager.DEFAULT_CHANNEL.getBytes(StandardCharsets.UTF_8), RedisSerializer.java()
+                .serialize(new ArrayList<>(List.of("5"))));
+        }
+        firstInstance.evict("5");
+
+        await().atMost(Duration.ofSeconds(2))
+            .until(() -> secondInstance.getLocalCache()
+                .getIfPresent("5") == null);
+        assertThat(secondInstance.getMetrics()
+            .getInvalidationsReceived()).isEqualTo(1);
+    }
+
+    @Test
+    void givenConcurrentMisses_whenLoading_thenTheSourceIsLoadedOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return firstInstance.get("2", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200);
+                        return "Bob";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("Bob");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        TwoLevelCacheMetrics metrics = firstInstance.getMetrics();
+        assertThat(metrics.getSourceLoads()).isEqualTo(1);
+        assertThat(metrics.getRemoteMisses()).isEqualTo(1);
+        assertThat(metrics.getLocalStats()
+            .hitCount() + metrics.getLocalStats()
+            .missCount()).isEqualTo(16);
+    }
+
+    @Test
+    void givenEntryOlderThanRefreshAhead_whenRead_thenItIsRefreshedBeforeItExpires() throws InterruptedException {
+        firstInstance.get("3", () -> "Carol");
+        // changed behind the near cache's back, without an invalidation
+        firstInstance.getRemoteCache()
+            .put("3", "Carol Jones");
+
+        Thread.sleep(700);
+        assertThat(firstInstance.get("3", String.class)).isEqualTo("Carol");
+
+        await().atMost(Duration.ofMillis(1000))
+            .until(() -> "Carol Jones".equals(firstInstance.getLocalCache()
+                .getIfPresent("3")));
+        assertThat(firstInstance.getMetrics()
+            .getSourceLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFailingLoader_whenGetting_thenFailureIsRecordedAndNothingIsCached() {
+        assertThatThrownBy(() -> firstInstance.get("4", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class)
+            .hasRootCauseMessage("database down");
+
+        assertThat(firstInstance.getMetrics()
+            .getSourceLoadFailures()).isEqualTo(1);
+        assertThat(firstInstance.getRemoteCache()
+            .get("4")).isNull();
+        assertThat(firstInstance.getLocalCache()
+            .getIfPresent("4")).isNull();
+    }
+
+    private TwoLevelCache startInstance() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", REDIS_PORT));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        resources.add(connectionFactory::destroy);
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                .disableCachingNullValues())
+            .build();
+        redisCacheManager.afterPropertiesSet();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, connectionFactory, TwoLevelCacheManager.DEFAULT_CHANNEL,
+            Duration.ofSeconds(2), Duration.ofMillis(500), 100);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getChannel()));
+        container.afterPropertiesSet();
+        container.start();
+        resources.add(0, container::destroy);
+
+        return (TwoLevelCache) cacheManager.getCache(CACHE_NAME);
+    }
+}
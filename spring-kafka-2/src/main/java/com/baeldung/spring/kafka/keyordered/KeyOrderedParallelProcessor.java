@@ -0,0 +1,219 @@
+package com.baeldung.spring.kafka.keyordered;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Processes the records of a listener concurrently while keeping the order of records sharing a key.
+ * <p>
+ * Every record is chained behind the last pending record with the same key (records without a key
+ * are ordered per partition), so distinct keys run in parallel on the executor, by default one
+ * virtual thread per record. {@link #submit(ConsumerRecord)} blocks once {@code maxInFlight} records
+ * are pending, which keeps the consumer from fetching faster than the handler can cope with.
+ * <p>
+ * Records complete out of order, so offsets must be committed through {@link #committableOffsets(Collection)},
+ * which only returns the highest contiguous completed offset of each partition, and reported back through
+ * {@link #committed(Map)} once the commit succeeded.
+ * <p>
+ * A record whose handler throws is retried according to the {@link BackOff}, then handed to the
+ * {@link ConsumerRecordRecoverer}, e.g. a {@code DeadLetterPublishingRecoverer}, and only then counts as completed.
+ * Without a recoverer, or if the recoverer throws too, the record is never completed and the committed offset
+ * stays before it, so it is processed again after a restart or rebalance.
+ */
+public class KeyOrderedParallelProcessor<K, V> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyOrderedParallelProcessor.class);
+
+    private final Consumer<ConsumerRecord<K, V>> handler;
+    private final BackOff backOff;
+    private final ConsumerRecordRecoverer recoverer;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Map<Object, CompletableFuture<Void>> pendingByKey = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> offsets = new ConcurrentHashMap<>();
+    private final LongAdder processedRecords = new LongAdder();
+    private final LongAdder failedRecords = new LongAdder();
+
+    public KeyOrderedParallelProcessor(Consumer<ConsumerRecord<K, V>> handler, BackOff backOff, ConsumerRecordRecoverer recoverer,
+      ExecutorService executor, int maxInFlight) {
+        this.handler = handler;
+        this.backOff = backOff;
+        this.recoverer = recoverer;
+        this.executor = executor;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Neither retries nor recovers failed records, they hold back the committed offset of their partition.
+     */
+    public static <K, V> KeyOrderedParallelProcessor<K, V> onVirtualThreads(Consumer<ConsumerRecord<K, V>> handler, int maxInFlight) {
+        return onVirtualThreads(handler, new FixedBackOff(0, 0), null, maxInFlight);
+    }
+
+    public static <K, V> KeyOrderedParallelProcessor<K, V> onVirtualThreads(Consumer<ConsumerRecord<K, V>> handler, BackOff backOff,
+      ConsumerRecordRecoverer recoverer, int maxInFlight) {
+        return new KeyOrderedParallelProcessor<>(handler, backOff, recoverer, Executors.newVirtualThreadPerTaskExecutor(), maxInFlight);
+    }
+
+    /**
+     * Schedules the record behind the pending records with the same key. Must be called on the consumer thread.
+     */
+    public void submit(ConsumerRecord<K, V> consumerRecord) throws InterruptedException {
+        permits.acquire();
+        TopicPartition topicPartition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+        PartitionOffsets partitionOffsets = offsets.computeIfAbsent(topicPartition, tp -> new PartitionOffsets());
+        partitionOffsets.received(consumerRecord.offset());
+
+        Object key = consumerRecord.key() != null ? consumerRecord.key() : topicPartition;
+        Runnable task = () -> process(consumerRecord, partitionOffsets);
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Void>[] scheduled = new CompletableFuture[1];
+        pendingByKey.compute(key, (k, previous) -> scheduled[0] = previous == null ? CompletableFuture.runAsync(task, executor)
+          : previous.thenRunAsync(task, executor));
+        scheduled[0].whenComplete((ignored, e) -> pendingByKey.remove(key, scheduled[0]));
+    }
+
+    /**
+     * @return the offsets that can be committed for the given partitions and have not been committed yet
+     */
+    public Map<TopicPartition, OffsetAndMetadata> committableOffsets(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        for (TopicPartition topicPartition : partitions) {
+            PartitionOffsets partitionOffsets = offsets.get(topicPartition);
+            long offset = partitionOffsets == null ? -1 : partitionOffsets.committableOffset();
+            if (offset >= 0) {
+                committable.put(topicPartition, new OffsetAndMetadata(offset));
+            }
+        }
+        return committable;
+    }
+
+    /**
+     * Records offsets whose commit succeeded, so they are not returned by {@link #committableOffsets(Collection)} again.
+     * Must be called on the consumer thread, e.g. from the commit callback.
+     */
+    public void committed(Map<TopicPartition, OffsetAndMetadata> committedOffsets) {
+        committedOffsets.forEach((topicPartition, offsetAndMetadata) -> {
+            PartitionOffsets partitionOffsets = offsets.get(topicPartition);
+            if (partitionOffsets != null) {
+                partitionOffsets.committed(offsetAndMetadata.offset());
+            }
+        });
+    }
+
+    /**
+     * Waits until every submitted record of the given partitions has been processed.
+     *
+     * @return {@code false} if records were still in flight when the timeout elapsed
+     */
+    public boolean awaitCompletion(Collection<TopicPartition> partitions, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (partitions.stream()
+          .map(offsets::get)
+          .anyMatch(partitionOffsets -> partitionOffsets != null && partitionOffsets.inFlight() > 0)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    public void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(offsets::remove);
+    }
+
+    public long getProcessedRecords() {
+        return processedRecords.sum();
+    }
+
+    public long getFailedRecords() {
+        return failedRecords.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void process(ConsumerRecord<K, V> consumerRecord, PartitionOffsets partitionOffsets) {
+        try {
+            RuntimeException failure = handleWithRetries(consumerRecord);
+            if (failure == null || recover(consumerRecord, failure)) {
+                partitionOffsets.completed(consumerRecord.offset());
+            } else {
+                partitionOffsets.failed(consumerRecord.offset());
+            }
+        } finally {
+            processedRecords.increment();
+            permits.release();
+        }
+    }
+
+    /**
+     * @return the last exception of the handler if it still failed once the back off was exhausted, otherwise {@code null}
+     */
+    private RuntimeException handleWithRetries(ConsumerRecord<K, V> consumerRecord) {
+        BackOffExecution backOffExecution = backOff.start();
+        while (true) {
+            try {
+                handler.accept(consumerRecord);
+                return null;
+            } catch (RuntimeException e) {
+                long interval = backOffExecution.nextBackOff();
+                if (interval == BackOffExecution.STOP) {
+                    failedRecords.increment();
+                    return e;
+                }
+                LOGGER.warn("Failed to process record {}-{}@{}, retrying in {} ms", consumerRecord.topic(), consumerRecord.partition(),
+                  consumerRecord.offset(), interval, e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(interval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread()
+                      .interrupt();
+                    failedRecords.increment();
+                    return e;
+                }
+            }
+        }
+    }
+
+    private boolean recover(ConsumerRecord<K, V> consumerRecord, RuntimeException failure) {
+        if (recoverer == null) {
+            LOGGER.error("Failed to process record {}-{}@{}, its partition is not committed past it", consumerRecord.topic(),
+              consumerRecord.partition(), consumerRecord.offset(), failure);
+            return false;
+        }
+        try {
+            recoverer.accept(consumerRecord, failure);
+            return true;
+        } catch (RuntimeException e) {
+            e.addSuppressed(failure);
+            LOGGER.error("Failed to recover record {}-{}@{}, its partition is not committed past it", consumerRecord.topic(),
+              consumerRecord.partition(), consumerRecord.offset(), e);
+            return false;
+        }
+    }
+}
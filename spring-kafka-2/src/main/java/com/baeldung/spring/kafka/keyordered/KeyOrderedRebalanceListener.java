@@ -0,0 +1,49 @@
+package com.baeldung.spring.kafka.keyordered;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+/**
+ * Lets the in-flight records of revoked partitions finish and commits them before the partitions
+ * move to another consumer, so the new owner does not process them again.
+ */
+public class KeyOrderedRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyOrderedRebalanceListener.class);
+
+    private final KeyOrderedParallelProcessor<?, ?> processor;
+    private final Duration drainTimeout;
+
+    public KeyOrderedRebalanceListener(KeyOrderedParallelProcessor<?, ?> processor, Duration drainTimeout) {
+        this.processor = processor;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        try {
+            if (!processor.awaitCompletion(partitions, drainTimeout)) {
+                LOGGER.warn("Records of {} still in flight after {}, they will be processed again by the new owner", partitions, drainTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+              .interrupt();
+        }
+        try {
+            consumer.commitSync(processor.committableOffsets(partitions));
+        } finally {
+            processor.forget(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        processor.forget(partitions);
+    }
+}
@@ -0,0 +1,55 @@
+package com.baeldung.spring.kafka.keyordered;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Offsets of one partition handed to workers but not processed yet. The committable offset is the
+ * lowest one still in flight, so a slow record holds back the commit of everything after it. A record
+ * that could be neither processed nor recovered holds back the commit for good, so it is read again
+ * after a restart or rebalance.
+ * <p>
+ * {@link #received(long)}, {@link #committableOffset()} and {@link #committed(long)} are called on the
+ * consumer thread, {@link #completed(long)} and {@link #failed(long)} on the worker threads.
+ */
+class PartitionOffsets {
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Long> failed = new ConcurrentSkipListSet<>();
+    private volatile long nextOffset = -1;
+    private long committedOffset = -1;
+
+    void received(long offset) {
+        inFlight.add(offset);
+        nextOffset = offset + 1;
+    }
+
+    void completed(long offset) {
+        inFlight.remove(offset);
+    }
+
+    void failed(long offset) {
+        failed.add(offset);
+        inFlight.remove(offset);
+    }
+
+    long committableOffset() {
+        long committable = nextOffset;
+        Long lowestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        if (lowestInFlight != null) {
+            committable = lowestInFlight;
+        }
+        Long lowestFailed = failed.ceiling(Long.MIN_VALUE);
+        if (lowestFailed != null && lowestFailed < committable) {
+            committable = lowestFailed;
+        }
+        return committable > committedOffset ? committable : -1;
+    }
+
+    void committed(long offset) {
+        committedOffset = Math.max(committedOffset, offset);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
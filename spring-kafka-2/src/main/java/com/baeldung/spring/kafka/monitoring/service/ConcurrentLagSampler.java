@@ -0,0 +1,275 @@
+package com.baeldung.spring.kafka.monitoring.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Samples the lag of many consumer groups at once without blocking the scheduler thread.
+ * <p>
+ * Each tick fires the committed offsets requests of all groups concurrently, then a single end
+ * offsets request for the union of their partitions, so a partition read by several groups is
+ * only looked up once per tick. A group or partition whose lookup fails keeps its series, but its
+ * gauges report {@code NaN} instead of the last lag until a lookup succeeds again; a series is removed
+ * once its group is no longer listed or the group has no committed offset for its partition anymore. The results are kept as {@link PartitionLagSeries}
+ * and published as the {@code kafka.consumer.group.lag} and {@code kafka.consumer.group.lag.rate} gauges.
+ */
+@Service
+public class ConcurrentLagSampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentLagSampler.class);
+
+    static final String LAG_GAUGE = "kafka.consumer.group.lag";
+    static final String LAG_RATE_GAUGE = "kafka.consumer.group.lag.rate";
+
+    private final Admin adminClient;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> configuredGroups;
+    private final int windowSize;
+    private final Clock clock;
+    private final Map<SeriesKey, RegisteredSeries> series = new ConcurrentHashMap<>();
+    private final AtomicBoolean sampling = new AtomicBoolean();
+
+    @Autowired
+    public ConcurrentLagSampler(@Value("${monitor.kafka.bootstrap.config}") String bootstrapServerConfig,
+      @Value("${monitor.lag.sampler.groups:}") Set<String> configuredGroups,
+      @Value("${monitor.lag.sampler.window-size:12}") int windowSize,
+      MeterRegistry meterRegistry) {
+        this(getAdminClient(bootstrapServerConfig), meterRegistry, configuredGroups, windowSize, Clock.systemUTC());
+    }
+
+    public ConcurrentLagSampler(Admin adminClient, MeterRegistry meterRegistry, Set<String> configuredGroups, int windowSize, Clock clock) {
+        this.adminClient = adminClient;
+        this.meterRegistry = meterRegistry;
+        this.configuredGroups = configuredGroups;
+        this.windowSize = windowSize;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${monitor.lag.sampler.interval.ms:5000}")
+    public void scheduledSample() {
+        if (!sampling.compareAndSet(false, true)) {
+            LOGGER.debug("Previous lag sample still in flight, skipping this tick");
+            return;
+        }
+        sample().whenComplete((ignored, e) -> {
+            sampling.set(false);
+            if (e != null) {
+                LOGGER.warn("Lag sampling failed", e);
+            }
+        });
+    }
+
+    /**
+     * Starts one sampling tick; the returned future completes once every series has been updated.
+     */
+    public CompletableFuture<Void> sample() {
+        long now = clock.millis();
+        return groupIds().thenCompose(groupIds -> fetchCommittedOffsets(groupIds)
+          .thenCompose(committed -> fetchEndOffsets(committed).thenAccept(endOffsets -> record(now, new HashSet<>(groupIds), committed, endOffsets))));
+    }
+
+    public PartitionLagSeries series(String groupId, TopicPartition topicPartition) {
+        RegisteredSeries registered = series.get(new SeriesKey(groupId, topicPartition));
+        return registered == null ? null : registered.series;
+    }
+
+    public Collection<PartitionLagSeries> allSeries() {
+        return series.values()
+          .stream()
+          .map(registered -> registered.series)
+          .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    private CompletableFuture<Collection<String>> groupIds() {
+        if (!configuredGroups.isEmpty()) {
+            return CompletableFuture.completedFuture(configuredGroups);
+        }
+        return adminClient.listConsumerGroups()
+          .all()
+          .toCompletionStage()
+          .toCompletableFuture()
+          .thenApply(listings -> listings.stream()
+            .map(ConsumerGroupListing::groupId)
+            .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<Map<String, Map<TopicPartition, OffsetAndMetadata>>> fetchCommittedOffsets(Collection<String> groupIds) {
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> committed = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = groupIds.stream()
+          .map(groupId -> adminClient.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata()
+            .toCompletionStage()
+            .toCompletableFuture()
+            .handle((offsets, e) -> {
+                if (e != null) {
+                    LOGGER.warn("Could not fetch committed offsets of group {}", groupId, e);
+                } else {
+                    committed.put(groupId, offsets);
+                }
+                return null;
+            }))
+          .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures)
+          .thenApply(ignored -> committed);
+    }
+
+    private CompletableFuture<Map<TopicPartition, Long>> fetchEndOffsets(Map<String, Map<TopicPartition, OffsetAndMetadata>> committed) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        committed.values()
+          .forEach(offsets -> partitions.addAll(offsets.keySet()));
+        if (partitions.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+
+        Map<TopicPartition, OffsetSpec> specs = new HashMap<>();
+        partitions.forEach(partition -> specs.put(partition, OffsetSpec.latest()));
+        ListOffsetsResult result = adminClient.listOffsets(specs);
+
+        Map<TopicPartition, Long> endOffsets = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = partitions.stream()
+          .map(partition -> result.partitionResult(partition)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .handle((info, e) -> {
+                if (e != null) {
+                    LOGGER.warn("Could not fetch end offset of {}", partition, e);
+                } else {
+                    endOffsets.put(partition, info.offset());
+                }
+                return null;
+            }))
+          .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures)
+          .thenApply(ignored -> endOffsets);
+    }
+
+    private void record(long timestampMillis, Set<String> groupIds, Map<String, Map<TopicPartition, OffsetAndMetadata>> committed,
+      Map<TopicPartition, Long> endOffsets) {
+        committed.forEach((groupId, offsets) -> offsets.forEach((partition, offset) -> {
+            Long endOffset = endOffsets.get(partition);
+            if (offset == null || endOffset == null) {
+                return;
+            }
+            series.computeIfAbsent(new SeriesKey(groupId, partition), this::register).series.record(timestampMillis,
+              Math.max(0, endOffset - offset.offset()));
+        }));
+
+        // groups missing from committed and partitions missing from endOffsets failed this tick, they are not gone
+        series.forEach((key, registered) -> registered.unknown = !committed.containsKey(key.groupId) || !endOffsets.containsKey(key.topicPartition));
+        List<SeriesKey> stale = series.keySet()
+          .stream()
+          .filter(key -> !groupIds.contains(key.groupId) || committed.containsKey(key.groupId) && committed.get(key.groupId)
+            .get(key.topicPartition) == null)
+          .collect(Collectors.toList());
+        stale.forEach(key -> series.remove(key)
+          .unregister(meterRegistry));
+    }
+
+    private RegisteredSeries register(SeriesKey key) {
+        RegisteredSeries registered = new RegisteredSeries(new PartitionLagSeries(key.groupId, key.topicPartition, windowSize));
+        Tags tags = Tags.of("group", key.groupId, "topic", key.topicPartition.topic(), "partition", String.valueOf(key.topicPartition.partition()));
+        registered.lagGauge = Gauge.builder(LAG_GAUGE, registered, RegisteredSeries::latestLag)
+          .tags(tags)
+          .description("Records the consumer group still has to read")
+          .register(meterRegistry);
+        registered.lagRateGauge = Gauge.builder(LAG_RATE_GAUGE, registered, RegisteredSeries::lagRatePerSecond)
+          .tags(tags)
+          .description("Lag growth in records per second over the sampling window")
+          .register(meterRegistry);
+        return registered;
+    }
+
+    private static Admin getAdminClient(String bootstrapServerConfig) {
+        Properties config = new Properties();
+        config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServerConfig);
+        return Admin.create(config);
+    }
+
+    private static final class SeriesKey {
+
+        private final String groupId;
+        private final TopicPartition topicPartition;
+
+        private SeriesKey(String groupId, TopicPartition topicPartition) {
+            this.groupId = groupId;
+            this.topicPartition = topicPartition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            SeriesKey other = (SeriesKey) o;
+            return groupId.equals(other.groupId) && topicPartition.equals(other.topicPartition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupId, topicPartition);
+        }
+    }
+
+    private static final class RegisteredSeries {
+
+        private final PartitionLagSeries series;
+        private Gauge lagGauge;
+        private Gauge lagRateGauge;
+        private volatile boolean unknown;
+
+        private RegisteredSeries(PartitionLagSeries series) {
+            this.series = series;
+        }
+
+        private double latestLag() {
+            return unknown ? Double.NaN : series.latestLag();
+        }
+
+        private double lagRatePerSecond() {
+            return unknown ? Double.NaN : series.lagRatePerSecond();
+        }
+
+        private void unregister(MeterRegistry meterRegistry) {
+            meterRegistry.remove(lagGauge);
+            meterRegistry.remove(lagRateGauge);
+        }
+    }
+}
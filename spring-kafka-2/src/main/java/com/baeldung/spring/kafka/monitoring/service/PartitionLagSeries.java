@@ -0,0 +1,70 @@
+package com.baeldung.spring.kafka.monitoring.service;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Rolling window of lag samples for one consumer group partition, backed by fixed size
+ * primitive ring buffers so sampling does not allocate.
+ */
+public class PartitionLagSeries {
+
+    private final String groupId;
+    private final TopicPartition topicPartition;
+    private final long[] timestamps;
+    private final long[] lags;
+    private int next;
+    private int size;
+
+    public PartitionLagSeries(String groupId, TopicPartition topicPartition, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("At least two samples are needed to compute a lag rate");
+        }
+        this.groupId = groupId;
+        this.topicPartition = topicPartition;
+        this.timestamps = new long[capacity];
+        this.lags = new long[capacity];
+    }
+
+    public synchronized void record(long timestampMillis, long lag) {
+        timestamps[next] = timestampMillis;
+        lags[next] = lag;
+        next = (next + 1) % lags.length;
+        size = Math.min(size + 1, lags.length);
+    }
+
+    public synchronized long latestLag() {
+        return size == 0 ? 0 : lags[latestIndex()];
+    }
+
+    /**
+     * Lag growth in records per second over the retained window, negative while the group catches up.
+     */
+    public synchronized double lagRatePerSecond() {
+        if (size < 2) {
+            return 0;
+        }
+        int latest = latestIndex();
+        int oldest = (next - size + lags.length) % lags.length;
+        long elapsedMillis = timestamps[latest] - timestamps[oldest];
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (lags[latest] - lags[oldest]) * 1000.0 / elapsedMillis;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public TopicPartition getTopicPartition() {
+        return topicPartition;
+    }
+
+    private int latestIndex() {
+        return (next - 1 + lags.length) % lags.length;
+    }
+}
@@ -0,0 +1,66 @@
+package com.baeldung.spring.kafka.multipletopics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.stereotype.Service;
+
+import com.baeldung.spring.kafka.keyordered.KeyOrderedParallelProcessor;
+
+/**
+ * Consumes the payment topics instead of {@link PaymentDataListener}, but hands the records to a
+ * {@link KeyOrderedParallelProcessor}, so payments with different references are handled concurrently
+ * while the events of one payment keep their order.
+ */
+@Service
+@ConditionalOnProperty(name = "payments.parallel.enabled", havingValue = "true")
+public class ParallelPaymentDataListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelPaymentDataListener.class);
+
+    static final String LISTENER_ID = "parallel-payments";
+
+    private final KeyOrderedParallelProcessor<String, PaymentData> paymentProcessor;
+
+    public ParallelPaymentDataListener(KeyOrderedParallelProcessor<String, PaymentData> paymentProcessor) {
+        this.paymentProcessor = paymentProcessor;
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = { "card-payments", "bank-transfers" }, groupId = "payments-parallel",
+      containerFactory = "parallelPaymentListenerContainerFactory")
+    public void handlePaymentEvents(List<ConsumerRecord<String, PaymentData>> records, Consumer<?, ?> consumer) throws InterruptedException {
+        for (ConsumerRecord<String, PaymentData> paymentRecord : records) {
+            paymentProcessor.submit(paymentRecord);
+        }
+        commitCompleted(consumer);
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        commitCompleted(event.getConsumer());
+    }
+
+    private void commitCompleted(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = paymentProcessor.committableOffsets(consumer.assignment());
+        if (!offsets.isEmpty()) {
+            // a failed commit is simply retried with the next committable offsets
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e == null) {
+                    paymentProcessor.committed(committed);
+                } else {
+                    LOGGER.warn("Failed to commit {}", committed, e);
+                }
+            });
+        }
+    }
+}
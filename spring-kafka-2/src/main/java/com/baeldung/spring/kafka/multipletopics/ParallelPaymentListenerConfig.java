@@ -0,0 +1,48 @@
+package com.baeldung.spring.kafka.multipletopics;
+
+import java.time.Duration;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.baeldung.spring.kafka.keyordered.KeyOrderedParallelProcessor;
+import com.baeldung.spring.kafka.keyordered.KeyOrderedRebalanceListener;
+
+@Configuration
+@ConditionalOnProperty(name = "payments.parallel.enabled", havingValue = "true")
+public class ParallelPaymentListenerConfig {
+
+    /**
+     * Payments that still fail after the retries are published to {@code <topic>.DLT}, on a partition chosen by the producer.
+     */
+    @Bean(destroyMethod = "close")
+    public KeyOrderedParallelProcessor<String, PaymentData> paymentProcessor(PaymentEventHandler paymentEventHandler,
+      KafkaTemplate<String, PaymentData> kafkaProducer, @Value("${payments.parallel.max-in-flight:1000}") int maxInFlight) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaProducer,
+          (paymentRecord, e) -> new TopicPartition(paymentRecord.topic() + ".DLT", -1));
+        return KeyOrderedParallelProcessor.onVirtualThreads(paymentRecord -> paymentEventHandler.handle(paymentRecord.value(), paymentRecord.topic()),
+          new FixedBackOff(1000L, 2), recoverer, maxInFlight);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PaymentData> parallelPaymentListenerContainerFactory(
+      ConsumerFactory<String, PaymentData> consumerFactory, KeyOrderedParallelProcessor<String, PaymentData> paymentProcessor) {
+        ConcurrentKafkaListenerContainerFactory<String, PaymentData> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setIdleEventInterval(1000L);
+        containerProperties.setConsumerRebalanceListener(new KeyOrderedRebalanceListener(paymentProcessor, Duration.ofSeconds(10)));
+        return factory;
+    }
+}
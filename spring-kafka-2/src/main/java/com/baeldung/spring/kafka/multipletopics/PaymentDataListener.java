@@ -1,18 +1,26 @@
 package com.baeldung.spring.kafka.multipletopics;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+/**
+ * Consumes the payment topics one record at a time. Replaced by {@link ParallelPaymentDataListener} when
+ * {@code payments.parallel.enabled} is set, so that each payment is handled once.
+ */
 @Service
+@ConditionalOnProperty(name = "payments.parallel.enabled", havingValue = "false", matchIfMissing = true)
 public class PaymentDataListener {
-    private final Logger log = LoggerFactory.getLogger(PaymentDataListener.class);
+    private final PaymentEventHandler paymentEventHandler;
+
+    public PaymentDataListener(PaymentEventHandler paymentEventHandler) {
+        this.paymentEventHandler = paymentEventHandler;
+    }
 
     @KafkaListener(topics = { "card-payments", "bank-transfers" }, groupId = "payments")
     public void handlePaymentEvents(PaymentData paymentData, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
-        log.info("Event on topic={}, payload={}", topic, paymentData);
+        paymentEventHandler.handle(paymentData, topic);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.baeldung.spring.kafka.multipletopics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Handles one payment event, whichever listener consumed it.
+ */
+@Service
+public class PaymentEventHandler {
+    private final Logger log = LoggerFactory.getLogger(PaymentEventHandler.class);
+
+    public void handle(PaymentData paymentData, String topic) {
+        log.info("Event on topic={}, payload={}", topic, paymentData);
+    }
+}
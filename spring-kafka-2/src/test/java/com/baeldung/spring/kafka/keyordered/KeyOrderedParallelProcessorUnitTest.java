@@ -0,0 +1,153 @@
+package com.baeldung.spring.kafka.keyordered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.backoff.FixedBackOff;
+
+class KeyOrderedParallelProcessorUnitTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("payments", 0);
+
+    @Test
+    void givenInterleavedKeys_whenProcessedInParallel_thenEachKeyKeepsItsOrder() throws Exception {
+        Map<String, List<Long>> processedByKey = new ConcurrentHashMap<>();
+        try (KeyOrderedParallelProcessor<String, String> processor = KeyOrderedParallelProcessor.onVirtualThreads(record -> {
+            sleepMillis(ThreadLocalRandom.current()
+              .nextInt(3));
+            processedByKey.computeIfAbsent(record.key(), k -> new ArrayList<>())
+              .add(record.offset());
+        }, 64)) {
+            for (long offset = 0; offset < 1000; offset++) {
+                processor.submit(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "key-" + offset % 20, "value"));
+            }
+
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofSeconds(10))).isTrue();
+            assertThat(processor.getProcessedRecords()).isEqualTo(1000);
+            assertThat(processor.committableOffsets(List.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(1000));
+        }
+
+        assertThat(processedByKey).hasSize(20);
+        processedByKey.values()
+          .forEach(offsets -> assertThat(offsets).hasSize(50)
+            .isSorted());
+    }
+
+    @Test
+    void givenSlowRecord_whenLaterRecordsComplete_thenCommitStopsBeforeSlowRecord() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (KeyOrderedParallelProcessor<String, String> processor = KeyOrderedParallelProcessor.onVirtualThreads(record -> {
+            if ("slow".equals(record.key())) {
+                awaitQuietly(release);
+            }
+        }, 16)) {
+            processor.submit(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), 0L, "fast", "value"));
+            processor.submit(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), 1L, "slow", "value"));
+            processor.submit(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), 2L, "other", "value"));
+
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofMillis(200))).isFalse();
+            assertThat(processor.committableOffsets(List.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(1));
+
+            release.countDown();
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofSeconds(5))).isTrue();
+            Map<TopicPartition, OffsetAndMetadata> offsets = processor.committableOffsets(List.of(PARTITION));
+            assertThat(offsets).containsEntry(PARTITION, new OffsetAndMetadata(3));
+            // not reported as committed yet, e.g. because the commit failed
+            assertThat(processor.committableOffsets(List.of(PARTITION))).isEqualTo(offsets);
+
+            processor.committed(offsets);
+            assertThat(processor.committableOffsets(List.of(PARTITION))).isEmpty();
+        }
+    }
+
+    @Test
+    void givenFailingHandlerWithoutRecoverer_whenRecordFails_thenTheKeyKeepsFlowingButCommitStopsBeforeIt() throws Exception {
+        List<Long> processed = new CopyOnWriteArrayList<>();
+        try (KeyOrderedParallelProcessor<String, String> processor = KeyOrderedParallelProcessor.onVirtualThreads(record -> {
+            if (record.offset() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            processed.add(record.offset());
+        }, 16)) {
+            submit(processor, 3);
+
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofSeconds(5))).isTrue();
+            assertThat(processor.getFailedRecords()).isEqualTo(1);
+            assertThat(processor.committableOffsets(List.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(1));
+        }
+        assertThat(processed).containsExactly(0L, 2L);
+    }
+
+    @Test
+    void givenFailingHandler_whenRetriesAreExhausted_thenRecordIsRecoveredBeforeItIsCommitted() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> recovered = new CopyOnWriteArrayList<>();
+        try (KeyOrderedParallelProcessor<String, String> processor = KeyOrderedParallelProcessor.onVirtualThreads(record -> {
+            if (record.offset() == 1) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("boom");
+            }
+        }, new FixedBackOff(1, 2), (record, e) -> recovered.add(record.offset()), 16)) {
+            submit(processor, 3);
+
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofSeconds(5))).isTrue();
+            assertThat(processor.committableOffsets(List.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(3));
+        }
+        assertThat(attempts).hasValue(3);
+        assertThat(recovered).containsExactly(1L);
+    }
+
+    @Test
+    void givenFailingRecoverer_whenRecordFails_thenCommitStopsBeforeIt() throws Exception {
+        try (KeyOrderedParallelProcessor<String, String> processor = KeyOrderedParallelProcessor.onVirtualThreads(record -> {
+            if (record.offset() == 1) {
+                throw new IllegalStateException("boom");
+            }
+        }, new FixedBackOff(0, 0), (record, e) -> {
+            throw new IllegalStateException("dead letter topic unavailable");
+        }, 16)) {
+            submit(processor, 3);
+
+            assertThat(processor.awaitCompletion(List.of(PARTITION), Duration.ofSeconds(5))).isTrue();
+            assertThat(processor.committableOffsets(List.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(1));
+        }
+    }
+
+    private static void submit(KeyOrderedParallelProcessor<String, String> processor, int records) throws InterruptedException {
+        for (long offset = 0; offset < records; offset++) {
+            processor.submit(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "key", "value"));
+        }
+    }
+
+    private static void sleepMillis(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+              .interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+              .interrupt();
+        }
+    }
+}
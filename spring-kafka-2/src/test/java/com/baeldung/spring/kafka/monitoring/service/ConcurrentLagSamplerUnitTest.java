@@ -0,0 +1,182 @@
+package com.baeldung.spring.kafka.monitoring.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsOptions;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListOffsetsOptions;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.MockAdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentLagSamplerUnitTest {
+
+    private static final String GROUP_ID = "baeldungGrp";
+    private static final TopicPartition PARTITION_0 = new TopicPartition("baeldung", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("baeldung", 1);
+
+    private AllPartitionsMockAdminClient adminClient;
+    private MeterRegistry meterRegistry;
+    private ConcurrentLagSampler sampler;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Node broker = new Node(0, "localhost", 9092);
+        adminClient = new AllPartitionsMockAdminClient(broker);
+        adminClient.createTopics(Collections.singleton(new NewTopic("baeldung", 2, (short) 1)))
+          .all()
+          .get();
+        meterRegistry = new SimpleMeterRegistry();
+        sampler = new ConcurrentLagSampler(adminClient, meterRegistry, Collections.singleton(GROUP_ID), 5,
+          Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+    }
+
+    @Test
+    void givenCommittedAndEndOffsets_whenSampling_thenLagIsPublishedAsGauges() {
+        adminClient.updateEndOffsets(offsets(500L, 40L));
+        adminClient.updateConsumerGroupOffsets(offsets(200L, 40L));
+
+        sampler.sample()
+          .join();
+
+        assertThat(sampler.series(GROUP_ID, PARTITION_0)
+          .latestLag()).isEqualTo(300);
+        assertThat(meterRegistry.get(ConcurrentLagSampler.LAG_GAUGE)
+          .tag("group", GROUP_ID)
+          .tag("partition", "0")
+          .gauge()
+          .value()).isEqualTo(300.0);
+        assertThat(meterRegistry.get(ConcurrentLagSampler.LAG_GAUGE)
+          .tag("partition", "1")
+          .gauge()
+          .value()).isZero();
+    }
+
+    @Test
+    void givenGroupNoLongerSampled_whenSamplingAgain_thenItsGaugesAreRemoved() {
+        Set<String> groups = new HashSet<>(Arrays.asList(GROUP_ID, "otherGrp"));
+        ConcurrentLagSampler sampler = new ConcurrentLagSampler(adminClient, meterRegistry, groups, 5, Clock.systemUTC());
+        adminClient.updateEndOffsets(offsets(500L, 40L));
+        adminClient.updateConsumerGroupOffsets(offsets(200L, 40L));
+        sampler.sample()
+          .join();
+
+        groups.remove("otherGrp");
+        sampler.sample()
+          .join();
+
+        assertThat(sampler.allSeries()).hasSize(2)
+          .allMatch(series -> GROUP_ID.equals(series.getGroupId()));
+        assertThat(meterRegistry.find(ConcurrentLagSampler.LAG_RATE_GAUGE)
+          .gauges()).hasSize(2);
+    }
+
+    @Test
+    void givenCommittedOffsetsLookupFails_whenSamplingAgain_thenSeriesIsKeptButGaugesReportNaN() {
+        adminClient.updateEndOffsets(offsets(500L, 40L));
+        adminClient.updateConsumerGroupOffsets(offsets(200L, 40L));
+        sampler.sample()
+          .join();
+
+        adminClient.throwOnListConsumerGroupOffsets(new TimeoutException("coordinator not available"));
+        sampler.sample()
+          .join();
+
+        assertThat(sampler.series(GROUP_ID, PARTITION_0)
+          .latestLag()).isEqualTo(300);
+        assertThat(meterRegistry.find(ConcurrentLagSampler.LAG_GAUGE)
+          .gauges()).hasSize(2)
+          .allMatch(gauge -> Double.isNaN(gauge.value()));
+    }
+
+    @Test
+    void givenEndOffsetLookupFails_whenSamplingAgain_thenGaugesReportNaNUntilTheLookupSucceeds() {
+        adminClient.updateEndOffsets(offsets(500L, 40L));
+        adminClient.updateConsumerGroupOffsets(offsets(200L, 40L));
+        sampler.sample()
+          .join();
+
+        adminClient.failListOffsets = true;
+        sampler.sample()
+          .join();
+
+        assertThat(sampler.allSeries()).hasSize(2);
+        assertThat(meterRegistry.find(ConcurrentLagSampler.LAG_RATE_GAUGE)
+          .gauges()).hasSize(2)
+          .allMatch(gauge -> Double.isNaN(gauge.value()));
+
+        adminClient.failListOffsets = false;
+        sampler.sample()
+          .join();
+
+        assertThat(meterRegistry.get(ConcurrentLagSampler.LAG_GAUGE)
+          .tag("partition", "0")
+          .gauge()
+          .value()).isEqualTo(300.0);
+    }
+
+    private static Map<TopicPartition, Long> offsets(long partition0, long partition1) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        offsets.put(PARTITION_0, partition0);
+        offsets.put(PARTITION_1, partition1);
+        return offsets;
+    }
+
+    /**
+     * {@link MockAdminClient} does not support specs without explicit partitions, which the real
+     * client treats as "all committed partitions". It can also be told to fail end offset lookups.
+     */
+    private static class AllPartitionsMockAdminClient extends MockAdminClient {
+
+        private volatile boolean failListOffsets;
+
+        AllPartitionsMockAdminClient(Node broker) {
+            super(Collections.singletonList(broker), broker);
+        }
+
+        @Override
+        public synchronized ListConsumerGroupOffsetsResult listConsumerGroupOffsets(Map<String, ListConsumerGroupOffsetsSpec> groupSpecs,
+          ListConsumerGroupOffsetsOptions options) {
+            Map<String, ListConsumerGroupOffsetsSpec> specs = new HashMap<>();
+            groupSpecs.forEach((groupId, spec) -> specs.put(groupId, spec.topicPartitions() != null ? spec
+              : new ListConsumerGroupOffsetsSpec().topicPartitions(Arrays.asList(PARTITION_0, PARTITION_1))));
+            return super.listConsumerGroupOffsets(specs, options);
+        }
+
+        @Override
+        public synchronized ListOffsetsResult listOffsets(Map<TopicPartition, OffsetSpec> topicPartitionOffsets, ListOffsetsOptions options) {
+            if (!failListOffsets) {
+                return super.listOffsets(topicPartitionOffsets, options);
+            }
+            Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> futures = new HashMap<>();
+            topicPartitionOffsets.keySet()
+              .forEach(partition -> {
+                  KafkaFutureImpl<ListOffsetsResult.ListOffsetsResultInfo> future = new KafkaFutureImpl<>();
+                  future.completeExceptionally(new TimeoutException("leader not available"));
+                  futures.put(partition, future);
+              });
+            return new ListOffsetsResult(futures);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.baeldung.spring.kafka.monitoring.service;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PartitionLagSeriesUnitTest {
+
+    private final PartitionLagSeries series = new PartitionLagSeries("group", new TopicPartition("topic", 0), 3);
+
+    @Test
+    void givenNoSamples_whenReadingSeries_thenLagAndRateAreZero() {
+        assertThat(series.latestLag()).isZero();
+        assertThat(series.lagRatePerSecond()).isZero();
+    }
+
+    @Test
+    void givenGrowingLag_whenComputingRate_thenRateIsPositive() {
+        series.record(1_000, 100);
+        series.record(2_000, 300);
+
+        assertThat(series.latestLag()).isEqualTo(300);
+        assertThat(series.lagRatePerSecond()).isCloseTo(200.0, within(0.001));
+    }
+
+    @Test
+    void givenMoreSamplesThanCapacity_whenComputingRate_thenOnlyRetainedWindowIsUsed() {
+        series.record(1_000, 10_000);
+        series.record(2_000, 400);
+        series.record(3_000, 300);
+        series.record(4_000, 200);
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.latestLag()).isEqualTo(200);
+        assertThat(series.lagRatePerSecond()).isCloseTo(-100.0, within(0.001));
+    }
+}
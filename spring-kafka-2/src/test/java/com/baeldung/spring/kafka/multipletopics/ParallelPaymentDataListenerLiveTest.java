@@ -0,0 +1,156 @@
+package com.baeldung.spring.kafka.multipletopics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Sends payments with a couple of milliseconds of handling time each through the {@code @KafkaListener} of
+ * {@link ParallelPaymentDataListener}, then consumes the same partition record by record on a plain consumer,
+ * and logs the records/sec of both.
+ */
+@SpringBootTest(classes = KafkaMultipleTopicsApplication.class,
+    properties = { "spring.kafka.bootstrap-servers=localhost:9097", "payments.parallel.enabled=true" })
+@EmbeddedKafka(partitions = 1, brokerProperties = { "listeners=PLAINTEXT://localhost:9097", "port=9097" },
+    topics = { ParallelPaymentDataListenerLiveTest.TOPIC, "bank-transfers" })
+@ActiveProfiles("multipletopics")
+class ParallelPaymentDataListenerLiveTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelPaymentDataListenerLiveTest.class);
+
+    static final String TOPIC = "card-payments";
+    private static final String BOOTSTRAP_SERVERS = "localhost:9097";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    private static final int RECORDS = 5_000;
+    private static final int KEYS = 200;
+    private static final long HANDLER_MILLIS = 2;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @SpyBean
+    private PaymentEventHandler paymentEventHandler;
+
+    @Test
+    void givenSlowHandler_whenListenerProcessesKeysInParallel_thenThroughputIsHigherAndEveryOffsetIsCommitted() throws Exception {
+        assertThat(context.getBeanNamesForType(PaymentDataListener.class)).isEmpty();
+        // the listener starts from the latest offset, so it must own the partitions before anything is sent
+        ContainerTestUtils.waitForAssignment(kafkaListenerEndpointRegistry.getListenerContainer(ParallelPaymentDataListener.LISTENER_ID), 2);
+
+        LongAdder handled = new LongAdder();
+        AtomicLong outOfOrder = new AtomicLong();
+        Map<String, Long> lastAmountByReference = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            PaymentData paymentData = invocation.getArgument(0);
+            long amount = paymentData.getAmount()
+              .longValue();
+            Long previous = lastAmountByReference.put(paymentData.getPaymentReference(), amount);
+            if (previous != null && previous > amount) {
+                outOfOrder.incrementAndGet();
+            }
+            sleep();
+            handled.increment();
+            return null;
+        }).when(paymentEventHandler)
+          .handle(any(), any());
+
+        long start = System.nanoTime();
+        producePayments();
+        while (committedOffset("payments-parallel") < RECORDS) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        double parallel = RECORDS * 1e9 / (System.nanoTime() - start);
+        double sequential = sequentialRecordsPerSecond();
+
+        LOGGER.info("sequential: {} records/sec", String.format("%.0f", sequential));
+        LOGGER.info("key-ordered parallel listener: {} records/sec", String.format("%.0f", parallel));
+        assertThat(handled.sum()).isEqualTo(RECORDS);
+        assertThat(outOfOrder).hasValue(0);
+        assertThat(parallel).isGreaterThan(sequential);
+    }
+
+    private static void producePayments() {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(
+          Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS, ProducerConfig.LINGER_MS_CONFIG, 5), new StringSerializer(),
+          new StringSerializer())) {
+            for (int i = 0; i < RECORDS; i++) {
+                String reference = "payment-" + i % KEYS;
+                producer.send(new ProducerRecord<>(TOPIC, reference,
+                  "{\"paymentReference\":\"" + reference + "\",\"type\":\"card\",\"amount\":" + i + ",\"currency\":\"EUR\"}"));
+            }
+        }
+    }
+
+    private static double sequentialRecordsPerSecond() {
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(
+          Map.of(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS, ConsumerConfig.GROUP_ID_CONFIG, "payments-sequential",
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest", ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false), new StringDeserializer(),
+          new StringDeserializer())) {
+            consumer.subscribe(List.of(TOPIC));
+            long processed = 0;
+            long start = System.nanoTime();
+            while (processed < RECORDS) {
+                for (ConsumerRecord<String, String> ignored : consumer.poll(Duration.ofMillis(100))) {
+                    sleep();
+                    processed++;
+                }
+                consumer.commitSync();
+            }
+            return RECORDS * 1e9 / (System.nanoTime() - start);
+        }
+    }
+
+    private static long committedOffset(String groupId) throws Exception {
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS))) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(groupId)
+              .partitionsToOffsetAndMetadata()
+              .get();
+            OffsetAndMetadata offset = offsets.get(PARTITION);
+            return offset == null ? 0 : offset.offset();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(HANDLER_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+              .interrupt();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.baeldung.spring.kafka.delay;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hierarchical timing wheel: each level has {@code wheelSize} buckets, and every level
+ * covers {@code wheelSize} times the span of the level below it. Adding an item is O(1) whatever its
+ * delay, and advancing the clock only touches the buckets whose time has come, cascading items from
+ * coarse levels down to finer ones as they get closer to their due time.
+ * <p>
+ * Items are never emitted before they are due. The wheel is not thread-safe.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int capacity;
+    private final Level<T> root;
+    private final List<Entry<T>> ready = new ArrayList<>();
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int capacity, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2 || capacity < 1) {
+            throw new IllegalArgumentException("tickMillis and capacity must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.capacity = capacity;
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    /**
+     * @return {@code false} if the wheel already holds {@code capacity} items
+     */
+    public boolean offer(T item, long dueAtMillis) {
+        if (size >= capacity) {
+            return false;
+        }
+        insert(new Entry<>(item, dueAtMillis));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis} and hands every item due by then to the dispatcher.
+     *
+     * @return the number of dispatched items
+     */
+    public int advance(long nowMillis, Consumer<T> dispatcher) {
+        if (size == 0) {
+            for (Level<T> level = root; level != null; level = level.overflow) {
+                level.moveTo(nowMillis);
+            }
+            return 0;
+        }
+        while (root.currentTime + tickMillis <= nowMillis) {
+            long time = root.currentTime + tickMillis;
+            root.moveTo(time);
+            cascade(root.overflow, time);
+            ready.addAll(root.drain(time));
+        }
+        return dispatchReady(nowMillis, dispatcher);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void cascade(Level<T> level, long time) {
+        if (level == null || Math.floorMod(time, level.tickMillis) != 0) {
+            return;
+        }
+        level.moveTo(time);
+        cascade(level.overflow, time);
+        level.drain(time)
+            .forEach(this::insert);
+    }
+
+    private int dispatchReady(long nowMillis, Consumer<T> dispatcher) {
+        int dispatched = 0;
+        List<Entry<T>> notYetDue = new ArrayList<>();
+        for (Entry<T> entry : ready) {
+            if (entry.dueAtMillis <= nowMillis) {
+                size--;
+                dispatched++;
+                dispatcher.accept(entry.item);
+            } else {
+                notYetDue.add(entry);
+            }
+        }
+        ready.clear();
+        ready.addAll(notYetDue);
+        return dispatched;
+    }
+
+    private void insert(Entry<T> entry) {
+        if (entry.dueAtMillis < root.currentTime + tickMillis) {
+            ready.add(entry);
+            return;
+        }
+        Level<T> level = root;
+        while (entry.dueAtMillis >= level.currentTime + level.intervalMillis) {
+            if (level.overflow == null) {
+                long overflowTick = level.intervalMillis;
+                level.overflow = new Level<>(overflowTick, wheelSize, level.currentTime - Math.floorMod(level.currentTime, overflowTick));
+            }
+            level = level.overflow;
+        }
+        level.add(entry);
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMillis;
+        private final long intervalMillis;
+        private final ArrayDeque<Entry<T>>[] buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize, long currentTime) {
+            this.tickMillis = tickMillis;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.buckets = new ArrayDeque[wheelSize];
+            this.currentTime = currentTime;
+        }
+
+        private void moveTo(long time) {
+            currentTime = time - Math.floorMod(time, tickMillis);
+        }
+
+        private void add(Entry<T> entry) {
+            int index = (int) Math.floorMod(entry.dueAtMillis / tickMillis, (long) buckets.length);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayDeque<>();
+            }
+            buckets[index].add(entry);
+        }
+
+        private List<Entry<T>> drain(long time) {
+            int index = (int) Math.floorMod(time / tickMillis, (long) buckets.length);
+            ArrayDeque<Entry<T>> bucket = buckets[index];
+            if (bucket == null || bucket.isEmpty()) {
+                return List.of();
+            }
+            List<Entry<T>> drained = new ArrayList<>(bucket);
+            bucket.clear();
+            return drained;
+        }
+    }
+
+    private record Entry<T>(T item, long dueAtMillis) {
+    }
+}
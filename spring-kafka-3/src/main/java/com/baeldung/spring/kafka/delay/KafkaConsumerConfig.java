@@ -1,11 +1,19 @@
 package com.baeldung.spring.kafka.delay;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerPartitionPausingBackOffManager;
 import org.springframework.kafka.listener.ContainerPausingBackOffHandler;
@@ -14,6 +22,7 @@ import org.springframework.kafka.listener.KafkaConsumerBackoffManager;
 import org.springframework.kafka.listener.ListenerContainerPauseService;
 import org.springframework.kafka.listener.ListenerContainerRegistry;
 import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
@@ -24,23 +33,81 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 @Configuration
 public class KafkaConsumerConfig {
 
+    private static final Duration TIMING_WHEEL_TICK = Duration.ofMillis(10);
+    private static final int TIMING_WHEEL_SIZE = 512;
+    private static final int TIMING_WHEEL_CAPACITY = 1_000_000;
+    private static final Duration TIMING_WHEEL_COMMIT_INTERVAL = Duration.ofSeconds(1);
+
+    private final Map<String, TimingWheelDelayedMessageListenerAdapter<Object, Object>> timingWheelAdapters = new ConcurrentHashMap<>();
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(ConsumerFactory<Object, Object> consumerFactory,
-        ListenerContainerRegistry registry, TaskScheduler scheduler) {
+        ListenerContainerRegistry registry, TaskScheduler scheduler, @Value("${orders.delay.web-orders:10s}") Duration webOrdersDelay,
+        @Value("${orders.delay.timing-wheel.enabled:false}") boolean timingWheelEnabled) {
         ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         KafkaConsumerBackoffManager backOffManager = createBackOffManager(registry, scheduler);
+        if (timingWheelEnabled) {
+            configureTimingWheelDelay(factory, backOffManager, webOrdersDelay);
+            return factory;
+        }
         factory.getContainerProperties()
             .setAckMode(ContainerProperties.AckMode.RECORD);
         factory.setContainerCustomizer(container -> {
             DelayedMessageListenerAdapter<Object, Object> delayedAdapter = wrapWithDelayedMessageListenerAdapter(backOffManager, container);
-            delayedAdapter.setDelayForTopic("web.orders", Duration.ofSeconds(10));
+            delayedAdapter.setDelayForTopic("web.orders", webOrdersDelay);
             delayedAdapter.setDefaultDelay(Duration.ZERO);
             container.setupMessageListener(delayedAdapter);
         });
         return factory;
     }
 
+    /**
+     * Offsets of delayed records are committed by the adapter, so the container must not commit on its
+     * own, and idle events give the adapter a chance to commit on the consumer thread when no records arrive.
+     */
+    private void configureTimingWheelDelay(ConcurrentKafkaListenerContainerFactory<Object, Object> factory, KafkaConsumerBackoffManager backOffManager,
+        Duration webOrdersDelay) {
+        factory.getContainerProperties()
+            .setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties()
+            .setIdleEventInterval(TIMING_WHEEL_COMMIT_INTERVAL.toMillis());
+        factory.setContainerCustomizer(container -> {
+            TimingWheelDelayedMessageListenerAdapter<Object, Object> delayedAdapter = wrapWithTimingWheelDelayedMessageListenerAdapter(backOffManager,
+                container);
+            delayedAdapter.setDelayForTopic("web.orders", webOrdersDelay);
+            delayedAdapter.setDefaultDelay(Duration.ZERO);
+            delayedAdapter.setCommitInterval(TIMING_WHEEL_COMMIT_INTERVAL);
+            container.getContainerProperties()
+                .setConsumerRebalanceListener(delayedAdapter);
+            container.setupMessageListener(delayedAdapter);
+            timingWheelAdapters.put(container.getListenerId(), delayedAdapter);
+        });
+    }
+
+    /**
+     * Only the adapter of the idle container may use its consumer, on that consumer's thread. The event's own listener
+     * id is the one of the child container, so the adapter is looked up by the id of the concurrent container owning it.
+     */
+    @EventListener
+    public void commitDelayedOffsetsWhenIdle(ListenerContainerIdleEvent event) {
+        TimingWheelDelayedMessageListenerAdapter<Object, Object> adapter = timingWheelAdapters.get(event.getContainer(MessageListenerContainer.class)
+            .getListenerId());
+        if (adapter != null) {
+            adapter.commitCompleted(event.getConsumer());
+        }
+    }
+
+    @PreDestroy
+    public void closeTimingWheelAdapters() {
+        timingWheelAdapters.values()
+            .forEach(TimingWheelDelayedMessageListenerAdapter::close);
+    }
+
+    public Collection<TimingWheelDelayedMessageListenerAdapter<Object, Object>> getTimingWheelAdapters() {
+        return timingWheelAdapters.values();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper().registerModule(new JavaTimeModule())
@@ -59,6 +126,13 @@ public class KafkaConsumerConfig {
             .getMessageListener(), backOffManager, container.getListenerId());
     }
 
+    @SuppressWarnings("unchecked")
+    private TimingWheelDelayedMessageListenerAdapter<Object, Object> wrapWithTimingWheelDelayedMessageListenerAdapter(
+        KafkaConsumerBackoffManager backOffManager, ConcurrentMessageListenerContainer<Object, Object> container) {
+        return new TimingWheelDelayedMessageListenerAdapter<>((MessageListener<Object, Object>) container.getContainerProperties()
+            .getMessageListener(), backOffManager, container.getListenerId(), TIMING_WHEEL_TICK, TIMING_WHEEL_SIZE, TIMING_WHEEL_CAPACITY);
+    }
+
     private ContainerPartitionPausingBackOffManager createBackOffManager(ListenerContainerRegistry registry, TaskScheduler scheduler) {
         return new ContainerPartitionPausingBackOffManager(registry,
             new ContainerPausingBackOffHandler(new ListenerContainerPauseService(registry, scheduler)));
@@ -1,16 +1,16 @@
 package com.baeldung.spring.kafka.delay;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Service;
 
 @Service
 public class OrderService {
 
-    HashMap<UUID, Order> orders = new HashMap<>();
+    Map<UUID, Order> orders = new ConcurrentHashMap<>();
 
     public Status findStatusById(UUID orderId) {
         return Status.ORDER_CONFIRMED;
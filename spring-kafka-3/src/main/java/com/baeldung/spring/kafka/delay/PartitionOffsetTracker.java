@@ -0,0 +1,52 @@
+package com.baeldung.spring.kafka.delay;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tracks the offsets of one partition that were received but not processed yet, so the consumer
+ * only commits up to the first gap even though delayed records complete out of order.
+ * <p>
+ * {@link #received(long)}, {@link #rejected(long)} and {@link #committableOffset()} must be called
+ * from the consumer thread, {@link #completed(long)} may be called from any thread.
+ */
+public class PartitionOffsetTracker {
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long nextOffset = -1;
+    private long committedOffset = -1;
+
+    public void received(long offset) {
+        inFlight.add(offset);
+        nextOffset = offset + 1;
+    }
+
+    /**
+     * Forgets a record that will be redelivered, e.g. because the partition was paused instead.
+     */
+    public void rejected(long offset) {
+        inFlight.remove(offset);
+        nextOffset = offset;
+    }
+
+    public void completed(long offset) {
+        inFlight.remove(offset);
+    }
+
+    /**
+     * @return the offset to commit, i.e. the lowest offset still in flight or the one after the last
+     * received record; -1 if nothing new can be committed
+     */
+    public long committableOffset() {
+        Long lowestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        long committable = lowestInFlight != null ? lowestInFlight : nextOffset;
+        return committable > committedOffset ? committable : -1;
+    }
+
+    public void committed(long offset) {
+        committedOffset = Math.max(committedOffset, offset);
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
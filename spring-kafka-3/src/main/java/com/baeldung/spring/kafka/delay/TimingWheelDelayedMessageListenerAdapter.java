@@ -0,0 +1,351 @@
+package com.baeldung.spring.kafka.delay;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.KafkaBackoffException;
+import org.springframework.kafka.listener.KafkaConsumerBackoffManager;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.adapter.AbstractDelegatingMessageListenerAdapter;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Delays records by parking them in a {@link HierarchicalTimingWheel} instead of pausing and
+ * re-seeking the partition for every record, so the consumer keeps fetching while records wait.
+ * <p>
+ * Every record, including one that is already due, goes through the wheel and is handed to the
+ * delegate on its single dispatcher thread. Due times never decrease within a partition, so records
+ * of a partition reach the delegate in offset order. Since records of different partitions complete
+ * out of order, the container must not commit on its own (use {@code AckMode.MANUAL} and never
+ * acknowledge): the adapter commits the highest contiguous completed offset of every partition from
+ * the consumer thread. Only when the wheel is full does it fall back to the
+ * {@link KafkaConsumerBackoffManager}, pausing the partition until there is room again.
+ * <p>
+ * When the delegate throws, the dispatcher stops handing over records of that partition. The
+ * consumer thread then seeks the partition back to the failed record and, when it is redelivered,
+ * rethrows the exception so that the container's error handler decides whether to retry or recover it.
+ */
+public class TimingWheelDelayedMessageListenerAdapter<K, V> extends AbstractDelegatingMessageListenerAdapter<MessageListener<K, V>>
+    implements AcknowledgingConsumerAwareMessageListener<K, V>, ConsumerAwareRebalanceListener, AutoCloseable {
+
+    private static final Duration DEFAULT_DELAY_VALUE = Duration.of(0, ChronoUnit.SECONDS);
+
+    private final String listenerId;
+
+    private final KafkaConsumerBackoffManager kafkaConsumerBackoffManager;
+
+    private final HierarchicalTimingWheel<DelayedRecord<K, V>> wheel;
+
+    private final Map<String, Duration> delaysPerTopic = new ConcurrentHashMap<>();
+
+    private final Map<TopicPartition, PartitionOffsetTracker> trackers = new ConcurrentHashMap<>();
+
+    private final Map<TopicPartition, FailedRecord<K, V>> failures = new ConcurrentHashMap<>();
+
+    // only used by the consumer threads, each for the partitions assigned to it
+    private final Map<TopicPartition, Long> lastDueAt = new ConcurrentHashMap<>();
+
+    // only used by the consumer threads, each for the partitions assigned to it
+    private final Map<TopicPartition, FailedRecord<K, V>> awaitingRedelivery = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService dispatcher;
+
+    private final Clock clock;
+
+    private final AtomicLong dispatchedRecords = new AtomicLong();
+
+    private final AtomicLong spilledRecords = new AtomicLong();
+
+    private Duration defaultDelay = DEFAULT_DELAY_VALUE;
+
+    private Duration spillPause = Duration.ofSeconds(1);
+
+    private Duration commitInterval = Duration.ofSeconds(1);
+
+    private volatile long lastCommitMillis;
+
+    public TimingWheelDelayedMessageListenerAdapter(MessageListener<K, V> delegate, KafkaConsumerBackoffManager kafkaConsumerBackoffManager,
+        String listenerId, Duration tick, int wheelSize, int capacity) {
+        this(delegate, kafkaConsumerBackoffManager, listenerId, tick, wheelSize, capacity, Clock.systemUTC());
+    }
+
+    TimingWheelDelayedMessageListenerAdapter(MessageListener<K, V> delegate, KafkaConsumerBackoffManager kafkaConsumerBackoffManager, String listenerId,
+        Duration tick, int wheelSize, int capacity, Clock clock) {
+        super(delegate);
+        Objects.requireNonNull(kafkaConsumerBackoffManager, "kafkaConsumerBackoffManager cannot be null");
+        Objects.requireNonNull(listenerId, "listenerId cannot be null");
+        this.kafkaConsumerBackoffManager = kafkaConsumerBackoffManager;
+        this.listenerId = listenerId;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), wheelSize, capacity, clock.millis());
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, listenerId + "-delay-dispatcher"));
+        this.dispatcher.scheduleAtFixedRate(this::dispatchDueRecords, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<K, V> consumerRecord, Acknowledgment acknowledgment, Consumer<?, ?> consumer) throws KafkaBackoffException {
+        TopicPartition topicPartition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+        if (consumer != null) {
+            rewindFailedPartitions(consumer);
+        }
+        FailedRecord<K, V> failed = awaitingRedelivery.get(topicPartition);
+        if (failed != null) {
+            if (consumerRecord.offset() == failed.offset()) {
+                awaitingRedelivery.remove(topicPartition);
+                throw failed.exception();
+            }
+            if (consumerRecord.offset() > failed.offset()) {
+                // left over from the poll that preceded the seek, it is redelivered after the failed record
+                return;
+            }
+        }
+
+        PartitionOffsetTracker tracker = trackers.computeIfAbsent(topicPartition, tp -> new PartitionOffsetTracker());
+        long dueAt = consumerRecord.timestamp() + delaysPerTopic.getOrDefault(consumerRecord.topic(), this.defaultDelay)
+            .toMillis();
+        // a record must not overtake an earlier one of its partition, e.g. because its timestamp is older
+        dueAt = Math.max(dueAt, lastDueAt.getOrDefault(topicPartition, Long.MIN_VALUE));
+
+        DelayedRecord<K, V> delayedRecord = new DelayedRecord<>(consumerRecord, tracker);
+        tracker.received(consumerRecord.offset());
+        boolean accepted;
+        synchronized (wheel) {
+            accepted = wheel.offer(delayedRecord, dueAt);
+        }
+        if (accepted) {
+            lastDueAt.put(topicPartition, dueAt);
+        } else {
+            tracker.rejected(consumerRecord.offset());
+            spilledRecords.incrementAndGet();
+            this.kafkaConsumerBackoffManager.backOffIfNecessary(this.kafkaConsumerBackoffManager.createContext(clock.millis() + spillPause.toMillis(),
+                this.listenerId, topicPartition, consumer));
+        }
+
+        if (consumer != null && clock.millis() - lastCommitMillis >= commitInterval.toMillis()) {
+            commitCompleted(consumer);
+        }
+    }
+
+    /**
+     * Commits the contiguous completed offsets of the partitions assigned to the given consumer.
+     * Must be called on that consumer's thread, e.g. from a {@code ListenerContainerIdleEvent} listener.
+     */
+    public void commitCompleted(Consumer<?, ?> consumer) {
+        rewindFailedPartitions(consumer);
+        Map<TopicPartition, OffsetAndMetadata> offsets = completedOffsets(consumer, consumer.assignment());
+        if (!offsets.isEmpty()) {
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e != null) {
+                    this.logger.warn(e, () -> "Failed to commit delayed record offsets " + committed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Commits synchronously: an asynchronous commit could complete after the partitions were assigned
+     * to another consumer, which would then start from an older offset and process records again.
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = completedOffsets(consumer, partitions);
+        try {
+            if (!offsets.isEmpty()) {
+                consumer.commitSync(offsets);
+            }
+        } catch (KafkaException e) {
+            this.logger.warn(e, () -> "Failed to commit delayed record offsets " + offsets + " of revoked partitions");
+        } finally {
+            forget(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forget(partitions);
+    }
+
+    public void setDelayForTopic(String topic, Duration delay) {
+        Objects.requireNonNull(topic, "Topic cannot be null");
+        Objects.requireNonNull(delay, "Delay cannot be null");
+        this.logger.debug(() -> String.format("Setting %s seconds delay for topic %s", delay, topic));
+        this.delaysPerTopic.put(topic, delay);
+    }
+
+    public void setDefaultDelay(Duration delay) {
+        Objects.requireNonNull(delay, "Delay cannot be null");
+        this.logger.debug(() -> String.format("Setting %s seconds delay for listener id %s", delay, this.listenerId));
+        this.defaultDelay = delay;
+    }
+
+    public void setSpillPause(Duration spillPause) {
+        this.spillPause = Objects.requireNonNull(spillPause, "Spill pause cannot be null");
+    }
+
+    public void setCommitInterval(Duration commitInterval) {
+        this.commitInterval = Objects.requireNonNull(commitInterval, "Commit interval cannot be null");
+    }
+
+    public long getDispatchedRecords() {
+        return dispatchedRecords.get();
+    }
+
+    public long getSpilledRecords() {
+        return spilledRecords.get();
+    }
+
+    public int getBufferedRecords() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> completedOffsets(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        lastCommitMillis = clock.millis();
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition topicPartition : partitions) {
+            PartitionOffsetTracker tracker = trackers.get(topicPartition);
+            long committable = tracker == null ? -1 : tracker.committableOffset();
+            if (committable >= 0) {
+                offsets.put(topicPartition, new OffsetAndMetadata(committable));
+                tracker.committed(committable);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Seeks every partition of the given consumer whose delegate failed back to the failed record. Records
+     * of the partition still in the wheel belong to the replaced tracker and are skipped by the dispatcher.
+     * A failure is only forgotten once the seek succeeded, failures of partitions assigned to another
+     * consumer are left for that consumer.
+     */
+    private void rewindFailedPartitions(Consumer<?, ?> consumer) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        Set<TopicPartition> assignment = consumer.assignment();
+        for (Map.Entry<TopicPartition, FailedRecord<K, V>> entry : failures.entrySet()) {
+            TopicPartition topicPartition = entry.getKey();
+            FailedRecord<K, V> failed = entry.getValue();
+            if (trackers.get(topicPartition) != failed.tracker()) {
+                failures.remove(topicPartition, failed);
+                continue;
+            }
+            if (!assignment.contains(topicPartition)) {
+                continue;
+            }
+            consumer.seek(topicPartition, failed.offset());
+            // the records before the failed one are done, so the new tracker may commit up to it
+            PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+            tracker.rejected(failed.offset());
+            trackers.put(topicPartition, tracker);
+            lastDueAt.remove(topicPartition);
+            awaitingRedelivery.put(topicPartition, failed);
+            failures.remove(topicPartition, failed);
+        }
+    }
+
+    private void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(topicPartition -> {
+            trackers.remove(topicPartition);
+            failures.remove(topicPartition);
+            lastDueAt.remove(topicPartition);
+            awaitingRedelivery.remove(topicPartition);
+        });
+    }
+
+    private void dispatchDueRecords() {
+        List<DelayedRecord<K, V>> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(clock.millis(), due::add);
+        }
+        due.forEach(this::dispatch);
+    }
+
+    private void dispatch(DelayedRecord<K, V> delayedRecord) {
+        ConsumerRecord<K, V> consumerRecord = delayedRecord.consumerRecord();
+        PartitionOffsetTracker tracker = delayedRecord.tracker();
+        TopicPartition topicPartition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+        if (trackers.get(topicPartition) != tracker) {
+            // the partition was revoked or rewound since, the record is redelivered
+            return;
+        }
+        FailedRecord<K, V> failed = failures.get(topicPartition);
+        if (failed != null && failed.tracker() == tracker) {
+            // an earlier record of the partition failed, this one is redelivered after it
+            return;
+        }
+        dispatchedRecords.incrementAndGet();
+        try {
+            invokeDelegateOnMessage(consumerRecord);
+        } catch (RuntimeException e) {
+            // the offset stays in flight, so nothing at or after it is committed before the consumer thread rewinds
+            failures.put(topicPartition, new FailedRecord<>(consumerRecord.offset(), tracker, e));
+            return;
+        }
+        tracker.completed(consumerRecord.offset());
+    }
+
+    private void invokeDelegateOnMessage(ConsumerRecord<K, V> consumerRecord) {
+        switch (this.delegateType) {
+            case ACKNOWLEDGING_CONSUMER_AWARE:
+                this.delegate.onMessage(consumerRecord, null, null);
+                break;
+            case ACKNOWLEDGING:
+                this.delegate.onMessage(consumerRecord, (Acknowledgment) null);
+                break;
+            case CONSUMER_AWARE:
+                this.delegate.onMessage(consumerRecord, (Consumer<?, ?>) null);
+                break;
+            case SIMPLE:
+                this.delegate.onMessage(consumerRecord);
+        }
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<K, V> data) {
+        onMessage(data, null, null);
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<K, V> data, Acknowledgment acknowledgment) {
+        onMessage(data, acknowledgment, null);
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<K, V> data, Consumer<?, ?> consumer) {
+        onMessage(data, null, consumer);
+    }
+
+    private record DelayedRecord<K, V>(ConsumerRecord<K, V> consumerRecord, PartitionOffsetTracker tracker) {
+    }
+
+    private record FailedRecord<K, V>(long offset, PartitionOffsetTracker tracker, RuntimeException exception) {
+    }
+}
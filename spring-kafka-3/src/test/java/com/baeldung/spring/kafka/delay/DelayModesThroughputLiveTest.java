@@ -0,0 +1,116 @@
+package com.baeldung.spring.kafka.delay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Feeds the same stream of delayed orders through the back-off delay mode and the timing wheel delay
+ * mode, each against its own in-JVM broker, and logs records/sec and how late orders were processed.
+ */
+class DelayModesThroughputLiveTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DelayModesThroughputLiveTest.class);
+
+    private static final int ORDERS = 20_000;
+    private static final int ORDERS_PER_SECOND = 4_000;
+    private static final Duration DELAY = Duration.ofSeconds(2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    @Test
+    void givenSteadyStreamOfDelayedOrders_whenComparingDelayModes_thenBothProcessEveryOrder() throws Exception {
+        Result backOff = run(false);
+        Result timingWheel = run(true);
+
+        LOGGER.info("back-off:     {}", backOff);
+        LOGGER.info("timing wheel: {}", timingWheel);
+        assertThat(backOff.processed()).isEqualTo(ORDERS);
+        assertThat(timingWheel.processed()).isEqualTo(ORDERS);
+    }
+
+    private Result run(boolean timingWheelEnabled) throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 4, "web.orders", "web.internal.orders");
+        broker.afterPropertiesSet();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(KafkaDelayApplication.class).properties(
+                "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(), "spring.kafka.consumer.auto-offset-reset=earliest",
+                "orders.delay.web-orders=" + DELAY.toMillis() + "ms", "orders.delay.timing-wheel.enabled=" + timingWheelEnabled)
+            .run(); KafkaProducer<String, String> producer = createProducer(broker.getBrokersAsString())) {
+            OrderService orderService = context.getBean(OrderService.class);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ORDERS; i++) {
+                Order order = Order.builder()
+                    .orderId(UUID.randomUUID())
+                    .price(1.0)
+                    .orderGeneratedDateTime(LocalDateTime.now())
+                    .address(List.of("41 Felix Avenue, Luton"))
+                    .build();
+                producer.send(new ProducerRecord<>("web.orders", objectMapper.writeValueAsString(order)));
+                pace(start, i + 1);
+            }
+            await().atMost(Duration.ofMinutes(10))
+                .until(() -> orderService.getOrders()
+                    .size() >= ORDERS);
+            long elapsedNanos = System.nanoTime() - start;
+
+            return new Result(orderService.getOrders()
+                .size(), ORDERS * 1_000_000_000.0 / elapsedNanos, lateness(orderService.getOrders(), 0.5), lateness(orderService.getOrders(), 0.99));
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static void pace(long start, int sent) throws InterruptedException {
+        long expectedNanos = sent * 1_000_000_000L / ORDERS_PER_SECOND;
+        long aheadNanos = expectedNanos - (System.nanoTime() - start);
+        if (aheadNanos > 1_000_000) {
+            Thread.sleep(aheadNanos / 1_000_000);
+        }
+    }
+
+    private static long lateness(Map<UUID, Order> orders, double percentile) {
+        long[] latenessMillis = orders.values()
+            .stream()
+            .mapToLong(order -> Duration.between(order.getOrderGeneratedDateTime(), order.getOrderProcessedTime())
+                .minus(DELAY)
+                .toMillis())
+            .toArray();
+        Arrays.sort(latenessMillis);
+        return latenessMillis[(int) Math.min(latenessMillis.length - 1, Math.ceil(percentile * latenessMillis.length) - 1)];
+    }
+
+    private static KafkaProducer<String, String> createProducer(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        return new KafkaProducer<>(props);
+    }
+
+    private record Result(int processed, double recordsPerSecond, long p50LatenessMillis, long p99LatenessMillis) {
+    }
+}
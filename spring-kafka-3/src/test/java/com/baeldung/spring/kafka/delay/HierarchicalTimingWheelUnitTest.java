@@ -0,0 +1,78 @@
+package com.baeldung.spring.kafka.delay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelUnitTest {
+
+    private final List<Long> dispatched = new ArrayList<>();
+
+    @Test
+    void givenItemsWithinFirstLevel_whenAdvancing_thenItemsAreDispatchedOnlyOnceDue() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 100, 0);
+        wheel.offer(35L, 35);
+        wheel.offer(12L, 12);
+
+        wheel.advance(30, dispatched::add);
+        assertThat(dispatched).containsExactly(12L);
+
+        wheel.advance(34, dispatched::add);
+        assertThat(dispatched).containsExactly(12L);
+
+        wheel.advance(35, dispatched::add);
+        assertThat(dispatched).containsExactly(12L, 35L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void givenDelaysSpanningSeveralLevels_whenAdvancingTickByTick_thenEveryItemIsDispatchedAtItsDueTime() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 4, 10_000, 0);
+        Random random = new Random(42);
+        List<Long> dueTimes = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long dueAt = 1 + random.nextInt(5_000);
+            dueTimes.add(dueAt);
+            assertThat(wheel.offer(dueAt, dueAt)).isTrue();
+        }
+
+        for (long now = 0; now <= 5_000; now++) {
+            long currentTime = now;
+            wheel.advance(now, dueAt -> {
+                assertThat(dueAt).isEqualTo(currentTime);
+                dispatched.add(dueAt);
+            });
+        }
+
+        assertThat(dispatched).containsExactlyInAnyOrderElementsOf(dueTimes);
+    }
+
+    @Test
+    void givenIdleWheel_whenClockJumpsAhead_thenNewItemsAreScheduledFromTheNewTime() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 10, 0);
+        wheel.advance(1_000_000, dispatched::add);
+
+        wheel.offer(1_000_500L, 1_000_500);
+        wheel.advance(1_000_490, dispatched::add);
+        assertThat(dispatched).isEmpty();
+
+        wheel.advance(1_000_500, dispatched::add);
+        assertThat(dispatched).containsExactly(1_000_500L);
+    }
+
+    @Test
+    void givenFullWheel_whenOffering_thenItemIsRejected() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 0);
+
+        assertThat(wheel.offer(100L, 100)).isTrue();
+        assertThat(wheel.offer(200L, 200)).isTrue();
+        assertThat(wheel.offer(300L, 300)).isFalse();
+
+        wheel.advance(100, dispatched::add);
+        assertThat(wheel.offer(300L, 300)).isTrue();
+    }
+}
@@ -0,0 +1,43 @@
+package com.baeldung.spring.kafka.delay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PartitionOffsetTrackerUnitTest {
+
+    private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+
+    @Test
+    void givenOutOfOrderCompletions_whenComputingCommittableOffset_thenItStopsAtTheFirstGap() {
+        tracker.received(10);
+        tracker.received(11);
+        tracker.received(12);
+
+        tracker.completed(11);
+        tracker.completed(12);
+        assertThat(tracker.committableOffset()).isEqualTo(10);
+
+        tracker.completed(10);
+        assertThat(tracker.committableOffset()).isEqualTo(13);
+    }
+
+    @Test
+    void givenCommittedOffset_whenNothingNewCompleted_thenNothingIsCommittable() {
+        tracker.received(5);
+        tracker.completed(5);
+        tracker.committed(tracker.committableOffset());
+
+        assertThat(tracker.committableOffset()).isEqualTo(-1);
+    }
+
+    @Test
+    void givenRejectedRecord_whenComputingCommittableOffset_thenItIsNotSkipped() {
+        tracker.received(7);
+        tracker.completed(7);
+        tracker.received(8);
+        tracker.rejected(8);
+
+        assertThat(tracker.committableOffset()).isEqualTo(8);
+    }
+}
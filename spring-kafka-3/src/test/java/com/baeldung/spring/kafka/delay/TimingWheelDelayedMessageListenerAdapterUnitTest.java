@@ -0,0 +1,143 @@
+package com.baeldung.spring.kafka.delay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.KafkaConsumerBackoffManager;
+import org.springframework.kafka.listener.MessageListener;
+
+class TimingWheelDelayedMessageListenerAdapterUnitTest {
+
+    private static final String TOPIC = "web.orders";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final List<Long> handled = new CopyOnWriteArrayList<>();
+    private TimingWheelDelayedMessageListenerAdapter<String, String> adapter;
+
+    @AfterEach
+    void close() {
+        adapter.close();
+    }
+
+    @Test
+    void givenDueRecordBehindDelayedOne_whenDispatching_thenPartitionOrderIsKept() {
+        adapter = createAdapter(consumerRecord -> handled.add(consumerRecord.offset()));
+        adapter.setDelayForTopic(TOPIC, Duration.ofMillis(200));
+        long now = System.currentTimeMillis();
+
+        adapter.onMessage(record(0, now), null, null);
+        adapter.onMessage(record(1, now - 1_000), null, null);
+
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> handled.size() == 2);
+        assertThat(handled).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void givenDelegateFails_whenFailedRecordIsRedelivered_thenItsExceptionReachesTheContainer() {
+        IllegalStateException failure = new IllegalStateException("order 1 cannot be shipped");
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        adapter = createAdapter(consumerRecord -> {
+            if (consumerRecord.offset() == 1 && failOnce.getAndSet(false)) {
+                throw failure;
+            }
+            handled.add(consumerRecord.offset());
+        });
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(PARTITION));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        long now = System.currentTimeMillis();
+
+        adapter.onMessage(record(0, now), null, consumer);
+        adapter.onMessage(record(1, now), null, consumer);
+        adapter.onMessage(record(2, now), null, consumer);
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> adapter.getBufferedRecords() == 0 && adapter.getDispatchedRecords() == 2);
+
+        adapter.onMessage(record(3, now), null, consumer);
+        assertThat(consumer.position(PARTITION)).isEqualTo(1);
+        adapter.commitCompleted(consumer);
+        assertThat(consumer.committed(Set.of(PARTITION))).containsEntry(PARTITION, new OffsetAndMetadata(1));
+
+        assertThatThrownBy(() -> adapter.onMessage(record(1, now), null, consumer)).isSameAs(failure);
+
+        adapter.onMessage(record(1, now), null, consumer);
+        adapter.onMessage(record(2, now), null, consumer);
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> handled.size() == 3);
+        assertThat(handled).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void givenDelegateFails_whenConsumerWithoutThatPartitionCommits_thenOnlyTheOwningConsumerRewindsIt() {
+        IllegalStateException failure = new IllegalStateException("order 0 cannot be shipped");
+        adapter = createAdapter(consumerRecord -> {
+            throw failure;
+        });
+        MockConsumer<String, String> owner = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        owner.assign(List.of(PARTITION));
+        owner.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        TopicPartition otherPartition = new TopicPartition(TOPIC, 1);
+        MockConsumer<String, String> other = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        other.assign(List.of(otherPartition));
+        other.updateBeginningOffsets(Map.of(otherPartition, 0L));
+
+        adapter.onMessage(record(0, System.currentTimeMillis()), null, owner);
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> adapter.getDispatchedRecords() == 1);
+
+        adapter.commitCompleted(other);
+        adapter.commitCompleted(owner);
+
+        assertThat(owner.position(PARTITION)).isZero();
+        assertThatThrownBy(() -> adapter.onMessage(record(0, System.currentTimeMillis()), null, owner)).isSameAs(failure);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenCompletedRecords_whenPartitionIsRevoked_thenOffsetsAreCommittedSynchronously() {
+        adapter = createAdapter(consumerRecord -> handled.add(consumerRecord.offset()));
+        Consumer<String, String> consumer = mock(Consumer.class);
+
+        adapter.onMessage(record(0, System.currentTimeMillis()), null, null);
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> handled.size() == 1);
+        adapter.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(1)));
+        verify(consumer, never()).commitAsync(any(), any());
+    }
+
+    private static TimingWheelDelayedMessageListenerAdapter<String, String> createAdapter(MessageListener<String, String> delegate) {
+        return new TimingWheelDelayedMessageListenerAdapter<>(delegate, mock(KafkaConsumerBackoffManager.class), "orders", Duration.ofMillis(10),
+            64, 1_000);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, long timestamp) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, timestamp, TimestampType.CREATE_TIME, 0, 0, "order-" + offset, "order", new RecordHeaders(),
+            Optional.empty());
+    }
+}
@@ -0,0 +1,231 @@
+package com.baeldung.kafka.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Collects items into batches on the caller thread while the previous batch is flushed on a
+ * dedicated thread.
+ * <p>
+ * A batch is sealed when it reaches {@code maxBatchSize} items or when its first item is older than
+ * {@code maxBatchAge}. Only one sealed batch is handed over at a time, so a caller producing faster
+ * than the flush can keep up blocks in {@link #add(List, Runnable)} until the flusher is free again.
+ * The callback passed with the items runs once all of them have been flushed, which makes it the
+ * place to acknowledge the offsets they came from.
+ * <p>
+ * A batch that still fails after {@code maxFlushAttempts} stops the sink: later batches are dropped
+ * without running their callbacks and {@link #add(List, Runnable)} throws. The caller reads the
+ * unacknowledged records again, e.g. by seeking back to the committed offsets, and calls
+ * {@link #reset()} to start over.
+ */
+public class DoubleBufferedBatchSink<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoubleBufferedBatchSink.class);
+
+    private final Batch<T> endOfStream = new Batch<>(0, -1);
+    private final Consumer<List<T>> flushAction;
+    private final int maxBatchSize;
+    private final long maxBatchAgeNanos;
+    private final int maxFlushAttempts;
+    private final Duration retryBackoff;
+    private final SynchronousQueue<Batch<T>> handOff = new SynchronousQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService flusher;
+    private final ScheduledExecutorService ageChecker;
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private final Counter flushedRecords;
+    private final Counter flushFailures;
+
+    private Batch<T> current;
+    private volatile RuntimeException failure;
+    // batches of an older generation were dropped by reset() and are never flushed
+    private volatile int generation;
+
+    public DoubleBufferedBatchSink(String name, Consumer<List<T>> flushAction, int maxBatchSize, Duration maxBatchAge, int maxFlushAttempts,
+        Duration retryBackoff, MeterRegistry meterRegistry) {
+        this.flushAction = flushAction;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchAgeNanos = maxBatchAge.toNanos();
+        this.maxFlushAttempts = maxFlushAttempts;
+        this.retryBackoff = retryBackoff;
+        this.batchSize = DistributionSummary.builder("batch.sink.batch.size")
+            .tag("sink", name)
+            .description("Number of records per flushed batch")
+            .register(meterRegistry);
+        this.flushLatency = Timer.builder("batch.sink.flush.latency")
+            .tag("sink", name)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.flushedRecords = Counter.builder("batch.sink.records")
+            .tag("sink", name)
+            .description("Records flushed, its rate gives the records per second")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("batch.sink.flush.failures")
+            .tag("sink", name)
+            .register(meterRegistry);
+
+        flusher = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name + "-flusher"));
+        flusher.execute(this::flushLoop);
+        ageChecker = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, name + "-age-checker"));
+        long checkIntervalNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), maxBatchAgeNanos / 2);
+        ageChecker.scheduleAtFixedRate(this::sealIfExpired, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Appends the items to the open batch, blocking while a full batch waits for the flusher.
+     *
+     * @param onFlushed runs on the flusher thread once every given item has been flushed
+     * @throws IllegalStateException if an earlier batch could not be flushed
+     */
+    public void add(List<T> items, Runnable onFlushed) throws InterruptedException {
+        checkNotFailed();
+        lock.lockInterruptibly();
+        try {
+            Batch<T> last = current;
+            for (T item : items) {
+                if (current == null) {
+                    current = new Batch<>(maxBatchSize, generation);
+                }
+                current.items.add(item);
+                last = current;
+                if (current.items.size() >= maxBatchSize) {
+                    handOff.put(current);
+                    current = null;
+                }
+            }
+            if (last == null) {
+                onFlushed.run();
+            } else {
+                last.callbacks.add(onFlushed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the open batch and every batch waiting for the flusher without running their callbacks,
+     * and accepts items again after a failed flush. A batch already being flushed completes normally.
+     */
+    public void reset() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            current = null;
+            generation++;
+            failure = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Flushes the open batch and waits for the flusher to finish.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        ageChecker.shutdownNow();
+        lock.lock();
+        try {
+            if (current != null) {
+                handOff.put(current);
+                current = null;
+            }
+            handOff.put(endOfStream);
+        } finally {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void sealIfExpired() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (current != null && System.nanoTime() - current.createdNanos >= maxBatchAgeNanos && handOff.offer(current)) {
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            Batch<T> batch;
+            while ((batch = handOff.take()) != endOfStream) {
+                if (failure == null && batch.generation == generation) {
+                    flush(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+
+    private void flush(Batch<T> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                flushAction.accept(batch.items);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                if (attempt >= maxFlushAttempts) {
+                    logger.error("Giving up on a batch of {} records after {} attempts", batch.items.size(), attempt, e);
+                    failure = e;
+                    return;
+                }
+                logger.warn("Flush attempt {} failed, retrying in {}", attempt, retryBackoff, e);
+                Thread.sleep(retryBackoff.toMillis());
+                continue;
+            }
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.items.size());
+            flushedRecords.increment(batch.items.size());
+            batch.callbacks.forEach(Runnable::run);
+            return;
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("Batch sink stopped after a failed flush, unacknowledged records will be redelivered on restart", failure);
+        }
+    }
+
+    private static final class Batch<T> {
+
+        private final List<T> items;
+        private final List<Runnable> callbacks = new ArrayList<>();
+        private final long createdNanos = System.nanoTime();
+        private final int generation;
+
+        private Batch(int capacity, int generation) {
+            this.items = new ArrayList<>(capacity);
+            this.generation = generation;
+        }
+    }
+}
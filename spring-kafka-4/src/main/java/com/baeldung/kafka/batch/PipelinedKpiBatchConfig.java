@@ -0,0 +1,47 @@
+package com.baeldung.kafka.batch;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@Profile("pipelined-batch")
+public class PipelinedKpiBatchConfig {
+
+    @Bean(destroyMethod = "close")
+    public DoubleBufferedBatchSink<String> kpiBatchSink(DataLakeService dataLakeService, MeterRegistry meterRegistry,
+        @Value("${kpi.sink.max-batch-size:500}") int maxBatchSize, @Value("${kpi.sink.max-batch-age:2s}") Duration maxBatchAge,
+        @Value("${kpi.sink.max-flush-attempts:3}") int maxFlushAttempts, @Value("${kpi.sink.retry-backoff:500ms}") Duration retryBackoff) {
+        return new DoubleBufferedBatchSink<>("kpi", dataLakeService::save, maxBatchSize, maxBatchAge, maxFlushAttempts, retryBackoff, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> pipelinedKpiListenerContainerFactory(ConsumerFactory<String, String> consumerFactory,
+        @Value("${kpi.sink.idle-event-interval:5s}") Duration idleEventInterval) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+
+        // offsets are acknowledged from the flusher thread once the data lake holds the records; batches are
+        // flushed in order, so async acks are not needed, and they would pause the consumer until each poll is acknowledged
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        // lets the listener notice a failed flush when no records arrive
+        containerProperties.setIdleEventInterval(idleEventInterval.toMillis());
+
+        // the listener already sought back to the committed offsets: no retry of the poll, and nothing committed for it
+        CommonLoggingErrorHandler errorHandler = new CommonLoggingErrorHandler();
+        errorHandler.setAckAfterHandle(false);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+}
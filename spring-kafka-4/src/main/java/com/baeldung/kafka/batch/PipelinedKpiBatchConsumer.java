@@ -0,0 +1,81 @@
+package com.baeldung.kafka.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch listener that hands each poll to a {@link DoubleBufferedBatchSink}, so the next poll can
+ * start while the previous batch is written to the data lake. Offsets are only acknowledged after
+ * the records have been flushed.
+ * <p>
+ * When the sink gave up on a batch, the next poll, or the next idle event if no records arrive,
+ * seeks every partition back to its committed offset and resets the sink, so the records that were
+ * never flushed are read again. The poll that found the failure rethrows it, and the container's
+ * error handler neither retries nor commits it.
+ */
+@Component
+@Profile("pipelined-batch")
+public class PipelinedKpiBatchConsumer {
+
+    static final String LISTENER_ID = "kpi-pipelined-batch-listener";
+
+    private final Logger logger = LoggerFactory.getLogger(PipelinedKpiBatchConsumer.class);
+
+    private final DoubleBufferedBatchSink<String> kpiBatchSink;
+
+    public PipelinedKpiBatchConsumer(DoubleBufferedBatchSink<String> kpiBatchSink) {
+        this.kpiBatchSink = kpiBatchSink;
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = "kpi_pipelined_batch_topic", containerFactory = "pipelinedKpiListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment, Consumer<?, ?> consumer) throws InterruptedException {
+        logger.debug("Number of elements in the records: {}", records.size());
+        List<String> values = new ArrayList<>(records.size());
+        records.forEach(record -> values.add(record.value()));
+        try {
+            kpiBatchSink.add(values, acknowledgment::acknowledge);
+        } catch (IllegalStateException e) {
+            rewind(consumer);
+            throw e;
+        }
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void rewindWhenIdle(ListenerContainerIdleEvent event) throws InterruptedException {
+        if (kpiBatchSink.isFailed()) {
+            rewind(event.getConsumer());
+        }
+    }
+
+    // runs on the consumer thread, which owns the consumer
+    private void rewind(Consumer<?, ?> consumer) throws InterruptedException {
+        Set<TopicPartition> assignment = consumer.assignment();
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(assignment);
+        for (TopicPartition partition : assignment) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                consumer.seekToBeginning(Collections.singleton(partition));
+            }
+        }
+        logger.warn("Batch sink failed, reading {} again from the committed offsets {}", assignment, committed);
+        kpiBatchSink.reset();
+    }
+}
@@ -0,0 +1,143 @@
+package com.baeldung.kafka.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DoubleBufferedBatchSinkUnitTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> flushed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void givenMoreItemsThanBatchSize_whenAdding_thenFullBatchesAreFlushedAndAcknowledgedAfterwards() throws InterruptedException {
+        AtomicInteger acknowledged = new AtomicInteger();
+        DoubleBufferedBatchSink<String> sink = new DoubleBufferedBatchSink<>("test", flushed::add, 2, Duration.ofMinutes(1), 1, Duration.ZERO,
+            meterRegistry);
+
+        sink.add(List.of("a", "b", "c"), acknowledged::incrementAndGet);
+        await().atMost(5, TimeUnit.SECONDS)
+            .until(() -> flushed.size() == 1);
+        assertThat(acknowledged).hasValue(0);
+
+        sink.close();
+
+        assertThat(flushed).containsExactly(List.of("a", "b"), List.of("c"));
+        assertThat(acknowledged).hasValue(1);
+        assertThat(meterRegistry.get("batch.sink.records")
+            .counter()
+            .count()).isEqualTo(3);
+        assertThat(meterRegistry.get("batch.sink.batch.size")
+            .summary()
+            .count()).isEqualTo(2);
+    }
+
+    @Test
+    void givenPartialBatch_whenMaxAgeElapses_thenBatchIsFlushedWithoutMoreItems() throws InterruptedException {
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        DoubleBufferedBatchSink<String> sink = new DoubleBufferedBatchSink<>("test", flushed::add, 100, Duration.ofMillis(50), 1, Duration.ZERO,
+            meterRegistry);
+
+        sink.add(List.of("a"), acknowledged::countDown);
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(flushed).containsExactly(List.of("a"));
+        sink.close();
+    }
+
+    @Test
+    void givenSlowFlush_whenAddingSecondFullBatch_thenCallerWaitsForTheFlusher() throws InterruptedException {
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        DoubleBufferedBatchSink<String> sink = new DoubleBufferedBatchSink<>("test", batch -> {
+            awaitQuietly(releaseFlush);
+            flushed.add(batch);
+        }, 1, Duration.ofMinutes(1), 1, Duration.ZERO, meterRegistry);
+
+        sink.add(List.of("a"), () -> {
+        });
+        Thread producer = new Thread(() -> {
+            try {
+                sink.add(List.of("b"), () -> {
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+        });
+        producer.start();
+
+        await().atMost(5, TimeUnit.SECONDS)
+            .until(() -> producer.getState() == Thread.State.WAITING);
+        releaseFlush.countDown();
+        producer.join(5000);
+        sink.close();
+
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(flushed).containsExactly(List.of("a"), List.of("b"));
+    }
+
+    @Test
+    void givenFailingFlush_whenRetriesAreExhausted_thenRecordsAreNotAcknowledgedAndSinkRejectsNewItems() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger acknowledged = new AtomicInteger();
+        DoubleBufferedBatchSink<String> sink = new DoubleBufferedBatchSink<>("test", batch -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("data lake unavailable");
+        }, 1, Duration.ofMinutes(1), 3, Duration.ofMillis(1), meterRegistry);
+
+        sink.add(List.of("a"), acknowledged::incrementAndGet);
+
+        await().atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThatThrownBy(() -> sink.add(List.of("b"), acknowledged::incrementAndGet)).isInstanceOf(IllegalStateException.class));
+        sink.close();
+        assertThat(attempts).hasValue(3);
+        assertThat(acknowledged).hasValue(0);
+    }
+
+    @Test
+    void givenFailedSink_whenReset_thenNewItemsAreFlushedAndDroppedOnesAreNeverAcknowledged() throws InterruptedException {
+        AtomicInteger acknowledged = new AtomicInteger();
+        DoubleBufferedBatchSink<String> sink = new DoubleBufferedBatchSink<>("test", batch -> {
+            if (batch.contains("a")) {
+                throw new IllegalStateException("data lake unavailable");
+            }
+            flushed.add(batch);
+        }, 1, Duration.ofMinutes(1), 1, Duration.ZERO, meterRegistry);
+
+        sink.add(List.of("a"), acknowledged::incrementAndGet);
+        await().atMost(5, TimeUnit.SECONDS)
+            .until(sink::isFailed);
+        assertThatThrownBy(() -> sink.add(List.of("b"), acknowledged::incrementAndGet)).isInstanceOf(IllegalStateException.class);
+
+        sink.reset();
+        CountDownLatch flushedAfterReset = new CountDownLatch(1);
+        sink.add(List.of("c"), flushedAfterReset::countDown);
+
+        assertThat(flushedAfterReset.await(5, TimeUnit.SECONDS)).isTrue();
+        sink.close();
+        assertThat(sink.isFailed()).isFalse();
+        assertThat(flushed).containsExactly(List.of("c"));
+        assertThat(acknowledged).hasValue(0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.baeldung.kafka.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = { "kpi.sink.max-batch-size=10", "kpi.sink.max-batch-age=100ms", "kpi.sink.max-flush-attempts=2", "kpi.sink.retry-backoff=10ms",
+    "kpi.sink.idle-event-interval=500ms" })
+@Import(KafkaKpiConsumerWithBatchConfig.class)
+@ActiveProfiles({ "batch", "pipelined-batch" })
+@EmbeddedKafka(partitions = 1, topics = { PipelinedKpiBatchConsumerLiveTest.TOPIC, "kpi_batch_topic" }, brokerProperties = {
+    "listeners=PLAINTEXT://localhost:9092", "port=9092" })
+class PipelinedKpiBatchConsumerLiveTest {
+
+    static final String TOPIC = "kpi_pipelined_batch_topic";
+    private static final int MESSAGES = 100;
+
+    @Autowired
+    private KpiProducer kpiProducer;
+
+    @SpyBean
+    private DataLakeService dataLakeService;
+
+    @Test
+    void givenDataLakeFailsEveryAttemptOfOneBatch_whenConsuming_thenEveryMessageIsSavedAndCommitted() throws Exception {
+        Set<String> saved = ConcurrentHashMap.newKeySet();
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        doAnswer(invocation -> {
+            List<String> batch = invocation.getArgument(0);
+            if (batch.contains("KPI-50") && failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("data lake unavailable");
+            }
+            saved.addAll(batch);
+            return null;
+        }).when(dataLakeService)
+            .save(anyList());
+
+        for (int i = 1; i <= MESSAGES; i++) {
+            kpiProducer.sendMessage(TOPIC, "KPI-" + i);
+        }
+
+        await().atMost(30, TimeUnit.SECONDS)
+            .until(() -> saved.size() == MESSAGES && committedOffset() == MESSAGES);
+        assertThat(failuresLeft.get()).isNegative();
+    }
+
+    private static long committedOffset() throws Exception {
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"))) {
+            OffsetAndMetadata offset = admin.listConsumerGroupOffsets(PipelinedKpiBatchConsumer.LISTENER_ID)
+                .partitionsToOffsetAndMetadata()
+                .get()
+                .get(new TopicPartition(TOPIC, 0));
+            return offset == null ? 0 : offset.offset();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.baeldung.reactor.flux.parallelflux;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the settings of a parallel pipeline: the scheduler, the number of rails, the prefetch of
+ * {@code parallel(rails, prefetch)} and the queue size of {@code runOn(scheduler, prefetch)}, for CPU-bound, blocking
+ * and mixed work, against the common {@code flatMap(subscribeOn)} alternative.
+ * <p>
+ * Every operation pushes {@value #ELEMENTS} elements through the pipeline. The full matrix is large, so narrow it
+ * down with {@code -p}, and add {@code -prof gc} to report allocations per operation, e.g.
+ * {@code -p scheduler=parallel,virtual -p workload=BLOCKING -prof gc}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ParallelFluxSettingsBenchmark {
+
+    static final int ELEMENTS = 1024;
+
+    public enum Workload {
+        CPU {
+            @Override
+            long apply(int i) {
+                return Fibonacci.fibonacci(18) + i;
+            }
+        },
+        BLOCKING {
+            @Override
+            long apply(int i) {
+                // stands in for a remote call or a JDBC query
+                LockSupport.parkNanos(100_000);
+                return i;
+            }
+        },
+        MIXED {
+            @Override
+            long apply(int i) {
+                return i % 4 == 0 ? BLOCKING.apply(i) : CPU.apply(i);
+            }
+        };
+
+        abstract long apply(int i);
+    }
+
+    @Param({ "parallel", "boundedElastic", "virtual" })
+    public String scheduler;
+
+    @Param({ "1", "4", "16" })
+    public int rails;
+
+    @Param({ "1", "32", "256" })
+    public int prefetch;
+
+    @Param({ "CPU", "BLOCKING", "MIXED" })
+    public Workload workload;
+
+    private Scheduler workers;
+
+    @Setup(Level.Trial)
+    public void createScheduler() {
+        switch (scheduler) {
+        case "parallel":
+            workers = Schedulers.newParallel("bench-parallel");
+            break;
+        case "boundedElastic":
+            workers = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "bench-elastic");
+            break;
+        case "virtual":
+            workers = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "bench-virtual");
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown scheduler " + scheduler);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeScheduler() {
+        workers.dispose();
+    }
+
+    @Benchmark
+    public Long parallelRunOn() {
+        return Flux.range(0, ELEMENTS)
+                .parallel(rails, prefetch)
+                .runOn(workers, prefetch)
+                .map(workload::apply)
+                .reduce(Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Long flatMapSubscribeOn() {
+        return Flux.range(0, ELEMENTS)
+                .flatMap(i -> Mono.fromCallable(() -> workload.apply(i))
+                        .subscribeOn(workers), rails, prefetch)
+                .reduce(Long::sum)
+                .block();
+    }
+}
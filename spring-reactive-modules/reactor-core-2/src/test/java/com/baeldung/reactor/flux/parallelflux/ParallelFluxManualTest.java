@@ -28,6 +28,17 @@ public class ParallelFluxManualTest {
         });
     }
 
+    @Test
+    public void givenParallelFluxSettings_whenComputingBlockingWork_thenRunBenchMarksWithAllocations() throws IOException {
+        Main.main(new String[] {
+                "com.baeldung.reactor.flux.parallelflux.ParallelFluxSettingsBenchmark",
+                "-p", "rails=4",
+                "-p", "prefetch=32",
+                "-p", "workload=BLOCKING",
+                "-prof", "gc"
+        });
+    }
+
     @Test
     public void givenFibonacciIndices_whenComputingWithParallelFlux_thenCorrectResults() {
         ParallelFlux<Long> parallelFluxFibonacci = Flux.just(43, 44, 45, 47, 48)
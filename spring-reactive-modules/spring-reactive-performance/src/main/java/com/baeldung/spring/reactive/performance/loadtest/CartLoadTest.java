@@ -0,0 +1,138 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.baeldung.spring.reactive.performance.KafkaTemplate;
+import com.baeldung.spring.reactive.performance.ProductAddedToCartEvent;
+import com.baeldung.spring.reactive.performance.model.Product;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Drives {@code addProductToCart} of the virtual-thread and the WebFlux {@code ProductService} with the same closed
+ * workload: at most {@code concurrency} requests are in flight, and a new one is submitted as soon as one completes.
+ * Product lookups and discount calls take a simulated amount of time, blocking in the first model and
+ * non-blocking in the second.
+ * <p>
+ * Run with e.g. {@code -Dloadtest.requests=200000 -Dloadtest.concurrency=5000 -Dloadtest.repositoryLatencyMs=20}.
+ */
+public class CartLoadTest {
+
+    public static final String VIRTUAL_THREADS = "virtual-threads";
+    public static final String WEBFLUX = "webflux";
+
+    private final int requests;
+    private final int warmupRequests;
+    private final int concurrency;
+    private final SimulatedLatency latency;
+    private final Duration timeout;
+    private final Map<String, Product> products;
+
+    public CartLoadTest(int requests, int warmupRequests, int concurrency, SimulatedLatency latency, Duration timeout) {
+        this.requests = requests;
+        this.warmupRequests = warmupRequests;
+        this.concurrency = concurrency;
+        this.latency = latency;
+        this.timeout = timeout;
+        this.products = catalog(1_000);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CartLoadTest loadTest = new CartLoadTest(Integer.getInteger("loadtest.requests", 100_000), Integer.getInteger("loadtest.warmupRequests", 20_000),
+            Integer.getInteger("loadtest.concurrency", 1_000),
+            new SimulatedLatency(Duration.ofMillis(Integer.getInteger("loadtest.repositoryLatencyMs", 10)),
+                Duration.ofMillis(Integer.getInteger("loadtest.discountLatencyMs", 5))),
+            Duration.ofMinutes(5));
+
+        List<LoadTestResult> results = new ArrayList<>();
+        for (String model : System.getProperty("loadtest.models", VIRTUAL_THREADS + "," + WEBFLUX)
+            .split(",")) {
+            results.add(loadTest.run(model.trim()));
+        }
+        System.out.println(LoadTestResult.header());
+        results.forEach(System.out::println);
+    }
+
+    public LoadTestResult run(String model) throws InterruptedException {
+        return switch (model) {
+            case VIRTUAL_THREADS -> run(model, kafkaTemplate -> com.baeldung.spring.reactive.performance.virtualthreads.SimulatedCart.create(products, latency,
+                kafkaTemplate));
+            case WEBFLUX -> run(model, kafkaTemplate -> com.baeldung.spring.reactive.performance.webflux.SimulatedCart.create(products, latency, kafkaTemplate));
+            default -> throw new IllegalArgumentException("Unknown model " + model + ", expected " + VIRTUAL_THREADS + " or " + WEBFLUX);
+        };
+    }
+
+    LoadTestResult run(String model, Function<KafkaTemplate<String, ProductAddedToCartEvent>, CartModel> cartFactory) throws InterruptedException {
+        CompletionTracker tracker = new CompletionTracker(concurrency);
+        CartModel cart = cartFactory.apply(tracker);
+        drive(cart, tracker, "warmup", warmupRequests);
+        System.gc();
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long gcCountBefore = gcCount();
+        long start = System.nanoTime();
+
+        boolean finished = drive(cart, tracker, model, requests);
+
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        LatencyRecorder recorder = tracker.recorder();
+        long[] sorted = recorder.sorted();
+        int completed = finished ? requests : recorder.count();
+        double heapUsedMb = ManagementFactory.getMemoryMXBean()
+            .getHeapMemoryUsage()
+            .getUsed() / (1024.0 * 1024);
+        return new LoadTestResult(model, requests, completed, elapsedMillis, completed / (elapsedMillis / 1000), recorder.percentileMillis(sorted, 50),
+            recorder.percentileMillis(sorted, 99), recorder.percentileMillis(sorted, 99.9), threads.getPeakThreadCount(), heapUsedMb,
+            allocated / (1024.0 * 1024) / (elapsedMillis / 1000), gcCount() - gcCountBefore);
+    }
+
+    /**
+     * @return {@code false} if the requests of the phase did not all complete within the timeout
+     */
+    private boolean drive(CartModel cart, CompletionTracker tracker, String phase, int count) throws InterruptedException {
+        tracker.beginPhase(count);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (int i = 0; i < count; i++) {
+                String cartId = phase + "-" + i;
+                if (!tracker.submitted(cartId, deadline - System.nanoTime())) {
+                    return false;
+                }
+                cart.addProductToCart("product-" + (i % products.size()), cartId);
+            }
+            return tracker.remaining()
+                .await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } finally {
+            tracker.endPhase();
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static Map<String, Product> catalog(int size) {
+        Product.Category[] categories = Product.Category.values();
+        Map<String, Product> catalog = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String id = "product-" + i;
+            catalog.put(id, new Product(id, "Product " + i, BigDecimal.valueOf(20 + i % 80), "EUR", categories[i % categories.length]));
+        }
+        return catalog;
+    }
+}
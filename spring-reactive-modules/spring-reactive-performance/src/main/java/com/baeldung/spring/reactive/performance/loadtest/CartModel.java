@@ -0,0 +1,11 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+/**
+ * One implementation of the add-to-cart flow under test. Calls return immediately; the flow signals completion by
+ * publishing its {@link com.baeldung.spring.reactive.performance.ProductAddedToCartEvent}.
+ */
+@FunctionalInterface
+public interface CartModel {
+
+    void addProductToCart(String productId, String cartId);
+}
@@ -0,0 +1,74 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.baeldung.spring.reactive.performance.KafkaTemplate;
+import com.baeldung.spring.reactive.performance.ProductAddedToCartEvent;
+
+/**
+ * Stands in for the Kafka producer at the end of both flows: a published event marks its cart request as done,
+ * records the end-to-end latency and frees a concurrency slot for the next request.
+ */
+class CompletionTracker extends KafkaTemplate<String, ProductAddedToCartEvent> {
+
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Semaphore slots;
+    private volatile LatencyRecorder recorder;
+    private volatile CountDownLatch remaining;
+
+    CompletionTracker(int concurrency) {
+        this.slots = new Semaphore(concurrency);
+    }
+
+    void beginPhase(int requests) {
+        recorder = new LatencyRecorder(requests);
+        remaining = new CountDownLatch(requests);
+    }
+
+    /**
+     * @return {@code false} if no concurrency slot became free within the timeout
+     */
+    boolean submitted(String cartId, long timeoutNanos) throws InterruptedException {
+        if (!slots.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        startTimes.put(cartId, System.nanoTime());
+        return true;
+    }
+
+    /**
+     * Gives up on the requests of the phase that are still in flight and frees their slots, so a timed out phase
+     * does not shrink the concurrency of the next one. Events of abandoned requests arriving later are ignored.
+     */
+    void endPhase() {
+        for (String cartId : startTimes.keySet()) {
+            if (startTimes.remove(cartId) != null) {
+                slots.release();
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String topic, String cartId, ProductAddedToCartEvent event) {
+        Long start = startTimes.remove(cartId);
+        if (start != null) {
+            recorder.record(System.nanoTime() - start);
+            slots.release();
+            remaining.countDown();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    CountDownLatch remaining() {
+        return remaining;
+    }
+
+    LatencyRecorder recorder() {
+        return recorder;
+    }
+}
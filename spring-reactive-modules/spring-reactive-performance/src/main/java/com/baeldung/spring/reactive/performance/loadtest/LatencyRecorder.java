@@ -0,0 +1,45 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps every latency of a run in a preallocated array, so percentiles are exact and recording does not allocate.
+ */
+class LatencyRecorder {
+
+    private final long[] latencies;
+    private final AtomicInteger count = new AtomicInteger();
+
+    LatencyRecorder(int capacity) {
+        this.latencies = new long[capacity];
+    }
+
+    void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = nanos;
+        }
+    }
+
+    int count() {
+        return Math.min(count.get(), latencies.length);
+    }
+
+    /**
+     * @return the latency below which {@code percentile} percent of the recorded requests completed, in milliseconds
+     */
+    double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count());
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,16 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+public record LoadTestResult(String model, int requests, int completed, double elapsedMillis, double throughputPerSecond, double p50Millis,
+    double p99Millis, double p999Millis, int peakPlatformThreads, double heapUsedMb, double allocationRateMbPerSecond, long gcCount) {
+
+    static String header() {
+        return String.format("%-15s %9s %9s %11s %9s %9s %9s %8s %10s %12s %5s", "model", "completed", "req/s", "elapsed ms", "p50 ms", "p99 ms",
+            "p999 ms", "threads", "heap MB", "alloc MB/s", "GCs");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-15s %9d %9.0f %11.0f %9.2f %9.2f %9.2f %8d %10.1f %12.1f %5d", model, completed, throughputPerSecond, elapsedMillis,
+            p50Millis, p99Millis, p999Millis, peakPlatformThreads, heapUsedMb, allocationRateMbPerSecond, gcCount);
+    }
+}
@@ -0,0 +1,9 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+import java.time.Duration;
+
+/**
+ * How long the simulated product lookup and discount call take.
+ */
+public record SimulatedLatency(Duration repository, Duration discount) {
+}
@@ -0,0 +1,68 @@
+package com.baeldung.spring.reactive.performance.virtualthreads;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import com.baeldung.spring.reactive.performance.KafkaTemplate;
+import com.baeldung.spring.reactive.performance.ProductAddedToCartEvent;
+import com.baeldung.spring.reactive.performance.loadtest.CartModel;
+import com.baeldung.spring.reactive.performance.loadtest.SimulatedLatency;
+import com.baeldung.spring.reactive.performance.model.Product;
+
+/**
+ * The virtual-thread {@link ProductService} over an in-memory catalog whose lookups block for a fixed time, like a
+ * database call would.
+ */
+public final class SimulatedCart {
+
+    private SimulatedCart() {
+    }
+
+    public static CartModel create(Map<String, Product> products, SimulatedLatency latency, KafkaTemplate<String, ProductAddedToCartEvent> kafkaTemplate) {
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+            new Class<?>[] { ProductRepository.class }, (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return invokeObjectMethod(proxy, method, args);
+                }
+                if (!method.getName()
+                    .equals("findById")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                sleep(latency.repository());
+                return Optional.ofNullable(products.get((String) args[0]));
+            });
+        DiscountService discountService = new DiscountService() {
+            @Override
+            public BigDecimal discountForProduct(String productId) {
+                sleep(latency.discount());
+                return super.discountForProduct(productId);
+            }
+        };
+        return new ProductService(repository, discountService, kafkaTemplate)::addProductToCart;
+    }
+
+    /**
+     * Answers the {@link Object} methods of the repository proxy, which toString() of a logger or debugger may call.
+     */
+    private static Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "SimulatedProductRepository@" + Integer.toHexString(System.identityHashCode(proxy));
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+}
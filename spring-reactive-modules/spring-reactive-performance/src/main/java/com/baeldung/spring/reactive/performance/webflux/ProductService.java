@@ -15,9 +15,13 @@ class ProductService {
     private final KafkaTemplate<String, ProductAddedToCartEvent> kafkaTemplate;
 
     public ProductService(ProductRepository repository, DiscountService discountService) {
+        this(repository, discountService, new KafkaTemplate<>());
+    }
+
+    ProductService(ProductRepository repository, DiscountService discountService, KafkaTemplate<String, ProductAddedToCartEvent> kafkaTemplate) {
         this.repository = repository;
         this.discountService = discountService;
-        this.kafkaTemplate = new KafkaTemplate<>();
+        this.kafkaTemplate = kafkaTemplate;
     }
 
     public void addProductToCart(String productId, String cartId) {
@@ -0,0 +1,59 @@
+package com.baeldung.spring.reactive.performance.webflux;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.baeldung.spring.reactive.performance.KafkaTemplate;
+import com.baeldung.spring.reactive.performance.ProductAddedToCartEvent;
+import com.baeldung.spring.reactive.performance.loadtest.CartModel;
+import com.baeldung.spring.reactive.performance.loadtest.SimulatedLatency;
+import com.baeldung.spring.reactive.performance.model.Product;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The reactive {@link ProductService} over an in-memory catalog whose lookups complete after a fixed delay, without
+ * blocking a thread in the meantime.
+ */
+public final class SimulatedCart {
+
+    private SimulatedCart() {
+    }
+
+    public static CartModel create(Map<String, Product> products, SimulatedLatency latency, KafkaTemplate<String, ProductAddedToCartEvent> kafkaTemplate) {
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+            new Class<?>[] { ProductRepository.class }, (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return invokeObjectMethod(proxy, method, args);
+                }
+                if (!method.getName()
+                    .equals("findById") || !(args[0] instanceof String)) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return Mono.delay(latency.repository())
+                    .then(Mono.justOrEmpty(products.get((String) args[0])));
+            });
+        DiscountService discountService = new DiscountService() {
+            @Override
+            public Mono<BigDecimal> discountForProduct(String productId) {
+                return Mono.delay(latency.discount())
+                    .then(super.discountForProduct(productId));
+            }
+        };
+        return new ProductService(repository, discountService, kafkaTemplate)::addProductToCart;
+    }
+
+    /**
+     * Answers the {@link Object} methods of the repository proxy, which toString() of a logger or debugger may call.
+     */
+    private static Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "SimulatedProductRepository@" + Integer.toHexString(System.identityHashCode(proxy));
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.baeldung.spring.reactive.performance.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import com.baeldung.spring.reactive.performance.ProductAddedToCartEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CartLoadTestUnitTest {
+
+    private final CartLoadTest loadTest = new CartLoadTest(2_000, 500, 200, new SimulatedLatency(Duration.ofMillis(5), Duration.ofMillis(2)),
+        Duration.ofSeconds(30));
+
+    @ParameterizedTest
+    @ValueSource(strings = { CartLoadTest.VIRTUAL_THREADS, CartLoadTest.WEBFLUX })
+    void givenSimulatedLatency_whenRunningLoadTest_thenEveryRequestCompletesWithinPlausibleLatency(String model) throws InterruptedException {
+        LoadTestResult result = loadTest.run(model);
+
+        assertThat(result.completed()).isEqualTo(2_000);
+        assertThat(result.p50Millis()).isGreaterThanOrEqualTo(5);
+        assertThat(result.p99Millis()).isGreaterThanOrEqualTo(result.p50Millis());
+        assertThat(result.p999Millis()).isGreaterThanOrEqualTo(result.p99Millis());
+        assertThat(result.throughputPerSecond()).isPositive();
+        assertThat(result.peakPlatformThreads()).isPositive();
+    }
+
+    @Test
+    void givenWarmupRequestsThatNeverComplete_whenRunTimesOut_thenTheMeasuredRunStillGetsEverySlot() throws InterruptedException {
+        CartLoadTest timingOut = new CartLoadTest(100, 50, 10, new SimulatedLatency(Duration.ZERO, Duration.ZERO), Duration.ofMillis(500));
+
+        LoadTestResult result = timingOut.run("dropping-warmup", kafkaTemplate -> (productId, cartId) -> {
+            if (!cartId.startsWith("warmup")) {
+                kafkaTemplate.send("cart-events", cartId, new ProductAddedToCartEvent(productId, null, null, cartId));
+            }
+        });
+
+        assertThat(result.completed()).isEqualTo(100);
+    }
+}